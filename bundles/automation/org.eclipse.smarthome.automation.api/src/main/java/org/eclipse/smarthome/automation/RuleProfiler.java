@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
+
+/**
+ * The {@link RuleProfiler} collects execution statistics of rules and their modules, i.e. invocation counts, latency
+ * histograms, the time a triggered rule waited before it was executed and failure counts.
+ * <p>
+ * Profiling is disabled by default. Rule engines are expected to check {@link #isEnabled()} before taking any
+ * timestamps, so that the profiler does not add any measurable overhead as long as it is disabled.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface RuleProfiler {
+
+    /**
+     * Module kind of a {@link Trigger}. Its duration is the time it takes to pass the outputs of the trigger to the
+     * rule.
+     */
+    String TRIGGER = "trigger";
+
+    /**
+     * Module kind of a {@link Condition}.
+     */
+    String CONDITION = "condition";
+
+    /**
+     * Module kind of an {@link Action}.
+     */
+    String ACTION = "action";
+
+    /**
+     * Module kind of a script that is executed as a whole, e.g. the body of a DSL rule.
+     */
+    String SCRIPT = "script";
+
+    /**
+     * Checks whether execution statistics are currently recorded.
+     *
+     * @return {@code true} if the profiler is enabled, {@code false} otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Enables or disables the recording of execution statistics. Already recorded statistics are kept.
+     *
+     * @param enabled {@code true} to enable the profiler, {@code false} to disable it
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Records a single execution of a rule. Calls are ignored while the profiler is disabled.
+     *
+     * @param ruleUID the UID of the executed rule
+     * @param queueWaitNanos the time in nanoseconds between triggering the rule and the start of its execution
+     * @param durationNanos the execution time of the rule in nanoseconds
+     * @param failed {@code true} if the execution has failed
+     */
+    void ruleExecuted(String ruleUID, long queueWaitNanos, long durationNanos, boolean failed);
+
+    /**
+     * Records a single invocation of a module of a rule. Calls are ignored while the profiler is disabled.
+     *
+     * @param ruleUID the UID of the rule the module belongs to
+     * @param moduleId the id of the module within the rule
+     * @param kind the module kind, one of {@link #TRIGGER}, {@link #CONDITION}, {@link #ACTION} or {@link #SCRIPT}
+     * @param durationNanos the execution time of the module in nanoseconds
+     * @param failed {@code true} if the invocation has failed
+     */
+    void moduleExecuted(String ruleUID, String moduleId, String kind, long durationNanos, boolean failed);
+
+    /**
+     * Returns the statistics of all rules that have been executed since the last {@link #reset()}, ordered by their
+     * total execution time, most expensive first.
+     *
+     * @return the statistics of all profiled rules
+     */
+    List<RuleExecutionStatisticsDTO> getStatistics();
+
+    /**
+     * Returns the statistics of a single rule.
+     *
+     * @param ruleUID the UID of the rule
+     * @return the statistics of the rule or {@code null} if it has not been executed since the last {@link #reset()}
+     */
+    @Nullable
+    RuleExecutionStatisticsDTO getStatistics(String ruleUID);
+
+    /**
+     * Discards all recorded statistics.
+     */
+    void reset();
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.dto;
+
+import java.util.Map;
+
+/**
+ * This is a data transfer object that is used to serialize the execution statistics of a module of a rule.
+ *
+ * @author agent - Initial contribution
+ */
+public class ModuleExecutionStatisticsDTO {
+
+    public String id;
+    public String kind;
+    public long executions;
+    public long failures;
+    public double totalMillis;
+    public double averageMillis;
+    public double maxMillis;
+    public Map<String, Long> histogram;
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.internal.commands;
+
+import org.eclipse.smarthome.automation.RuleProfiler;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
+
+/**
+ * This class provides functionality of command {@link AutomationCommands#PROFILE}.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class AutomationCommandProfile extends AutomationCommand {
+
+    private static final String ENABLE = "enable";
+    private static final String DISABLE = "disable";
+    private static final String RESET = "reset";
+
+    /**
+     * This field keeps the specified rule UID or the requested operation on the profiler.
+     */
+    private String parameter;
+
+    public AutomationCommandProfile(String command, String[] parameterValues, int providerType,
+            AutomationCommandsPluggable autoCommands) {
+        super(command, parameterValues, providerType, autoCommands);
+    }
+
+    @Override
+    public String execute() {
+        if (parsingResult != SUCCESS) {
+            return parsingResult;
+        }
+        RuleProfiler profiler = autoCommands.getRuleProfiler();
+        if (profiler == null) {
+            return String.format("%s! RuleProfiler not available!", FAIL);
+        }
+        if (parameter == null) {
+            String state = profiler.isEnabled() ? "Rule profiling is enabled." : "Rule profiling is disabled.";
+            return state + Utils.ROW_END + Printer.printRuleStatistics(profiler.getStatistics());
+        }
+        switch (parameter) {
+            case ENABLE:
+                profiler.setEnabled(true);
+                return SUCCESS;
+            case DISABLE:
+                profiler.setEnabled(false);
+                return SUCCESS;
+            case RESET:
+                profiler.reset();
+                return SUCCESS;
+            default:
+                RuleExecutionStatisticsDTO statistics = profiler.getStatistics(parameter);
+                if (statistics == null) {
+                    return String.format("Rule with id '%s' has not been profiled.", parameter);
+                }
+                return Printer.printRuleStatistics(statistics);
+        }
+    }
+
+    @Override
+    protected String parseOptionsAndParameters(String[] parameterValues) {
+        for (int i = 0; i < parameterValues.length; i++) {
+            if (null == parameterValues[i]) {
+                continue;
+            }
+            if (parameterValues[i].charAt(0) == '-') {
+                if (parameterValues[i].equals(OPTION_ST)) {
+                    st = true;
+                    continue;
+                }
+                return String.format("Unsupported option: %s", parameterValues[i]);
+            }
+            if (parameter == null) {
+                parameter = parameterValues[i];
+                continue;
+            }
+            return String.format("Unsupported parameter: %s", parameterValues[i]);
+        }
+        return SUCCESS;
+    }
+
+}
@@ -20,6 +20,7 @@ import java.util.Locale;
 import java.util.Set;
 
 import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.RuleStatus;
 import org.eclipse.smarthome.automation.parser.ParsingException;
@@ -198,6 +199,11 @@ public abstract class AutomationCommands {
      */
     protected static final String ENABLE_RULE_SHORT = "enr";
 
+    /**
+     * This static field is an identifier of the command {@link AutomationCommandProfile}.
+     */
+    protected static final String PROFILE = "profile";
+
     /**
      * This field holds a reference to the {@link CommandlineModuleTypeProvider} instance.
      */
@@ -243,6 +249,13 @@ public abstract class AutomationCommands {
      */
     public abstract void setEnabled(String uid, boolean isEnabled);
 
+    /**
+     * This method is used to get the {@link RuleProfiler} collecting the execution statistics of the rules.
+     *
+     * @return the {@link RuleProfiler} or {@code null} if it is not available.
+     */
+    public abstract RuleProfiler getRuleProfiler();
+
     /**
      * This method is used for getting the {@link RuleTemplate} corresponding to the specified UID from the manager of
      * the {@link Template}s.
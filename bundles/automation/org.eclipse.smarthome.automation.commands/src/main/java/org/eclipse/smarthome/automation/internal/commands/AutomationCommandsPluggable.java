@@ -20,6 +20,7 @@ import java.util.Locale;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.automation.Rule;
 import org.eclipse.smarthome.automation.RuleManager;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.RuleStatus;
 import org.eclipse.smarthome.automation.RuleStatusInfo;
@@ -37,6 +38,8 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 
 /**
  * This class provides functionality for defining and executing automation commands for importing, exporting, removing
@@ -86,6 +89,11 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
      */
     protected RuleManager ruleManager;
 
+    /**
+     * This field holds the reference to the {@code RuleProfiler}.
+     */
+    protected RuleProfiler ruleProfiler;
+
     /**
      * This field holds the reference to the {@code TemplateRegistry} providing the {@code Template} automation objects.
      */
@@ -155,6 +163,16 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
         this.ruleManager = ruleManager;
     }
 
+    /**
+     * Bind the {@link RuleProfiler} service - called from DS.
+     *
+     * @param ruleProfiler RuleProfiler service.
+     */
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setRuleProfiler(RuleProfiler ruleProfiler) {
+        this.ruleProfiler = ruleProfiler;
+    }
+
     protected void unsetRuleRegistry(RuleRegistry ruleRegistry) {
         this.ruleRegistry = null;
     }
@@ -171,6 +189,12 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
         this.ruleManager = null;
     }
 
+    protected void unsetRuleProfiler(RuleProfiler ruleProfiler) {
+        if (this.ruleProfiler == ruleProfiler) {
+            this.ruleProfiler = null;
+        }
+    }
+
     @Override
     public void execute(String[] args, Console console) {
         if (args.length == 0) {
@@ -227,7 +251,11 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
                         "Enables the Rule, specified by given UID. If enable parameter is missing, "
                                 + "the result of the command will be visualization of enabled/disabled state of the rule, "
                                 + "if its value is \"true\" or \"false\", "
-                                + "the result of the command will be to set enable/disable on the Rule.") });
+                                + "the result of the command will be to set enable/disable on the Rule."),
+                buildCommandUsage(PROFILE + " [-st] <uid>|enable|disable|reset",
+                        "Shows the execution statistics of all profiled Rules, ordered by their total execution time. "
+                                + "If uid is present, shows the statistics of the Rule's modules. "
+                                + "The other parameters enable, disable or reset the rule profiler.") });
     }
 
     @Override
@@ -368,6 +396,9 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
         if (command.equalsIgnoreCase(ENABLE_RULE)) {
             return new AutomationCommandEnableRule(ENABLE_RULE, params, RULE_REGISTRY, this);
         }
+        if (command.equalsIgnoreCase(PROFILE)) {
+            return new AutomationCommandProfile(PROFILE, params, RULE_REGISTRY, this);
+        }
         return null;
     }
 
@@ -421,4 +452,9 @@ public class AutomationCommandsPluggable extends AutomationCommands implements C
         ruleManager.setEnabled(uid, isEnabled);
     }
 
+    @Override
+    public RuleProfiler getRuleProfiler() {
+        return ruleProfiler;
+    }
+
 }
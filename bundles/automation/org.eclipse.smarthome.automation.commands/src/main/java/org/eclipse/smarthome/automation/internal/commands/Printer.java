@@ -13,6 +13,7 @@
 package org.eclipse.smarthome.automation.internal.commands;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,8 @@ import org.eclipse.smarthome.automation.Condition;
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.Rule;
 import org.eclipse.smarthome.automation.RuleStatus;
+import org.eclipse.smarthome.automation.dto.ModuleExecutionStatisticsDTO;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
 import org.eclipse.smarthome.automation.template.RuleTemplate;
 import org.eclipse.smarthome.automation.template.Template;
 import org.eclipse.smarthome.automation.type.ActionType;
@@ -60,6 +63,10 @@ public class Printer {
     private static final int COLUMN_CONFIG_PARAMETER_VALUE = 52;
     private static final int COLUMN_CONFIG_PARAMETER_PROP = 16;
     private static final int COLUMN_CONFIG_PARAMETER_PROP_VALUE = 36;
+    private static final int COLUMN_STATISTICS_UID = 34;
+    private static final int COLUMN_STATISTICS_KIND = 10;
+    private static final int COLUMN_STATISTICS_COUNT = 10;
+    private static final int COLUMN_STATISTICS_MILLIS = 12;
     private static final String ID = "ID";
     private static final String UID = "UID";
     private static final String NAME = "NAME";
@@ -87,6 +94,14 @@ public class Printer {
     private static final String FILTER_CRITERIA = "FILTER CRITERIA ";
     private static final String REQUIRED = "REQUIRED";
     private static final String NOT_REQUIRED = "NOT REQUIRED";
+    private static final String KIND = "KIND";
+    private static final String COUNT = "COUNT";
+    private static final String FAILED = "FAILED";
+    private static final String AVERAGE_MS = "AVG ms";
+    private static final String MAX_MS = "MAX ms";
+    private static final String TOTAL_MS = "TOTAL ms";
+    private static final String QUEUE_MS = "QUEUE ms";
+    private static final String HISTOGRAM = "HISTOGRAM";
 
     /**
      * This method is responsible for printing the list with indexes, UIDs, names and statuses of the {@link Rule}s.
@@ -321,6 +336,65 @@ public class Printer {
         return sb.toString();
     }
 
+    /**
+     * This method is responsible for printing the execution statistics of the profiled {@link Rule}s.
+     *
+     * @param statistics the statistics of the rules, ordered by their total execution time.
+     * @return a string representing the response of the command {@link AutomationCommands#PROFILE}.
+     */
+    static String printRuleStatistics(List<RuleExecutionStatisticsDTO> statistics) {
+        int[] columnWidths = new int[] { COLUMN_STATISTICS_UID, COLUMN_STATISTICS_COUNT, COLUMN_STATISTICS_COUNT,
+                COLUMN_STATISTICS_MILLIS, COLUMN_STATISTICS_MILLIS, COLUMN_STATISTICS_MILLIS };
+        String titleRow = Utils.getRow(columnWidths, Arrays.asList(UID, COUNT, FAILED, AVERAGE_MS, MAX_MS, TOTAL_MS));
+        List<String> rows = new ArrayList<String>();
+        for (RuleExecutionStatisticsDTO rule : statistics) {
+            rows.add(Utils.getRow(columnWidths,
+                    Arrays.asList(rule.ruleUID, String.valueOf(rule.executions), String.valueOf(rule.failures),
+                            formatMillis(rule.averageMillis), formatMillis(rule.maxMillis),
+                            formatMillis(rule.totalMillis))));
+        }
+        return Utils.getTableContent(TABLE_WIDTH, columnWidths, rows, titleRow);
+    }
+
+    /**
+     * This method is responsible for printing the execution statistics of a single {@link Rule} and its modules.
+     *
+     * @param statistics the statistics of the rule.
+     * @return a string representing the response of the command {@link AutomationCommands#PROFILE}.
+     */
+    static String printRuleStatistics(RuleExecutionStatisticsDTO statistics) {
+        int[] columnWidths = new int[] { COLUMN_PROPERTY, COLUMN_PROPERTY_VALUE };
+        List<String> ruleContent = new ArrayList<String>();
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(COUNT, String.valueOf(statistics.executions))));
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(FAILED, String.valueOf(statistics.failures))));
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(AVERAGE_MS, formatMillis(statistics.averageMillis))));
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(MAX_MS, formatMillis(statistics.maxMillis))));
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(TOTAL_MS, formatMillis(statistics.totalMillis))));
+        String queueWait = formatMillis(statistics.averageQueueWaitMillis) + " / "
+                + formatMillis(statistics.maxQueueWaitMillis);
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(QUEUE_MS, queueWait)));
+        ruleContent.add(Utils.getRow(columnWidths, Arrays.asList(HISTOGRAM, statistics.histogram.toString())));
+
+        int[] moduleColumnWidths = new int[] { COLUMN_STATISTICS_UID, COLUMN_STATISTICS_KIND, COLUMN_STATISTICS_COUNT,
+                COLUMN_STATISTICS_COUNT, COLUMN_STATISTICS_MILLIS, COLUMN_STATISTICS_MILLIS };
+        ruleContent.add(Utils.getTableBottom(TABLE_WIDTH));
+        ruleContent.add(Utils.getRow(moduleColumnWidths, Arrays.asList(ID, KIND, COUNT, FAILED, AVERAGE_MS, MAX_MS)));
+        ruleContent.add(Utils.getTableBottom(TABLE_WIDTH));
+        for (ModuleExecutionStatisticsDTO module : statistics.modules) {
+            ruleContent.add(Utils.getRow(moduleColumnWidths,
+                    Arrays.asList(module.id, module.kind, String.valueOf(module.executions),
+                            String.valueOf(module.failures), formatMillis(module.averageMillis),
+                            formatMillis(module.maxMillis))));
+        }
+
+        String titleRow = Utils.getRow(new int[] { TABLE_WIDTH }, Arrays.asList(statistics.ruleUID));
+        return Utils.getTableContent(TABLE_WIDTH, columnWidths, ruleContent, titleRow);
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%.3f", millis);
+    }
+
     /**
      * This method is responsible for printing the strings, representing the auxiliary automation objects.
      *
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.core.internal.profiler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.automation.RuleProfiler;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RuleProfilerImpl}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RuleProfilerImplTest {
+
+    private RuleProfilerImpl profiler;
+
+    @Before
+    public void setUp() {
+        profiler = new RuleProfilerImpl();
+        profiler.activate(Collections.emptyMap());
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertThat(profiler.isEnabled(), is(false));
+        profiler.ruleExecuted("rule", 0, 10, false);
+        assertThat(profiler.getStatistics().isEmpty(), is(true));
+        assertThat(profiler.getStatistics("rule"), is(nullValue()));
+    }
+
+    @Test
+    public void testEnabledByConfiguration() {
+        profiler.modified(Collections.singletonMap("enabled", "true"));
+        assertThat(profiler.isEnabled(), is(true));
+    }
+
+    @Test
+    public void testRuleStatistics() {
+        profiler.setEnabled(true);
+        profiler.ruleExecuted("rule", TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.MILLISECONDS.toNanos(5), false);
+        profiler.ruleExecuted("rule", 0, TimeUnit.MILLISECONDS.toNanos(15), true);
+
+        RuleExecutionStatisticsDTO statistics = profiler.getStatistics("rule");
+        assertThat(statistics.executions, is(2L));
+        assertThat(statistics.failures, is(1L));
+        assertEquals(20, statistics.totalMillis, 0.001);
+        assertEquals(10, statistics.averageMillis, 0.001);
+        assertEquals(15, statistics.maxMillis, 0.001);
+        assertEquals(1, statistics.averageQueueWaitMillis, 0.001);
+        assertEquals(2, statistics.maxQueueWaitMillis, 0.001);
+        assertThat(statistics.histogram.get("<1ms"), is(0L));
+        assertThat(statistics.histogram.get("<10ms"), is(1L));
+        assertThat(statistics.histogram.get("<100ms"), is(1L));
+    }
+
+    @Test
+    public void testModuleStatistics() {
+        profiler.setEnabled(true);
+        profiler.moduleExecuted("rule", "action", RuleProfiler.ACTION, 100, false);
+        profiler.moduleExecuted("rule", "trigger", RuleProfiler.TRIGGER, 0, false);
+        profiler.moduleExecuted("rule", "condition", RuleProfiler.CONDITION, 50, false);
+        profiler.moduleExecuted("rule", "action", RuleProfiler.ACTION, 100, true);
+
+        RuleExecutionStatisticsDTO statistics = profiler.getStatistics("rule");
+        assertThat(statistics.modules.size(), is(3));
+        assertThat(statistics.modules.get(0).kind, is(RuleProfiler.TRIGGER));
+        assertThat(statistics.modules.get(1).kind, is(RuleProfiler.CONDITION));
+        assertThat(statistics.modules.get(2).id, is("action"));
+        assertThat(statistics.modules.get(2).executions, is(2L));
+        assertThat(statistics.modules.get(2).failures, is(1L));
+    }
+
+    @Test
+    public void testOrderedByTotalTimeAndReset() {
+        profiler.setEnabled(true);
+        profiler.ruleExecuted("cheap", 0, 10, false);
+        profiler.ruleExecuted("expensive", 0, 1000, false);
+
+        List<RuleExecutionStatisticsDTO> statistics = profiler.getStatistics();
+        assertThat(statistics.size(), is(2));
+        assertThat(statistics.get(0).ruleUID, is("expensive"));
+        assertThat(statistics.get(1).ruleUID, is("cheap"));
+
+        profiler.reset();
+        assertThat(profiler.getStatistics().isEmpty(), is(true));
+        assertThat(profiler.isEnabled(), is(true));
+    }
+
+}
@@ -37,6 +37,7 @@ import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.ModuleHandlerCallback;
 import org.eclipse.smarthome.automation.Rule;
 import org.eclipse.smarthome.automation.RuleManager;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.RuleStatus;
 import org.eclipse.smarthome.automation.RuleStatusDetail;
@@ -200,6 +201,12 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
      * {@link RuleStatusInfoEvent}.
      */
     private @Nullable EventPublisher eventPublisher;
+
+    /**
+     * Collects execution statistics of the rules, if available and enabled.
+     */
+    private volatile @Nullable RuleProfiler ruleProfiler;
+
     private static final String SOURCE = RuleEngineImpl.class.getSimpleName();
 
     private final ModuleHandlerCallback moduleHandlerCallback = new ModuleHandlerCallback() {
@@ -575,6 +582,27 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
         this.eventPublisher = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setRuleProfiler(RuleProfiler ruleProfiler) {
+        this.ruleProfiler = ruleProfiler;
+    }
+
+    protected void unsetRuleProfiler(RuleProfiler ruleProfiler) {
+        if (this.ruleProfiler == ruleProfiler) {
+            this.ruleProfiler = null;
+        }
+    }
+
+    /**
+     * Returns the {@link RuleProfiler} only if it is enabled, so that no timestamps are taken otherwise.
+     *
+     * @return the enabled {@link RuleProfiler} or {@code null}
+     */
+    private @Nullable RuleProfiler getActiveProfiler() {
+        RuleProfiler profiler = ruleProfiler;
+        return profiler != null && profiler.isEnabled() ? profiler : null;
+    }
+
     /**
      * This method can be used in order to post events through the Eclipse SmartHome events bus. A common
      * use case is to notify event subscribers about the {@link Rule}'s status change.
@@ -994,22 +1022,35 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
             // change state to RUNNING
             setStatus(ruleUID, new RuleStatusInfo(RuleStatus.RUNNING));
         }
+        final RuleProfiler profiler = getActiveProfiler();
+        final long startTime = profiler != null ? System.nanoTime() : 0;
+        boolean failed = false;
         try {
             clearContext(ruleUID);
 
+            final long triggerStartTime = profiler != null ? System.nanoTime() : 0;
             setTriggerOutputs(ruleUID, td);
+            if (profiler != null) {
+                profiler.moduleExecuted(ruleUID, td.getTrigger().getId(), RuleProfiler.TRIGGER,
+                        System.nanoTime() - triggerStartTime, false);
+            }
             final WrappedRule rule = managedRules.get(ruleUID);
-            boolean isSatisfied = calculateConditions(rule);
+            boolean isSatisfied = calculateConditions(rule, profiler);
             if (isSatisfied) {
-                executeActions(rule, true);
+                executeActions(rule, true, profiler);
                 logger.debug("The rule '{}' is executed.", ruleUID);
             } else {
                 logger.debug("The rule '{}' is NOT executed, since it has unsatisfied conditions.", ruleUID);
             }
         } catch (Throwable t) {
+            failed = true;
             logger.error("Failed to execute rule '{}': {}", ruleUID, t.getMessage());
             logger.debug("", t);
         }
+        if (profiler != null) {
+            profiler.ruleExecuted(ruleUID, Math.max(0, startTime - td.getCreationTime()), System.nanoTime() - startTime,
+                    failed);
+        }
         // change state to IDLE only if the rule has not been DISABLED.
         synchronized (this) {
             if (getRuleStatus(ruleUID) == RuleStatus.RUNNING) {
@@ -1034,22 +1075,29 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
             // change state to RUNNING
             setStatus(ruleUID, new RuleStatusInfo(RuleStatus.RUNNING));
         }
+        final RuleProfiler profiler = getActiveProfiler();
+        final long startTime = profiler != null ? System.nanoTime() : 0;
+        boolean failed = false;
         try {
             clearContext(ruleUID);
             if (context != null && !context.isEmpty()) {
                 getContext(ruleUID, null).putAll(context);
             }
             if (considerConditions) {
-                if (calculateConditions(rule)) {
-                    executeActions(rule, false);
+                if (calculateConditions(rule, profiler)) {
+                    executeActions(rule, false, profiler);
                 }
             } else {
-                executeActions(rule, false);
+                executeActions(rule, false, profiler);
             }
             logger.debug("The rule '{}' is executed.", ruleUID);
         } catch (Throwable t) {
+            failed = true;
             logger.error("Failed to execute rule '{}': ", ruleUID, t);
         }
+        if (profiler != null) {
+            profiler.ruleExecuted(ruleUID, 0, System.nanoTime() - startTime, failed);
+        }
         // change state to IDLE only if the rule has not been DISABLED.
         synchronized (this) {
             if (getRuleStatus(ruleUID) == RuleStatus.RUNNING) {
@@ -1146,9 +1194,10 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
      * This method checks if all rule's condition are satisfied or not.
      *
      * @param rule the checked rule
+     * @param profiler the {@link RuleProfiler} that records the evaluation times or {@code null}
      * @return true when all conditions of the rule are satisfied, false otherwise.
      */
-    private boolean calculateConditions(WrappedRule rule) {
+    private boolean calculateConditions(WrappedRule rule, @Nullable RuleProfiler profiler) {
         List<WrappedCondition> conditions = rule.getConditions();
         if (conditions.size() == 0) {
             return true;
@@ -1164,7 +1213,7 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
             final Condition condition = managedCondition.unwrap();
             ConditionHandler tHandler = managedCondition.getModuleHandler();
             Map<String, Object> context = getContext(ruleUID, managedCondition.getConnections());
-            if (tHandler != null && !tHandler.isSatisfied(Collections.unmodifiableMap(context))) {
+            if (tHandler != null && !isSatisfied(ruleUID, condition, tHandler, context, profiler)) {
                 logger.debug("The condition '{}' of rule '{}' is unsatisfied.",
                         new Object[] { condition.getId(), ruleUID });
                 return false;
@@ -1173,12 +1222,33 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
         return true;
     }
 
+    /**
+     * Evaluates a single condition and records its evaluation time if profiling is enabled.
+     */
+    private boolean isSatisfied(String ruleUID, Condition condition, ConditionHandler handler,
+            Map<String, Object> context, @Nullable RuleProfiler profiler) {
+        if (profiler == null) {
+            return handler.isSatisfied(Collections.unmodifiableMap(context));
+        }
+        final long startTime = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean satisfied = handler.isSatisfied(Collections.unmodifiableMap(context));
+            failed = false;
+            return satisfied;
+        } finally {
+            profiler.moduleExecuted(ruleUID, condition.getId(), RuleProfiler.CONDITION, System.nanoTime() - startTime,
+                    failed);
+        }
+    }
+
     /**
      * This method evaluates actions of the {@link Rule} and set their {@link Output}s when they exists.
      *
      * @param rule executed rule.
+     * @param profiler the {@link RuleProfiler} that records the execution times or {@code null}
      */
-    private void executeActions(WrappedRule rule, boolean stopOnFirstFail) {
+    private void executeActions(WrappedRule rule, boolean stopOnFirstFail, @Nullable RuleProfiler profiler) {
         final String ruleUID = rule.getUID();
         final Collection<WrappedAction> actions = rule.getActions();
         if (actions.size() == 0) {
@@ -1195,13 +1265,22 @@ public class RuleEngineImpl implements RuleManager, RegistryChangeListener<Modul
             ActionHandler aHandler = managedAction.getModuleHandler();
             if (aHandler != null) {
                 Map<String, Object> context = getContext(ruleUID, managedAction.getConnections());
+                final long startTime = profiler != null ? System.nanoTime() : 0;
                 try {
                     Map<String, ?> outputs = aHandler.execute(Collections.unmodifiableMap(context));
+                    if (profiler != null) {
+                        profiler.moduleExecuted(ruleUID, action.getId(), RuleProfiler.ACTION,
+                                System.nanoTime() - startTime, false);
+                    }
                     if (outputs != null) {
                         context = getContext(ruleUID, null);
                         updateContext(ruleUID, action.getId(), outputs);
                     }
                 } catch (Throwable t) {
+                    if (profiler != null) {
+                        profiler.moduleExecuted(ruleUID, action.getId(), RuleProfiler.ACTION,
+                                System.nanoTime() - startTime, true);
+                    }
                     String errMessage = "Fail to execute action: " + action.getId();
                     if (stopOnFirstFail) {
                         RuntimeException re = new RuntimeException(errMessage, t);
@@ -81,11 +81,20 @@ public class TriggerHandlerCallbackImpl implements TriggerHandlerCallback {
 
         private final Map<String, ?> outputs;
 
+        private final long creationTime = System.nanoTime();
+
         public TriggerData(Trigger t, Map<String, ?> outputs) {
             this.trigger = t;
             this.outputs = outputs;
         }
 
+        /**
+         * @return the {@link System#nanoTime()} at which the trigger fired, used to measure the queue wait time
+         */
+        public long getCreationTime() {
+            return creationTime;
+        }
+
         @Override
         public void run() {
             re.runRule(ruleUID, this);
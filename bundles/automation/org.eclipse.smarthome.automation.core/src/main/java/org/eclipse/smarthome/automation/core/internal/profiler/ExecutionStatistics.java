@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.core.internal.profiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Lock free accumulator of execution times. Besides count, failures, total and maximum duration it keeps a coarse
+ * latency histogram with logarithmic buckets.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ExecutionStatistics {
+
+    private static final long[] BUCKET_BOUNDS = { TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(10) };
+    private static final String[] BUCKET_LABELS = { "<1ms", "<10ms", "<100ms", "<1s", "<10s", ">=10s" };
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_LABELS.length);
+
+    void record(long durationNanos, boolean failed) {
+        executions.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(durationNanos);
+        maxNanos.accumulateAndGet(durationNanos, Math::max);
+        histogram.incrementAndGet(bucketOf(durationNanos));
+    }
+
+    private static int bucketOf(long durationNanos) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (durationNanos < BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS.length;
+    }
+
+    long getExecutions() {
+        return executions.sum();
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    double getTotalMillis() {
+        return toMillis(getTotalNanos());
+    }
+
+    double getAverageMillis() {
+        long count = getExecutions();
+        return count == 0 ? 0 : toMillis(getTotalNanos()) / count;
+    }
+
+    double getMaxMillis() {
+        return toMillis(maxNanos.get());
+    }
+
+    Map<String, Long> getHistogram() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            result.put(BUCKET_LABELS[i], histogram.get(i));
+        }
+        return result;
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+}
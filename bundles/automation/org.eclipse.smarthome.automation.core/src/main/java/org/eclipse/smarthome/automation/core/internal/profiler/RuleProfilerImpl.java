@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.core.internal.profiler;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.automation.RuleProfiler;
+import org.eclipse.smarthome.automation.dto.ModuleExecutionStatisticsDTO;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default implementation of the {@link RuleProfiler}. All statistics are kept in memory and are updated without
+ * locking, so rules that are executed in parallel do not contend on the profiler.
+ * <p>
+ * The profiler can be enabled permanently by setting the configuration property {@code enabled} of the PID
+ * {@code org.eclipse.smarthome.ruleprofiler}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = RuleProfiler.class, configurationPid = "org.eclipse.smarthome.ruleprofiler")
+public class RuleProfilerImpl implements RuleProfiler {
+
+    private static final String PROPERTY_ENABLED = "enabled";
+    private static final List<String> KIND_ORDER = Arrays.asList(TRIGGER, CONDITION, ACTION, SCRIPT);
+
+    private final Logger logger = LoggerFactory.getLogger(RuleProfilerImpl.class);
+
+    private final Map<String, RuleStatistics> statistics = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    @Activate
+    protected void activate(@Nullable Map<String, @Nullable Object> configuration) {
+        modified(configuration);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, @Nullable Object> configuration) {
+        if (configuration != null) {
+            Object value = configuration.get(PROPERTY_ENABLED);
+            if (value != null) {
+                setEnabled(Boolean.parseBoolean(value.toString()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            logger.info("Rule profiling {}.", enabled ? "enabled" : "disabled");
+        }
+    }
+
+    @Override
+    public void ruleExecuted(String ruleUID, long queueWaitNanos, long durationNanos, boolean failed) {
+        if (enabled) {
+            getRuleStatistics(ruleUID).record(queueWaitNanos, durationNanos, failed);
+        }
+    }
+
+    @Override
+    public void moduleExecuted(String ruleUID, String moduleId, String kind, long durationNanos, boolean failed) {
+        if (enabled) {
+            getRuleStatistics(ruleUID).getModuleStatistics(moduleId, kind).record(durationNanos, failed);
+        }
+    }
+
+    private RuleStatistics getRuleStatistics(String ruleUID) {
+        RuleStatistics ruleStatistics = statistics.get(ruleUID);
+        if (ruleStatistics == null) {
+            ruleStatistics = statistics.computeIfAbsent(ruleUID, uid -> new RuleStatistics());
+        }
+        return ruleStatistics;
+    }
+
+    @Override
+    public List<RuleExecutionStatisticsDTO> getStatistics() {
+        return statistics.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, RuleStatistics> e) -> e.getValue().execution.getTotalNanos()).reversed())
+                .map(e -> e.getValue().toDTO(e.getKey())).collect(Collectors.toList());
+    }
+
+    @Override
+    public @Nullable RuleExecutionStatisticsDTO getStatistics(String ruleUID) {
+        RuleStatistics ruleStatistics = statistics.get(ruleUID);
+        return ruleStatistics == null ? null : ruleStatistics.toDTO(ruleUID);
+    }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+    }
+
+    private static class RuleStatistics {
+
+        private final ExecutionStatistics execution = new ExecutionStatistics();
+        private final LongAdder queueWaitNanos = new LongAdder();
+        private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+        private final Map<String, ModuleStatistics> modules = new ConcurrentHashMap<>();
+
+        void record(long queueWaitNanos, long durationNanos, boolean failed) {
+            this.queueWaitNanos.add(queueWaitNanos);
+            maxQueueWaitNanos.accumulateAndGet(queueWaitNanos, Math::max);
+            execution.record(durationNanos, failed);
+        }
+
+        ExecutionStatistics getModuleStatistics(String moduleId, String kind) {
+            ModuleStatistics moduleStatistics = modules.get(moduleId);
+            if (moduleStatistics == null) {
+                moduleStatistics = modules.computeIfAbsent(moduleId, id -> new ModuleStatistics(kind));
+            }
+            return moduleStatistics.execution;
+        }
+
+        RuleExecutionStatisticsDTO toDTO(String ruleUID) {
+            RuleExecutionStatisticsDTO dto = new RuleExecutionStatisticsDTO();
+            dto.ruleUID = ruleUID;
+            dto.executions = execution.getExecutions();
+            dto.failures = execution.getFailures();
+            dto.totalMillis = execution.getTotalMillis();
+            dto.averageMillis = execution.getAverageMillis();
+            dto.maxMillis = execution.getMaxMillis();
+            dto.averageQueueWaitMillis = dto.executions == 0 ? 0
+                    : ExecutionStatistics.toMillis(queueWaitNanos.sum()) / dto.executions;
+            dto.maxQueueWaitMillis = ExecutionStatistics.toMillis(maxQueueWaitNanos.get());
+            dto.histogram = execution.getHistogram();
+            dto.modules = modules.entrySet().stream().map(e -> e.getValue().toDTO(e.getKey()))
+                    .sorted(Comparator.comparingInt((ModuleExecutionStatisticsDTO m) -> KIND_ORDER.indexOf(m.kind))
+                            .thenComparing(m -> m.id))
+                    .collect(Collectors.toList());
+            return dto;
+        }
+    }
+
+    private static class ModuleStatistics {
+
+        private final String kind;
+        private final ExecutionStatistics execution = new ExecutionStatistics();
+
+        ModuleStatistics(String kind) {
+            this.kind = kind;
+        }
+
+        ModuleExecutionStatisticsDTO toDTO(String moduleId) {
+            ModuleExecutionStatisticsDTO dto = new ModuleExecutionStatisticsDTO();
+            dto.id = moduleId;
+            dto.kind = kind;
+            dto.executions = execution.getExecutions();
+            dto.failures = execution.getFailures();
+            dto.totalMillis = execution.getTotalMillis();
+            dto.averageMillis = execution.getAverageMillis();
+            dto.maxMillis = execution.getMaxMillis();
+            dto.histogram = execution.getHistogram();
+            return dto;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.automation.rest.internal;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.smarthome.automation.RuleProfiler;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
+import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.RESTResource;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * This class acts as a REST resource for the {@link RuleProfiler} and is registered with the Jersey servlet. It is
+ * kept apart from the rules resource, so that it does not hide rules with the UID "profile". The statistics of a
+ * single rule are available from the rules resource.
+ *
+ * @author agent - Initial contribution
+ */
+@Path("rule-profile")
+@Api("rule-profile")
+@Component
+public class RuleProfileResource implements RESTResource {
+
+    private volatile RuleProfiler ruleProfiler;
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setRuleProfiler(RuleProfiler ruleProfiler) {
+        this.ruleProfiler = ruleProfiler;
+    }
+
+    protected void unsetRuleProfiler(RuleProfiler ruleProfiler) {
+        if (this.ruleProfiler == ruleProfiler) {
+            this.ruleProfiler = null;
+        }
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the execution statistics of all profiled rules, most expensive first.", response = RuleExecutionStatisticsDTO.class, responseContainer = "List")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = RuleExecutionStatisticsDTO.class, responseContainer = "List"),
+            @ApiResponse(code = 503, message = "Rule profiler is not available.") })
+    public Response getProfile() {
+        RuleProfiler profiler = ruleProfiler;
+        if (profiler == null) {
+            return JSONResponse.createErrorResponse(Status.SERVICE_UNAVAILABLE, "Rule profiler is not available.");
+        }
+        return Response.ok(profiler.getStatistics()).build();
+    }
+
+    @POST
+    @Path("/enable")
+    @Consumes(MediaType.TEXT_PLAIN)
+    @ApiOperation(value = "Enables or disables the rule profiler.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Content must be 'true' or 'false'."),
+            @ApiResponse(code = 503, message = "Rule profiler is not available.") })
+    public Response enableProfile(@ApiParam(value = "enable", required = true) String enabled) {
+        RuleProfiler profiler = ruleProfiler;
+        if (profiler == null) {
+            return JSONResponse.createErrorResponse(Status.SERVICE_UNAVAILABLE, "Rule profiler is not available.");
+        }
+        String value = enabled == null ? "" : enabled.trim();
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, "Content must be 'true' or 'false'.");
+        }
+        profiler.setEnabled(Boolean.parseBoolean(value));
+        return Response.ok(null, MediaType.TEXT_PLAIN).build();
+    }
+
+    @DELETE
+    @ApiOperation(value = "Discards all recorded rule execution statistics.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 503, message = "Rule profiler is not available.") })
+    public Response resetProfile() {
+        RuleProfiler profiler = ruleProfiler;
+        if (profiler == null) {
+            return JSONResponse.createErrorResponse(Status.SERVICE_UNAVAILABLE, "Rule profiler is not available.");
+        }
+        profiler.reset();
+        return Response.ok(null, MediaType.TEXT_PLAIN).build();
+    }
+
+    @Override
+    public boolean isSatisfied() {
+        return ruleProfiler != null;
+    }
+
+}
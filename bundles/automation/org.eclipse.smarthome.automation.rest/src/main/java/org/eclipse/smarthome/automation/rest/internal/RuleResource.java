@@ -42,6 +42,7 @@ import org.eclipse.smarthome.automation.Condition;
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.Rule;
 import org.eclipse.smarthome.automation.RuleManager;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.Trigger;
 import org.eclipse.smarthome.automation.core.dto.ActionDTOMapper;
@@ -53,6 +54,7 @@ import org.eclipse.smarthome.automation.core.util.RuleBuilder;
 import org.eclipse.smarthome.automation.dto.ActionDTO;
 import org.eclipse.smarthome.automation.dto.ConditionDTO;
 import org.eclipse.smarthome.automation.dto.ModuleDTO;
+import org.eclipse.smarthome.automation.dto.RuleExecutionStatisticsDTO;
 import org.eclipse.smarthome.automation.dto.RuleDTO;
 import org.eclipse.smarthome.automation.dto.TriggerDTO;
 import org.eclipse.smarthome.automation.rest.internal.dto.EnrichedRuleDTO;
@@ -90,6 +92,7 @@ public class RuleResource implements RESTResource {
 
     private RuleRegistry ruleRegistry;
     private RuleManager ruleManager;
+    private RuleProfiler ruleProfiler;
 
     @Context
     private UriInfo uriInfo;
@@ -112,6 +115,17 @@ public class RuleResource implements RESTResource {
         this.ruleManager = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setRuleProfiler(RuleProfiler ruleProfiler) {
+        this.ruleProfiler = ruleProfiler;
+    }
+
+    protected void unsetRuleProfiler(RuleProfiler ruleProfiler) {
+        if (this.ruleProfiler == ruleProfiler) {
+            this.ruleProfiler = null;
+        }
+    }
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get available rules, optionally filtered by tags and/or prefix.", response = EnrichedRuleDTO.class, responseContainer = "Collection")
@@ -290,6 +304,25 @@ public class RuleResource implements RESTResource {
         }
     }
 
+    @GET
+    @Path("/{ruleUID}/profile")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the execution statistics of the rule corresponding to the given UID.", response = RuleExecutionStatisticsDTO.class)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = RuleExecutionStatisticsDTO.class),
+            @ApiResponse(code = 404, message = "Rule corresponding to the given UID has not been profiled."),
+            @ApiResponse(code = 503, message = "Rule profiler is not available.") })
+    public Response getRuleProfile(@PathParam("ruleUID") @ApiParam(value = "ruleUID", required = true) String ruleUID) {
+        RuleProfiler profiler = ruleProfiler;
+        if (profiler == null) {
+            return JSONResponse.createErrorResponse(Status.SERVICE_UNAVAILABLE, "Rule profiler is not available.");
+        }
+        RuleExecutionStatisticsDTO statistics = profiler.getStatistics(ruleUID);
+        if (statistics == null) {
+            return Response.status(Status.NOT_FOUND).build();
+        }
+        return Response.ok(statistics).build();
+    }
+
     @GET
     @Path("/{ruleUID}/triggers")
     @Produces(MediaType.APPLICATION_JSON)
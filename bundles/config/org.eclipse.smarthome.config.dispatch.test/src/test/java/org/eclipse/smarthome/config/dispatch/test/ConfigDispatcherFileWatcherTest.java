@@ -20,6 +20,10 @@ import java.nio.file.Path;
 import java.nio.file.StandardWatchEventKinds;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.smarthome.config.dispatch.internal.ConfigDispatcher;
 import org.eclipse.smarthome.config.dispatch.internal.ConfigDispatcherFileWatcher;
@@ -96,12 +100,47 @@ public class ConfigDispatcherFileWatcherTest {
         verifyZeroInteractions(configDispatcher);
     }
 
+    @Test
+    public void configurationFilesChangedInBatch() {
+        Map<Path, WatchEvent<Path>> events = new LinkedHashMap<>();
+        events.put(new File("created.cfg").toPath(), watchEvent(StandardWatchEventKinds.ENTRY_CREATE));
+        events.put(new File("removed.cfg").toPath(), watchEvent(StandardWatchEventKinds.ENTRY_DELETE));
+        events.put(new File("myPath").toPath(), watchEvent(StandardWatchEventKinds.ENTRY_MODIFY));
+        events.put(new File("modified.cfg").toPath(), watchEvent(StandardWatchEventKinds.ENTRY_MODIFY));
+        configDispatcherFileWatcher.processWatchEvents(new File("").toPath(), events);
+
+        verify(configDispatcher).processConfigFiles(Arrays.asList(new File("created.cfg"), new File("modified.cfg")),
+                Collections.singletonList(new File("removed.cfg").getAbsolutePath()));
+        verifyNoMoreInteractions(configDispatcher);
+    }
+
+    @Test
+    public void nonConfigurationFilesChangedInBatch() {
+        Map<Path, WatchEvent<Path>> events = new LinkedHashMap<>();
+        events.put(new File("myPath").toPath(), watchEvent(StandardWatchEventKinds.ENTRY_CREATE));
+        configDispatcherFileWatcher.processWatchEvents(new File("").toPath(), events);
+
+        verifyZeroInteractions(configDispatcher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private WatchEvent<Path> watchEvent(Kind<Path> kind) {
+        WatchEvent<Path> event = mock(WatchEvent.class);
+        when(event.kind()).thenReturn(kind);
+        return event;
+    }
+
     public class TestConfigDispatcherFileWatcher extends ConfigDispatcherFileWatcher {
 
         @Override
         protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
             super.processWatchEvent(event, kind, path);
         }
+
+        @Override
+        protected void processWatchEvents(Path directory, Map<Path, WatchEvent<Path>> events) {
+            super.processWatchEvents(directory, events);
+        }
     }
 
 }
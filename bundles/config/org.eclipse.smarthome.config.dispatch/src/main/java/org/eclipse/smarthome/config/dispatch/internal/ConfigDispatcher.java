@@ -81,6 +81,7 @@ import com.google.gson.JsonSyntaxException;
  * @author Ana Dimova - Reduce to a single watch thread for all class instances
  * @author Henning Treu - Delete orphan exclusive configuration from configAdmin
  * @author Stefan Triller - Add support for service contexts
+ * @author agent - Batched processing of changed configuration files
  */
 @Component(immediate = true, service = ConfigDispatcher.class)
 public class ConfigDispatcher {
@@ -245,6 +246,31 @@ public class ConfigDispatcher {
         storeCurrentExclusivePIDList();
     }
 
+    /**
+     * Processes the changes of several configuration files at once. The removed files are processed first, so that
+     * the exclusive PIDs of a file that has been renamed are not deleted as orphans, and the orphan PIDs are only
+     * determined once for all the changes.
+     *
+     * @param changedFiles the configuration files which have been created or modified
+     * @param removedPaths the absolute paths of the configuration files which have been removed
+     */
+    public void processConfigFiles(List<File> changedFiles, List<String> removedPaths) {
+        removedPaths.forEach(exclusivePIDMap::setFileRemoved);
+        // Sort the files by modification time,
+        // so that the last modified file is processed last.
+        List<File> files = new ArrayList<>(changedFiles);
+        files.sort(Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            try {
+                internalProcessConfigFile(file);
+            } catch (IOException e) {
+                logger.warn("Could not process config file '{}': {}", file.getName(), e.getMessage());
+            }
+        }
+        processOrphanExclusivePIDs();
+        storeCurrentExclusivePIDList();
+    }
+
     private static String getServicePidNamespace() {
         String progArg = System.getProperty(SERVICEPID_PROG_ARGUMENT);
         if (progArg != null) {
@@ -18,6 +18,9 @@ import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.service.AbstractWatchService;
@@ -31,6 +34,7 @@ import org.osgi.service.component.annotations.Reference;
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Stefan Triller - factored out this code from {@link ConfigDispatcher}
+ * @author agent - Batched processing of changed configuration files
  *
  */
 @Component(immediate = true)
@@ -80,6 +84,26 @@ public class ConfigDispatcherFileWatcher extends AbstractWatchService {
         return new Kind<?>[] { ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY };
     }
 
+    @Override
+    protected void processWatchEvents(Path directory, Map<Path, WatchEvent<Path>> events) {
+        List<File> changedFiles = new ArrayList<>();
+        List<String> removedPaths = new ArrayList<>();
+        events.forEach((path, event) -> {
+            File file = path.toFile();
+            if (file.isHidden() || !file.getName().endsWith(".cfg")) {
+                return;
+            }
+            if (event.kind() == ENTRY_DELETE) {
+                removedPaths.add(file.getAbsolutePath());
+            } else if (!file.isDirectory()) {
+                changedFiles.add(file);
+            }
+        });
+        if (!changedFiles.isEmpty() || !removedPaths.isEmpty()) {
+            configDispatcher.processConfigFiles(changedFiles, removedPaths);
+        }
+    }
+
     @Override
     protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
         if (kind == ENTRY_CREATE || kind == ENTRY_MODIFY) {
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.config.xml.osgi;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.smarthome.config.core.ConfigDescription;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameter.Type;
+import org.eclipse.smarthome.config.core.ConfigDescriptionParameterBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link XmlDocumentCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class XmlDocumentCacheTest {
+
+    private static final String BUNDLE_NAME = "org.eclipse.smarthome.binding.test";
+
+    private File directory;
+    private XmlDocumentCache<List<ConfigDescription>> cache;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("xmldocuments").toFile();
+        cache = new XmlDocumentCache<>(new File(directory, "test"), getClass().getClassLoader());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void shouldReturnTheStoredResults() throws Exception {
+        ConfigDescriptionParameter parameter = ConfigDescriptionParameterBuilder.create("interval", Type.DECIMAL)
+                .withLabel("Interval").withMinimum(new BigDecimal("0.5")).withDefault("60").build();
+        ConfigDescription configDescription = new ConfigDescription(new URI("binding:test"),
+                Arrays.asList(parameter, parameter));
+        cache.put(BUNDLE_NAME, "key", Arrays.asList(Collections.singletonList(configDescription)));
+
+        List<List<ConfigDescription>> results = cache.get(BUNDLE_NAME, "key");
+
+        assertThat(results.size(), is(1));
+        ConfigDescription result = results.get(0).get(0);
+        assertThat(result, is(not(sameInstance(configDescription))));
+        assertThat(result.getUID(), is(new URI("binding:test")));
+        assertThat(result.getParameters().size(), is(2));
+        ConfigDescriptionParameter resultParameter = result.getParameters().get(0);
+        assertThat(resultParameter.getName(), is("interval"));
+        assertThat(resultParameter.getType(), is(Type.DECIMAL));
+        assertThat(resultParameter.getLabel(), is("Interval"));
+        assertThat(resultParameter.getMinimum(), is(new BigDecimal("0.5")));
+        assertThat(resultParameter.getDefault(), is("60"));
+        assertThat(result.getParameters().get(1), is(sameInstance(resultParameter)));
+    }
+
+    @Test
+    public void shouldIgnoreResultsOfOtherKeys() {
+        cache.put(BUNDLE_NAME, "key", Collections.emptyList());
+
+        assertThat(cache.get(BUNDLE_NAME, "otherKey"), is(nullValue()));
+        assertThat(cache.get("org.eclipse.smarthome.binding.other", "key"), is(nullValue()));
+        assertThat(cache.get(BUNDLE_NAME, "key"), is(Collections.emptyList()));
+    }
+
+    @Test
+    public void shouldReplaceTheResults() {
+        cache.put(BUNDLE_NAME, "key", Collections.emptyList());
+        cache.put(BUNDLE_NAME, "newKey", Collections.singletonList(Collections.emptyList()));
+
+        assertThat(cache.get(BUNDLE_NAME, "key"), is(nullValue()));
+        assertThat(cache.get(BUNDLE_NAME, "newKey").size(), is(1));
+        assertThat(new File(directory, "test").list().length, is(1));
+    }
+
+    @Test
+    public void shouldIgnoreCorruptFiles() throws IOException {
+        cache.put(BUNDLE_NAME, "key", Collections.emptyList());
+        File file = new File(new File(directory, "test"), BUNDLE_NAME + ".bin");
+        byte[] content = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(content, content.length - 2));
+
+        assertThat(cache.get(BUNDLE_NAME, "key"), is(nullValue()));
+    }
+
+}
@@ -12,7 +12,10 @@
  */
 package org.eclipse.smarthome.config.xml.osgi;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,20 +29,24 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.config.xml.util.XmlDocumentReader;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.service.ReadyMarker;
 import org.eclipse.smarthome.core.service.ReadyService;
+import org.eclipse.smarthome.core.service.StartupProfiler;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
 import org.osgi.util.tracker.BundleTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +64,8 @@ import org.slf4j.LoggerFactory;
  *         patched by fragments.
  * @author Simon Kaufmann - Tracking of remaining bundles
  * @author Markus Rathgeb - Harden the usage
+ * @author agent - Added cache for the conversion results and timing per bundle
+ * @author agent - Recording of the processing times for the startup report
  *
  * @param <T> the result type of the conversion
  */
@@ -93,6 +102,11 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
 
     public static final String THREAD_POOL_NAME = "file-processing";
 
+    /** The folder in the user data folder which contains the cached conversion results */
+    public static final String CACHE_FOLDER = "cache" + File.separator + "xmldocuments";
+
+    private static final String STARTUP_CATEGORY = "xmlDocuments";
+
     private final Logger logger = LoggerFactory.getLogger(XmlDocumentBundleTracker.class);
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME);
     private final String xmlDirectory;
@@ -103,6 +117,10 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
     private final Set<Bundle> finishedBundles = new CopyOnWriteArraySet<>();
     private final Map<String, ReadyMarker> bundleReadyMarkerRegistrations = new ConcurrentHashMap<>();
     private final String readyMarkerKey;
+    private final XmlDocumentCache<T> cache;
+    private final String readerVersion;
+    private final Map<String, Long> processingTimes = new ConcurrentHashMap<>();
+    private final Set<String> cachedBundles = ConcurrentHashMap.newKeySet();
 
     private final ReadWriteLock lockOpenState = new ReentrantReadWriteLock();
     private OpenState openState = OpenState.CREATED;
@@ -149,6 +167,10 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
         this.xmlDocumentTypeReader = xmlDocumentTypeReader;
         this.xmlDocumentProviderFactory = xmlDocumentProviderFactory;
         this.readyService = readyService;
+        this.cache = new XmlDocumentCache<>(
+                new File(ConfigConstants.getUserDataFolder() + File.separator + CACHE_FOLDER, readyMarkerKey),
+                xmlDocumentTypeReader.getClass().getClassLoader());
+        this.readerVersion = getVersion(FrameworkUtil.getBundle(xmlDocumentTypeReader.getClass()));
     }
 
     private boolean isBundleRelevant(Bundle bundle) {
@@ -388,39 +410,103 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
 
     private void processBundle(Bundle bundle) {
         if (isNotFragment(bundle)) {
+            long start = System.nanoTime();
             Enumeration<URL> xmlDocumentPaths = bundle.findEntries(xmlDirectory, "*.xml", true);
             if (xmlDocumentPaths != null) {
                 Collection<URL> filteredPaths = filterPatches(xmlDocumentPaths, bundle);
                 parseDocuments(bundle, filteredPaths);
             }
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            processingTimes.put(bundle.getSymbolicName(), duration);
+            StartupProfiler.record(STARTUP_CATEGORY, bundle.getSymbolicName() + " (" + xmlDirectory + ")", start);
+            logger.debug("Processed the XML documents in module '{}'{} in {} ms.", bundle.getSymbolicName(),
+                    cachedBundles.contains(bundle.getSymbolicName()) ? " from the cache" : "", duration);
         }
         finishBundle(bundle);
     }
 
     private void parseDocuments(Bundle bundle, Collection<URL> filteredPaths) {
-        int numberOfParsedXmlDocuments = 0;
-        for (URL xmlDocumentURL : filteredPaths) {
-            String moduleName = bundle.getSymbolicName();
-            String xmlDocumentFile = xmlDocumentURL.getFile();
-            logger.debug("Reading the XML document '{}' in module '{}'...", xmlDocumentFile, moduleName);
-            try {
-                T object = xmlDocumentTypeReader.readFromXML(xmlDocumentURL);
-                addingObject(bundle, object);
-                numberOfParsedXmlDocuments++;
-            } catch (Exception ex) {
-                // If we are not open, we can stop here.
-                if (withLock(lockOpenState.readLock(), () -> openState != OpenState.OPENED)) {
-                    return;
+        String moduleName = bundle.getSymbolicName();
+        String cacheKey = getCacheKey(bundle, filteredPaths);
+        List<T> objects = cacheKey != null ? cache.get(moduleName, cacheKey) : null;
+        if (objects != null) {
+            cachedBundles.add(moduleName);
+        } else {
+            cachedBundles.remove(moduleName);
+            objects = new ArrayList<>(filteredPaths.size());
+            boolean complete = true;
+            for (URL xmlDocumentURL : filteredPaths) {
+                String xmlDocumentFile = xmlDocumentURL.getFile();
+                logger.debug("Reading the XML document '{}' in module '{}'...", xmlDocumentFile, moduleName);
+                try {
+                    objects.add(xmlDocumentTypeReader.readFromXML(xmlDocumentURL));
+                } catch (Exception ex) {
+                    // If we are not open, we can stop here.
+                    if (withLock(lockOpenState.readLock(), () -> openState != OpenState.OPENED)) {
+                        return;
+                    }
+                    logger.warn("The XML document '{}' in module '{}' could not be parsed: {}", xmlDocumentFile,
+                            moduleName, ex.getLocalizedMessage(), ex);
+                    complete = false;
                 }
-                logger.warn("The XML document '{}' in module '{}' could not be parsed: {}", xmlDocumentFile, moduleName,
-                        ex.getLocalizedMessage(), ex);
             }
+            // results with errors are not cached, so that the errors are reported again on the next start
+            if (complete && cacheKey != null) {
+                cache.put(moduleName, cacheKey, objects);
+            }
+        }
+        for (T object : objects) {
+            addingObject(bundle, object);
         }
-        if (numberOfParsedXmlDocuments > 0) {
+        if (!objects.isEmpty()) {
             addingFinished(bundle);
         }
     }
 
+    /**
+     * Creates the key the conversion results of the given bundle are cached for. It contains the version of the bundle
+     * and of the bundle providing the reader, together with the time they have been installed or updated. As documents
+     * can be patched by fragments and bundles installed from a directory can change in place, the key also contains
+     * the path, the modification time and the size of each XML document.
+     *
+     * @param bundle the bundle
+     * @param xmlDocumentURLs the URLs of the XML documents of the bundle
+     * @return the key or null, if the XML documents cannot be inspected
+     */
+    private String getCacheKey(Bundle bundle, Collection<URL> xmlDocumentURLs) {
+        StringBuilder key = new StringBuilder().append(xmlDirectory).append(' ').append(readerVersion).append(' ')
+                .append(getVersion(bundle));
+        List<URL> sortedURLs = new ArrayList<>(xmlDocumentURLs);
+        sortedURLs.sort((url1, url2) -> url1.getPath().compareTo(url2.getPath()));
+        for (URL xmlDocumentURL : sortedURLs) {
+            try {
+                URLConnection connection = xmlDocumentURL.openConnection();
+                key.append(' ').append(xmlDocumentURL.getPath()).append('@').append(connection.getLastModified())
+                        .append(':').append(connection.getContentLengthLong());
+                connection.getInputStream().close();
+            } catch (IOException e) {
+                logger.debug("Cannot inspect the XML document '{}': {}", xmlDocumentURL, e.getMessage());
+                return null;
+            }
+        }
+        return key.toString();
+    }
+
+    private static String getVersion(Bundle bundle) {
+        return bundle == null ? "-"
+                : bundle.getSymbolicName() + "_" + bundle.getVersion() + "@" + bundle.getLastModified();
+    }
+
+    /**
+     * Returns the time it took to process the XML documents of each bundle, either by parsing them or by loading the
+     * cached conversion results.
+     *
+     * @return the processing time in milliseconds per bundle symbolic name
+     */
+    public Map<String, Long> getProcessingTimes() {
+        return Collections.unmodifiableMap(processingTimes);
+    }
+
     private void registerReadyMarker(Bundle bundle) {
         String bsn = bundle.getSymbolicName();
         if (!bundleReadyMarkerRegistrations.containsKey(bsn)) {
@@ -446,6 +532,11 @@ public class XmlDocumentBundleTracker<T> extends BundleTracker<Bundle> {
     }
 
     private void loadingCompleted() {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processed the XML documents in {} of {} modules ({} from the cache) in {} ms in total.",
+                    xmlDirectory, processingTimes.size(), cachedBundles.size(),
+                    processingTimes.values().stream().mapToLong(Long::longValue).sum());
+        }
     }
 
     @Override
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.config.xml.osgi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import com.thoughtworks.xstream.io.binary.BinaryStreamReader;
+import com.thoughtworks.xstream.io.binary.BinaryStreamWriter;
+
+/**
+ * The {@link XmlDocumentCache} stores the conversion results of the XML documents of a bundle in a compact binary
+ * form, so that the documents do not have to be parsed again on the next start if the bundle has not changed.
+ * <p>
+ * There is one file per bundle. It starts with the key the results have been stored for, which has to describe the
+ * bundle and its XML documents completely. A file whose key does not match is ignored and overwritten with the next
+ * results.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> the result type of the conversion
+ */
+@NonNullByDefault
+class XmlDocumentCache<T> {
+
+    private static final String FILE_EXTENSION = ".bin";
+
+    private final Logger logger = LoggerFactory.getLogger(XmlDocumentCache.class);
+
+    private final File directory;
+    private final XStream xstream;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param directory the directory the files are stored in, which is created when the first results are stored
+     * @param classLoader the classloader which is able to load the classes of the conversion results
+     */
+    XmlDocumentCache(File directory, ClassLoader classLoader) {
+        this.directory = directory;
+        this.xstream = new XStream(new BinaryStreamDriver());
+        this.xstream.setMode(XStream.ID_REFERENCES);
+        this.xstream.setClassLoader(classLoader);
+    }
+
+    /**
+     * Returns the results which have been stored for the given bundle.
+     *
+     * @param bundleName the symbolic name of the bundle
+     * @param key the key describing the current state of the bundle and its XML documents
+     * @return the results or null, if no results have been stored for the key
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    List<T> get(String bundleName, String key) {
+        File file = getFile(bundleName);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!key.equals(in.readUTF())) {
+                return null;
+            }
+            return (List<T>) xstream.unmarshal(new BinaryStreamReader(in));
+        } catch (IOException | RuntimeException | LinkageError e) {
+            // the classes of the results may have changed in an incompatible way
+            logger.debug("Ignoring the cached XML documents of module '{}': {}", bundleName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the results for the given bundle.
+     *
+     * @param bundleName the symbolic name of the bundle
+     * @param key the key describing the current state of the bundle and its XML documents
+     * @param objects the results
+     */
+    void put(String bundleName, String key, List<T> objects) {
+        File file = getFile(bundleName);
+        File tempFile = new File(directory, bundleName + FILE_EXTENSION + ".tmp" + Thread.currentThread().getId());
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Cannot create the directory " + directory);
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeUTF(key);
+                BinaryStreamWriter writer = new BinaryStreamWriter(out);
+                xstream.marshal(objects, writer);
+                writer.flush();
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Cannot cache the XML documents of module '{}': {}", bundleName, e.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    private File getFile(String bundleName) {
+        return new File(directory, bundleName + FILE_EXTENSION);
+    }
+
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.Metadata;
+import org.eclipse.smarthome.core.items.MetadataKey;
+import org.eclipse.smarthome.core.items.MetadataRegistry;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.persistence.internal.ItemStateSnapshotManager.SnapshotState;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+/**
+ * Tests for the {@link ItemStateSnapshotManager}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemStateSnapshotManagerTest {
+
+    @Rule
+    public TemporaryFolder userDataFolder = new TemporaryFolder();
+
+    private @Mock ItemRegistry itemRegistry;
+    private @Mock MetadataRegistry metadataRegistry;
+
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        System.setProperty(ConfigConstants.USERDATA_DIR_PROG_ARGUMENT, userDataFolder.getRoot().getAbsolutePath());
+        snapshotFile = userDataFolder.getRoot().toPath().resolve(ItemStateSnapshotManager.SNAPSHOT_FOLDER)
+                .resolve(ItemStateSnapshotManager.SNAPSHOT_FILE);
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ConfigConstants.USERDATA_DIR_PROG_ARGUMENT);
+    }
+
+    @Test
+    public void shouldDecodeTheEncodedStates() throws IOException {
+        Map<String, SnapshotState> states = new LinkedHashMap<>();
+        states.put("switch", new SnapshotState("OnOffType", "ON"));
+        states.put("text", new SnapshotState("StringType", "äöü \n"));
+        states.put("empty", new SnapshotState("StringType", ""));
+
+        Map<String, SnapshotState> decoded = ItemStateSnapshotManager
+                .decode(ByteBuffer.wrap(ItemStateSnapshotManager.encode(states)));
+
+        assertThat(decoded.keySet(), is(states.keySet()));
+        for (Map.Entry<String, SnapshotState> entry : states.entrySet()) {
+            assertThat(decoded.get(entry.getKey()).type, is(entry.getValue().type));
+            assertThat(decoded.get(entry.getKey()).value, is(entry.getValue().value));
+        }
+    }
+
+    @Test
+    public void shouldRestoreTheStatesOfTheLastSnapshot() {
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON),
+                item(new NumberItem("number"), new DecimalType(42)));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(new SwitchItem("switch")), is(OnOffType.ON));
+        assertThat(manager.getInitialState(new NumberItem("number")), is(new DecimalType(42)));
+        assertThat(manager.getInitialState(new NumberItem("unknown")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIgnoreACorruptSnapshot() throws IOException {
+        Files.createDirectories(snapshotFile.getParent());
+        Files.write(snapshotFile, "no snapshot".getBytes(StandardCharsets.UTF_8));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(new SwitchItem("switch")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIgnoreATruncatedSnapshot() throws IOException {
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON));
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 1));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(new SwitchItem("switch")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotSnapshotOrRestoreExcludedItems() throws IOException {
+        when(metadataRegistry.get(new MetadataKey(ItemStateSnapshotManager.METADATA_NAMESPACE, "excluded")))
+                .thenReturn(new Metadata(new MetadataKey(ItemStateSnapshotManager.METADATA_NAMESPACE, "excluded"),
+                        "false", null));
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON), item(new SwitchItem("excluded"), OnOffType.ON));
+
+        assertThat(readSnapshot().keySet(), is(Collections.singleton("switch")));
+
+        // an item which has been excluded after the snapshot has been taken is not restored either
+        Map<String, SnapshotState> states = new LinkedHashMap<>(readSnapshot());
+        states.put("excluded", new SnapshotState("OnOffType", "ON"));
+        Files.write(snapshotFile, ItemStateSnapshotManager.encode(states));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(new SwitchItem("excluded")), is(nullValue()));
+        assertThat(manager.getInitialState(new SwitchItem("switch")), is(OnOffType.ON));
+    }
+
+    @Test
+    public void shouldNotSnapshotOrRestoreGroupItems() throws IOException {
+        GroupItem group = new GroupItem("group", new SwitchItem("base"));
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON), item(group, OnOffType.ON));
+
+        assertThat(readSnapshot().keySet(), is(Collections.singleton("switch")));
+
+        Map<String, SnapshotState> states = new LinkedHashMap<>(readSnapshot());
+        states.put("group", new SnapshotState("OnOffType", "ON"));
+        Files.write(snapshotFile, ItemStateSnapshotManager.encode(states));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(new GroupItem("group", new SwitchItem("base"))), is(nullValue()));
+    }
+
+    @Test
+    public void shouldOnlyRestoreItemsWithoutState() {
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON));
+
+        ItemStateSnapshotManager manager = createManager();
+        assertThat(manager.getInitialState(item(new SwitchItem("switch"), OnOffType.OFF)), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotRestoreStatesOnceDisabled() {
+        writeSnapshot(item(new SwitchItem("switch"), OnOffType.ON));
+
+        ItemStateSnapshotManager manager = createManager();
+        manager.modified(Collections.<String, Object> singletonMap(ItemStateSnapshotManager.PROPERTY_ENABLED, "false"));
+
+        assertThat(manager.getInitialState(new SwitchItem("switch")), is(nullValue()));
+        assertThat(Files.exists(snapshotFile), is(false));
+        manager.deactivate();
+        assertThat(Files.exists(snapshotFile), is(false));
+    }
+
+    private GenericItem item(GenericItem item, State state) {
+        item.setState(state);
+        return item;
+    }
+
+    private void writeSnapshot(GenericItem... items) {
+        when(itemRegistry.getItems()).thenReturn(Arrays.<Item> asList(items));
+        ItemStateSnapshotManager manager = createManager();
+        manager.deactivate();
+    }
+
+    private Map<String, SnapshotState> readSnapshot() throws IOException {
+        return ItemStateSnapshotManager.decode(ByteBuffer.wrap(Files.readAllBytes(snapshotFile)));
+    }
+
+    private ItemStateSnapshotManager createManager() {
+        ItemStateSnapshotManager manager = new ItemStateSnapshotManager();
+        manager.setItemRegistry(itemRegistry);
+        manager.setMetadataRegistry(metadataRegistry);
+        manager.activate(Collections.<String, Object> singletonMap(ItemStateSnapshotManager.PROPERTY_INTERVAL, "0"));
+        return manager;
+    }
+
+}
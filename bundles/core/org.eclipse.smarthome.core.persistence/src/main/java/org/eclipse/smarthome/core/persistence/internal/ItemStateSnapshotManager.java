@@ -0,0 +1,381 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.persistence.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.InitialItemStateProvider;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.Metadata;
+import org.eclipse.smarthome.core.items.MetadataKey;
+import org.eclipse.smarthome.core.items.MetadataRegistry;
+import org.eclipse.smarthome.core.service.StartupProfiler;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ItemStateSnapshotManager} periodically writes the states of all items into a snapshot file and restores
+ * them from this file on startup.
+ *
+ * <p>
+ * The states are restored as {@link InitialItemStateProvider}, so that the items come up with their last state
+ * instead of {@link UnDefType#NULL} and the {@link ItemRegistry} sends no state changed events for them. Items which
+ * are added later during the startup, e.g. when their model is loaded, are restored as well, until the
+ * {@link #RESTORE_PERIOD} is over. Only items whose state is still {@link UnDefType#NULL} are restored. The states of
+ * group items are derived from their members and are not part of the snapshot.
+ *
+ * <p>
+ * An item can be excluded from the snapshot by the metadata {@code snapshot="false"}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(immediate = true, service = InitialItemStateProvider.class, configurationPid = "org.eclipse.smarthome.itemstatesnapshot", configurationPolicy = ConfigurationPolicy.OPTIONAL)
+public class ItemStateSnapshotManager implements InitialItemStateProvider {
+
+    static final String SNAPSHOT_FOLDER = "itemstates";
+    static final String SNAPSHOT_FILE = "states.snapshot";
+    static final String METADATA_NAMESPACE = "snapshot";
+
+    static final long RESTORE_PERIOD = TimeUnit.MINUTES.toNanos(15);
+
+    protected static final String PROPERTY_ENABLED = "enabled";
+    protected static final String PROPERTY_INTERVAL = "interval";
+
+    private static final int DEFAULT_INTERVAL = 60;
+    private static final int MAGIC = 0x45534853;
+    private static final int VERSION = 1;
+    private static final long MAX_FILE_SIZE = 64 * 1024 * 1024;
+    private static final String STARTUP_CATEGORY = "itemStates";
+
+    private final Logger logger = LoggerFactory.getLogger(ItemStateSnapshotManager.class);
+
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    private @NonNullByDefault({}) ItemRegistry itemRegistry;
+    private @NonNullByDefault({}) MetadataRegistry metadataRegistry;
+
+    private final Map<String, SnapshotState> pendingStates = new ConcurrentHashMap<>();
+    private volatile long restoreDeadline = System.nanoTime();
+
+    private @Nullable Path snapshotFile;
+    private byte[] lastSnapshot = new byte[0];
+    private volatile boolean enabled = true;
+    private int interval = DEFAULT_INTERVAL;
+    private @Nullable ScheduledFuture<?> job;
+
+    @Activate
+    protected void activate(Map<String, @Nullable Object> configuration) {
+        readConfiguration(configuration);
+        snapshotFile = Paths.get(ConfigConstants.getUserDataFolder(), SNAPSHOT_FOLDER, SNAPSHOT_FILE);
+        if (enabled) {
+            restoreDeadline = System.nanoTime() + RESTORE_PERIOD;
+            pendingStates.putAll(load());
+        } else {
+            deleteSnapshot();
+        }
+        schedule();
+    }
+
+    @Modified
+    protected synchronized void modified(Map<String, @Nullable Object> configuration) {
+        boolean wasEnabled = enabled;
+        readConfiguration(configuration);
+        if (wasEnabled && !enabled) {
+            pendingStates.clear();
+            deleteSnapshot();
+        }
+        schedule();
+    }
+
+    @Deactivate
+    protected synchronized void deactivate() {
+        ScheduledFuture<?> job = this.job;
+        if (job != null) {
+            job.cancel(false);
+            this.job = null;
+        }
+        if (enabled) {
+            takeSnapshot();
+        }
+        pendingStates.clear();
+    }
+
+    private void readConfiguration(Map<String, @Nullable Object> configuration) {
+        Object valueEnabled = configuration.get(PROPERTY_ENABLED);
+        if (valueEnabled != null) {
+            enabled = Boolean.parseBoolean(valueEnabled.toString());
+        }
+
+        Object valueInterval = configuration.get(PROPERTY_INTERVAL);
+        if (valueInterval != null) {
+            try {
+                interval = Integer.parseInt(valueInterval.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid snapshot interval '{}', it must be an integer.", valueInterval);
+            }
+        }
+    }
+
+    private synchronized void schedule() {
+        ScheduledFuture<?> job = this.job;
+        if (job != null) {
+            job.cancel(false);
+            this.job = null;
+        }
+        if (enabled && interval > 0) {
+            this.job = scheduler.scheduleWithFixedDelay(this::takeSnapshot, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public @Nullable State getInitialState(Item item) {
+        if (!enabled || pendingStates.isEmpty()) {
+            return null;
+        }
+        if (System.nanoTime() - restoreDeadline > 0) {
+            pendingStates.clear();
+            return null;
+        }
+        SnapshotState snapshotState = pendingStates.remove(item.getName());
+        if (snapshotState == null || item instanceof GroupItem || !UnDefType.NULL.equals(item.getState())
+                || isExcluded(item)) {
+            return null;
+        }
+        State state = snapshotState.toState(item);
+        if (state != null) {
+            logger.trace("Restoring state '{}' of item '{}' from the snapshot.", state, item.getName());
+        } else {
+            logger.debug("State '{}' of type '{}' from the snapshot is not accepted by item '{}'.",
+                    snapshotState.value, snapshotState.type, item.getName());
+        }
+        return state;
+    }
+
+    private boolean isExcluded(Item item) {
+        Metadata metadata = metadataRegistry.get(new MetadataKey(METADATA_NAMESPACE, item.getName()));
+        return metadata != null && "false".equalsIgnoreCase(metadata.getValue().trim());
+    }
+
+    private synchronized void takeSnapshot() {
+        Path file = snapshotFile;
+        if (file == null || !enabled) {
+            return;
+        }
+        try {
+            byte[] snapshot = encode(collectStates());
+            if (Arrays.equals(snapshot, lastSnapshot)) {
+                return;
+            }
+            Files.createDirectories(file.getParent());
+            Path tempFile = file.resolveSibling(SNAPSHOT_FILE + ".tmp");
+            Files.write(tempFile, snapshot);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            lastSnapshot = snapshot;
+            logger.debug("Wrote the snapshot of the item states with {} bytes.", snapshot.length);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write the snapshot of the item states to '{}': {}", file, e.getMessage());
+        }
+    }
+
+    // a snapshot which is not updated anymore must not be restored once the snapshot is enabled again
+    private void deleteSnapshot() {
+        Path file = snapshotFile;
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+            lastSnapshot = new byte[0];
+        } catch (IOException e) {
+            logger.warn("Could not delete the snapshot of the item states '{}': {}", file, e.getMessage());
+        }
+    }
+
+    private Map<String, SnapshotState> collectStates() {
+        Map<String, SnapshotState> states = new LinkedHashMap<>();
+        for (Item item : itemRegistry.getItems()) {
+            State state = item.getState();
+            if (item instanceof GroupItem || state instanceof UnDefType || isExcluded(item)) {
+                continue;
+            }
+            states.put(item.getName(), new SnapshotState(state.getClass().getSimpleName(), state.toFullString()));
+        }
+        // keep the states of items which have not been added yet, as long as they might still be restored
+        if (System.nanoTime() - restoreDeadline < 0) {
+            pendingStates.forEach(states::putIfAbsent);
+        }
+        return states;
+    }
+
+    private Map<String, SnapshotState> load() {
+        Path file = snapshotFile;
+        if (file == null) {
+            return Collections.emptyMap();
+        }
+        long start = System.nanoTime();
+        // the file is read in one go; it is not mapped, as a mapped file cannot be replaced on all platforms
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_FILE_SIZE) {
+                logger.warn("Ignoring the snapshot of the item states, as it is too large: {} bytes", size);
+                return Collections.emptyMap();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full
+            }
+            buffer.flip();
+            Map<String, SnapshotState> states = decode(buffer);
+            StartupProfiler.record(STARTUP_CATEGORY, file.getFileName() + " (" + states.size() + " states)", start);
+            logger.debug("Read {} item states from the snapshot.", states.size());
+            return states;
+        } catch (NoSuchFileException e) {
+            return Collections.emptyMap();
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            logger.warn("Could not read the snapshot of the item states from '{}': {}", file, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    static byte[] encode(Map<String, SnapshotState> states) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(states.size());
+            for (Map.Entry<String, SnapshotState> entry : states.entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue().type);
+                writeString(out, entry.getValue().value);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static Map<String, SnapshotState> decode(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException("Unknown format of the snapshot");
+        }
+        int count = buffer.getInt();
+        Map<String, SnapshotState> states = new ConcurrentHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            String type = readString(buffer);
+            String value = readString(buffer);
+            states.put(name, new SnapshotState(type, value));
+        }
+        return states;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length of a string in the snapshot: " + length);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    @Reference
+    protected void setItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = itemRegistry;
+    }
+
+    protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = null;
+    }
+
+    @Reference
+    protected void setMetadataRegistry(MetadataRegistry metadataRegistry) {
+        this.metadataRegistry = metadataRegistry;
+    }
+
+    protected void unsetMetadataRegistry(MetadataRegistry metadataRegistry) {
+        this.metadataRegistry = null;
+    }
+
+    /**
+     * The state of an item in the snapshot, i.e. the simple name of its type and its full string representation.
+     */
+    static class SnapshotState {
+
+        final String type;
+        final String value;
+
+        SnapshotState(String type, String value) {
+            this.type = type;
+            this.value = value;
+        }
+
+        @Nullable
+        State toState(Item item) {
+            for (Class<? extends State> acceptedType : item.getAcceptedDataTypes()) {
+                if (acceptedType.getSimpleName().equals(type)) {
+                    return TypeParser.parseState(Collections.singletonList(acceptedType), value);
+                }
+            }
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.cache;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the {@link LRUCache} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class LRUCacheTest {
+
+    private LRUCache<String, String> subject;
+
+    @Before
+    public void setUp() {
+        subject = new LRUCache<>(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new LRUCache<String, String>(0);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        assertNull(subject.get("a"));
+        subject.put("a", "1");
+        assertEquals("1", subject.get("a"));
+        assertEquals(1, subject.size());
+
+        subject.remove("a");
+        assertNull(subject.get("a"));
+
+        subject.put("a", "1");
+        subject.clear();
+        assertEquals(0, subject.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        subject.put("a", "1");
+        subject.put("b", "2");
+        // Access "a", so that "b" becomes the least recently used entry
+        assertEquals("1", subject.get("a"));
+        subject.put("c", "3");
+
+        assertEquals(2, subject.size());
+        assertEquals("1", subject.get("a"));
+        assertNull(subject.get("b"));
+        assertEquals("3", subject.get("c"));
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("A", subject.computeIfAbsent("a", k -> {
+            calls.incrementAndGet();
+            return k.toUpperCase();
+        }));
+        assertEquals("A", subject.computeIfAbsent("a", k -> {
+            calls.incrementAndGet();
+            return k.toUpperCase();
+        }));
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.items;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.events.ItemBatchEntry;
+import org.eclipse.smarthome.core.items.events.ItemBatchResult;
+import org.eclipse.smarthome.core.items.events.ItemBatchResult.Status;
+import org.eclipse.smarthome.core.items.events.ItemCommandEvent;
+import org.eclipse.smarthome.core.items.events.ItemStateEvent;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the {@link ItemBatchPublisherImpl}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemBatchPublisherImplTest {
+
+    private ItemBatchPublisherImpl batchPublisher;
+    private EventPublisher eventPublisher;
+
+    @Before
+    public void setup() {
+        ItemRegistry itemRegistry = mock(ItemRegistry.class);
+        when(itemRegistry.get("Light")).thenReturn(new SwitchItem("Light"));
+        when(itemRegistry.get("Temperature")).thenReturn(new NumberItem("Temperature"));
+        eventPublisher = mock(EventPublisher.class);
+
+        batchPublisher = new ItemBatchPublisherImpl();
+        batchPublisher.setItemRegistry(itemRegistry);
+        batchPublisher.setEventPublisher(eventPublisher);
+    }
+
+    @Test
+    public void shouldPostTheEventsInTheOrderOfTheEntries() {
+        List<ItemBatchResult> results = batchPublisher.publish(Arrays.asList(ItemBatchEntry.command("Light", "OFF"),
+                ItemBatchEntry.state("Temperature", "21.5"), ItemBatchEntry.command("Light", OnOffType.ON)), "test");
+
+        assertThat(results.size(), is(3));
+        for (ItemBatchResult result : results) {
+            assertThat(result.getStatus(), is(Status.ACCEPTED));
+            assertThat(result.getMessage(), is(nullValue()));
+        }
+
+        ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+        verify(eventPublisher, times(3)).post(captor.capture());
+        List<Event> events = captor.getAllValues();
+        assertThat(((ItemCommandEvent) events.get(0)).getItemCommand(), is(OnOffType.OFF));
+        assertThat(((ItemStateEvent) events.get(1)).getItemState(), is(new DecimalType("21.5")));
+        assertThat(((ItemCommandEvent) events.get(2)).getItemCommand(), is(OnOffType.ON));
+        assertThat(events.get(0).getSource(), is("test"));
+    }
+
+    @Test
+    public void shouldReportTheResultOfEachEntry() {
+        List<ItemBatchResult> results = batchPublisher.publish(Arrays.asList(ItemBatchEntry.command("Unknown", "ON"),
+                ItemBatchEntry.command("Light", "UP"), ItemBatchEntry.state("Temperature", "warm"),
+                ItemBatchEntry.command("Light", "ON")), null);
+
+        assertThat(results.get(0).getStatus(), is(Status.ITEM_NOT_FOUND));
+        assertThat(results.get(1).getStatus(), is(Status.INVALID_VALUE));
+        assertThat(results.get(2).getStatus(), is(Status.INVALID_VALUE));
+        assertThat(results.get(2).getMessage(), is("State could not be parsed: warm"));
+        assertThat(results.get(3).getStatus(), is(Status.ACCEPTED));
+        verify(eventPublisher, times(1)).post(any(ItemCommandEvent.class));
+    }
+
+    @Test
+    public void shouldContinueWhenAnEventCannotBePosted() {
+        doThrow(new IllegalStateException("The event bus module is not available!")).doNothing().when(eventPublisher)
+                .post(any());
+
+        List<ItemBatchResult> results = batchPublisher.publish(
+                Arrays.asList(ItemBatchEntry.command("Light", "ON"), ItemBatchEntry.state("Temperature", "20")), null);
+
+        assertThat(results.get(0).getStatus(), is(Status.FAILED));
+        assertThat(results.get(0).getMessage(), is("The event bus module is not available!"));
+        assertThat(results.get(1).isAccepted(), is(true));
+    }
+
+}
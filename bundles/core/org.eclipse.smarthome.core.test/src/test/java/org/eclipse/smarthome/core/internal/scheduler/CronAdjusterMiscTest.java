@@ -91,4 +91,9 @@ public class CronAdjusterMiscTest {
     public void testAboveMax() {
         new CronAdjuster("99 * * * * *");
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroStep() {
+        new CronAdjuster("0/0 * * * * *");
+    }
 }
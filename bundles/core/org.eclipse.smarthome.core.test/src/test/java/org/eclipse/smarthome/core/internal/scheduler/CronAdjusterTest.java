@@ -95,6 +95,11 @@ public class CronAdjusterTest {
                 { JAN_1ST_2015, "0 15 10 L * ?",
                         new String[] { "2015-01-31T10:15", "2015-02-28T10:15", "2015-03-31T10:15" } },
 
+                // Fire at midnight on the 31st, skipping months with less days
+                { JAN_1ST_2015, "0 0 0 31 * ?",
+                        new String[] { "2015-01-31T00:00", "2015-03-31T00:00", "2015-05-31T00:00", "2015-07-31T00:00",
+                                "2015-08-31T00:00" } },
+
                 // Fire at 10:15am on the 15th day of every month
                 { JAN_1ST_2015, "0 15 10 15 * ?",
                         new String[] { "2015-01-15T10:15", "2015-02-15T10:15", "2015-03-15T10:15" } },
@@ -141,6 +146,8 @@ public class CronAdjusterTest {
 
                 { JAN_1ST_2000, "0 0 0 1 FEB,APR,JUN ?",
                         new String[] { "2000-02-01T00:00", "2000-04-01T00:00", "2000-06-01T00:00" } },
+                { JAN_1ST_2000, "0 0 0 29 FEB ?",
+                        new String[] { "2000-02-29T00:00", "2004-02-29T00:00", "2008-02-29T00:00" } },
                 { JAN_1ST_2000, "0 0 0 1 FEB ?",
                         new String[] { "2000-02-01T00:00", "2001-02-01T00:00", "2002-02-01T00:00" } },
                 { JAN_1ST_2000, "0 0 0 * FEB ?",
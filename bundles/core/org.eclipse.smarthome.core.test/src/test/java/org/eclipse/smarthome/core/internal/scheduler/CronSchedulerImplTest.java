@@ -16,6 +16,7 @@ import static org.junit.Assert.*;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -91,4 +92,50 @@ public class CronSchedulerImplTest {
         s.acquire();
         cronScheduler.removeSchedule(cronJob);
     }
+
+    @Test(timeout = 5000)
+    public void testSharedSchedule() throws Exception {
+        Semaphore s1 = new Semaphore(0);
+        Semaphore s2 = new Semaphore(0);
+        ScheduledCompletableFuture<Void> future1 = cronScheduler.schedule(() -> s1.release(), "* * * * * *");
+        ScheduledCompletableFuture<Void> future2 = cronScheduler.schedule(() -> s2.release(), "* * * * * *");
+
+        s1.acquire();
+        s2.acquire();
+        future1.cancel(true);
+        // wait for a run that might have been in progress while cancelling
+        s2.acquire();
+        s1.drainPermits();
+        s2.acquire();
+        assertEquals("Cancelled job should not run anymore", 0, s1.availablePermits());
+        assertFalse("Cancelling one job should not stop the other job", future2.isDone());
+        future2.cancel(true);
+    }
+
+    @Test(timeout = 5000)
+    public void testSharedScheduleBlockingJob() throws Exception {
+        Semaphore blocking = new Semaphore(0);
+        Semaphore s = new Semaphore(0);
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledCompletableFuture<Void> future1 = cronScheduler.schedule(() -> {
+            blocking.release();
+            release.await();
+        }, "* * * * * *");
+        ScheduledCompletableFuture<Void> future2 = cronScheduler.schedule(() -> s.release(), "* * * * * *");
+
+        try {
+            blocking.acquire();
+            long now = System.currentTimeMillis();
+            s.drainPermits();
+            s.acquire(2);
+            long diff = System.currentTimeMillis() - now;
+            assertTrue("Job should run every second while the other job blocks but took: " + diff, diff < 2500);
+            assertEquals("Blocking job should not be started again while it is running", 0,
+                    blocking.availablePermits());
+        } finally {
+            release.countDown();
+            future1.cancel(true);
+            future2.cancel(true);
+        }
+    }
 }
@@ -76,6 +76,25 @@ public class GenericItemTest {
         verifyNoMoreInteractions(publisher);
     }
 
+    @Test
+    public void testInitialStateIsSetWithoutEvents() {
+        EventPublisher publisher = mock(EventPublisher.class);
+        StateChangeListener listener = mock(StateChangeListener.class);
+
+        TestItem item = new TestItem("member1");
+        item.setEventPublisher(publisher);
+        item.addStateChangeListener(listener);
+
+        assertTrue(item.setInitialState(OnOffType.ON));
+        assertEquals(OnOffType.ON, item.getState());
+
+        // a state which has been set before is not overwritten
+        assertFalse(item.setInitialState(OnOffType.OFF));
+        assertEquals(OnOffType.ON, item.getState());
+
+        verifyZeroInteractions(publisher, listener);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testAddGroupNameWithNull() {
         TestItem item = new TestItem("member1");
@@ -31,13 +31,16 @@ import org.eclipse.smarthome.core.i18n.UnitProvider;
 import org.eclipse.smarthome.core.internal.items.ItemRegistryImpl;
 import org.eclipse.smarthome.core.items.events.ItemAddedEvent;
 import org.eclipse.smarthome.core.items.events.ItemRemovedEvent;
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
 import org.eclipse.smarthome.core.items.events.ItemUpdatedEvent;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.library.items.NumberItem;
 import org.eclipse.smarthome.core.library.items.StringItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.service.CommandDescriptionService;
 import org.eclipse.smarthome.core.service.StateDescriptionService;
+import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.test.java.JavaTest;
 import org.eclipse.smarthome.test.storage.VolatileStorageService;
 import org.junit.Before;
@@ -407,4 +410,39 @@ public class ItemRegistryImplTest extends JavaTest {
         verify(item).setCommandDescriptionService(null);
     }
 
+    @Test
+    public void assertInitialStatesAreSetWithoutEvents() {
+        ((ItemRegistryImpl) itemRegistry)
+                .setInitialItemStateProvider(item -> item instanceof SwitchItem ? OnOffType.ON : null);
+
+        GenericItem item = new SwitchItem("Item1");
+        itemProvider.add(item);
+
+        assertThat(item.getState(), is(OnOffType.ON));
+        assertThat(itemRegistry.get(ITEM_NAME).getState(), is(OnOffType.ON));
+        assertThat(itemRegistry.get(CAMERA_ITEM_NAME3).getState(), is(UnDefType.NULL));
+        verify(eventPublisher, never()).post(org.mockito.ArgumentMatchers.isA(ItemStateChangedEvent.class));
+        assertThat(item.eventPublisher, is(eventPublisher));
+        assertThat(((GenericItem) itemRegistry.get(ITEM_NAME)).eventPublisher, is(eventPublisher));
+    }
+
+    @Test
+    public void assertInitialStatesDoNotOverwriteConcurrentUpdates() {
+        GenericItem item = new SwitchItem("Item1");
+        itemProvider.add(item);
+
+        // the item is updated after the provider has checked its state, but before the initial state is set
+        ((ItemRegistryImpl) itemRegistry).setInitialItemStateProvider(i -> {
+            if (i == item) {
+                item.setState(OnOffType.OFF);
+                return OnOffType.ON;
+            }
+            return null;
+        });
+
+        assertThat(item.getState(), is(OnOffType.OFF));
+        verify(eventPublisher).post(org.mockito.ArgumentMatchers.isA(ItemStateChangedEvent.class));
+        assertThat(itemRegistry.get(ITEM_NAME).getState(), is(UnDefType.NULL));
+    }
+
 }
@@ -18,11 +18,14 @@ import static org.junit.Assert.assertThat;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
@@ -41,6 +44,7 @@ import org.junit.Test;
  * @author Svilen Valkanov - Tests are modified to run on different Operating Systems
  * @author Ana Dimova - reduce to a single watch thread for all class instances
  * @author Simon Kaufmann - ported it from Groovy to Java
+ * @author agent - Tests for the coalescing of the events
  */
 public class AbstractWatchServiceTest extends JavaTest {
 
@@ -72,6 +76,7 @@ public class AbstractWatchServiceTest extends JavaTest {
         watchService.deactivate();
         clearWatchedDir();
         watchService.allFullEvents.clear();
+        watchService.allBatches.clear();
 
         File watchedDirectory = new File(WATCHED_DIRECTORY);
         FileUtils.deleteDirectory(watchedDirectory);
@@ -185,6 +190,57 @@ public class AbstractWatchServiceTest extends JavaTest {
         assertNoEventsAreProcessed();
     }
 
+    @Test
+    public void test_bulkChangesAreProcessedInOneBatch() throws Exception {
+        watchService = new RelativeWatchService(WATCHED_DIRECTORY, false);
+        watchService.activate();
+
+        for (int i = 0; i < 20; i++) {
+            File file = new File(WATCHED_DIRECTORY + File.separatorChar + "bulkFile" + i);
+            FileUtils.writeLines(file, Collections.singletonList("content"));
+            FileUtils.writeLines(file, Collections.singletonList("content " + i));
+        }
+
+        assertEventCount(20);
+        assertThat(watchService.allBatches.size(), is(1));
+        assertThat(watchService.allBatches.get(0), is(20));
+        watchService.allFullEvents.forEach(event -> assertThat(event.eventKind, is(ENTRY_CREATE)));
+    }
+
+    @Test
+    public void test_temporaryFilesAreSkipped() throws Exception {
+        watchService = new RelativeWatchService(WATCHED_DIRECTORY, false);
+        watchService.activate();
+
+        File file = new File(WATCHED_DIRECTORY + File.separatorChar + "temporaryFile");
+        FileUtils.writeLines(file, Collections.singletonList("content"));
+        file.delete();
+
+        assertNoEventsAreProcessed();
+    }
+
+    @Test
+    public void test_replacedFileIsReportedAsModified() throws Exception {
+        watchService = new RelativeWatchService(WATCHED_DIRECTORY, false);
+        watchService.activate();
+
+        String fileName = "replacedFile";
+        File file = new File(WATCHED_DIRECTORY + File.separatorChar + fileName);
+        FileUtils.writeLines(file, Collections.singletonList("content"));
+        fullEventAssertionsByKind(fileName, ENTRY_CREATE, false);
+
+        // Replace the file the way many editors save a file
+        File tempFile = new File(WATCHED_DIRECTORY + File.separatorChar + fileName + ".tmp");
+        FileUtils.writeLines(tempFile, Collections.singletonList("new content"));
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        fullEventAssertionsByKind(fileName, ENTRY_MODIFY, false);
+
+        // Replace the file by one with identical content
+        FileUtils.writeLines(tempFile, Collections.singletonList("new content"));
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertNoEventsAreProcessed();
+    }
+
     private void assertNoEventsAreProcessed() throws Exception {
         // Wait for a possible event for the maximum timeout
         Thread.sleep(NO_EVENT_TIMEOUT_IN_SECONDS * 1000);
@@ -291,6 +347,15 @@ public class AbstractWatchServiceTest extends JavaTest {
             watchSubDirs = watchSubDirectories;
         }
 
+        // The sizes of the batches the events have been processed in
+        public volatile List<Integer> allBatches = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void processWatchEvents(Path directory, Map<Path, WatchEvent<Path>> events) {
+            allBatches.add(events.size());
+            super.processWatchEvents(directory, events);
+        }
+
         @Override
         protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
             FullEvent fullEvent = new FullEvent(event, kind, path);
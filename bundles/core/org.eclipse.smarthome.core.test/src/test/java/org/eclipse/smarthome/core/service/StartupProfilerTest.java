@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.service.StartupReport.CategorySummary;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StartupProfiler} and {@link StartupReport}.
+ *
+ * @author agent - Initial contribution
+ */
+public class StartupProfilerTest {
+
+    private static final long ORIGIN = 1000000;
+
+    private StartupProfiler profiler;
+
+    @Before
+    public void setup() {
+        profiler = new StartupProfiler(ORIGIN);
+    }
+
+    @Test
+    public void assertThatAnEmptyReportCanBeCreated() {
+        StartupReport report = profiler.createReport();
+
+        assertThat(report.getDuration(), is(0L));
+        assertThat(report.getBusyTime(), is(0L));
+        assertThat(report.getMaxConcurrency(), is(0));
+        assertThat(report.getCriticalPath().isEmpty(), is(true));
+        assertThat(report.getCategories().isEmpty(), is(true));
+    }
+
+    @Test
+    public void assertThatTheCriticalPathFollowsThePhasesWhichEndedLast() {
+        record("xmlDocuments", "binding", 0, 100);
+        record("xmlDocuments", "other", 10, 40);
+        record("readyMarker", "esh.xmlThingTypes", 100, 100);
+        record("thingHandler", "binding:thing:1", 110, 200);
+        record("thingHandler", "binding:thing:2", 120, 150);
+        record("model", "demo.items", 20, 60);
+
+        StartupReport report = profiler.createReport();
+
+        assertThat(names(report.getCriticalPath()), is("binding esh.xmlThingTypes binding:thing:1"));
+        assertThat(report.getDuration(), is(200L));
+        assertThat(report.getPhases().size(), is(6));
+    }
+
+    @Test
+    public void assertThatTheParallelismIsCalculated() {
+        record("thingHandler", "a", 0, 100);
+        record("thingHandler", "b", 0, 100);
+        record("thingHandler", "c", 50, 100);
+        record("model", "demo.items", 200, 300);
+
+        StartupReport report = profiler.createReport();
+
+        assertThat(report.getBusyTime(), is(200L));
+        assertThat(report.getParallelism(), is(1.75));
+        assertThat(report.getMaxConcurrency(), is(3));
+
+        List<CategorySummary> categories = report.getCategories();
+        assertThat(categories.size(), is(2));
+        assertThat(categories.get(0).getCategory(), is("thingHandler"));
+        assertThat(categories.get(0).getCount(), is(3));
+        assertThat(categories.get(0).getTotalTime(), is(250L));
+        assertThat(categories.get(0).getBusyTime(), is(100L));
+        assertThat(categories.get(0).getParallelism(), is(2.5));
+        assertThat(categories.get(0).getMaxDuration(), is(100L));
+        assertThat(categories.get(1).getCategory(), is("model"));
+        assertThat(categories.get(1).getParallelism(), is(1.0));
+    }
+
+    @Test
+    public void assertThatOnlyPhasesOfTheStartupAreRecorded() {
+        record("model", "demo.items", StartupProfiler.RECORDING_PERIOD + 1, StartupProfiler.RECORDING_PERIOD + 2);
+        for (int i = 0; i < StartupProfiler.MAX_PHASES + 5; i++) {
+            record("thingHandler", "binding:thing:" + i, i, i + 1);
+        }
+
+        StartupReport report = profiler.createReport();
+
+        assertThat(report.getPhases().size(), is(StartupProfiler.MAX_PHASES));
+        assertThat(report.getDroppedPhases(), is(5));
+        assertThat(report.getCategories().stream().map(CategorySummary::getCategory).collect(Collectors.toList())
+                .contains("model"), is(false));
+    }
+
+    private void record(String category, String name, long start, long end) {
+        profiler.recordPhase(category, name, ORIGIN + TimeUnit.MILLISECONDS.toNanos(start),
+                ORIGIN + TimeUnit.MILLISECONDS.toNanos(end));
+    }
+
+    private String names(List<StartupPhase> phases) {
+        return phases.stream().map(StartupPhase::getName).collect(Collectors.joining(" "));
+    }
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ordering of the thing initialization by the {@link ThingInitializationScheduler}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ThingInitializationSchedulerTest {
+
+    private static final long BRIDGE_TIMEOUT = 200;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Thing> initializedThings = new CopyOnWriteArrayList<>();
+    private final List<Bridge> releasedBridges = new CopyOnWriteArrayList<>();
+
+    private ThingInitializationScheduler initializationScheduler;
+
+    @Before
+    public void setup() {
+        initializationScheduler = new ThingInitializationScheduler(executor, scheduler, releasedBridges::add,
+                BRIDGE_TIMEOUT);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void independentThingsAreInitializedInParallelAndChildrenAreLeftToTheirBridge() {
+        Bridge bridge = mockBridge("binding:bridge:1", ThingStatus.UNKNOWN);
+        Thing child = mockThing("binding:thing:child", bridge.getUID());
+        Thing thing1 = mockThing("binding:thing:1", null);
+        Thing thing2 = mockThing("binding:thing:2", null);
+
+        CountDownLatch latch = new CountDownLatch(3);
+        initializationScheduler.initialize(Arrays.asList(child, bridge, thing1, thing2), thing -> {
+            latch.countDown();
+            try {
+                // each initialization waits for the others, so they can only complete if they run in parallel
+                if (latch.await(5, TimeUnit.SECONDS)) {
+                    initializedThings.add(thing);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(initializedThings.size(), is(3));
+        assertThat(initializedThings.containsAll(Arrays.asList(bridge, thing1, thing2)), is(true));
+        assertThat(releasedBridges.isEmpty(), is(true));
+    }
+
+    @Test
+    public void childrenWaitUntilTheStatusOfTheirBridgeIsKnown() {
+        Bridge bridge = mockBridge("binding:bridge:1", ThingStatus.UNKNOWN);
+        Thing child = mockThing("binding:thing:child", bridge.getUID());
+
+        initializationScheduler.bridgeInitialized(bridge);
+        assertThat(releasedBridges.isEmpty(), is(true));
+
+        // a child which is added meanwhile waits as well
+        initializationScheduler.initialize(Collections.singletonList(child), initializedThings::add);
+        assertThat(initializedThings.isEmpty(), is(true));
+
+        initializationScheduler.bridgeStatusChanged(bridge);
+        assertThat(releasedBridges.isEmpty(), is(true));
+
+        when(bridge.getStatus()).thenReturn(ThingStatus.ONLINE);
+        initializationScheduler.bridgeStatusChanged(bridge);
+        initializationScheduler.bridgeStatusChanged(bridge);
+        assertThat(releasedBridges, is(Collections.singletonList(bridge)));
+    }
+
+    @Test
+    public void childrenAreReleasedRightAwayIfTheStatusOfTheirBridgeIsKnown() {
+        Bridge onlineBridge = mockBridge("binding:bridge:1", ThingStatus.ONLINE);
+        Bridge offlineBridge = mockBridge("binding:bridge:2", ThingStatus.OFFLINE);
+
+        initializationScheduler.bridgeInitialized(onlineBridge);
+        initializationScheduler.bridgeInitialized(offlineBridge);
+
+        assertThat(releasedBridges, is(Arrays.asList(onlineBridge, offlineBridge)));
+    }
+
+    @Test
+    public void childrenAreReleasedAfterTheBridgeTimeout() throws InterruptedException {
+        Bridge bridge = mockBridge("binding:bridge:1", ThingStatus.UNKNOWN);
+
+        initializationScheduler.bridgeInitialized(bridge);
+        Thread.sleep(BRIDGE_TIMEOUT * 3);
+
+        assertThat(releasedBridges, is(Collections.singletonList(bridge)));
+    }
+
+    @Test
+    public void childrenAreNotReleasedIfTheBridgeIsDisposed() throws InterruptedException {
+        Bridge bridge = mockBridge("binding:bridge:1", ThingStatus.UNKNOWN);
+
+        initializationScheduler.bridgeInitialized(bridge);
+        initializationScheduler.cancel(bridge.getUID());
+        Thread.sleep(BRIDGE_TIMEOUT * 3);
+
+        assertThat(releasedBridges.isEmpty(), is(true));
+    }
+
+    @Test
+    public void childrenOfABridgeWhichCouldNotBeInitializedAreReleased() {
+        Bridge bridge = mockBridge("binding:bridge:1", ThingStatus.UNINITIALIZED);
+        Thing child = mockThing("binding:thing:child", bridge.getUID());
+
+        initializationScheduler.initialize(Arrays.asList(bridge, child), initializedThings::add);
+
+        assertThat(initializedThings, is(Collections.singletonList(bridge)));
+        assertThat(releasedBridges, is(Collections.singletonList(bridge)));
+    }
+
+    private Bridge mockBridge(String uid, ThingStatus status) {
+        Bridge bridge = mock(Bridge.class);
+        when(bridge.getUID()).thenReturn(new ThingUID(uid));
+        when(bridge.getStatus()).thenReturn(status);
+        return bridge;
+    }
+
+    private Thing mockThing(String uid, ThingUID bridgeUID) {
+        Thing thing = mock(Thing.class);
+        when(thing.getUID()).thenReturn(new ThingUID(uid));
+        when(thing.getBridgeUID()).thenReturn(bridgeUID);
+        when(thing.getStatus()).thenReturn(ThingStatus.UNINITIALIZED);
+        return thing;
+    }
+
+}
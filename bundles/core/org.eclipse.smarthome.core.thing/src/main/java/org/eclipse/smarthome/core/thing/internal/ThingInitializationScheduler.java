@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ThingInitializationScheduler} orders the initialization of the thing handlers along the bridge/child
+ * relations of the things.
+ *
+ * <p>
+ * A batch of things, e.g. all things of a binding whose handler factory has just been added, is initialized in
+ * parallel on a bounded thread pool. The children of bridges which are part of the batch are left out, they are
+ * initialized as soon as their bridge is ready. A bridge is ready if it is {@link ThingStatus#ONLINE} or
+ * {@link ThingStatus#OFFLINE} after its initialization. A bridge which is still {@link ThingStatus#UNKNOWN} after its
+ * initialization keeps its children waiting until it has decided on its status, but at most for the bridge timeout.
+ * This way the children do not start with an unknown bridge, which would make them go offline and online again right
+ * after their initialization. The children of a bridge which could not be initialized at all are released right away
+ * so that they get their status.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ThingInitializationScheduler {
+
+    static final long DEFAULT_BRIDGE_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private final Logger logger = LoggerFactory.getLogger(ThingInitializationScheduler.class);
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<Bridge> childInitializer;
+    private final long bridgeTimeout;
+
+    private final Map<ThingUID, ScheduledFuture<?>> pendingBridges = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param executor the bounded executor on which the things of a batch are initialized
+     * @param scheduler the scheduler for the bridge timeouts
+     * @param childInitializer registers and initializes the children of a bridge once the bridge is ready
+     * @param bridgeTimeout the time in milliseconds for which the children wait for a bridge that is still
+     *            {@link ThingStatus#UNKNOWN} after its initialization
+     */
+    ThingInitializationScheduler(ExecutorService executor, ScheduledExecutorService scheduler,
+            Consumer<Bridge> childInitializer, long bridgeTimeout) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.childInitializer = childInitializer;
+        this.bridgeTimeout = bridgeTimeout;
+    }
+
+    /**
+     * Initializes the given things and returns as soon as all of them have been initialized, except for the children
+     * of bridges which are part of the batch or are waiting for their status. A single thing is initialized in the
+     * calling thread.
+     *
+     * @param things the things to initialize
+     * @param initializer registers and initializes the handler of a thing
+     */
+    void initialize(Collection<Thing> things, Consumer<Thing> initializer) {
+        Set<ThingUID> thingUIDs = things.stream().map(Thing::getUID).collect(Collectors.toSet());
+        List<Thing> independentThings = things.stream().filter(thing -> {
+            ThingUID bridgeUID = thing.getBridgeUID();
+            return bridgeUID == null || !(thingUIDs.contains(bridgeUID) || pendingBridges.containsKey(bridgeUID));
+        }).collect(Collectors.toList());
+        if (independentThings.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (independentThings.size() == 1) {
+            initializeThing(independentThings.get(0), initializer);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(independentThings.size());
+            for (Thing thing : independentThings) {
+                futures.add(executor.submit(() -> initializeThing(thing, initializer)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    logger.error("Initialization of a thing has failed: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        logger.debug("Initialized {} of {} things in {}ms, the others will follow their bridges.",
+                independentThings.size(), things.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void initializeThing(Thing thing, Consumer<Thing> initializer) {
+        try {
+            initializer.accept(thing);
+        } catch (RuntimeException e) {
+            logger.error("Registration resp. initialization of thing '{}' has failed: {}", thing.getUID(),
+                    e.getMessage(), e);
+        }
+        if (thing instanceof Bridge && thing.getStatus() == ThingStatus.UNINITIALIZED) {
+            // the bridge will not report a status which releases its children, so they are released here
+            childInitializer.accept((Bridge) thing);
+        }
+    }
+
+    /**
+     * Releases the children of the given bridge which has just been initialized, or keeps them waiting if the bridge
+     * is {@link ThingStatus#UNKNOWN}.
+     *
+     * @param bridge the bridge
+     */
+    void bridgeInitialized(Bridge bridge) {
+        if (bridge.getStatus() == ThingStatus.UNKNOWN && bridgeTimeout > 0) {
+            logger.debug("Initialization of the children of bridge '{}' waits until its status is known.",
+                    bridge.getUID());
+            ThingUID bridgeUID = bridge.getUID();
+            pendingBridges.put(bridgeUID, scheduler.schedule(() -> {
+                if (pendingBridges.remove(bridgeUID) != null) {
+                    logger.debug("Status of bridge '{}' is still unknown after {}ms, initializing its children.",
+                            bridgeUID, bridgeTimeout);
+                    childInitializer.accept(bridge);
+                }
+            }, bridgeTimeout, TimeUnit.MILLISECONDS));
+            // the status might have changed before the children were put on hold
+            bridgeStatusChanged(bridge);
+        } else {
+            childInitializer.accept(bridge);
+        }
+    }
+
+    /**
+     * Releases the waiting children of the given bridge if its status is known now.
+     *
+     * @param bridge the bridge whose status has changed
+     */
+    void bridgeStatusChanged(Bridge bridge) {
+        ThingStatus status = bridge.getStatus();
+        if (status == ThingStatus.ONLINE || status == ThingStatus.OFFLINE) {
+            ScheduledFuture<?> timeout = pendingBridges.remove(bridge.getUID());
+            if (timeout != null) {
+                timeout.cancel(false);
+                childInitializer.accept(bridge);
+            }
+        } else if (status != ThingStatus.UNKNOWN) {
+            cancel(bridge.getUID());
+        }
+    }
+
+    /**
+     * Stops waiting for the status of the given bridge, e.g. because its handler is disposed.
+     *
+     * @param bridgeUID the UID of the bridge
+     */
+    void cancel(ThingUID bridgeUID) {
+        ScheduledFuture<?> timeout = pendingBridges.remove(bridgeUID);
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
+    /**
+     * Stops waiting for the status of all bridges.
+     */
+    void cancelAll() {
+        pendingBridges.keySet().forEach(this::cancel);
+    }
+
+}
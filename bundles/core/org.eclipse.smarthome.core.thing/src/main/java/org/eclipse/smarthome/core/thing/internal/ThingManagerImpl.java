@@ -18,6 +18,7 @@ import java.security.PrivilegedAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.smarthome.config.core.ConfigDescription;
 import org.eclipse.smarthome.config.core.ConfigDescriptionParameter;
@@ -48,6 +50,7 @@ import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.service.ReadyMarker;
 import org.eclipse.smarthome.core.service.ReadyMarkerFilter;
 import org.eclipse.smarthome.core.service.ReadyService;
+import org.eclipse.smarthome.core.service.StartupProfiler;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -117,6 +120,8 @@ import org.slf4j.LoggerFactory;
  * @author Henning Sudbrock - Consider thing type properties when migrating to new thing type
  * @author Christoph Weitkamp - Added preconfigured ChannelGroupBuilder
  * @author Yordan Zhelev - Added thing disabling mechanism
+ * @author agent - Recording of the handler initialization times for the startup report
+ * @author agent - Parallel initialization of the handlers along the bridge/child relations
  */
 
 @Component(immediate = true, service = { ThingTypeMigrationService.class, ThingManager.class })
@@ -128,12 +133,18 @@ public class ThingManagerImpl
     private static final String THING_STATUS_STORAGE_NAME = "thing_status_storage";
     private static final String FORCEREMOVE_THREADPOOL_NAME = "forceRemove";
     private static final String THING_MANAGER_THREADPOOL_NAME = "thingManager";
+    private static final String THING_INITIALIZATION_THREADPOOL_NAME = "thingInitialization";
+    private static final String STARTUP_CATEGORY = "thingHandler";
 
     private final Logger logger = LoggerFactory.getLogger(ThingManagerImpl.class);
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(THING_MANAGER_THREADPOOL_NAME);
 
+    private final ThingInitializationScheduler initializationScheduler = new ThingInitializationScheduler(
+            ThreadPoolManager.getPool(THING_INITIALIZATION_THREADPOOL_NAME), scheduler, this::registerChildHandlers,
+            ThingInitializationScheduler.DEFAULT_BRIDGE_TIMEOUT);
+
     private EventPublisher eventPublisher;
 
     private CommunicationManager communicationManager;
@@ -153,7 +164,7 @@ public class ThingManagerImpl
 
     private ThingStatusInfoI18nLocalizationService thingStatusInfoI18nLocalizationService;
 
-    private final Map<ThingUID, Lock> thingLocks = new HashMap<>();
+    private final Map<ThingUID, Lock> thingLocks = new ConcurrentHashMap<>();
     private final Set<String> loadedXmlThingTypes = new CopyOnWriteArraySet<>();
     private SafeCaller safeCaller;
     private volatile boolean active = false;
@@ -226,10 +237,11 @@ public class ThingManagerImpl
                 ThingStatusInfo oldStatusInfo) {
             if (ThingHandlerHelper.isHandlerInitialized(bridge)
                     && (ThingStatus.INITIALIZING.equals(oldStatusInfo.getStatus()))) {
-                // bridge has just been initialized: initialize child things as well
-                registerChildHandlers(bridge);
+                // bridge has just been initialized: initialize child things as well, as soon as its status is known
+                initializationScheduler.bridgeInitialized(bridge);
             } else if (!statusInfo.equals(oldStatusInfo)) {
-                // bridge status has been changed: notify child things about status change
+                // bridge status has been changed: release waiting child things and notify the others
+                initializationScheduler.bridgeStatusChanged(bridge);
                 notifyThingsAboutBridgeStatusChange(bridge, statusInfo);
             }
         }
@@ -453,8 +465,13 @@ public class ThingManagerImpl
     public void thingAdded(Thing thing, ThingTrackerEvent thingTrackerEvent) {
         this.things.add(thing);
         logger.debug("Thing '{}' is tracked by ThingManager.", thing.getUID());
+        if (!active) {
+            // the things which are tracked on activation are initialized together, see activate()
+            return;
+        }
         if (!isHandlerRegistered(thing)) {
-            registerAndInitializeHandler(thing, getThingHandlerFactory(thing));
+            initializationScheduler.initialize(Collections.singletonList(thing),
+                    it -> registerAndInitializeHandler(it, getThingHandlerFactory(it)));
         } else {
             logger.debug("Handler of tracked thing '{}' already registered.", thing.getUID());
         }
@@ -617,7 +634,7 @@ public class ThingManagerImpl
     private void registerChildHandlers(final Bridge bridge) {
         for (final Thing child : bridge.getThings()) {
             logger.debug("Register and initialize child '{}' of bridge '{}'.", child.getUID(), bridge.getUID());
-            ThreadPoolManager.getPool(THING_MANAGER_THREADPOOL_NAME).execute(new Runnable() {
+            ThreadPoolManager.getPool(THING_INITIALIZATION_THREADPOOL_NAME).execute(new Runnable() {
                 @Override
                 public void run() {
                     try {
@@ -757,6 +774,7 @@ public class ThingManagerImpl
     private void doInitializeHandler(final ThingHandler thingHandler) {
         logger.debug("Calling initialize handler for thing '{}' at '{}'.", thingHandler.getThing().getUID(),
                 thingHandler);
+        long start = System.nanoTime();
         safeCaller.create(thingHandler, ThingHandler.class).onTimeout(() -> {
             logger.warn("Initializing handler for thing '{}' takes more than {}ms.", thingHandler.getThing().getUID(),
                     SafeCaller.DEFAULT_TIMEOUT);
@@ -767,6 +785,9 @@ public class ThingManagerImpl
             logger.error("Exception occurred while initializing handler of thing '{}': {}",
                     thingHandler.getThing().getUID(), e.getMessage(), e);
         }).build().initialize();
+        StartupProfiler.record(STARTUP_CATEGORY, thingHandler.getThing().getUID().toString(), start);
+        logger.debug("Initializing handler for thing '{}' took {}ms.", thingHandler.getThing().getUID(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     private boolean isInitializing(Thing thing) {
@@ -870,6 +891,7 @@ public class ThingManagerImpl
     private void unregisterAndDisposeHandler(ThingHandlerFactory thingHandlerFactory, Thing thing,
             ThingHandler handler) {
         if (isBridge(thing)) {
+            initializationScheduler.cancel(thing.getUID());
             unregisterAndDisposeChildHandlers((Bridge) thing, thingHandlerFactory);
         }
         disposeHandler(thing, handler);
@@ -1012,6 +1034,8 @@ public class ThingManagerImpl
         }
         thingRegistry.addThingTracker(this);
         active = true;
+        initializationScheduler.initialize(getThingsWithoutHandler(things),
+                thing -> registerAndInitializeHandler(thing, getThingHandlerFactory(thing)));
     }
 
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
@@ -1049,18 +1073,24 @@ public class ThingManagerImpl
         thingHandlerFactories.stream().filter(it -> {
             return getBundleName(it).equals(bsn);
         }).forEach(thingHandlerFactory -> {
-            things.forEach(thing -> {
-                if (thingHandlerFactory.supportsThingType(thing.getThingTypeUID())) {
-                    if (!isHandlerRegistered(thing)) {
-                        registerAndInitializeHandler(thing, thingHandlerFactory);
-                    } else {
-                        logger.debug("Thing handler for thing '{}' already registered", thing.getUID());
-                    }
-                }
-            });
+            List<Thing> supportedThings = things.stream()
+                    .filter(thing -> thingHandlerFactory.supportsThingType(thing.getThingTypeUID()))
+                    .collect(Collectors.toList());
+            initializationScheduler.initialize(getThingsWithoutHandler(supportedThings),
+                    thing -> registerAndInitializeHandler(thing, thingHandlerFactory));
         });
     }
 
+    private List<Thing> getThingsWithoutHandler(Collection<Thing> things) {
+        return things.stream().filter(thing -> {
+            if (isHandlerRegistered(thing)) {
+                logger.debug("Thing handler for thing '{}' already registered", thing.getUID());
+                return false;
+            }
+            return true;
+        }).collect(Collectors.toList());
+    }
+
     private String getBundleName(ThingHandlerFactory thingHandlerFactory) {
         return bundleResolver.resolveBundle(thingHandlerFactory.getClass()).getSymbolicName();
     }
@@ -1095,6 +1125,7 @@ public class ThingManagerImpl
     @Deactivate
     protected synchronized void deactivate(ComponentContext componentContext) {
         active = false;
+        initializationScheduler.cancelAll();
         thingRegistry.removeThingTracker(this);
         for (ThingHandlerFactory factory : thingHandlerFactories) {
             removeThingHandlerFactory(factory);
@@ -1125,12 +1156,10 @@ public class ThingManagerImpl
         }
     }
 
-    private synchronized Lock getLockForThing(ThingUID thingUID) {
-        if (thingLocks.get(thingUID) == null) {
-            Lock lock = new ReentrantLock();
-            thingLocks.put(thingUID, lock);
-        }
-        return thingLocks.get(thingUID);
+    private Lock getLockForThing(ThingUID thingUID) {
+        // not synchronized on the manager, because activate() and addThingHandlerFactory() hold its monitor while
+        // they wait for the initializations
+        return thingLocks.computeIfAbsent(thingUID, uid -> new ReentrantLock());
     }
 
     @Reference
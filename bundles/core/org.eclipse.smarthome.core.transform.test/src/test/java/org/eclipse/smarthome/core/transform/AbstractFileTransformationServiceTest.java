@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for the cache of the {@link AbstractFileTransformationService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class AbstractFileTransformationServiceTest extends JavaTest {
+
+    @Rule
+    public TemporaryFolder transformFolder = new TemporaryFolder();
+
+    private FileTransformationService service;
+
+    @Before
+    public void setUp() throws IOException {
+        service = new FileTransformationService(transformFolder.getRoot().getAbsolutePath() + File.separator);
+        write("test.map", "initial");
+        write("mytest.map", "initial");
+    }
+
+    @Test
+    public void shouldReloadOnlyTheChangedFile() throws Exception {
+        assertThat(service.transform("test.map", "source"), is("initial"));
+        assertThat(service.transform("mytest.map", "source"), is("initial"));
+
+        write("mytest.map", "modified");
+
+        waitForAssert(() -> {
+            try {
+                assertThat(service.transform("mytest.map", "source"), is("modified"));
+            } catch (TransformationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(service.transform("test.map", "source"), is("initial"));
+        assertThat(service.getLoadCount("mytest.map"), is(2));
+        assertThat(service.getLoadCount("test.map"), is(1));
+    }
+
+    private void write(String filename, String content) throws IOException {
+        Files.write(transformFolder.getRoot().toPath().resolve(filename), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class FileTransformationService extends AbstractFileTransformationService<String> {
+
+        private final String sourcePath;
+        private final Map<String, Integer> loadCounts = new ConcurrentHashMap<>();
+
+        public FileTransformationService(String sourcePath) {
+            this.sourcePath = sourcePath;
+        }
+
+        public int getLoadCount(String filename) {
+            return loadCounts.getOrDefault(filename, 0);
+        }
+
+        @Override
+        protected String internalTransform(String transform, String source) throws TransformationException {
+            return transform;
+        }
+
+        @Override
+        protected String internalLoadTransform(String filename) throws TransformationException {
+            Path path = Paths.get(filename);
+            loadCounts.merge(path.getFileName().toString(), 1, Integer::sum);
+            try {
+                return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new TransformationException("Cannot read " + filename, e);
+            }
+        }
+
+        @Override
+        protected Locale getLocale() {
+            return Locale.ENGLISH;
+        }
+
+        @Override
+        protected String getSourcePath() {
+            return sourcePath;
+        }
+    }
+
+}
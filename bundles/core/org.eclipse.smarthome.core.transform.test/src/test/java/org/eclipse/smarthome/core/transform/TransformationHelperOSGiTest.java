@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+import org.eclipse.smarthome.test.java.JavaOSGiTest;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Tests the cached transformation service lookup and pattern parsing of the {@link TransformationHelper}.
+ *
+ * @author agent - Initial contribution
+ */
+public class TransformationHelperOSGiTest extends JavaOSGiTest {
+
+    private static final String TYPE = "HELPERTEST";
+
+    private final TransformationService upperCase = (function, source) -> source.toUpperCase();
+    private final TransformationService lowerCase = (function, source) -> source.toLowerCase();
+    private final List<ServiceRegistration<?>> registrations = new ArrayList<>();
+
+    private ServiceRegistration<?> register(TransformationService service, int ranking) {
+        Hashtable<String, Object> properties = new Hashtable<>();
+        properties.put(TransformationService.TRANSFORMATION_TYPE, TYPE);
+        properties.put(Constants.SERVICE_RANKING, ranking);
+        ServiceRegistration<?> registration = bundleContext.registerService(TransformationService.class.getName(),
+                service, properties);
+        registrations.add(registration);
+        return registration;
+    }
+
+    private void unregister(ServiceRegistration<?> registration) {
+        registrations.remove(registration);
+        registration.unregister();
+    }
+
+    @After
+    public void tearDown() {
+        registrations.forEach(registration -> registration.unregister());
+    }
+
+    @Test
+    public void lookupFollowsServiceChanges() {
+        assertThat(TransformationHelper.getTransformationService(bundleContext, TYPE), is(nullValue()));
+
+        ServiceRegistration<?> upperCaseRegistration = register(upperCase, 0);
+        assertThat(TransformationHelper.getTransformationService(bundleContext, TYPE), is(upperCase));
+        assertThat(TransformationHelper.getTransformationService(null, TYPE), is(upperCase));
+
+        // A service with a higher ranking replaces the cached one
+        ServiceRegistration<?> lowerCaseRegistration = register(lowerCase, 10);
+        assertThat(TransformationHelper.getTransformationService(bundleContext, TYPE), is(lowerCase));
+
+        unregister(lowerCaseRegistration);
+        assertThat(TransformationHelper.getTransformationService(bundleContext, TYPE), is(upperCase));
+
+        unregister(upperCaseRegistration);
+        assertThat(TransformationHelper.getTransformationService(bundleContext, TYPE), is(nullValue()));
+    }
+
+    @Test
+    public void transformUsesParsedPattern() throws TransformationException {
+        register(upperCase, 0);
+        for (int i = 0; i < 3; i++) {
+            assertThat(TransformationHelper.transform(bundleContext, TYPE + "(function):%s", "value" + i),
+                    is("VALUE" + i));
+        }
+        assertThat(TransformationHelper.transform(bundleContext, "%s", "value"), is("value"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void transformWithUnknownService() throws TransformationException {
+        TransformationHelper.transform(bundleContext, "UNKNOWN(function):%s", "value");
+    }
+
+    @Test
+    public void isTransform() {
+        assertTrue(TransformationHelper.isTransform("MAP(en.map):%s"));
+        // answered from the parsed pattern cache
+        assertTrue(TransformationHelper.isTransform("MAP(en.map):%s"));
+        assertFalse(TransformationHelper.isTransform("%.1f °C"));
+        assertFalse(TransformationHelper.isTransform("%s\nMAP(en.map):%s"));
+    }
+
+}
@@ -23,9 +23,11 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
@@ -50,6 +52,7 @@ import org.slf4j.LoggerFactory;
  * @author Gaël L'hopital - Initial contribution
  * @author Kai Kreuzer - File caching mechanism
  * @author Markus Rathgeb - Add locale provider support
+ * @author agent - Process all pending folder events at once
  */
 @NonNullByDefault
 public abstract class AbstractFileTransformationService<T> implements TransformationService {
@@ -201,31 +204,34 @@ public abstract class AbstractFileTransformationService<T> implements Transforma
     }
 
     /**
-     * Ensures that a modified or deleted cached files does not stay in the cache
+     * Ensures that a modified or deleted cached files does not stay in the cache. All the events which are pending for
+     * the watched directories are collected first, so that each changed file is removed from the cache only once.
      */
     private void processFolderEvents(final WatchService watchService) {
-        WatchKey key = watchService.poll();
-        if (key != null) {
+        Set<Path> changedFiles = new HashSet<>();
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            Path directory = (Path) key.watchable();
             for (WatchEvent<?> e : key.pollEvents()) {
                 if (e.kind() == OVERFLOW) {
+                    // events have been lost, so none of the cached files can be trusted anymore
+                    logger.debug("Refreshing all transformation files in '{}'", directory);
+                    cachedFiles.clear();
                     continue;
                 }
 
                 // Context for directory entry event is the file name of entry
                 @SuppressWarnings("unchecked")
                 WatchEvent<Path> ev = (WatchEvent<Path>) e;
-                Path path = ev.context();
-
-                logger.debug("Refreshing transformation file '{}'", path);
-
-                for (String fileEntry : cachedFiles.keySet()) {
-                    if (fileEntry.endsWith(path.toString())) {
-                        cachedFiles.remove(fileEntry);
-                    }
-                }
+                changedFiles.add(directory.resolve(ev.context()));
             }
             key.reset();
         }
+
+        if (!changedFiles.isEmpty()) {
+            logger.debug("Refreshing transformation files {}", changedFiles);
+            cachedFiles.keySet().removeIf(fileEntry -> changedFiles.contains(Paths.get(fileEntry)));
+        }
     }
 
     /**
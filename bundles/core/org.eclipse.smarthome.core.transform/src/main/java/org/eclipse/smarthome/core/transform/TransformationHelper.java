@@ -19,6 +19,9 @@ import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.cache.LRUCache;
+import org.eclipse.smarthome.core.transform.internal.TransformationActivator;
+import org.eclipse.smarthome.core.transform.internal.TransformationServiceTracker;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -40,6 +43,11 @@ public class TransformationHelper {
     protected static final Pattern EXTRACT_TRANSFORMFUNCTION_PATTERN = Pattern
             .compile("(.*?)\\((.*)\\)" + FUNCTION_VALUE_DELIMITER + "(.*)");
 
+    private static final int PATTERN_CACHE_SIZE = 500;
+
+    /* Patterns come from state descriptions and labels, so there are only few distinct ones, parsed over and over */
+    private static final LRUCache<String, ParsedPattern> PARSED_PATTERNS = new LRUCache<>(PATTERN_CACHE_SIZE);
+
     /**
      * determines whether a pattern refers to a transformation service
      *
@@ -47,7 +55,7 @@ public class TransformationHelper {
      * @return true, if the pattern contains a transformation
      */
     public static boolean isTransform(String pattern) {
-        return EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(pattern).matches();
+        return parse(pattern).matchesCompletely;
     }
 
     /**
@@ -60,8 +68,16 @@ public class TransformationHelper {
      */
     public static @Nullable TransformationService getTransformationService(@Nullable BundleContext context,
             String transformationType) {
+        TransformationServiceTracker tracker = TransformationActivator.getTransformationServiceTracker();
+        if (tracker != null) {
+            TransformationService service = tracker.getTransformationService(transformationType);
+            if (service == null) {
+                LOGGER.debug("Cannot get service reference for transformation service of type {}", transformationType);
+            }
+            return service;
+        }
         if (context != null) {
-            String filter = "(smarthome.transform=" + transformationType + ")";
+            String filter = "(" + TransformationService.TRANSFORMATION_TYPE + "=" + transformationType + ")";
             try {
                 Collection<ServiceReference<TransformationService>> refs = context
                         .getServiceReferences(TransformationService.class, filter);
@@ -90,11 +106,11 @@ public class TransformationHelper {
      */
     public static @Nullable String transform(BundleContext context, String stateDescPattern, String state)
             throws TransformationException {
-        Matcher matcher = EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(stateDescPattern);
-        if (matcher.find()) {
-            String type = matcher.group(1);
-            String pattern = matcher.group(2);
-            String value = matcher.group(3);
+        ParsedPattern parsed = parse(stateDescPattern);
+        String type = parsed.type;
+        String pattern = parsed.function;
+        String value = parsed.format;
+        if (type != null && pattern != null && value != null) {
             TransformationService transformation = TransformationHelper.getTransformationService(context, type);
             if (transformation != null) {
                 return transform(transformation, pattern, value, state);
@@ -128,4 +144,38 @@ public class TransformationHelper {
         }
     }
 
+    private static ParsedPattern parse(String pattern) {
+        ParsedPattern parsed = PARSED_PATTERNS.get(pattern);
+        if (parsed == null) {
+            parsed = new ParsedPattern(EXTRACT_TRANSFORMFUNCTION_PATTERN.matcher(pattern));
+            PARSED_PATTERNS.put(pattern, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * The transformation type, function and format of a pattern, or nulls if the pattern does not contain a
+     * transformation.
+     */
+    private static class ParsedPattern {
+        final @Nullable String type;
+        final @Nullable String function;
+        final @Nullable String format;
+        final boolean matchesCompletely;
+
+        ParsedPattern(Matcher matcher) {
+            if (matcher.find()) {
+                type = matcher.group(1);
+                function = matcher.group(2);
+                format = matcher.group(3);
+                matchesCompletely = matcher.start() == 0 && matcher.end() == matcher.regionEnd();
+            } else {
+                type = null;
+                function = null;
+                format = null;
+                matchesCompletely = false;
+            }
+        }
+    }
+
 }
@@ -12,6 +12,9 @@
  */
 package org.eclipse.smarthome.core.transform;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -35,6 +38,8 @@ public interface TransformationService {
 
     public static final String TRANSFORM_FOLDER_NAME = "transform";
     public static final String TRANSFORM_PROFILE_SCOPE = "transform";
+    /** The service property which holds the transformation type of a service, e.g. "REGEX" */
+    public static final String TRANSFORMATION_TYPE = "smarthome.transform";
 
     /**
      * Transforms the input <code>source</code> by means of the given <code>function</code> and returns the transformed
@@ -50,4 +55,76 @@ public interface TransformationService {
     @Nullable
     String transform(String function, String source) throws TransformationException;
 
+    /**
+     * Transforms each of the given <code>sources</code> by means of the same <code>function</code>. Implementations
+     * may override this method to prepare the function only once for the whole batch. The default implementation calls
+     * {@link #transform(String, String)} for each source.
+     * <p>
+     * A source which fails to transform does not prevent the remaining sources from being transformed. Its result is
+     * <code>null</code> instead, like for {@link #transformEach(List, String)}.
+     *
+     * @param function the function to be used to transform the inputs
+     * @param sources the inputs to be transformed
+     * @return the transformed results in the order of the sources, containing <code>null</code> for each
+     *         transformation whose output is <code>null</code> or which failed
+     * @throws TransformationException if the function could not be applied to any of the sources
+     */
+    default List<@Nullable String> transformAll(String function, List<String> sources) throws TransformationException {
+        List<@Nullable String> results = new ArrayList<>(sources.size());
+        TransformationException failure = null;
+        int failed = 0;
+        for (String source : sources) {
+            try {
+                results.add(transform(function, source));
+            } catch (TransformationException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                failed++;
+                results.add(null);
+            }
+        }
+        if (failure != null && failed == sources.size()) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * Transforms the same input <code>source</code> by means of each of the given <code>functions</code>.
+     * Implementations may override this method to parse the source only once for all functions, which is useful if
+     * several values are extracted from the same document. The default implementation calls
+     * {@link #transform(String, String)} for each function.
+     * <p>
+     * A function which fails does not prevent the remaining functions from being applied. Its result is
+     * <code>null</code> instead, like for {@link #transformAll(String, List)}.
+     *
+     * @param functions the functions to be used to transform the input
+     * @param source the input to be transformed
+     * @return the transformed results in the order of the functions, containing <code>null</code> for each
+     *         transformation whose output is <code>null</code> or which failed
+     * @throws TransformationException if none of the functions could be applied to the source
+     */
+    default List<@Nullable String> transformEach(List<String> functions, String source)
+            throws TransformationException {
+        List<@Nullable String> results = new ArrayList<>(functions.size());
+        TransformationException failure = null;
+        int failed = 0;
+        for (String function : functions) {
+            try {
+                results.add(transform(function, source));
+            } catch (TransformationException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                failed++;
+                results.add(null);
+            }
+        }
+        if (failure != null && failed == functions.size()) {
+            throw failure;
+        }
+        return results;
+    }
+
 }
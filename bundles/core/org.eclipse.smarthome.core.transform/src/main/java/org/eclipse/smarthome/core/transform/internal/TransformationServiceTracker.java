@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.transform.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * Tracks all {@link TransformationService}s and caches them by their transformation type, so that looking up a
+ * transformation service does not query the service registry each time. The cache is cleared whenever a
+ * transformation service is registered, modified or unregistered.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TransformationServiceTracker extends ServiceTracker<TransformationService, TransformationService> {
+
+    /**
+     * The tracked services. They are recorded here before the cache is invalidated, while the tracker itself only
+     * records a service after {@link #addingService(ServiceReference)} returned.
+     */
+    private final Map<ServiceReference<TransformationService>, TransformationService> services =
+            new ConcurrentHashMap<>();
+    private final Map<String, TransformationService> servicesByType = new ConcurrentHashMap<>();
+
+    public TransformationServiceTracker(BundleContext context) {
+        super(context, TransformationService.class, null);
+    }
+
+    /**
+     * Returns the transformation service for the given transformation type. If there are several services for a
+     * type, the one with the highest service ranking is returned.
+     *
+     * @param transformationType the desired transformation type (e.g. REGEX, XSLT, etc.)
+     * @return a service instance or null, if none could be found
+     */
+    public @Nullable TransformationService getTransformationService(String transformationType) {
+        TransformationService service = servicesByType.get(transformationType);
+        if (service == null) {
+            synchronized (servicesByType) {
+                service = servicesByType.get(transformationType);
+                if (service == null) {
+                    service = findTransformationService(transformationType);
+                    if (service != null) {
+                        servicesByType.put(transformationType, service);
+                    }
+                }
+            }
+        }
+        return service;
+    }
+
+    private @Nullable TransformationService findTransformationService(String transformationType) {
+        ServiceReference<TransformationService> best = null;
+        for (ServiceReference<TransformationService> reference : services.keySet()) {
+            if (hasType(reference, transformationType) && (best == null || reference.compareTo(best) > 0)) {
+                best = reference;
+            }
+        }
+        return best != null ? services.get(best) : null;
+    }
+
+    private boolean hasType(ServiceReference<TransformationService> reference, String transformationType) {
+        Object type = reference.getProperty(TransformationService.TRANSFORMATION_TYPE);
+        if (type instanceof String[]) {
+            for (String t : (String[]) type) {
+                if (transformationType.equals(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return transformationType.equals(type);
+    }
+
+    private void invalidate() {
+        synchronized (servicesByType) {
+            servicesByType.clear();
+        }
+    }
+
+    @Override
+    public TransformationService addingService(@Nullable ServiceReference<TransformationService> reference) {
+        TransformationService service = super.addingService(reference);
+        if (reference != null && service != null) {
+            services.put(reference, service);
+            invalidate();
+        }
+        return service;
+    }
+
+    @Override
+    public void modifiedService(@Nullable ServiceReference<TransformationService> reference,
+            @Nullable TransformationService service) {
+        invalidate();
+    }
+
+    @Override
+    public void removedService(@Nullable ServiceReference<TransformationService> reference,
+            @Nullable TransformationService service) {
+        if (reference != null) {
+            services.remove(reference);
+        }
+        invalidate();
+        super.removedService(reference, service);
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * This is a simple thread-safe, size-bounded cache. If the cache is full, the least recently used entry is evicted.
+ *
+ * It is meant for values that are expensive to create but cheap to keep, like compiled expressions.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the value
+ */
+@NonNullByDefault
+public class LRUCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> items;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize the maximum number of entries
+     */
+    public LRUCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.items = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<K, V> eldest) {
+                return size() > LRUCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value associated with the given key and marks it as recently used.
+     *
+     * @param key the key
+     * @return the value or null if the key is not cached
+     */
+    public synchronized @Nullable V get(K key) {
+        return items.get(key);
+    }
+
+    /**
+     * Associates the given value with the given key. Evicts the least recently used entry if the cache is full.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        items.put(key, value);
+    }
+
+    /**
+     * Returns the value associated with the given key. If the key is not cached, the value is created by the given
+     * function and added to the cache.
+     *
+     * The function is called without holding a lock, so it may be called concurrently for the same key. This is
+     * acceptable for side-effect free functions and avoids blocking all readers while an expensive value is created.
+     *
+     * @param key the key
+     * @param mappingFunction the function to create the value
+     * @return the cached or created value
+     */
+    public V computeIfAbsent(K key, Function<K, V> mappingFunction) {
+        V value = get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the entry for the given key.
+     *
+     * @param key the key
+     */
+    public synchronized void remove(K key) {
+        items.remove(key);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        items.clear();
+    }
+
+    /**
+     * Returns the number of cached entries.
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+}
@@ -22,6 +22,8 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -30,6 +32,7 @@ import java.util.stream.Stream;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.service.StartupProfiler;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.util.tracker.ServiceTracker;
@@ -46,6 +49,8 @@ import org.slf4j.LoggerFactory;
  * @author Kai Kreuzer - switched to parameterized logging
  * @author Hilbrand Bouwkamp - Made protected fields private and added new methods to give access.
  * @author Markus Rathgeb - Use separate collections to improve performance
+ * @author agent - added modification version
+ * @author agent - Recording of the provider additions for the startup report
  *
  * @param <E> type of the element
  */
@@ -73,6 +78,9 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
 
     private final Collection<RegistryChangeListener<E>> listeners = new CopyOnWriteArraySet<RegistryChangeListener<E>>();
 
+    // starts at the current time, so that a re-created registry does not hand out versions of a former instance again
+    private final AtomicLong version = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
     private Optional<ManagedProvider<E, K>> managedProvider = Optional.empty();
 
     private EventPublisher eventPublisher;
@@ -336,6 +344,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
     }
 
     protected void notifyListeners(E oldElement, E element, EventType eventType) {
+        version.incrementAndGet();
         for (RegistryChangeListener<E> listener : this.listeners) {
             try {
                 switch (eventType) {
@@ -358,6 +367,11 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
         }
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     protected void notifyListeners(E element, EventType eventType) {
         notifyListeners(null, element, eventType);
     }
@@ -375,6 +389,7 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
     }
 
     protected void addProvider(Provider<E> provider) {
+        long start = System.nanoTime();
         final Collection<E> elementsOfAddedProvider = provider.getAll();
         final Collection<E> elementsAdded = new HashSet<>(elementsOfAddedProvider.size());
         elementWriteLock.lock();
@@ -396,6 +411,8 @@ public abstract class AbstractRegistry<E extends Identifiable<K>, K, P extends P
             elementWriteLock.unlock();
         }
         elementsAdded.forEach(this::notifyListenersAboutAddedElement);
+        StartupProfiler.record(StartupProfiler.CATEGORY_PROVIDER,
+                provider.getClass().getSimpleName() + " (" + elementsAdded.size() + " elements)", start);
         logger.debug("Provider \"{}\" has been added.", provider.getClass().getName());
     }
 
@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
  * @author Dennis Nobel - Initial contribution
  * @author Victor Toni - provide elements as {@link Stream}
  * @author Kai Kreuzer - added null annotations
+ * @author agent - added modification version
  *
  * @param <E> type of the elements in the registry
  */
@@ -95,4 +96,14 @@ public interface Registry<E extends Identifiable<K>, K> {
      * @throws IllegalStateException if no ManagedProvider is available
      */
     public @Nullable E remove(@NonNull K key);
+
+    /**
+     * Returns the modification version of the registry. The version is increased whenever an element is added, updated
+     * or removed, so it can be used to detect changes without comparing the elements, e.g. for conditional requests.
+     *
+     * @return the modification version or a negative value if the registry does not keep track of modifications
+     */
+    default long getVersion() {
+        return -1;
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.internal.items;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventPublisher;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.events.ItemBatchEntry;
+import org.eclipse.smarthome.core.items.events.ItemBatchPublisher;
+import org.eclipse.smarthome.core.items.events.ItemBatchResult;
+import org.eclipse.smarthome.core.items.events.ItemBatchResult.Status;
+import org.eclipse.smarthome.core.items.events.ItemEventFactory;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.Type;
+import org.eclipse.smarthome.core.types.TypeParser;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ItemBatchPublisherImpl} resolves all entries of a batch before it posts the resulting events, so that the
+ * events of a batch follow each other on the event bus as closely as possible.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component
+public class ItemBatchPublisherImpl implements ItemBatchPublisher {
+
+    private final Logger logger = LoggerFactory.getLogger(ItemBatchPublisherImpl.class);
+
+    @NonNullByDefault({})
+    private ItemRegistry itemRegistry;
+    @NonNullByDefault({})
+    private EventPublisher eventPublisher;
+
+    @Override
+    public List<ItemBatchResult> publish(List<ItemBatchEntry> entries, @Nullable String source) {
+        ItemBatchResult[] results = new ItemBatchResult[entries.size()];
+        Event[] events = new Event[entries.size()];
+        for (int i = 0; i < events.length; i++) {
+            ItemBatchEntry entry = entries.get(i);
+            Item item = itemRegistry.get(entry.getItemName());
+            if (item == null) {
+                results[i] = new ItemBatchResult(entry, Status.ITEM_NOT_FOUND,
+                        "Item " + entry.getItemName() + " does not exist!");
+                continue;
+            }
+            Type type = getType(item, entry);
+            if (type == null) {
+                results[i] = new ItemBatchResult(entry, Status.INVALID_VALUE,
+                        (entry.isCommand() ? "Command" : "State") + " could not be parsed: " + entry.getValue());
+                continue;
+            }
+            events[i] = entry.isCommand() ? ItemEventFactory.createCommandEvent(item.getName(), (Command) type, source)
+                    : ItemEventFactory.createStateEvent(item.getName(), (State) type, source);
+        }
+
+        for (int i = 0; i < events.length; i++) {
+            Event event = events[i];
+            if (event != null) {
+                try {
+                    eventPublisher.post(event);
+                    results[i] = new ItemBatchResult(entries.get(i), Status.ACCEPTED, null);
+                } catch (IllegalStateException e) {
+                    logger.warn("Cannot post the {}: {}", entries.get(i), e.getMessage());
+                    results[i] = new ItemBatchResult(entries.get(i), Status.FAILED, e.getMessage());
+                }
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private @Nullable Type getType(Item item, ItemBatchEntry entry) {
+        Type type = entry.getType();
+        if (type != null) {
+            return type;
+        }
+        String value = entry.getValue();
+        if (value == null) {
+            return null;
+        }
+        return entry.isCommand() ? TypeParser.parseCommand(item.getAcceptedCommandTypes(), value)
+                : TypeParser.parseState(item.getAcceptedDataTypes(), value);
+    }
+
+    @Reference
+    protected void setItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = itemRegistry;
+    }
+
+    protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = null;
+    }
+
+    @Reference
+    protected void setEventPublisher(EventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    protected void unsetEventPublisher(EventPublisher eventPublisher) {
+        this.eventPublisher = null;
+    }
+
+}
@@ -25,6 +25,7 @@ import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.i18n.UnitProvider;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.InitialItemStateProvider;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemNotUniqueException;
@@ -38,6 +39,7 @@ import org.eclipse.smarthome.core.items.RegistryHook;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.service.CommandDescriptionService;
 import org.eclipse.smarthome.core.service.StateDescriptionService;
+import org.eclipse.smarthome.core.types.State;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -55,6 +57,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Stefan Bußweiler - Migration to new event mechanism
+ * @author agent - Initial item states
  *
  */
 @Component(immediate = true)
@@ -69,6 +72,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
 
     private UnitProvider unitProvider;
     private ItemStateConverter itemStateConverter;
+    private volatile InitialItemStateProvider initialItemStateProvider;
 
     public ItemRegistryImpl() {
         super(ItemProvider.class);
@@ -168,7 +172,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
     }
 
     /**
-     * An item should be initialized, which means that the event publisher is
+     * An item should be initialized, which means that it gets its initial state, the event publisher is
      * injected and its implementation is notified that it has just been
      * created, so it can perform any task it needs to do after its creation.
      *
@@ -178,6 +182,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
     private void initializeItem(Item item) throws IllegalArgumentException {
         ItemUtil.assertValidItemName(item.getName());
 
+        applyInitialState(item);
         injectServices(item);
 
         if (item instanceof GroupItem) {
@@ -189,6 +194,16 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
         addToGroupItems(item, item.getGroupNames());
     }
 
+    private void applyInitialState(Item item) {
+        InitialItemStateProvider provider = initialItemStateProvider;
+        if (provider != null && item instanceof GenericItem) {
+            State state = provider.getInitialState(item);
+            if (state != null) {
+                ((GenericItem) item).setInitialState(state);
+            }
+        }
+    }
+
     private void injectServices(Item item) {
         if (item instanceof GenericItem) {
             GenericItem genericItem = (GenericItem) item;
@@ -471,6 +486,20 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String, ItemProvide
         }
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setInitialItemStateProvider(InitialItemStateProvider initialItemStateProvider) {
+        this.initialItemStateProvider = initialItemStateProvider;
+
+        // items which have been added before get their initial state as well
+        for (Item item : getItems()) {
+            applyInitialState(item);
+        }
+    }
+
+    protected void unsetInitialItemStateProvider(InitialItemStateProvider initialItemStateProvider) {
+        this.initialItemStateProvider = null;
+    }
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setManagedProvider(ManagedItemProvider provider) {
         super.setManagedProvider(provider);
@@ -19,11 +19,14 @@ import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjuster;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -65,6 +68,12 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
     private static final Map<String, Integer> WEEK_DAYS = IntStream.range(0, WEEK_DAYS_STRINGS.length)
             .mapToObj(i -> new SimpleEntry<String, Integer>(WEEK_DAYS_STRINGS[i], i))
             .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+    /**
+     * Fields that, when only containing plain values, ranges and steps, are compiled into a {@link BitSet} so the next
+     * matching value can be looked up directly instead of incrementing the temporal one unit at a time.
+     */
+    private static final Set<ChronoField> BIT_SET_FIELDS = EnumSet.of(ChronoField.SECOND_OF_MINUTE,
+            ChronoField.MINUTE_OF_HOUR, ChronoField.HOUR_OF_DAY, ChronoField.DAY_OF_MONTH, ChronoField.MONTH_OF_YEAR);
 
     private final List<Field> fields = new ArrayList<>(7);
     private final Map<String, String> environmentMap;
@@ -224,17 +233,47 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
         }
 
         final List<Checker> checkers = new ArrayList<>();
+        final BitSet bits = new BitSet();
+        boolean bitSetField = BIT_SET_FIELDS.contains(chronoField);
         // Parse each sub expression
         final String[] split = part.split(",");
         for (String sub : split) {
             checkers.add(parseSub(cronExpression, chronoField, sub, names));
+
+            if (bitSetField) {
+                if (chronoField == ChronoField.DAY_OF_MONTH && isSpecialDayOfMonth(sub)) {
+                    bitSetField = false;
+                } else {
+                    setBits(bits, parseRangeStep(cronExpression, chronoField, sub, names));
+                }
+            }
         }
 
         // If this is the year check, we create a conjunction with a check for the maximum year
         if (chronoField == ChronoField.YEAR) {
             checkers.add(CronAdjuster::checkMaxYear);
         }
-        fields.add(new Field(chronoField, or(checkers)));
+        fields.add(new Field(chronoField, or(checkers), bitSetField ? bits : null));
+    }
+
+    /**
+     * Sets all bits matched by the range/step expression.
+     *
+     * @param bits bit set to set the values in
+     * @param rangeStep array with the start of the range, the end of the range and the step
+     */
+    private static void setBits(BitSet bits, int[] rangeStep) {
+        for (int i = rangeStep[0]; i <= rangeStep[1]; i += rangeStep[2]) {
+            bits.set(i);
+        }
+    }
+
+    /**
+     * @param sub sub expression of the day of month field
+     * @return true if the sub expression uses the L or W syntax
+     */
+    private static boolean isSpecialDayOfMonth(String sub) {
+        return "L".equals(sub) || "LW".equals(sub) || "WL".equals(sub) || sub.endsWith("W");
     }
 
     /*
@@ -279,20 +318,17 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
         }
 
         // Parse range and step expressions
-        final String[] increments = sub.split("/");
-        final int[] range = parseRange(cronExpression, chronoField, increments[0], min, max, names);
+        final int[] rangeStep = parseRangeStep(cronExpression, chronoField, sub, names);
+        final int from = rangeStep[0];
+        final int to = rangeStep[1];
+        final int increment = rangeStep[2];
 
-        if (increments.length == 2) {
+        if (increment > 1) {
             // we had a / expression
-            final int increment = parseInt(cronExpression, chronoField, increments[1]);
-
-            if (range[0] == range[1]) {
-                range[1] = max;
-            }
             return temporal -> {
                 final int n = temporal.get(chronoField);
 
-                return n >= range[0] && n <= range[1] && ((n - range[0]) % increment) == 0;
+                return n >= from && n <= to && ((n - from) % increment) == 0;
             };
         }
 
@@ -300,10 +336,39 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
         return temporal -> {
             final int n = temporal.get(chronoField);
 
-            return n >= range[0] && n <= range[1];
+            return n >= from && n <= to;
         };
     }
 
+    /**
+     * Parses a range and step expression.
+     *
+     * @return array with the start of the range, the end of the range and the step (1 if no step was given)
+     */
+    private int[] parseRangeStep(String cronExpression, ChronoField chronoField, String sub,
+            Map<String, Integer> names) {
+        final int min = (int) chronoField.range().getMinimum();
+        final int max = (int) chronoField.range().getMaximum();
+        final String[] increments = sub.split("/");
+        final int[] range = parseRange(cronExpression, chronoField, increments[0], min, max, names);
+        int increment = 1;
+
+        if (increments.length == 2) {
+            // we had a / expression
+            increment = parseInt(cronExpression, chronoField, increments[1]);
+
+            if (increment < 1) {
+                throw new IllegalArgumentException(
+                        String.format("Step must be positive in cron expression '%s' in field '%s': %s",
+                                cronExpression, chronoField, increment));
+            }
+            if (range[0] == range[1]) {
+                range[1] = max;
+            }
+        }
+        return new int[] { range[0], range[1], increment };
+    }
+
     /**
      * This is the # syntax. We must check that the given weekday is the nth one
      * in the current month. So we take the day of the month and divide it by 7.
@@ -514,23 +579,52 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
     /**
      * Maintains the type and the combined checker. It can verify if a specific part of the temporal is ok, and if not,
      * it will reset it to the next higher temporal with the lower fields set to their minimum value.
+     * If the field has been compiled into a bit set the next higher temporal is the next value set in the bit set, or
+     * the start of the next range if no higher value is set.
      */
     private static class Field {
         final ChronoField type;
         final Checker checker;
+        final @Nullable BitSet bits;
 
-        public Field(ChronoField type, Checker checker) {
+        public Field(ChronoField type, Checker checker, @Nullable BitSet bits) {
             this.type = type;
             this.checker = checker;
+            this.bits = bits;
         }
 
         @Nullable
         Temporal isOk(Temporal t) {
-            if (checker.matches(t)) {
+            final BitSet localBits = bits;
+
+            if (localBits == null) {
+                if (checker.matches(t)) {
+                    return null;
+                }
+                return resetLowerFields(t.plus(1, type.getBaseUnit()), type);
+            }
+
+            final int value = t.get(type);
+
+            if (localBits.get(value)) {
                 return null;
             }
+            final Temporal out = resetLowerFields(t, type);
+            final int next = localBits.nextSetBit(value + 1);
+
+            if (next >= 0 && next <= type.rangeRefinedBy(out).getMaximum()) {
+                return out.with(type, next);
+            } else {
+                // No more matches in this range, continue at the start of the next range.
+                return out.with(type, type.range().getMinimum()).plus(1, type.getRangeUnit());
+            }
+        }
 
-            Temporal out = t.plus(1, type.getBaseUnit());
+        /**
+         * Resets all fields lower than the given type to their minimum value.
+         */
+        private static Temporal resetLowerFields(Temporal temporal, ChronoField type) {
+            Temporal out = temporal;
 
             // Fall-through switch case. for example if type is year all cases below must also be handled.
             switch (type) {
@@ -554,7 +648,7 @@ class CronAdjuster implements SchedulerTemporalAdjuster {
 
         @Override
         public String toString() {
-            return "Field [type=" + type + "]";
+            return "Field [type=" + type + ", bits=" + bits + "]";
         }
     }
 }
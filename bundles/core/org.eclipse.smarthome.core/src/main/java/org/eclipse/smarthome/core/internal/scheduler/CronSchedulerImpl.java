@@ -12,12 +12,19 @@
  */
 package org.eclipse.smarthome.core.internal.scheduler;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -48,6 +55,11 @@ public class CronSchedulerImpl implements CronScheduler {
 
     private final List<Cron> crons = new ArrayList<>();
 
+    /**
+     * Schedules shared by all jobs with the same cron expression, mapped by cron expression.
+     */
+    private final Map<String, SharedCron> sharedCrons = new HashMap<>();
+
     private @NonNullByDefault({}) Scheduler scheduler;
 
     @Override
@@ -66,7 +78,35 @@ public class CronSchedulerImpl implements CronScheduler {
         if (cronAdjuster.isReboot()) {
             return scheduler.at(runnable, Instant.ofEpochMilli(1));
         } else {
-            return scheduler.schedule(runnable, cronAdjuster);
+            synchronized (sharedCrons) {
+                SharedCron sharedCron = sharedCrons.get(cronExpression);
+
+                if (sharedCron == null || sharedCron.isDone()) {
+                    sharedCron = new SharedCron(cronExpression);
+                    final CronListener listener = sharedCron.addListener(runnable);
+
+                    sharedCron.start(scheduler.schedule(sharedCron::run, cronAdjuster));
+                    sharedCrons.put(cronExpression, sharedCron);
+                    return listener;
+                } else {
+                    return sharedCron.addListener(runnable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the listener from the shared schedule. If it was the last listener the shared schedule is cancelled.
+     */
+    private void removeListener(SharedCron sharedCron, CronListener listener) {
+        synchronized (sharedCrons) {
+            sharedCron.listeners.remove(listener);
+            if (sharedCron.listeners.isEmpty()) {
+                if (sharedCrons.get(sharedCron.cronExpression) == sharedCron) {
+                    sharedCrons.remove(sharedCron.cronExpression);
+                }
+                sharedCron.cancel();
+            }
         }
     }
 
@@ -129,4 +169,120 @@ public class CronSchedulerImpl implements CronScheduler {
             this.schedule = schedule;
         }
     }
+
+    /**
+     * A single schedule on the {@link Scheduler} for a cron expression that runs all jobs registered for that
+     * expression. This avoids having a separate scheduled job for each of the many jobs that use the same cron
+     * expression.
+     */
+    private class SharedCron {
+        private final String cronExpression;
+        private final List<CronListener> listeners = new CopyOnWriteArrayList<>();
+        private @Nullable ScheduledCompletableFuture<@Nullable Void> schedule;
+
+        public SharedCron(String cronExpression) {
+            this.cronExpression = cronExpression;
+        }
+
+        CronListener addListener(SchedulerRunnable runnable) {
+            final CronListener listener = new CronListener(this, runnable);
+
+            listeners.add(listener);
+            listener.whenComplete((v, e) -> removeListener(this, listener));
+            return listener;
+        }
+
+        void start(ScheduledCompletableFuture<@Nullable Void> schedule) {
+            this.schedule = schedule;
+            schedule.getPromise().whenComplete((v, e) -> {
+                // The cron expression doesn't match anymore in the future, so all listeners are done.
+                for (CronListener listener : listeners) {
+                    if (e == null) {
+                        listener.complete(v);
+                    } else {
+                        listener.completeExceptionally(e);
+                    }
+                }
+            });
+        }
+
+        void cancel() {
+            final ScheduledCompletableFuture<@Nullable Void> localSchedule = schedule;
+
+            if (localSchedule != null) {
+                localSchedule.cancel(true);
+            }
+        }
+
+        boolean isDone() {
+            final ScheduledCompletableFuture<@Nullable Void> localSchedule = schedule;
+
+            return localSchedule != null && localSchedule.isDone();
+        }
+
+        long getDelay(TimeUnit timeUnit) {
+            final ScheduledCompletableFuture<@Nullable Void> localSchedule = schedule;
+
+            return localSchedule == null ? 0 : localSchedule.getDelay(timeUnit);
+        }
+
+        /**
+         * Dispatches all jobs registered to the scheduler, so a slow job doesn't delay the other jobs or the next run.
+         * A job that is still running from the previous run is skipped, as it would have been with a schedule of its
+         * own. A job that fails is stopped, but doesn't affect the other jobs.
+         */
+        void run() {
+            for (CronListener listener : listeners) {
+                if (listener.running.compareAndSet(false, true)) {
+                    scheduler.after(() -> {
+                        try {
+                            listener.runnable.run();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception e) {
+                            logger.warn("Scheduled job failed and stopped", e);
+                            listener.completeExceptionally(e);
+                        } finally {
+                            listener.running.set(false);
+                        }
+                        return null;
+                    }, Duration.ZERO);
+                } else {
+                    logger.debug("Scheduled job for '{}' is still running, skipping this run", cronExpression);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link ScheduledCompletableFuture} returned for a single job running on a {@link SharedCron}. Cancelling it only
+     * removes the job from the shared schedule.
+     */
+    private static class CronListener extends CompletableFuture<@Nullable Void>
+            implements ScheduledCompletableFuture<@Nullable Void> {
+        private final SharedCron sharedCron;
+        private final SchedulerRunnable runnable;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        public CronListener(SharedCron sharedCron, SchedulerRunnable runnable) {
+            this.sharedCron = sharedCron;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public CompletableFuture<@Nullable Void> getPromise() {
+            return this;
+        }
+
+        @Override
+        public long getDelay(@Nullable TimeUnit timeUnit) {
+            return timeUnit == null ? 0 : sharedCron.getDelay(timeUnit);
+        }
+
+        @Override
+        public int compareTo(@Nullable Delayed delayed) {
+            return delayed == null ? 1
+                    : Long.compare(getDelay(TimeUnit.MILLISECONDS), delayed.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
 }
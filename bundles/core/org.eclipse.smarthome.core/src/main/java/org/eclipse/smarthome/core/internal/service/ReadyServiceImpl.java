@@ -23,6 +23,7 @@ import java.util.function.Consumer;
 import org.eclipse.smarthome.core.service.ReadyMarker;
 import org.eclipse.smarthome.core.service.ReadyMarkerFilter;
 import org.eclipse.smarthome.core.service.ReadyService;
+import org.eclipse.smarthome.core.service.StartupProfiler;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
  * Implementation of the {@link ReadyService} interface.
  *
  * @author Simon Kaufmann - initial contribution and API.
+ * @author agent - Recording of the ready markers for the startup report
  *
  */
 @Component
@@ -50,6 +52,7 @@ public class ReadyServiceImpl implements ReadyService {
         try {
             boolean isNew = markers.add(readyMarker);
             if (isNew) {
+                StartupProfiler.mark(StartupProfiler.CATEGORY_READY_MARKER, readyMarker.toString());
                 notifyTrackers(readyMarker, tracker -> tracker.onReadyMarkerAdded(readyMarker));
                 logger.trace("Added ready marker {}", readyMarker);
             }
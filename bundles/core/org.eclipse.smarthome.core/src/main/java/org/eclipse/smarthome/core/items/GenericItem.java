@@ -76,6 +76,8 @@ public abstract class GenericItem implements ActiveItem {
 
     protected State state = UnDefType.NULL;
 
+    private final Object stateLock = new Object();
+
     protected @Nullable String label;
 
     protected @Nullable String category;
@@ -229,14 +231,37 @@ public abstract class GenericItem implements ActiveItem {
      * @param state new state of this item
      */
     protected final void applyState(State state) {
-        State oldState = this.state;
-        this.state = state;
+        State oldState;
+        synchronized (stateLock) {
+            oldState = this.state;
+            this.state = state;
+        }
         notifyListeners(oldState, state);
         if (!oldState.equals(state)) {
             sendStateChangedEvent(state, oldState);
         }
     }
 
+    /**
+     * Sets the initial state of this item, e.g. the state it had before the last shutdown, if it has no state yet.
+     *
+     * Neither listeners are notified nor events are sent, as the item only continues with the state it had before. A
+     * state which is set concurrently by {@link #setState(State)} is never overwritten. This method is meant to be
+     * called by the {@link ItemRegistry} only.
+     *
+     * @param state initial state of this item
+     * @return true if the state has been set, false if the item already had a state
+     */
+    public boolean setInitialState(State state) {
+        synchronized (stateLock) {
+            if (!UnDefType.NULL.equals(this.state)) {
+                return false;
+            }
+            this.state = state;
+            return true;
+        }
+    }
+
     private void sendStateChangedEvent(State newState, State oldState) {
         if (eventPublisher != null) {
             eventPublisher.post(ItemEventFactory.createStateChangedEvent(this.name, newState, oldState));
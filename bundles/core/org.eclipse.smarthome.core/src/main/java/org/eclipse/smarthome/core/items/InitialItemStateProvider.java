@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.items;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * An {@link InitialItemStateProvider} provides the state which an item gets when it is added to the
+ * {@link ItemRegistry}, e.g. the state it had before the last shutdown.
+ *
+ * <p>
+ * The {@link ItemRegistry} sets the state without notifying listeners or sending events, and only if the item has no
+ * state yet, so that a state which is set concurrently, e.g. by a binding, is kept.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface InitialItemStateProvider {
+
+    /**
+     * Returns the initial state of the given item.
+     *
+     * @param item the item which is added to the registry
+     * @return the state to set or null if the state of the item should not be changed
+     */
+    @Nullable
+    State getInitialState(Item item);
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.items.events;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.Type;
+
+/**
+ * An {@link ItemBatchEntry} is a command or a state update for a single item, which is published together with other
+ * entries by an {@link ItemBatchPublisher}. The value is either given as a {@link Command} or {@link State} or as a
+ * string, which is parsed into one of the types accepted by the item.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class ItemBatchEntry {
+
+    private final String itemName;
+    private final boolean command;
+    private final @Nullable Type type;
+    private final @Nullable String value;
+
+    private ItemBatchEntry(String itemName, boolean command, @Nullable Type type, @Nullable String value) {
+        this.itemName = itemName;
+        this.command = command;
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * Creates an entry which sends the given command to the item.
+     *
+     * @param itemName the name of the item
+     * @param command the command
+     * @return the entry
+     */
+    public static ItemBatchEntry command(String itemName, Command command) {
+        return new ItemBatchEntry(itemName, true, command, null);
+    }
+
+    /**
+     * Creates an entry which sends a command to the item, which is parsed from the given value.
+     *
+     * @param itemName the name of the item
+     * @param value the command value (e.g. ON, OFF, UP, DOWN, REFRESH)
+     * @return the entry
+     */
+    public static ItemBatchEntry command(String itemName, String value) {
+        return new ItemBatchEntry(itemName, true, null, value);
+    }
+
+    /**
+     * Creates an entry which updates the item to the given state.
+     *
+     * @param itemName the name of the item
+     * @param state the state
+     * @return the entry
+     */
+    public static ItemBatchEntry state(String itemName, State state) {
+        return new ItemBatchEntry(itemName, false, state, null);
+    }
+
+    /**
+     * Creates an entry which updates the item to a state, which is parsed from the given value.
+     *
+     * @param itemName the name of the item
+     * @param value the state value (e.g. ON, OFF, 21.5)
+     * @return the entry
+     */
+    public static ItemBatchEntry state(String itemName, String value) {
+        return new ItemBatchEntry(itemName, false, null, value);
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    /**
+     * Returns whether this entry sends a command or updates the state of the item.
+     *
+     * @return true if this entry sends a command, false if it updates the state
+     */
+    public boolean isCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the command or state of this entry, if it has been given as a type.
+     *
+     * @return the command or state or null, if the entry has been created from a string value
+     */
+    public @Nullable Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the value of this entry, if it has been given as a string.
+     *
+     * @return the string value or null, if the entry has been created from a command or state
+     */
+    public @Nullable String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return (command ? "command " : "state ") + (type != null ? type : value) + " for item " + itemName;
+    }
+
+}
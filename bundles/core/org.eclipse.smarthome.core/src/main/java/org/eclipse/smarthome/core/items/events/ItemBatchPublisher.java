@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.items.events;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.events.EventPublisher;
+
+/**
+ * The {@link ItemBatchPublisher} publishes the commands and state updates of many items at once, e.g. for a scene
+ * which switches off the whole house. All entries are resolved against the item registry first and the resulting
+ * {@link ItemCommandEvent}s and {@link ItemStateEvent}s are then posted through the {@link EventPublisher} in the
+ * order of the entries. Entries which cannot be published do not prevent the others from being published.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface ItemBatchPublisher {
+
+    /**
+     * Publishes the events for the given entries.
+     *
+     * @param entries the commands and state updates
+     * @param source the source of the events, can be null
+     * @return the results in the order of the given entries
+     */
+    List<ItemBatchResult> publish(List<ItemBatchEntry> entries, @Nullable String source);
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.items.events;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link ItemBatchResult} tells whether the event of an {@link ItemBatchEntry} has been published.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class ItemBatchResult {
+
+    public enum Status {
+        /** The event has been posted to the event bus. */
+        ACCEPTED,
+        /** The item does not exist. */
+        ITEM_NOT_FOUND,
+        /** The value could not be parsed into a type accepted by the item. */
+        INVALID_VALUE,
+        /** The event could not be posted to the event bus. */
+        FAILED
+    }
+
+    private final ItemBatchEntry entry;
+    private final Status status;
+    private final @Nullable String message;
+
+    public ItemBatchResult(ItemBatchEntry entry, Status status, @Nullable String message) {
+        this.entry = entry;
+        this.status = status;
+        this.message = message;
+    }
+
+    public ItemBatchEntry getEntry() {
+        return entry;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isAccepted() {
+        return status == Status.ACCEPTED;
+    }
+
+    /**
+     * Returns the reason why the event has not been published.
+     *
+     * @return the message or null, if the event has been published
+     */
+    public @Nullable String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + entry + (message != null ? ": " + message : "");
+    }
+
+}
@@ -18,6 +18,7 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -32,6 +33,7 @@ import org.slf4j.LoggerFactory;
  * @author Fabio Marini
  * @author Dimitar Ivanov - added javadoc; introduced WatchKey to directory mapping for the queue reader
  * @author Ana Dimova - reduce to a single watch thread for all class instances of {@link AbstractWatchService}
+ * @author agent - Batched processing of the changes of a directory
  *
  */
 public abstract class AbstractWatchService {
@@ -114,4 +116,32 @@ public abstract class AbstractWatchService {
      */
     protected abstract void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path);
 
+    /**
+     * Processes the changes of a directory, which have been collected until no further event has been received for the
+     * directory within the {@link #getQuietPeriod() quiet period}. Each changed path is contained only once, with an
+     * event summing up all its events: a path which has been created is reported as created, a path which has been
+     * deleted as deleted, and a path which has been modified or replaced as modified. Paths which have been created
+     * and deleted again as well as modifications that did not change the content of a file are left out.
+     * <p>
+     * The default implementation passes each event to {@link #processWatchEvent(WatchEvent, Kind, Path)}. Subclasses
+     * may override this method to process the changes of many files at once.
+     *
+     * @param directory the directory the changed paths are contained in
+     * @param events the events by the changed paths, in the order in which the paths have been changed first
+     */
+    protected void processWatchEvents(Path directory, Map<Path, WatchEvent<Path>> events) {
+        events.forEach((path, event) -> processWatchEvent(event, event.kind(), path));
+    }
+
+    /**
+     * Returns the time without further events, after which the changes of a directory are processed. The default is
+     * taken from the {@value WatchQueueReader#QUIET_PERIOD_PROPERTY} system property and is one second if it is not
+     * set.
+     *
+     * @return the quiet period in milliseconds
+     */
+    protected long getQuietPeriod() {
+        return WatchQueueReader.getDefaultQuietPeriod();
+    }
+
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.service;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A phase of the startup, which has been recorded by the {@link StartupProfiler}. A phase without a duration marks a
+ * point in time, e.g. the registration of a {@link ReadyMarker}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StartupPhase {
+
+    private final String category;
+    private final String name;
+    private final String thread;
+    private final long start;
+    private final long end;
+
+    /**
+     * Creates a new phase.
+     *
+     * @param category the category of the phase, e.g. "model"
+     * @param name the name of the phase within the category, e.g. the name of the model
+     * @param thread the name of the thread the phase has been executed in
+     * @param start the start of the phase in milliseconds since the start of the JVM
+     * @param end the end of the phase in milliseconds since the start of the JVM
+     */
+    public StartupPhase(String category, String name, String thread, long start, long end) {
+        this.category = category;
+        this.name = name;
+        this.thread = thread;
+        this.start = start;
+        this.end = end;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * @return the start of the phase in milliseconds since the start of the JVM
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return the end of the phase in milliseconds since the start of the JVM
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the duration of the phase in milliseconds
+     */
+    public long getDuration() {
+        return end - start;
+    }
+
+    @Override
+    public String toString() {
+        return category + " '" + name + "' [" + start + "ms - " + end + "ms, thread=" + thread + "]";
+    }
+
+}
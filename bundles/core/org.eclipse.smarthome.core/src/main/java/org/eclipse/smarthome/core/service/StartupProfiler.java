@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link StartupProfiler} records the phases of the startup of the system, e.g. the registration of the
+ * {@link ReadyMarker}s, the addition of providers to the registries, the loading of models or the initialization of
+ * thing handlers, and creates a {@link StartupReport} of them.
+ *
+ * <p>
+ * The phases are recorded relative to the start of the JVM. Only the phases which start within the
+ * {@link #RECORDING_PERIOD} after the start of the JVM are recorded and at most {@link #MAX_PHASES} of them, so that the
+ * profiler does not grow while the system is running.
+ *
+ * <p>
+ * A phase is recorded like this:
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * StartupProfiler.record("model", modelName, start);
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public final class StartupProfiler {
+
+    /** The category of the registration of {@link ReadyMarker}s */
+    public static final String CATEGORY_READY_MARKER = "readyMarker";
+
+    /** The category of the addition of providers to the registries */
+    public static final String CATEGORY_PROVIDER = "provider";
+
+    static final long RECORDING_PERIOD = TimeUnit.MINUTES.toMillis(15);
+    static final int MAX_PHASES = 10000;
+
+    private static final StartupProfiler INSTANCE = new StartupProfiler(
+            System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+
+    // the value of System.nanoTime() at the start of the JVM
+    private final long origin;
+
+    private final List<StartupPhase> phases = new ArrayList<>();
+    private int droppedPhases;
+
+    StartupProfiler(long origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Records a phase which has started at the given time and ends now.
+     *
+     * @param category the category of the phase
+     * @param name the name of the phase within the category
+     * @param start the start of the phase as returned by {@link System#nanoTime()}
+     */
+    public static void record(String category, String name, long start) {
+        INSTANCE.recordPhase(category, name, start, System.nanoTime());
+    }
+
+    /**
+     * Records a point in time of the startup.
+     *
+     * @param category the category of the point in time
+     * @param name the name of the point in time within the category
+     */
+    public static void mark(String category, String name) {
+        long now = System.nanoTime();
+        INSTANCE.recordPhase(category, name, now, now);
+    }
+
+    /**
+     * Creates a report of the phases which have been recorded so far.
+     *
+     * @return the report
+     */
+    public static StartupReport getReport() {
+        return INSTANCE.createReport();
+    }
+
+    void recordPhase(String category, String name, long start, long end) {
+        long startTime = TimeUnit.NANOSECONDS.toMillis(start - origin);
+        if (startTime > RECORDING_PERIOD) {
+            return;
+        }
+        StartupPhase phase = new StartupPhase(category, name, Thread.currentThread().getName(), startTime,
+                TimeUnit.NANOSECONDS.toMillis(end - origin));
+        synchronized (phases) {
+            if (phases.size() < MAX_PHASES) {
+                phases.add(phase);
+            } else {
+                droppedPhases++;
+            }
+        }
+    }
+
+    StartupReport createReport() {
+        synchronized (phases) {
+            return new StartupReport(phases, droppedPhases);
+        }
+    }
+
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.core.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The report of the startup phases recorded by the {@link StartupProfiler}.
+ *
+ * <p>
+ * The <i>critical path</i> is the chain of phases which has determined the end of the startup: starting with the phase
+ * that has ended last, it is followed back by the phase that has ended last before the respective phase has started.
+ * Gaps between the phases of the critical path denote times in which nothing has been recorded which could have
+ * delayed the phase.
+ *
+ * <p>
+ * The <i>parallelism</i> is the sum of the durations of the phases divided by the time in which at least one of them
+ * has been executed, i.e. the average number of phases which have been executed at the same time.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class StartupReport {
+
+    private final long duration;
+    private final long busyTime;
+    private final double parallelism;
+    private final int maxConcurrency;
+    private final int droppedPhases;
+    private final List<CategorySummary> categories;
+    private final List<StartupPhase> criticalPath;
+
+    // the phases are not serialized along with the report as there may be thousands of them
+    private final transient List<StartupPhase> phases;
+
+    StartupReport(List<StartupPhase> recordedPhases, int droppedPhases) {
+        List<StartupPhase> phases = new ArrayList<>(recordedPhases);
+        phases.sort(Comparator.comparingLong(StartupPhase::getStart).thenComparingLong(StartupPhase::getEnd));
+        this.phases = Collections.unmodifiableList(phases);
+        this.droppedPhases = droppedPhases;
+        this.duration = phases.stream().mapToLong(StartupPhase::getEnd).max().orElse(0);
+        this.busyTime = getBusyTime(phases);
+        this.parallelism = getParallelism(phases, busyTime);
+        this.maxConcurrency = getMaxConcurrency(phases);
+        this.criticalPath = Collections.unmodifiableList(getCriticalPath(phases));
+
+        Map<String, List<StartupPhase>> phasesByCategory = phases.stream()
+                .collect(Collectors.groupingBy(StartupPhase::getCategory, LinkedHashMap::new, Collectors.toList()));
+        this.categories = Collections.unmodifiableList(phasesByCategory.entrySet().stream()
+                .map(entry -> new CategorySummary(entry.getKey(), entry.getValue())).collect(Collectors.toList()));
+    }
+
+    /**
+     * @return the end of the last recorded phase in milliseconds since the start of the JVM
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the time in milliseconds in which at least one phase has been executed
+     */
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    /**
+     * @return the average number of phases which have been executed at the same time
+     */
+    public double getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the maximum number of phases which have been executed at the same time
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of phases which have not been recorded because the maximum number of phases was reached
+     */
+    public int getDroppedPhases() {
+        return droppedPhases;
+    }
+
+    /**
+     * @return the summaries of the categories in the order of their first phase
+     */
+    public List<CategorySummary> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @return the phases of the critical path in the order of their execution
+     */
+    public List<StartupPhase> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * @return all recorded phases in the order of their start
+     */
+    public List<StartupPhase> getPhases() {
+        return phases;
+    }
+
+    private static long getBusyTime(List<StartupPhase> phases) {
+        // the phases are sorted by their start, so overlapping phases can be merged in one pass
+        long busyTime = 0;
+        long currentStart = -1;
+        long currentEnd = -1;
+        for (StartupPhase phase : phases) {
+            if (phase.getStart() > currentEnd) {
+                busyTime += currentEnd - currentStart;
+                currentStart = phase.getStart();
+                currentEnd = phase.getEnd();
+            } else if (phase.getEnd() > currentEnd) {
+                currentEnd = phase.getEnd();
+            }
+        }
+        return busyTime + currentEnd - currentStart;
+    }
+
+    private static double getParallelism(List<StartupPhase> phases, long busyTime) {
+        if (busyTime == 0) {
+            return 0;
+        }
+        return (double) phases.stream().mapToLong(StartupPhase::getDuration).sum() / busyTime;
+    }
+
+    private static int getMaxConcurrency(List<StartupPhase> phases) {
+        List<long[]> boundaries = new ArrayList<>(phases.size() * 2);
+        for (StartupPhase phase : phases) {
+            if (phase.getDuration() > 0) {
+                boundaries.add(new long[] { phase.getStart(), 1 });
+                boundaries.add(new long[] { phase.getEnd(), -1 });
+            }
+        }
+        // a phase which ends at the time another one starts does not overlap with it
+        boundaries.sort(Comparator.<long[]> comparingLong(boundary -> boundary[0])
+                .thenComparingLong(boundary -> boundary[1]));
+        int concurrency = 0;
+        int maxConcurrency = 0;
+        for (long[] boundary : boundaries) {
+            concurrency += boundary[1];
+            maxConcurrency = Math.max(maxConcurrency, concurrency);
+        }
+        return maxConcurrency;
+    }
+
+    private static List<StartupPhase> getCriticalPath(List<StartupPhase> phases) {
+        if (phases.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<StartupPhase> byEnd = new ArrayList<>(phases);
+        byEnd.sort(Comparator.comparingLong(StartupPhase::getEnd).thenComparingLong(StartupPhase::getStart));
+
+        List<StartupPhase> criticalPath = new ArrayList<>();
+        int current = byEnd.size() - 1;
+        while (current >= 0) {
+            StartupPhase phase = byEnd.get(current);
+            criticalPath.add(phase);
+            current = findLastEndedBefore(byEnd, current, phase.getStart());
+        }
+        Collections.reverse(criticalPath);
+        return criticalPath;
+    }
+
+    /**
+     * Finds the phase which has ended last at or before the given time among the phases before the given index.
+     *
+     * @return the index of the phase or -1 if there is none
+     */
+    private static int findLastEndedBefore(List<StartupPhase> byEnd, int index, long time) {
+        int low = 0;
+        int high = index - 1;
+        int result = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (byEnd.get(middle).getEnd() <= time) {
+                result = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The summary of the phases of a category.
+     */
+    public static class CategorySummary {
+
+        private final String category;
+        private final int count;
+        private final long totalTime;
+        private final long busyTime;
+        private final double parallelism;
+        private final long maxDuration;
+
+        CategorySummary(String category, List<StartupPhase> phases) {
+            this.category = category;
+            this.count = phases.size();
+            this.totalTime = phases.stream().mapToLong(StartupPhase::getDuration).sum();
+            this.busyTime = StartupReport.getBusyTime(phases);
+            this.parallelism = StartupReport.getParallelism(phases, busyTime);
+            this.maxDuration = phases.stream().mapToLong(StartupPhase::getDuration).max().orElse(0);
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return the number of phases of the category
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return the sum of the durations of the phases in milliseconds
+         */
+        public long getTotalTime() {
+            return totalTime;
+        }
+
+        /**
+         * @return the time in milliseconds in which at least one phase of the category has been executed
+         */
+        public long getBusyTime() {
+            return busyTime;
+        }
+
+        /**
+         * @return the average number of phases of the category which have been executed at the same time
+         */
+        public double getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * @return the duration of the longest phase of the category in milliseconds
+         */
+        public long getMaxDuration() {
+            return maxDuration;
+        }
+    }
+
+}
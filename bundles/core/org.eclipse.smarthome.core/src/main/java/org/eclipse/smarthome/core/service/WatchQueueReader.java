@@ -16,7 +16,9 @@ import static java.nio.file.StandardWatchEventKinds.*;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitOption;
@@ -25,6 +27,7 @@ import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchKey;
@@ -35,9 +38,12 @@ import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -54,11 +60,25 @@ import org.slf4j.LoggerFactory;
  * @author Fabio Marini
  * @author Dimitar Ivanov - use relative path in watch events. Added option to watch directory events or not
  * @author Ana Dimova - reduce to a single watch thread for all class instances of {@link AbstractWatchService}
+ * @author agent - Coalesce the events of a directory over a quiet period
  */
 public class WatchQueueReader implements Runnable {
 
+    /**
+     * The name of the system property the default quiet period (in ms) of the watch services can be configured with
+     */
+    public static final String QUIET_PERIOD_PROPERTY = "smarthome.watch.quietperiod";
+
     private static final String THREAD_POOL_NAME = "file-processing";
-    private static final int PROCESSING_DELAY = 1000; // ms
+    private static final long DEFAULT_QUIET_PERIOD = 1000; // ms
+
+    // the changes of a directory are not postponed for more than this number of quiet periods
+    private static final int MAX_DELAY_FACTOR = 10;
+
+    // files of at least this size are hashed chunk by chunk through memory mapped regions
+    private static final long MAPPED_HASHING_THRESHOLD = 1024 * 1024;
+    private static final long MAPPED_HASHING_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int HASHING_BUFFER_SIZE = 8192;
 
     protected final Logger logger = LoggerFactory.getLogger(WatchQueueReader.class);
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME);
@@ -67,8 +87,9 @@ public class WatchQueueReader implements Runnable {
 
     private final Map<WatchKey, Path> registeredKeys = new HashMap<>();
     private final Map<WatchKey, AbstractWatchService> keyToService = new HashMap<>();
-    private final Map<AbstractWatchService, Map<Path, byte[]>> hashes = new HashMap<>();
-    private final Map<WatchKey, @Nullable Map<Path, @Nullable ScheduledFuture<?>>> futures = new ConcurrentHashMap<>();
+    private final Map<AbstractWatchService, Map<Path, byte[]>> hashes = new ConcurrentHashMap<>();
+    /* guarded by itself, which also guards the contents of the directory changes */
+    private final Map<WatchKey, DirectoryChanges> pendingChanges = new HashMap<>();
 
     private Thread qr;
 
@@ -89,6 +110,17 @@ public class WatchQueueReader implements Runnable {
         return INSTANCE;
     }
 
+    /**
+     * Returns the default quiet period of the watch services, which can be set by the {@value #QUIET_PERIOD_PROPERTY}
+     * system property.
+     *
+     * @return the default quiet period in milliseconds
+     */
+    static long getDefaultQuietPeriod() {
+        Long quietPeriod = Long.getLong(QUIET_PERIOD_PROPERTY);
+        return quietPeriod != null && quietPeriod >= 0 ? quietPeriod : DEFAULT_QUIET_PERIOD;
+    }
+
     private WatchQueueReader() {
         // prevent instantiation
     }
@@ -184,17 +216,21 @@ public class WatchQueueReader implements Runnable {
                 keyToService.clear();
                 registeredKeys.clear();
                 hashes.clear();
-                futures.values().forEach(keyFutures -> keyFutures.values().forEach(future -> future.cancel(true)));
-                futures.clear();
+                synchronized (pendingChanges) {
+                    pendingChanges.values().forEach(DirectoryChanges::cancel);
+                    pendingChanges.clear();
+                }
             } else {
                 for (WatchKey key : keys) {
                     key.cancel();
                     keyToService.remove(key);
                     registeredKeys.remove(key);
                     hashes.remove(service);
-                    Map<Path, @Nullable ScheduledFuture<?>> keyFutures = futures.remove(key);
-                    if (keyFutures != null) {
-                        keyFutures.values().forEach(future -> future.cancel(true));
+                    synchronized (pendingChanges) {
+                        DirectoryChanges changes = pendingChanges.remove(key);
+                        if (changes != null) {
+                            changes.cancel();
+                        }
                     }
                 }
             }
@@ -234,11 +270,7 @@ public class WatchQueueReader implements Runnable {
                             if (kind == ENTRY_MODIFY && f.isDirectory()) {
                                 logger.trace("Skipping modification event for directory: {}", f);
                             } else {
-                                if (kind == ENTRY_MODIFY) {
-                                    processModificationEvent(key, event, resolvedPath, service);
-                                } else {
-                                    service.processWatchEvent(event, kind, resolvedPath);
-                                }
+                                queueEvent(key, event, resolvedPath, service);
                             }
                             if (kind == ENTRY_CREATE && f.isDirectory() && service.watchSubDirectories()
                                     && service.getWatchEventKinds(resolvedPath) != null) {
@@ -258,14 +290,6 @@ public class WatchQueueReader implements Runnable {
                                         keyToService.remove(toCancel);
                                         toCancel.cancel();
                                     }
-                                    forgetChecksum(service, resolvedPath);
-                                    Map<Path, @Nullable ScheduledFuture<?>> keyFutures = futures.get(key);
-                                    if (keyFutures != null) {
-                                        ScheduledFuture<?> future = keyFutures.remove(resolvedPath);
-                                        if (future != null) {
-                                            future.cancel(true);
-                                        }
-                                    }
                                 }
                             }
                         }
@@ -282,11 +306,14 @@ public class WatchQueueReader implements Runnable {
     }
 
     /**
-     * Schedules forwarding of the event to the listeners (if appliccable).
+     * Queues the event for the forwarding to the listeners (if appliccable).
      * <p>
-     * By delaying the forwarding, duplicate modification events and those where the actual file-content is not
-     * consistent or empty in between will get skipped and the file system gets a chance to "settle" before the
-     * framework is going to act on it.
+     * The events of a directory are collected until no further event has been received for the directory within the
+     * quiet period of the watch service. This way editors which write a file several times or replace it by a
+     * temporary file as well as tools which change many files at once (e.g. a "git pull") result in a single change
+     * per file, and the changes of the whole directory are passed to the listener as one batch. The file system also
+     * gets a chance to "settle" before the framework is going to act on it, so modification events where the actual
+     * file-content is not consistent or empty in between will get skipped.
      * <p>
      * Also, modification events are received for meta-data changes (e.g. last modification timestamp or file
      * permissions). They are filtered out by comparing the checksums of the file's content.
@@ -296,37 +323,55 @@ public class WatchQueueReader implements Runnable {
      * "https://stackoverflow.com/questions/16777869/java-7-watchservice-ignoring-multiple-occurrences-of-the-same-event">this
      * discussion</a> on Stack Overflow.
      *
-     *
-     * @param key
-     * @param event
-     * @param resolvedPath
-     * @param service
+     * @param key the watch key the event has been received for
+     * @param event the event
+     * @param resolvedPath the resolved path of the event
+     * @param service the watch service the key belongs to
      */
-    private void processModificationEvent(WatchKey key, WatchEvent<?> event, Path resolvedPath,
-            AbstractWatchService service) {
-        synchronized (futures) {
-            logger.trace("Modification event for {} ", resolvedPath);
-            ScheduledFuture<?> previousFuture = removeScheduledJob(key, resolvedPath);
-            if (previousFuture != null) {
-                previousFuture.cancel(true);
-                logger.trace("Cancelled previous for {} ", resolvedPath);
-            }
-            ScheduledFuture<?> future = scheduler.schedule(() -> {
-                logger.trace("Executing job for {}", resolvedPath);
-                ScheduledFuture<?> res = removeScheduledJob(key, resolvedPath);
-                if (res != null) {
-                    logger.trace("Job removed itself for {}", resolvedPath);
-                } else {
-                    logger.trace("Job couldn't find itself for {}", resolvedPath);
+    private void queueEvent(WatchKey key, WatchEvent<?> event, Path resolvedPath, AbstractWatchService service) {
+        logger.trace("{} event for {}", event.kind(), resolvedPath);
+        // the changes must not be added to an instance whose changes have just been taken and which has been removed
+        synchronized (pendingChanges) {
+            pendingChanges.computeIfAbsent(key, k -> new DirectoryChanges(k, service, resolvedPath.getParent()))
+                    .add(resolvedPath, event);
+        }
+    }
+
+    private void processChanges(DirectoryChanges directoryChanges, Map<Path, PathChange> changes) {
+        AbstractWatchService service = directoryChanges.service;
+        Map<Path, WatchEvent<Path>> events = new LinkedHashMap<>();
+        for (Entry<Path, PathChange> entry : changes.entrySet()) {
+            Path path = entry.getKey();
+            PathChange change = entry.getValue();
+            Kind<Path> kind = change.getKind();
+            if (kind == null) {
+                logger.trace("File '{}' has been created and deleted again, skipping its events", path);
+                forgetChecksum(service, path);
+            } else if (kind == ENTRY_DELETE) {
+                forgetChecksum(service, path);
+                events.put(path, new CoalescedWatchEvent(kind, change.count, change.context));
+            } else {
+                if (kind == ENTRY_CREATE && isContentTracked(service, path)) {
+                    // the file has been replaced without a deletion event, e.g. by moving a temporary file in its place
+                    kind = ENTRY_MODIFY;
                 }
-                if (checkAndTrackContent(service, resolvedPath)) {
-                    service.processWatchEvent(event, event.kind(), resolvedPath);
+                // the checksum of a created file is tracked as well, so that later modifications can be compared to it
+                boolean contentChanged = checkAndTrackContent(service, path);
+                if (contentChanged || kind == ENTRY_CREATE) {
+                    events.put(path, new CoalescedWatchEvent(kind, change.count, change.context));
                 } else {
-                    logger.trace("File content '{}' has not changed, skipping modification event", resolvedPath);
+                    logger.trace("File content '{}' has not changed, skipping modification event", path);
                 }
-            }, PROCESSING_DELAY, TimeUnit.MILLISECONDS);
-            logger.trace("Scheduled processing of {}", resolvedPath);
-            rememberScheduledJob(key, resolvedPath, future);
+            }
+        }
+        if (!events.isEmpty()) {
+            logger.trace("Processing {} changes in {}", events.size(), directoryChanges.directory);
+            try {
+                service.processWatchEvents(directoryChanges.directory, events);
+            } catch (RuntimeException e) {
+                logger.error("Error processing the changes in '{}': {}", directoryChanges.directory, e.getMessage(),
+                        e);
+            }
         }
     }
 
@@ -353,20 +398,25 @@ public class WatchQueueReader implements Runnable {
     }
 
     private byte[] hash(Path path) {
-        try {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
             MessageDigest digester = MessageDigest.getInstance("SHA-256");
-            if (!Files.exists(path)) {
-                return null;
-            }
-            try (InputStream is = Files.newInputStream(path)) {
-                byte[] buffer = new byte[4069];
-                int read;
-                do {
-                    read = is.read(buffer);
-                    if (read > 0) {
-                        digester.update(buffer, 0, read);
-                    }
-                } while (read != -1);
+            long size = channel.size();
+            if (size < MAPPED_HASHING_THRESHOLD) {
+                ByteBuffer buffer = ByteBuffer.allocate(HASHING_BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digester.update(buffer);
+                    buffer.clear();
+                }
+            } else {
+                // large files are not copied to the heap but digested directly from the mapped regions
+                for (long position = 0; position < size; position += MAPPED_HASHING_CHUNK_SIZE) {
+                    long chunkSize = Math.min(MAPPED_HASHING_CHUNK_SIZE, size - position);
+                    digester.update(channel.map(MapMode.READ_ONLY, position, chunkSize));
+                }
             }
             return digester.digest();
         } catch (NoSuchAlgorithmException | IOException e) {
@@ -387,15 +437,16 @@ public class WatchQueueReader implements Runnable {
         if (newHash == null) {
             return true;
         }
-        Map<Path, byte[]> keyHashes = hashes.get(service);
-        if (keyHashes == null) {
-            keyHashes = new HashMap<>();
-            hashes.put(service, keyHashes);
-        }
+        Map<Path, byte[]> keyHashes = hashes.computeIfAbsent(service, s -> new ConcurrentHashMap<>());
         byte[] oldHash = keyHashes.put(resolvedPath, newHash);
         return oldHash == null || !Arrays.equals(oldHash, newHash);
     }
 
+    private boolean isContentTracked(AbstractWatchService service, Path resolvedPath) {
+        Map<Path, byte[]> keyHashes = hashes.get(service);
+        return keyHashes != null && keyHashes.containsKey(resolvedPath);
+    }
+
     private void forgetChecksum(AbstractWatchService service, Path resolvedPath) {
         Map<Path, byte[]> keyHashes = hashes.get(service);
         if (keyHashes != null) {
@@ -403,23 +454,189 @@ public class WatchQueueReader implements Runnable {
         }
     }
 
-    private Map<Path, @Nullable ScheduledFuture<?>> getKeyFutures(WatchKey key) {
-        Map<Path, @Nullable ScheduledFuture<?>> keyFutures = futures.get(key);
-        if (keyFutures == null) {
-            keyFutures = new ConcurrentHashMap<>();
-            futures.put(key, keyFutures);
+    /**
+     * The changes of a directory which have not been passed to the watch service yet.
+     */
+    private class DirectoryChanges {
+
+        private final WatchKey key;
+        private final AbstractWatchService service;
+        private final Path directory;
+
+        private final Map<Path, PathChange> changes = new LinkedHashMap<>();
+        private final Object processingLock = new Object();
+
+        private @Nullable ScheduledFuture<?> job;
+        private long firstPostponed;
+
+        DirectoryChanges(WatchKey key, AbstractWatchService service, Path directory) {
+            this.key = key;
+            this.service = service;
+            this.directory = directory;
+        }
+
+        /* must be called while holding the lock of the pending changes */
+        void add(Path path, WatchEvent<?> event) {
+            long now = System.nanoTime();
+            PathChange change = changes.get(path);
+            if (change == null) {
+                changes.put(path, new PathChange(event, now));
+            } else {
+                change.update(event, now);
+            }
+
+            long quietPeriod = TimeUnit.MILLISECONDS.toNanos(service.getQuietPeriod());
+            ScheduledFuture<?> job = this.job;
+            if (job == null) {
+                firstPostponed = now;
+                schedule(quietPeriod);
+            } else if (now - firstPostponed < quietPeriod * MAX_DELAY_FACTOR) {
+                // postpone the processing until the directory becomes quiet, unless it is busy for too long
+                job.cancel(false);
+                schedule(quietPeriod);
+            }
+        }
+
+        private void schedule(long delay) {
+            job = scheduler.schedule(this::process, delay, TimeUnit.NANOSECONDS);
+        }
+
+        void cancel() {
+            synchronized (pendingChanges) {
+                ScheduledFuture<?> job = this.job;
+                if (job != null) {
+                    job.cancel(false);
+                    this.job = null;
+                }
+                changes.clear();
+            }
+        }
+
+        private void process() {
+            // the changes of a directory are processed one batch after the other
+            synchronized (processingLock) {
+                Map<Path, PathChange> settledChanges = takeSettledChanges();
+                if (!settledChanges.isEmpty()) {
+                    processChanges(this, settledChanges);
+                }
+            }
+        }
+
+        /**
+         * Removes the changes of all paths which have been quiet for the quiet period.
+         *
+         * @return the settled changes in the order the paths have been changed first
+         */
+        private Map<Path, PathChange> takeSettledChanges() {
+            synchronized (pendingChanges) {
+                ScheduledFuture<?> job = this.job;
+                if (job != null) {
+                    job.cancel(false);
+                    this.job = null;
+                }
+
+                long now = System.nanoTime();
+                long quietPeriod = TimeUnit.MILLISECONDS.toNanos(service.getQuietPeriod());
+                long nextDelay = Long.MAX_VALUE;
+                Map<Path, PathChange> settledChanges = new LinkedHashMap<>();
+                for (Iterator<Entry<Path, PathChange>> it = changes.entrySet().iterator(); it.hasNext();) {
+                    Entry<Path, PathChange> entry = it.next();
+                    long remaining = quietPeriod - (now - entry.getValue().lastEvent);
+                    if (remaining <= 0) {
+                        settledChanges.put(entry.getKey(), entry.getValue());
+                        it.remove();
+                    } else {
+                        nextDelay = Math.min(nextDelay, remaining);
+                    }
+                }
+
+                if (changes.isEmpty()) {
+                    pendingChanges.remove(key, this);
+                } else {
+                    firstPostponed = now;
+                    schedule(nextDelay);
+                }
+                return settledChanges;
+            }
         }
-        return keyFutures;
     }
 
-    private ScheduledFuture<?> removeScheduledJob(WatchKey key, Path resolvedPath) {
-        Map<Path, @Nullable ScheduledFuture<?>> keyFutures = getKeyFutures(key);
-        return keyFutures.remove(resolvedPath);
+    /**
+     * The events of a single path which have been received within the quiet period.
+     */
+    private static class PathChange {
+
+        private final Kind<?> firstKind;
+        private Kind<?> lastKind;
+        private Path context;
+        private int count;
+        private long lastEvent;
+
+        PathChange(WatchEvent<?> event, long time) {
+            firstKind = event.kind();
+            lastKind = firstKind;
+            context = WatchQueueReader.<Path> cast(event).context();
+            count = event.count();
+            lastEvent = time;
+        }
+
+        void update(WatchEvent<?> event, long time) {
+            lastKind = event.kind();
+            context = WatchQueueReader.<Path> cast(event).context();
+            count += event.count();
+            lastEvent = time;
+        }
+
+        /**
+         * Sums up the events of the path.
+         *
+         * @return the kind of the change or {@code null} if the path has been created and deleted again
+         */
+        @Nullable
+        Kind<Path> getKind() {
+            if (firstKind == ENTRY_CREATE) {
+                return lastKind == ENTRY_DELETE ? null : ENTRY_CREATE;
+            } else if (lastKind == ENTRY_DELETE) {
+                return ENTRY_DELETE;
+            } else {
+                // the path has been modified or it has been deleted and created again, e.g. by moving a temporary
+                // file in its place
+                return ENTRY_MODIFY;
+            }
+        }
     }
 
-    private void rememberScheduledJob(WatchKey key, Path resolvedPath, ScheduledFuture<?> future) {
-        Map<Path, @Nullable ScheduledFuture<?>> keyFutures = getKeyFutures(key);
-        keyFutures.put(resolvedPath, future);
+    private static class CoalescedWatchEvent implements WatchEvent<Path> {
+
+        private final Kind<Path> kind;
+        private final int count;
+        private final Path context;
+
+        CoalescedWatchEvent(Kind<Path> kind, int count, Path context) {
+            this.kind = kind;
+            this.count = count;
+            this.context = context;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public Path context() {
+            return context;
+        }
+
+        @Override
+        public String toString() {
+            return "WatchEvent [kind=" + kind + ", count=" + count + ", context=" + context + "]";
+        }
     }
 
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.console.internal.extension;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.service.StartupPhase;
+import org.eclipse.smarthome.core.service.StartupProfiler;
+import org.eclipse.smarthome.core.service.StartupReport;
+import org.eclipse.smarthome.core.service.StartupReport.CategorySummary;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Console command extension to show the report of the {@link StartupProfiler}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class StartupConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_REPORT = "report";
+    private static final String SUBCMD_SLOWEST = "slowest";
+
+    private static final int DEFAULT_COUNT = 20;
+
+    public StartupConsoleCommandExtension() {
+        super("startup", "Show the phases of the startup of the system.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] {
+                buildCommandUsage(SUBCMD_REPORT,
+                        "shows the duration and parallelism of the startup per category and its critical path"),
+                buildCommandUsage(SUBCMD_SLOWEST + " [<category>] [<count>]",
+                        "lists the slowest phases of the startup, optionally only those of the given category") });
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_REPORT:
+                    printReport(console, StartupProfiler.getReport());
+                    break;
+                case SUBCMD_SLOWEST:
+                    printSlowest(console, StartupProfiler.getReport(), Arrays.copyOfRange(args, 1, args.length));
+                    break;
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printReport(Console console, StartupReport report) {
+        console.println(String.format(Locale.ROOT,
+                "Startup completed %d ms after the start of the JVM, busy for %d ms with a parallelism of %.2f"
+                        + " (at most %d phases at the same time).",
+                report.getDuration(), report.getBusyTime(), report.getParallelism(), report.getMaxConcurrency()));
+        if (report.getDroppedPhases() > 0) {
+            console.println(report.getDroppedPhases() + " phases have not been recorded.");
+        }
+
+        console.println("");
+        console.println(String.format(Locale.ROOT, "%-30s %8s %10s %10s %11s %10s", "Category", "Count", "Total ms",
+                "Busy ms", "Parallelism", "Max ms"));
+        for (CategorySummary category : report.getCategories()) {
+            console.println(String.format(Locale.ROOT, "%-30s %8d %10d %10d %11.2f %10d", category.getCategory(),
+                    category.getCount(), category.getTotalTime(), category.getBusyTime(), category.getParallelism(),
+                    category.getMaxDuration()));
+        }
+
+        console.println("");
+        console.println("Critical path:");
+        long end = 0;
+        for (StartupPhase phase : report.getCriticalPath()) {
+            if (phase.getStart() > end) {
+                console.println(String.format(Locale.ROOT, "%10d ms  %8d ms  (nothing recorded)", end,
+                        phase.getStart() - end));
+            }
+            console.println(format(phase));
+            end = phase.getEnd();
+        }
+    }
+
+    private void printSlowest(Console console, StartupReport report, String[] args) {
+        @Nullable
+        String category = null;
+        int count = DEFAULT_COUNT;
+        for (String arg : args) {
+            try {
+                count = Integer.parseInt(arg);
+            } catch (NumberFormatException e) {
+                category = arg;
+            }
+        }
+        if (count < 0) {
+            console.println("The count must not be negative.");
+            printUsage(console);
+            return;
+        }
+        String filter = category;
+        report.getPhases().stream().filter(phase -> filter == null || phase.getCategory().equals(filter))
+                .sorted(Comparator.comparingLong(StartupPhase::getDuration).reversed()).limit(count)
+                .forEach(phase -> console.println(format(phase)));
+    }
+
+    private String format(StartupPhase phase) {
+        return String.format(Locale.ROOT, "%10d ms  %8d ms  %s: %s [%s]", phase.getStart(), phase.getDuration(),
+                phase.getCategory(), phase.getName(), phase.getThread());
+    }
+
+}
@@ -85,18 +85,7 @@ public class ExecUtil {
     public static String executeCommandLineAndWaitResponse(String commandLine, int timeout) {
         String retval = null;
 
-        CommandLine cmdLine = null;
-
-        if (commandLine.contains(CMD_LINE_DELIMITER)) {
-            String[] cmdArray = commandLine.split(CMD_LINE_DELIMITER);
-            cmdLine = new CommandLine(cmdArray[0]);
-
-            for (int i = 1; i < cmdArray.length; i++) {
-                cmdLine.addArgument(cmdArray[i], false);
-            }
-        } else {
-            cmdLine = CommandLine.parse(commandLine);
-        }
+        CommandLine cmdLine = parseCommandLine(commandLine);
 
         DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
 
@@ -137,4 +126,30 @@ public class ExecUtil {
         return retval;
     }
 
+    /**
+     * Splits <code>commandLine</code> into the executable and its arguments, the same way as
+     * {@link #executeCommandLineAndWaitResponse(String, int)} does. If <code>commandLine</code> contains the special
+     * delimiter '<code>@@</code>' it is split at the delimiter, otherwise at whitespace outside of quotes.
+     *
+     * @param commandLine the command line to split
+     * @return the executable followed by the arguments, e.g. to start a process with a {@link ProcessBuilder}
+     */
+    public static String[] splitCommandLine(String commandLine) {
+        return parseCommandLine(commandLine).toStrings();
+    }
+
+    private static CommandLine parseCommandLine(String commandLine) {
+        if (commandLine.contains(CMD_LINE_DELIMITER)) {
+            String[] cmdArray = commandLine.split(CMD_LINE_DELIMITER);
+            CommandLine cmdLine = new CommandLine(cmdArray[0]);
+
+            for (int i = 1; i < cmdArray.length; i++) {
+                cmdLine.addArgument(cmdArray[i], false);
+            }
+            return cmdLine;
+        } else {
+            return CommandLine.parse(commandLine);
+        }
+    }
+
 }
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.internal.item;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.library.items.NumberItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.service.StateDescriptionService;
+import org.eclipse.smarthome.core.types.StateDescription;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedGroupItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EnrichedItemDTOCacheTest extends JavaTest {
+
+    private static final URI BASE_URI = URI.create("http://localhost:8080/rest/");
+
+    private static final int HIERARCHY_DEPTH = 4;
+    private static final int HIERARCHY_FANOUT = 5;
+
+    private final Gson gson = new Gson();
+
+    private EnrichedItemDTOCache cache;
+
+    private GroupItem group;
+    private GroupItem subGroup;
+    private SwitchItem switchItem;
+    private NumberItem numberItem;
+
+    @Before
+    public void setup() {
+        cache = new EnrichedItemDTOCache();
+
+        group = new GroupItem("TestGroup");
+        subGroup = new GroupItem("TestSubGroup");
+        switchItem = new SwitchItem("TestSwitch");
+        numberItem = new NumberItem("TestNumber");
+
+        group.addMember(subGroup);
+        group.addMember(switchItem);
+        subGroup.addMember(numberItem);
+        subGroup.addMember(switchItem);
+    }
+
+    @Test
+    public void shouldMapLikeTheMapper() {
+        List<Item> items = Arrays.asList(group, subGroup, switchItem, numberItem);
+
+        assertThat(toJson(cache.map(items, false, BASE_URI, Locale.ENGLISH, 1).collect(Collectors.toList())),
+                is(toJson(mapWithoutCache(items, false))));
+        assertThat(toJson(cache.map(items, true, BASE_URI, Locale.ENGLISH, 1).collect(Collectors.toList())),
+                is(toJson(mapWithoutCache(items, true))));
+    }
+
+    @Test
+    public void shouldPatchChangedStates() {
+        List<Item> items = Arrays.asList(switchItem, numberItem);
+        cache.map(items, false, BASE_URI, Locale.ENGLISH, 1).collect(Collectors.toList());
+
+        switchItem.setState(OnOffType.ON);
+        numberItem.setState(new DecimalType("1.50"));
+        List<EnrichedItemDTO> dtos = cache.map(items, false, BASE_URI, Locale.ENGLISH, 1)
+                .collect(Collectors.toList());
+
+        assertThat(dtos.get(0).state, is("ON"));
+        assertThat(dtos.get(1).state, is("1.50"));
+        assertThat(toJson(dtos), is(toJson(mapWithoutCache(items, false))));
+    }
+
+    @Test
+    public void shouldRebuildEntriesWhenTheVersionsChange() {
+        List<Item> items = Arrays.asList(switchItem);
+        cache.map(items, false, BASE_URI, Locale.ENGLISH, 1, 1).collect(Collectors.toList());
+
+        switchItem.setLabel("New label");
+        assertThat(cache.map(items, false, BASE_URI, Locale.ENGLISH, 1, 1).findFirst().get().label,
+                is(nullValue()));
+        assertThat(cache.map(items, false, BASE_URI, Locale.ENGLISH, 1, 2).findFirst().get().label,
+                is("New label"));
+    }
+
+    @Test
+    public void shouldNotUseEntriesOfNewerVersions() {
+        List<Item> items = Arrays.asList(switchItem);
+        cache.map(items, false, BASE_URI, Locale.ENGLISH, 2).collect(Collectors.toList());
+
+        switchItem.setLabel("New label");
+        assertThat(cache.map(items, false, BASE_URI, Locale.ENGLISH, 1).findFirst().get().label, is("New label"));
+    }
+
+    @Test
+    public void shouldReturnNewInstances() {
+        List<Item> items = Arrays.asList(group);
+
+        EnrichedItemDTO dto = cache.map(items, true, BASE_URI, Locale.ENGLISH, 1).findFirst().get();
+        dto.editable = true;
+
+        EnrichedItemDTO otherDTO = cache.map(items, true, BASE_URI, Locale.ENGLISH, 1).findFirst().get();
+        assertThat(otherDTO, is(not(sameInstance(dto))));
+        assertThat(otherDTO.editable, is(false));
+    }
+
+    @Test
+    public void shouldStopAtGroupsContainingThemselves() {
+        subGroup.addMember(group);
+
+        EnrichedGroupItemDTO dto = (EnrichedGroupItemDTO) cache
+                .map(Arrays.asList(group), true, BASE_URI, Locale.ENGLISH, 1).findFirst().get();
+
+        EnrichedGroupItemDTO subGroupDTO = (EnrichedGroupItemDTO) dto.members[0];
+        EnrichedGroupItemDTO groupDTO = (EnrichedGroupItemDTO) subGroupDTO.members[2];
+        assertThat(groupDTO.name, is(group.getName()));
+        assertThat(groupDTO.members.length, is(0));
+    }
+
+    @Test
+    public void shouldNotBeVersionedWithTransformedStates() {
+        StateDescriptionService stateDescriptionService = mock(StateDescriptionService.class);
+        when(stateDescriptionService.getStateDescription(eq(numberItem.getName()), any()))
+                .thenReturn(new StateDescription(null, null, null, "MAP(en.map):%s", false, null));
+        numberItem.setStateDescriptionService(stateDescriptionService);
+
+        assertThat(cache.isVersioned(Arrays.asList(switchItem), false, BASE_URI, Locale.ENGLISH, 1), is(true));
+        assertThat(cache.isVersioned(Arrays.asList(numberItem), false, BASE_URI, Locale.ENGLISH, 1), is(false));
+        assertThat(cache.isVersioned(Arrays.asList(group), false, BASE_URI, Locale.ENGLISH, 1), is(true));
+        assertThat(cache.isVersioned(Arrays.asList(group), true, BASE_URI, Locale.ENGLISH, 1), is(false));
+    }
+
+    @Test
+    public void shouldNotBeVersionedWithDynamicStateDescriptions() {
+        cache = new EnrichedItemDTOCache(item -> item == switchItem);
+        subGroup.addMember(group);
+
+        assertThat(cache.isVersioned(Arrays.asList(numberItem), true, BASE_URI, Locale.ENGLISH, 1), is(true));
+        assertThat(cache.isVersioned(Arrays.asList(subGroup), false, BASE_URI, Locale.ENGLISH, 1), is(true));
+        assertThat(cache.isVersioned(Arrays.asList(subGroup), true, BASE_URI, Locale.ENGLISH, 1), is(false));
+    }
+
+    @Test
+    public void shouldExpireOnlyEntriesWhichAreNotVersioned() {
+        cache = new EnrichedItemDTOCache(item -> item == switchItem, 0);
+        List<Item> items = Arrays.asList(switchItem, numberItem);
+        cache.map(items, false, BASE_URI, Locale.ENGLISH, 1).collect(Collectors.toList());
+
+        switchItem.setLabel("New switch label");
+        numberItem.setLabel("New number label");
+        List<EnrichedItemDTO> dtos = cache.map(items, false, BASE_URI, Locale.ENGLISH, 1)
+                .collect(Collectors.toList());
+
+        assertThat(dtos.get(0).label, is("New switch label"));
+        assertThat(dtos.get(1).label, is(nullValue()));
+    }
+
+    @Test
+    public void shouldOnlyPatchStatesOfCachedHierarchies() {
+        StateDescriptionService stateDescriptionService = mock(StateDescriptionService.class);
+        List<Item> items = new ArrayList<>();
+        createHierarchy(items, new GroupItem("Root"), 0, stateDescriptionService);
+        long[] versions = { 1, 1, 1, 1 };
+
+        List<EnrichedItemDTO> expected = mapWithoutCache(items, true);
+        assertThat(toJson(cache.map(items, true, BASE_URI, Locale.ENGLISH, versions).collect(Collectors.toList())),
+                is(toJson(expected)));
+
+        // neither the descriptions nor the member graph are built again, only the changed state is patched
+        reset(stateDescriptionService);
+        GenericItem lastItem = (GenericItem) items.get(items.size() - 1);
+        lastItem.setState(OnOffType.ON);
+        GenericItem newMember = new SwitchItem("NewMember");
+        ((GroupItem) items.get(0)).addMember(newMember);
+        List<EnrichedItemDTO> dtos = cache.map(items, true, BASE_URI, Locale.ENGLISH, versions)
+                .collect(Collectors.toList());
+        verify(stateDescriptionService, never()).getStateDescription(any(), any());
+
+        ((GroupItem) items.get(0)).removeMember(newMember);
+        assertThat(toJson(dtos), is(toJson(mapWithoutCache(items, true))));
+        assertThat(toJson(dtos), is(not(toJson(expected))));
+    }
+
+    private void createHierarchy(List<Item> items, GroupItem group, int depth,
+            StateDescriptionService stateDescriptionService) {
+        group.setStateDescriptionService(stateDescriptionService);
+        items.add(group);
+        for (int i = 0; i < HIERARCHY_FANOUT; i++) {
+            String name = group.getName() + "_" + i;
+            if (depth < HIERARCHY_DEPTH) {
+                GroupItem subGroup = new GroupItem(name);
+                group.addMember(subGroup);
+                createHierarchy(items, subGroup, depth + 1, stateDescriptionService);
+            } else {
+                SwitchItem member = new SwitchItem(name);
+                member.setStateDescriptionService(stateDescriptionService);
+                group.addMember(member);
+                items.add(member);
+            }
+        }
+    }
+
+    private List<EnrichedItemDTO> mapWithoutCache(Collection<Item> items, boolean drillDown) {
+        return items.stream().map(item -> EnrichedItemDTOMapper.map(item, drillDown, null, BASE_URI, Locale.ENGLISH))
+                .collect(Collectors.toList());
+    }
+
+    private String toJson(List<EnrichedItemDTO> dtos) {
+        return gson.toJson(dtos);
+    }
+
+}
@@ -13,21 +13,27 @@
 package org.eclipse.smarthome.io.rest.core.internal.item;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.io.IOUtils;
@@ -39,9 +45,17 @@ import org.eclipse.smarthome.core.items.MetadataKey;
 import org.eclipse.smarthome.core.items.MetadataProvider;
 import org.eclipse.smarthome.core.items.dto.GroupItemDTO;
 import org.eclipse.smarthome.core.items.dto.MetadataDTO;
+import org.eclipse.smarthome.core.items.events.ItemBatchPublisher;
 import org.eclipse.smarthome.core.library.items.DimmerItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLink;
+import org.eclipse.smarthome.core.thing.link.ManagedItemChannelLinkProvider;
+import org.eclipse.smarthome.core.thing.type.DynamicStateDescriptionProvider;
 import org.eclipse.smarthome.io.rest.RESTResource;
+import org.eclipse.smarthome.io.rest.core.item.ItemBatchEntryDTO;
 import org.eclipse.smarthome.test.java.JavaOSGiTest;
 import org.junit.Before;
 import org.junit.Test;
@@ -140,11 +154,56 @@ public class ItemResourceOSGiTest extends JavaOSGiTest {
         itemResource.addTag("Switch", "MyTag");
         Response response = itemResource.getItems(null, null, "MyTag", null, false, "type,name");
 
-        JsonElement result = parser.parse(IOUtils.toString((InputStream) response.getEntity()));
+        JsonElement result = parser.parse(readEntity(response));
         JsonElement expected = parser.parse("[{editable: true, type: \"Switch\", name: \"Switch\"}]");
         assertEquals(expected, result);
     }
 
+    @Test
+    public void shouldAnswerConditionalRequestsWithNotModified() throws Exception {
+        HttpHeaders httpHeaders = mock(HttpHeaders.class);
+        itemResource.httpHeaders = httpHeaders;
+
+        Response response = itemResource.getItems(null, null, null, null, false, null);
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        EntityTag entityTag = response.getEntityTag();
+        assertNotNull(entityTag);
+
+        when(httpHeaders.getRequestHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(Collections.singletonList(entityTag.toString()));
+        response = itemResource.getItems(null, null, null, null, false, null);
+        assertThat(response.getStatus(), is(Status.NOT_MODIFIED.getStatusCode()));
+        assertNull(response.getEntity());
+
+        managedItemProvider.add(new SwitchItem("Switch"));
+        response = itemResource.getItems(null, null, null, null, false, null);
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        assertThat(readItemNamesFromResponse(response), hasItems("Switch"));
+    }
+
+    @Test
+    public void shouldNotSendEntityTagForDynamicStateDescriptions() throws Exception {
+        HttpHeaders httpHeaders = mock(HttpHeaders.class);
+        itemResource.httpHeaders = httpHeaders;
+        EntityTag entityTag = itemResource.getItems(null, null, null, null, false, null).getEntityTag();
+        assertNotNull(entityTag);
+        when(httpHeaders.getRequestHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(Collections.singletonList(entityTag.toString()));
+
+        registerService(mock(DynamicStateDescriptionProvider.class));
+        Response response = itemResource.getItems(null, null, null, null, false, null);
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        // none of the items is linked, so the provider cannot change their state descriptions
+        assertNotNull(response.getEntityTag());
+        assertThat(response.getEntityTag(), is(not(entityTag)));
+
+        getService(ManagedItemChannelLinkProvider.class)
+                .add(new ItemChannelLink(ITEM_NAME1, new ChannelUID("binding:type:thing:channel")));
+        response = itemResource.getItems(null, null, null, null, false, null);
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        assertNull(response.getEntityTag());
+    }
+
     @Test
     public void shouldProvideReturnCodesForTagHandling() {
         Response response = itemResource.addTag("Switch", "MyTag");
@@ -162,10 +221,16 @@ public class ItemResourceOSGiTest extends JavaOSGiTest {
     }
 
     private List<String> readItemNamesFromResponse(Response response) throws IOException {
-        String jsonResponse = IOUtils.toString((InputStream) response.getEntity());
+        String jsonResponse = readEntity(response);
         return JsonPath.read(jsonResponse, "$..name");
     }
 
+    private String readEntity(Response response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8.name());
+    }
+
     @Test
     public void addMultipleItems() throws IOException {
 
@@ -214,6 +279,62 @@ public class ItemResourceOSGiTest extends JavaOSGiTest {
         assertThat(statusCodes.get(1), is("updated"));
     }
 
+    @Test
+    public void shouldPublishBatchOfCommandsAndStates() throws IOException {
+        ItemBatchEntryDTO[] entries = new ItemBatchEntryDTO[] { new ItemBatchEntryDTO(ITEM_NAME1, null, "ON"),
+                new ItemBatchEntryDTO(ITEM_NAME3, null, "50"), new ItemBatchEntryDTO("NotExistingItem", "ON", null),
+                new ItemBatchEntryDTO(ITEM_NAME2, null, "UP"), new ItemBatchEntryDTO(ITEM_NAME2, "ON", "ON"),
+                new ItemBatchEntryDTO(ITEM_NAME2, "OFF", null) };
+
+        Response response = itemResource.postItemEvents(entries);
+
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        String jsonResponse = IOUtils.toString((InputStream) response.getEntity());
+        List<String> names = JsonPath.read(jsonResponse, "$..name");
+        List<String> statusCodes = JsonPath.read(jsonResponse, "$..status");
+        assertThat(names, is(Arrays.asList(ITEM_NAME1, ITEM_NAME3, "NotExistingItem", ITEM_NAME2, ITEM_NAME2,
+                ITEM_NAME2)));
+        assertThat(statusCodes, is(Arrays.asList("accepted", "accepted", "error", "error", "error", "accepted")));
+
+        waitForAssert(() -> {
+            assertThat(item1.getState(), is(OnOffType.ON));
+            assertThat(item3.getState(), is(new PercentType(50)));
+        });
+    }
+
+    @Test
+    public void shouldToggleInBatchLikeSingleCommands() throws IOException {
+        item1.setState(OnOffType.ON);
+        ItemBatchEntryDTO[] entries = new ItemBatchEntryDTO[] { new ItemBatchEntryDTO(ITEM_NAME1, "TOGGLE", null),
+                new ItemBatchEntryDTO(ITEM_NAME2, "toggle", null), new ItemBatchEntryDTO(ITEM_NAME3, "toggle", null) };
+
+        Response response = itemResource.postItemEvents(entries);
+
+        assertThat(response.getStatus(), is(Status.OK.getStatusCode()));
+        String jsonResponse = IOUtils.toString((InputStream) response.getEntity());
+        List<String> statusCodes = JsonPath.read(jsonResponse, "$..status");
+        // item2 and item3 have no state which could be toggled
+        assertThat(statusCodes, is(Arrays.asList("accepted", "error", "error")));
+        assertThat(itemResource.postItemCommand(ITEM_NAME2, "toggle").getStatus(),
+                is(Status.BAD_REQUEST.getStatusCode()));
+        assertThat(itemResource.postItemCommand(ITEM_NAME3, "toggle").getStatus(),
+                is(Status.BAD_REQUEST.getStatusCode()));
+    }
+
+    @Test
+    public void shouldAnswerBatchWithServiceUnavailableWithoutPublisher() {
+        ItemBatchPublisher itemBatchPublisher = getService(ItemBatchPublisher.class);
+        assertNotNull(itemBatchPublisher);
+        itemResource.unsetItemBatchPublisher(itemBatchPublisher);
+        try {
+            Response response = itemResource
+                    .postItemEvents(new ItemBatchEntryDTO[] { new ItemBatchEntryDTO(ITEM_NAME1, "ON", null) });
+            assertThat(response.getStatus(), is(Status.SERVICE_UNAVAILABLE.getStatusCode()));
+        } finally {
+            itemResource.setItemBatchPublisher(itemBatchPublisher);
+        }
+    }
+
     @Test
     public void testMetadata() {
         MetadataDTO dto = new MetadataDTO();
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventFilter;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.items.events.GroupItemStateChangedEvent;
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
+import org.eclipse.smarthome.core.thing.events.ThingStatusInfoChangedEvent;
+import org.eclipse.smarthome.core.thing.firmware.FirmwareStatusInfoEvent;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * The {@link StateVersionTracker} counts the item state and thing status changes. Together with the registry versions
+ * these versions tell the REST resources whether their content has changed since a client has last requested it.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = { EventSubscriber.class, StateVersionTracker.class })
+public class StateVersionTracker implements EventSubscriber {
+
+    private final Set<String> subscribedEventTypes = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(ItemStateChangedEvent.TYPE, GroupItemStateChangedEvent.TYPE,
+                    ThingStatusInfoChangedEvent.TYPE, FirmwareStatusInfoEvent.TYPE)));
+
+    private final AtomicLong itemStateVersion = new AtomicLong(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    private final AtomicLong thingStatusVersion = new AtomicLong(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    @Override
+    public Set<String> getSubscribedEventTypes() {
+        return subscribedEventTypes;
+    }
+
+    @Override
+    public EventFilter getEventFilter() {
+        return null;
+    }
+
+    @Override
+    public void receive(Event event) {
+        String type = event.getType();
+        if (ItemStateChangedEvent.TYPE.equals(type) || GroupItemStateChangedEvent.TYPE.equals(type)) {
+            itemStateVersion.incrementAndGet();
+        } else {
+            thingStatusVersion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the version of the item states, which is increased on every state change of an item.
+     *
+     * @return the item state version
+     */
+    public long getItemStateVersion() {
+        return itemStateVersion.get();
+    }
+
+    /**
+     * Returns the version of the thing status, which is increased on every thing status or firmware status change.
+     *
+     * @return the thing status version
+     */
+    public long getThingStatusVersion() {
+        return thingStatusVersion.get();
+    }
+
+}
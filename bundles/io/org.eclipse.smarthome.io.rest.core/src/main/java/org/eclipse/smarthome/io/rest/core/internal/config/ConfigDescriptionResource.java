@@ -35,9 +35,9 @@ import org.eclipse.smarthome.config.core.dto.ConfigDescriptionDTO;
 import org.eclipse.smarthome.config.core.dto.ConfigDescriptionDTOMapper;
 import org.eclipse.smarthome.core.auth.Role;
 import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.LocaleService;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -87,7 +87,7 @@ public class ConfigDescriptionResource implements RESTResource {
         Locale locale = localeService.getLocale(language);
         Collection<ConfigDescription> configDescriptions = configDescriptionRegistry.getConfigDescriptions(locale);
 
-        return Response.ok(new Stream2JSONInputStream(configDescriptions.stream().filter(configDescription -> {
+        return Response.ok(new JSONStreamingOutput(configDescriptions.stream().filter(configDescription -> {
             return scheme == null || scheme.equals(configDescription.getUID().getScheme());
         }).map(ConfigDescriptionDTOMapper::map))).build();
     }
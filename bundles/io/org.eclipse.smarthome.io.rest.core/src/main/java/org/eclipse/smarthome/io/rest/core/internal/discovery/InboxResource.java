@@ -38,8 +38,8 @@ import org.eclipse.smarthome.core.auth.Role;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -87,6 +87,9 @@ public class InboxResource implements RESTResource {
     @Context
     private UriInfo uriInfo;
 
+    @Context
+    private HttpHeaders httpHeaders;
+
     @POST
     @Path("/{thingUID}/approve")
     @Consumes(MediaType.TEXT_PLAIN)
@@ -134,7 +137,7 @@ public class InboxResource implements RESTResource {
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = DiscoveryResultDTO.class) })
     public Response getAll() {
         Stream<DiscoveryResultDTO> discoveryStream = inbox.getAll().stream().map(DiscoveryResultDTOMapper::map);
-        return Response.ok(new Stream2JSONInputStream(discoveryStream)).build();
+        return JSONStreamingOutput.createResponse(discoveryStream, httpHeaders);
     }
 
     @POST
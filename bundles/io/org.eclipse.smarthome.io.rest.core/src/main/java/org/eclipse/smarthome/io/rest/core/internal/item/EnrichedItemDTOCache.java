@@ -0,0 +1,301 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.internal.item;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.items.GroupItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.dto.ItemDTO;
+import org.eclipse.smarthome.core.items.dto.ItemDTOMapper;
+import org.eclipse.smarthome.core.types.CommandDescription;
+import org.eclipse.smarthome.core.types.StateDescription;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedGroupItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+
+/**
+ * The {@link EnrichedItemDTOCache} keeps the parts of the {@link EnrichedItemDTO}s which do not depend on the item
+ * state, i.e. the item data, the link and the state and command descriptions. A request then only has to fill in the
+ * states, which are cached as well and only formatted again for items whose state has changed. It produces the same
+ * DTOs as {@link EnrichedItemDTOMapper}.
+ *
+ * <p>
+ * The cache is valid for the versions of the registries the descriptions depend on and starts over as soon as one of
+ * them changes. This also rebuilds the group membership graph that is used to map the members of group items. Entries
+ * which may change without a registry change, i.e. those with a dynamic state description or a transformed state,
+ * expire after {@link #MAX_AGE} instead. {@link #isVersioned(Collection, boolean, URI, Locale, long...)} tells
+ * whether a response contains such entries and thus must not be validated by the versions.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class EnrichedItemDTOCache {
+
+    static final long MAX_AGE = TimeUnit.SECONDS.toNanos(10);
+
+    private final Predicate<Item> dynamicStateDescription;
+
+    private final long maxAge;
+
+    private volatile Snapshot snapshot = new Snapshot(new long[0]);
+
+    EnrichedItemDTOCache() {
+        this(item -> false);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param dynamicStateDescription tells whether the state description of an item may change without a change of
+     *            the registry versions, e.g. because it is provided by a
+     *            {@link org.eclipse.smarthome.core.thing.type.DynamicStateDescriptionProvider}
+     */
+    EnrichedItemDTOCache(Predicate<Item> dynamicStateDescription) {
+        this(dynamicStateDescription, MAX_AGE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param dynamicStateDescription tells whether the state description of an item may change without a change of
+     *            the registry versions
+     * @param maxAge the time in nanoseconds after which the entries that do not only depend on the versions expire
+     */
+    EnrichedItemDTOCache(Predicate<Item> dynamicStateDescription, long maxAge) {
+        this.dynamicStateDescription = dynamicStateDescription;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Maps the given items into enriched item DTOs. The DTOs are new instances which may be modified by the caller.
+     *
+     * @param items the items to map
+     * @param drillDown whether the members of group items should be mapped recursively
+     * @param uri the base uri of the REST API
+     * @param locale the locale
+     * @param versions the current versions of the registries the DTOs depend on, which have to be read before the
+     *            items are retrieved from the registry
+     * @return the stream of DTOs
+     */
+    Stream<EnrichedItemDTO> map(Collection<Item> items, boolean drillDown, @Nullable URI uri, Locale locale,
+            long... versions) {
+        Snapshot current = getSnapshot(versions);
+        Map<String, Entry> entries = current.getEntries(locale, uri);
+        Map<String, EnrichedItemDTO> memberDTOs = new HashMap<>();
+        Set<String> mappingGroups = new HashSet<>();
+        long now = System.nanoTime();
+        return items.stream()
+                .map(item -> map(current, entries, item, drillDown, uri, locale, now, memberDTOs, mappingGroups));
+    }
+
+    /**
+     * Returns true if the DTOs of the given items only change with the given versions and the item states, so that they
+     * can be validated by an entity tag. This is not the case if one of the state descriptions is dynamic or refers to
+     * a transformation, whose result depends on the transformation configuration as well.
+     *
+     * @param items the items to map
+     * @param drillDown whether the members of group items are mapped recursively
+     * @param uri the base uri of the REST API
+     * @param locale the locale
+     * @param versions the current versions of the registries the DTOs depend on, see
+     *            {@link #map(Collection, boolean, URI, Locale, long...)}
+     * @return true if the DTOs are determined by the versions and the item states
+     */
+    boolean isVersioned(Collection<Item> items, boolean drillDown, @Nullable URI uri, Locale locale,
+            long... versions) {
+        Snapshot current = getSnapshot(versions);
+        Map<String, Entry> entries = current.getEntries(locale, uri);
+        long now = System.nanoTime();
+        Set<String> checked = new HashSet<>();
+        Deque<Item> pending = new ArrayDeque<>(items);
+        while (!pending.isEmpty()) {
+            Item item = pending.poll();
+            if (!checked.add(item.getName())) {
+                continue;
+            }
+            if (!getEntry(entries, item, uri, locale, now).versioned) {
+                return false;
+            }
+            if (drillDown && item instanceof GroupItem) {
+                pending.addAll(current.getMembers((GroupItem) item));
+            }
+        }
+        return true;
+    }
+
+    private Snapshot getSnapshot(long[] versions) {
+        Snapshot current = snapshot;
+        if (isNewer(versions, current.versions)) {
+            current = new Snapshot(versions.clone());
+            snapshot = current;
+        } else if (isNewer(current.versions, versions)) {
+            // the request has read the versions before a concurrent request has seen a change, so it must not use the
+            // entries of the newer snapshot
+            current = new Snapshot(versions.clone());
+        }
+        return current;
+    }
+
+    private static boolean isNewer(long[] versions, long[] otherVersions) {
+        if (versions.length != otherVersions.length) {
+            return true;
+        }
+        for (int i = 0; i < versions.length; i++) {
+            if (versions[i] > otherVersions[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private EnrichedItemDTO map(Snapshot current, Map<String, Entry> entries, Item item, boolean drillDown,
+            @Nullable URI uri, Locale locale, long now, Map<String, EnrichedItemDTO> memberDTOs,
+            Set<String> mappingGroups) {
+        Entry entry = getEntry(entries, item, uri, locale, now);
+        StateEntry state = entry.getState();
+
+        if (item instanceof GroupItem) {
+            EnrichedItemDTO[] members;
+            if (drillDown) {
+                List<Item> groupMembers = current.getMembers((GroupItem) item);
+                members = new EnrichedItemDTO[groupMembers.size()];
+                mappingGroups.add(item.getName());
+                for (int i = 0; i < members.length; i++) {
+                    members[i] = mapMember(current, entries, groupMembers.get(i), uri, locale, now, memberDTOs,
+                            mappingGroups);
+                }
+                mappingGroups.remove(item.getName());
+            } else {
+                members = new EnrichedItemDTO[0];
+            }
+            return new EnrichedGroupItemDTO(entry.itemDTO, members, entry.link, state.state, state.transformedState,
+                    entry.stateDescription);
+        } else {
+            return new EnrichedItemDTO(entry.itemDTO, entry.link, state.state, state.transformedState,
+                    entry.stateDescription, entry.commandDescription);
+        }
+    }
+
+    private Entry getEntry(Map<String, Entry> entries, Item item, @Nullable URI uri, Locale locale, long now) {
+        Entry entry = entries.get(item.getName());
+        if (entry == null || entry.item != item || (!entry.versioned && now - entry.created >= maxAge)) {
+            entry = new Entry(item, uri, locale, now, dynamicStateDescription.test(item));
+            entries.put(item.getName(), entry);
+        }
+        return entry;
+    }
+
+    private EnrichedItemDTO mapMember(Snapshot current, Map<String, Entry> entries, Item member, @Nullable URI uri,
+            Locale locale, long now, Map<String, EnrichedItemDTO> memberDTOs, Set<String> mappingGroups) {
+        if (mappingGroups.contains(member.getName())) {
+            // the group is a member of itself, so we stop here instead of recursing endlessly
+            return map(current, entries, member, false, uri, locale, now, memberDTOs, mappingGroups);
+        }
+        // a member that is contained in several groups of the tree is mapped only once per request
+        EnrichedItemDTO memberDTO = memberDTOs.get(member.getName());
+        if (memberDTO == null) {
+            memberDTO = map(current, entries, member, true, uri, locale, now, memberDTOs, mappingGroups);
+            memberDTOs.put(member.getName(), memberDTO);
+        }
+        return memberDTO;
+    }
+
+    private static class Snapshot {
+
+        private final long[] versions;
+
+        private final Map<String, Map<String, Entry>> entries = new ConcurrentHashMap<>();
+
+        private final Map<String, List<Item>> groupMembers = new ConcurrentHashMap<>();
+
+        Snapshot(long[] versions) {
+            this.versions = versions;
+        }
+
+        Map<String, Entry> getEntries(Locale locale, @Nullable URI uri) {
+            return entries.computeIfAbsent(locale.toLanguageTag() + " " + uri, key -> new ConcurrentHashMap<>());
+        }
+
+        List<Item> getMembers(GroupItem groupItem) {
+            return groupMembers.computeIfAbsent(groupItem.getName(), name -> new ArrayList<>(groupItem.getMembers()));
+        }
+    }
+
+    private static class Entry {
+
+        private final Item item;
+        private final ItemDTO itemDTO;
+        private final @Nullable String link;
+        private final @Nullable StateDescription itemStateDescription;
+        private final @Nullable StateDescription stateDescription;
+        private final @Nullable CommandDescription commandDescription;
+        private final long created;
+        /* whether the entry only changes with the registry versions */
+        private final boolean versioned;
+
+        private volatile @Nullable StateEntry state;
+
+        Entry(Item item, @Nullable URI uri, Locale locale, long created, boolean dynamicStateDescription) {
+            this.item = item;
+            this.itemDTO = ItemDTOMapper.map(item);
+            this.link = EnrichedItemDTOMapper.getLink(item.getName(), uri);
+            this.itemStateDescription = item.getStateDescription(locale);
+            this.stateDescription = EnrichedItemDTOMapper.considerTransformation(itemStateDescription);
+            this.commandDescription = item instanceof GroupItem ? null : item.getCommandDescription(locale);
+            this.created = created;
+            // the mapper removes the pattern from the state description if it refers to a transformation
+            this.versioned = !dynamicStateDescription && stateDescription == itemStateDescription;
+        }
+
+        StateEntry getState() {
+            // states may be equal but still have different string representations, so the strings are compared
+            String itemState = item.getState().toFullString();
+            StateEntry current = state;
+            if (current == null || !current.state.equals(itemState)) {
+                current = new StateEntry(itemState,
+                        EnrichedItemDTOMapper.getTransformedState(itemState, item, itemStateDescription));
+                state = current;
+            }
+            return current;
+        }
+    }
+
+    private static class StateEntry {
+
+        private final String state;
+        private final @Nullable String transformedState;
+
+        StateEntry(String state, @Nullable String transformedState) {
+            this.state = state;
+            this.transformedState = transformedState;
+        }
+    }
+
+}
@@ -13,12 +13,15 @@
 package org.eclipse.smarthome.io.rest.core.internal.item;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -36,6 +39,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -46,6 +50,7 @@ import javax.ws.rs.core.UriInfo;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.auth.Role;
+import org.eclipse.smarthome.core.common.registry.Registry;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupItem;
@@ -60,22 +65,31 @@ import org.eclipse.smarthome.core.items.MetadataRegistry;
 import org.eclipse.smarthome.core.items.dto.GroupItemDTO;
 import org.eclipse.smarthome.core.items.dto.ItemDTOMapper;
 import org.eclipse.smarthome.core.items.dto.MetadataDTO;
+import org.eclipse.smarthome.core.items.events.ItemBatchEntry;
+import org.eclipse.smarthome.core.items.events.ItemBatchPublisher;
+import org.eclipse.smarthome.core.items.events.ItemBatchResult;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.library.items.RollershutterItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.UpDownType;
+import org.eclipse.smarthome.core.thing.ThingRegistry;
+import org.eclipse.smarthome.core.thing.link.ItemChannelLinkRegistry;
+import org.eclipse.smarthome.core.thing.type.DynamicStateDescriptionProvider;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.rest.DTOMapper;
+import org.eclipse.smarthome.io.rest.EntityTagUtil;
 import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.LocaleService;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
+import org.eclipse.smarthome.io.rest.core.internal.StateVersionTracker;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedGroupItemDTO;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+import org.eclipse.smarthome.io.rest.core.item.ItemBatchEntryDTO;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -111,6 +125,8 @@ import io.swagger.annotations.ApiResponses;
  * @author Jörg Plewe - refactoring, error handling
  * @author Franck Dechavanne - Added DTOs to ApiResponses
  * @author Stefan Triller - Added bulk item add method
+ * @author agent - Added conditional GET support and the DTO cache
+ * @author agent - Added batch of commands and state updates
  */
 @NonNullByDefault
 @Path(ItemResource.PATH_ITEMS)
@@ -127,6 +143,10 @@ public class ItemResource implements RESTResource {
     @Context
     UriInfo uriInfo;
 
+    @NonNullByDefault({})
+    @Context
+    HttpHeaders httpHeaders;
+
     @NonNullByDefault({})
     private ItemRegistry itemRegistry;
     @NonNullByDefault({})
@@ -144,6 +164,20 @@ public class ItemResource implements RESTResource {
 
     @NonNullByDefault({})
     private LocaleService localeService;
+    @NonNullByDefault({})
+    private StateVersionTracker stateVersionTracker;
+    @NonNullByDefault({})
+    private ItemChannelLinkRegistry itemChannelLinkRegistry;
+    @NonNullByDefault({})
+    private ThingRegistry thingRegistry;
+    @NonNullByDefault({})
+    private ItemBatchPublisher itemBatchPublisher;
+
+    private final List<DynamicStateDescriptionProvider> dynamicStateDescriptionProviders = new CopyOnWriteArrayList<>();
+    /* changes whenever a dynamic state description provider is added or removed */
+    private final AtomicLong dynamicStateDescriptionProviderVersion = new AtomicLong();
+
+    private final EnrichedItemDTOCache dtoCache = new EnrichedItemDTOCache(this::hasDynamicStateDescription);
 
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setItemRegistry(ItemRegistry itemRegistry) {
@@ -172,6 +206,15 @@ public class ItemResource implements RESTResource {
         this.eventPublisher = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setItemBatchPublisher(ItemBatchPublisher itemBatchPublisher) {
+        this.itemBatchPublisher = itemBatchPublisher;
+    }
+
+    protected void unsetItemBatchPublisher(ItemBatchPublisher itemBatchPublisher) {
+        this.itemBatchPublisher = null;
+    }
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setManagedItemProvider(ManagedItemProvider managedItemProvider) {
         this.managedItemProvider = managedItemProvider;
@@ -199,6 +242,45 @@ public class ItemResource implements RESTResource {
         this.localeService = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setItemChannelLinkRegistry(ItemChannelLinkRegistry itemChannelLinkRegistry) {
+        this.itemChannelLinkRegistry = itemChannelLinkRegistry;
+    }
+
+    protected void unsetItemChannelLinkRegistry(ItemChannelLinkRegistry itemChannelLinkRegistry) {
+        this.itemChannelLinkRegistry = null;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setThingRegistry(ThingRegistry thingRegistry) {
+        this.thingRegistry = thingRegistry;
+    }
+
+    protected void unsetThingRegistry(ThingRegistry thingRegistry) {
+        this.thingRegistry = null;
+    }
+
+    @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
+    protected void addDynamicStateDescriptionProvider(DynamicStateDescriptionProvider dynamicStateDescriptionProvider) {
+        this.dynamicStateDescriptionProviders.add(dynamicStateDescriptionProvider);
+        this.dynamicStateDescriptionProviderVersion.incrementAndGet();
+    }
+
+    protected void removeDynamicStateDescriptionProvider(
+            DynamicStateDescriptionProvider dynamicStateDescriptionProvider) {
+        this.dynamicStateDescriptionProviders.remove(dynamicStateDescriptionProvider);
+        this.dynamicStateDescriptionProviderVersion.incrementAndGet();
+    }
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setStateVersionTracker(StateVersionTracker stateVersionTracker) {
+        this.stateVersionTracker = stateVersionTracker;
+    }
+
+    protected void unsetStateVersionTracker(StateVersionTracker stateVersionTracker) {
+        this.stateVersionTracker = null;
+    }
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setMetadataSelectorMatcher(MetadataSelectorMatcher metadataSelectorMatcher) {
         this.metadataSelectorMatcher = metadataSelectorMatcher;
@@ -231,15 +313,72 @@ public class ItemResource implements RESTResource {
             @DefaultValue("false") @QueryParam("recursive") @ApiParam(value = "get member items recursively", required = false) boolean recursive,
             @QueryParam("fields") @ApiParam(value = "limit output to the given fields (comma separated)", required = false) @Nullable String fields) {
         final Locale locale = localeService.getLocale(language);
-        final Set<String> namespaces = splitAndFilterNamespaces(namespaceSelector, locale);
         logger.debug("Received HTTP GET request at '{}'", uriInfo.getPath());
 
-        Stream<EnrichedItemDTO> itemStream = getItems(type, tags).stream() //
-                .map(item -> EnrichedItemDTOMapper.map(item, recursive, null, uriInfo.getBaseUri(), locale)) //
+        // the versions have to be read before the items, so that they never claim a newer state than the content
+        long[] registryVersions = getRegistryVersions();
+        boolean versionsKnown = Arrays.stream(registryVersions).allMatch(version -> version >= 0);
+        Collection<Item> items = getItems(type, tags);
+        // an entity tag is only sent if the response is determined by the versions, which is not the case for dynamic
+        // state descriptions and transformed states
+        EntityTag entityTag = versionsKnown
+                && dtoCache.isVersioned(items, recursive, uriInfo.getBaseUri(), locale, registryVersions)
+                        ? createEntityTag(locale, registryVersions)
+                        : null;
+        if (EntityTagUtil.isNotModified(httpHeaders, entityTag)) {
+            return Response.notModified(entityTag).build();
+        }
+
+        final Set<String> namespaces = splitAndFilterNamespaces(namespaceSelector, locale);
+        Stream<EnrichedItemDTO> itemStream;
+        if (versionsKnown) {
+            itemStream = dtoCache.map(items, recursive, uriInfo.getBaseUri(), locale, registryVersions);
+        } else {
+            itemStream = items.stream()
+                    .map(item -> EnrichedItemDTOMapper.map(item, recursive, null, uriInfo.getBaseUri(), locale));
+        }
+        itemStream = itemStream //
                 .peek(dto -> addMetadata(dto, namespaces, null)) //
                 .peek(dto -> dto.editable = isEditable(dto.name));
         itemStream = dtoMapper.limitToFields(itemStream, fields);
-        return Response.ok(new Stream2JSONInputStream(itemStream)).build();
+        return JSONStreamingOutput.createResponse(itemStream, httpHeaders, entityTag);
+    }
+
+    /**
+     * Returns the versions of the registries the enriched item DTOs depend on. The state descriptions are derived from
+     * the channels the items are linked to, so the link and thing registries are considered as well. A change of the
+     * dynamic state description providers changes which descriptions are dynamic.
+     */
+    private long[] getRegistryVersions() {
+        return new long[] { getVersion(itemRegistry), getVersion(metadataRegistry),
+                getVersion(itemChannelLinkRegistry), getVersion(thingRegistry),
+                dynamicStateDescriptionProviderVersion.get() };
+    }
+
+    /**
+     * Returns true if the state description of the given item may be provided by a
+     * {@link DynamicStateDescriptionProvider}, which can change it at any time.
+     */
+    private boolean hasDynamicStateDescription(Item item) {
+        if (dynamicStateDescriptionProviders.isEmpty()) {
+            return false;
+        }
+        ItemChannelLinkRegistry linkRegistry = itemChannelLinkRegistry;
+        return linkRegistry == null || linkRegistry.isLinked(item.getName());
+    }
+
+    private static long getVersion(@Nullable Registry<?, ?> registry) {
+        return registry != null ? registry.getVersion() : -1;
+    }
+
+    private @Nullable EntityTag createEntityTag(Locale locale, long[] registryVersions) {
+        StateVersionTracker tracker = stateVersionTracker;
+        if (tracker == null) {
+            return null;
+        }
+        long[] versions = Arrays.copyOf(registryVersions, registryVersions.length + 1);
+        versions[registryVersions.length] = tracker.getItemStateVersion();
+        return EntityTagUtil.createEntityTag(httpHeaders, locale, versions);
     }
 
     @GET
@@ -360,19 +499,8 @@ public class ItemResource implements RESTResource {
         Item item = getItem(itemname);
         Command command = null;
         if (item != null) {
-            if ("toggle".equalsIgnoreCase(value) && (item instanceof SwitchItem || item instanceof RollershutterItem)) {
-                if (OnOffType.ON.equals(item.getStateAs(OnOffType.class))) {
-                    command = OnOffType.OFF;
-                }
-                if (OnOffType.OFF.equals(item.getStateAs(OnOffType.class))) {
-                    command = OnOffType.ON;
-                }
-                if (UpDownType.UP.equals(item.getStateAs(UpDownType.class))) {
-                    command = UpDownType.DOWN;
-                }
-                if (UpDownType.DOWN.equals(item.getStateAs(UpDownType.class))) {
-                    command = UpDownType.UP;
-                }
+            if (isToggle(item, value)) {
+                command = getToggleCommand(item);
             } else {
                 command = TypeParser.parseCommand(item.getAcceptedCommandTypes(), value);
             }
@@ -393,6 +521,66 @@ public class ItemResource implements RESTResource {
         }
     }
 
+    @POST
+    @RolesAllowed({ Role.USER, Role.ADMIN })
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Sends commands to and updates the states of a list of items.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK", response = String.class),
+            @ApiResponse(code = 400, message = "Entry list is null."),
+            @ApiResponse(code = 503, message = "Item batch publisher is not available.") })
+    public Response postItemEvents(
+            @ApiParam(value = "array of commands and states", required = true) ItemBatchEntryDTO @Nullable [] entries) {
+        if (entries == null) {
+            return Response.status(Status.BAD_REQUEST).build();
+        }
+        ItemBatchPublisher publisher = itemBatchPublisher;
+        if (publisher == null) {
+            return JSONResponse.createErrorResponse(Status.SERVICE_UNAVAILABLE,
+                    "Item batch publisher is not available.");
+        }
+        logger.debug("Received HTTP POST request at '{}' with {} entries.", uriInfo.getPath(), entries.length);
+
+        JsonObject[] responses = new JsonObject[entries.length];
+        List<Integer> batchIndexes = new ArrayList<>(entries.length);
+        List<ItemBatchEntry> batch = new ArrayList<>(entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            ItemBatchEntryDTO entry = entries[i];
+            if (entry == null || entry.name == null) {
+                responses[i] = buildStatusObject(null, "error", "Item name is missing.");
+            } else if ((entry.command == null) == (entry.state == null)) {
+                responses[i] = buildStatusObject(entry.name, "error", "Either a command or a state is required.");
+            } else if (entry.command != null) {
+                // toggle commands are resolved like single commands, other commands are parsed by the publisher
+                Item item = getItem(entry.name);
+                if (item != null && isToggle(item, entry.command)) {
+                    Command command = getToggleCommand(item);
+                    if (command != null) {
+                        batchIndexes.add(i);
+                        batch.add(ItemBatchEntry.command(entry.name, command));
+                    } else {
+                        responses[i] = buildStatusObject(entry.name, "error", "Item state cannot be toggled.");
+                    }
+                } else {
+                    batchIndexes.add(i);
+                    batch.add(ItemBatchEntry.command(entry.name, entry.command));
+                }
+            } else {
+                batchIndexes.add(i);
+                batch.add(ItemBatchEntry.state(entry.name, entry.state));
+            }
+        }
+
+        List<ItemBatchResult> results = publisher.publish(batch, null);
+        for (int i = 0; i < results.size(); i++) {
+            ItemBatchResult result = results.get(i);
+            responses[batchIndexes.get(i)] = buildStatusObject(result.getEntry().getItemName(),
+                    result.isAccepted() ? "accepted" : "error", result.getMessage());
+        }
+
+        return JSONResponse.createResponse(Status.OK, responses, null);
+    }
+
     @PUT
     @RolesAllowed({ Role.ADMIN })
     @Path("/{itemName: [a-zA-Z_0-9]*}/members/{memberItemName: [a-zA-Z_0-9]*}")
@@ -735,7 +923,34 @@ public class ItemResource implements RESTResource {
         return JSONResponse.createResponse(Status.OK, responseList, null);
     }
 
-    private JsonObject buildStatusObject(String itemName, String status, @Nullable String message) {
+    private boolean isToggle(Item item, String value) {
+        return "toggle".equalsIgnoreCase(value) && (item instanceof SwitchItem || item instanceof RollershutterItem);
+    }
+
+    /**
+     * Returns the command which toggles the state of the given switch or rollershutter item.
+     *
+     * @param item the item
+     * @return the command or null, if the state of the item is neither ON/OFF nor UP/DOWN
+     */
+    private @Nullable Command getToggleCommand(Item item) {
+        Command command = null;
+        if (OnOffType.ON.equals(item.getStateAs(OnOffType.class))) {
+            command = OnOffType.OFF;
+        }
+        if (OnOffType.OFF.equals(item.getStateAs(OnOffType.class))) {
+            command = OnOffType.ON;
+        }
+        if (UpDownType.UP.equals(item.getStateAs(UpDownType.class))) {
+            command = UpDownType.DOWN;
+        }
+        if (UpDownType.DOWN.equals(item.getStateAs(UpDownType.class))) {
+            command = UpDownType.UP;
+        }
+        return command;
+    }
+
+    private JsonObject buildStatusObject(@Nullable String itemName, String status, @Nullable String message) {
         JsonObject jo = new JsonObject();
         jo.addProperty("name", itemName);
         jo.addProperty("status", status);
@@ -799,6 +1014,9 @@ public class ItemResource implements RESTResource {
     }
 
     private void addMetadata(EnrichedItemDTO dto, Set<String> namespaces, @Nullable Predicate<Metadata> filter) {
+        if (namespaces.isEmpty()) {
+            return;
+        }
         Map<String, Object> metadata = new HashMap<>();
         for (String namespace : namespaces) {
             MetadataKey key = new MetadataKey(namespace, dto.name);
@@ -24,6 +24,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -37,9 +39,10 @@ import org.eclipse.smarthome.core.thing.link.ItemChannelLink;
 import org.eclipse.smarthome.core.thing.link.ItemChannelLinkRegistry;
 import org.eclipse.smarthome.core.thing.link.ThingLinkManager;
 import org.eclipse.smarthome.core.thing.link.dto.ItemChannelLinkDTO;
+import org.eclipse.smarthome.io.rest.EntityTagUtil;
 import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -58,6 +61,7 @@ import io.swagger.annotations.ApiResponses;
  * @author Yordan Zhelev - Added Swagger annotations
  * @author Kai Kreuzer - Removed Thing links and added auto link url
  * @author Franck Dechavanne - Added DTOs to ApiResponses
+ * @author agent - Added conditional GET support
  */
 @Path(ItemChannelLinkResource.PATH_LINKS)
 @RolesAllowed({ Role.ADMIN })
@@ -74,14 +78,22 @@ public class ItemChannelLinkResource implements RESTResource {
     @Context
     UriInfo uriInfo;
 
+    @Context
+    HttpHeaders httpHeaders;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Gets all available links.", response = ItemChannelLinkDTO.class, responseContainer = "Collection")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "OK", response = ItemChannelLinkDTO.class, responseContainer = "Collection") })
     public Response getAll() {
+        EntityTag entityTag = EntityTagUtil.createEntityTag(httpHeaders, null, itemChannelLinkRegistry.getVersion());
+        if (EntityTagUtil.isNotModified(httpHeaders, entityTag)) {
+            return Response.notModified(entityTag).build();
+        }
+
         Stream<ItemChannelLinkDTO> linkStream = itemChannelLinkRegistry.getAll().stream().map(this::toBeans);
-        return Response.ok(new Stream2JSONInputStream(linkStream)).build();
+        return JSONStreamingOutput.createResponse(linkStream, httpHeaders, entityTag);
     }
 
     @GET
@@ -39,9 +39,9 @@ import org.eclipse.smarthome.core.thing.profiles.dto.ProfileTypeDTOMapper;
 import org.eclipse.smarthome.core.thing.type.ChannelType;
 import org.eclipse.smarthome.core.thing.type.ChannelTypeRegistry;
 import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.LocaleService;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -86,7 +86,7 @@ public class ProfileTypeResource implements RESTResource {
             @QueryParam("channelTypeUID") @ApiParam(value = "channel type filter", required = false) @Nullable String channelTypeUID,
             @QueryParam("itemType") @ApiParam(value = "item type filter", required = false) @Nullable String itemType) {
         Locale locale = localeService.getLocale(language);
-        return Response.ok(new Stream2JSONInputStream(getProfileTypes(locale, channelTypeUID, itemType))).build();
+        return Response.ok(new JSONStreamingOutput(getProfileTypes(locale, channelTypeUID, itemType))).build();
     }
 
     protected Stream<ProfileTypeDTO> getProfileTypes(Locale locale, String channelTypeUID, String itemType) {
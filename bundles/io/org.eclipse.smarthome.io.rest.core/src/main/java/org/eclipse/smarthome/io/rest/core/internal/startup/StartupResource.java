@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.internal.startup;
+
+import javax.annotation.security.RolesAllowed;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.auth.Role;
+import org.eclipse.smarthome.core.service.StartupPhase;
+import org.eclipse.smarthome.core.service.StartupProfiler;
+import org.eclipse.smarthome.core.service.StartupReport;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
+import org.eclipse.smarthome.io.rest.RESTResource;
+import org.osgi.service.component.annotations.Component;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * This class acts as a REST resource for the report of the {@link StartupProfiler}.
+ *
+ * @author agent - Initial contribution
+ */
+@Path(StartupResource.PATH_STARTUP)
+@RolesAllowed({ Role.ADMIN })
+@Api(value = StartupResource.PATH_STARTUP)
+@Component
+@NonNullByDefault
+public class StartupResource implements RESTResource {
+
+    /** The URI path to this resource */
+    public static final String PATH_STARTUP = "startup";
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the report of the startup, including its critical path.", response = StartupReport.class)
+    @ApiResponses(value = @ApiResponse(code = 200, message = "OK", response = StartupReport.class))
+    public Response getReport() {
+        return Response.ok(StartupProfiler.getReport()).build();
+    }
+
+    @GET
+    @Path("/phases")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the recorded phases of the startup in the order of their start.", response = StartupPhase.class, responseContainer = "List")
+    @ApiResponses(value = @ApiResponse(code = 200, message = "OK", response = StartupPhase.class, responseContainer = "List"))
+    public Response getPhases(
+            @QueryParam("category") @ApiParam(value = "category filter", required = false) @Nullable String category) {
+        return Response.ok(new JSONStreamingOutput(StartupProfiler.getReport().getPhases().stream()
+                .filter(phase -> category == null || phase.getCategory().equals(category)))).build();
+    }
+
+}
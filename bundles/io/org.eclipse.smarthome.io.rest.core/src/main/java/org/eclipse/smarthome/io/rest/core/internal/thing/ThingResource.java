@@ -40,6 +40,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -88,10 +89,12 @@ import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
 import org.eclipse.smarthome.core.thing.type.ThingType;
 import org.eclipse.smarthome.core.thing.type.ThingTypeRegistry;
 import org.eclipse.smarthome.core.thing.util.ThingHelper;
+import org.eclipse.smarthome.io.rest.EntityTagUtil;
 import org.eclipse.smarthome.io.rest.JSONResponse;
+import org.eclipse.smarthome.io.rest.JSONStreamingOutput;
 import org.eclipse.smarthome.io.rest.LocaleService;
 import org.eclipse.smarthome.io.rest.RESTResource;
-import org.eclipse.smarthome.io.rest.Stream2JSONInputStream;
+import org.eclipse.smarthome.io.rest.core.internal.StateVersionTracker;
 import org.eclipse.smarthome.io.rest.core.thing.EnrichedThingDTO;
 import org.eclipse.smarthome.io.rest.core.thing.EnrichedThingDTOMapper;
 import org.osgi.service.component.annotations.Component;
@@ -122,6 +125,7 @@ import io.swagger.annotations.ApiResponses;
  *         add editable flag to thing responses
  * @author Franck Dechavanne - Added DTOs to ApiResponses
  * @author Dimitar Ivanov - replaced Firmware UID with thing UID and firmware version
+ * @author agent - Added conditional GET support
  */
 @Path(ThingResource.PATH_THINGS)
 @Api(value = ThingResource.PATH_THINGS)
@@ -148,12 +152,16 @@ public class ThingResource implements RESTResource {
     private FirmwareUpdateService firmwareUpdateService;
     private FirmwareRegistry firmwareRegistry;
     private ThingManager thingManager;
+    private StateVersionTracker stateVersionTracker;
 
     private LocaleService localeService;
 
     @Context
     private UriInfo uriInfo;
 
+    @Context
+    private HttpHeaders httpHeaders;
+
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
     protected void setLocaleService(LocaleService localeService) {
         this.localeService = localeService;
@@ -247,9 +255,24 @@ public class ThingResource implements RESTResource {
     public Response getAll(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language) {
         final Locale locale = localeService.getLocale(language);
 
+        EntityTag entityTag = createEntityTag(locale);
+        if (EntityTagUtil.isNotModified(httpHeaders, entityTag)) {
+            return Response.notModified(entityTag).build();
+        }
+
         Stream<EnrichedThingDTO> thingStream = thingRegistry.stream().map(t -> convertToEnrichedThingDTO(t, locale))
                 .distinct();
-        return Response.ok(new Stream2JSONInputStream(thingStream)).build();
+        return JSONStreamingOutput.createResponse(thingStream, httpHeaders, entityTag);
+    }
+
+    private EntityTag createEntityTag(Locale locale) {
+        StateVersionTracker tracker = stateVersionTracker;
+        if (tracker == null || itemChannelLinkRegistry == null) {
+            return null;
+        }
+        // the linked items of the channels are part of the response as well
+        return EntityTagUtil.createEntityTag(httpHeaders, locale, thingRegistry.getVersion(),
+                itemChannelLinkRegistry.getVersion(), tracker.getThingStatusVersion());
     }
 
     @GET
@@ -603,7 +626,7 @@ public class ThingResource implements RESTResource {
         }
 
         Stream<FirmwareDTO> firmwareStream = firmwares.stream().map(this::convertToFirmwareDTO);
-        return Response.ok().entity(new Stream2JSONInputStream(firmwareStream)).build();
+        return Response.ok().entity(new JSONStreamingOutput(firmwareStream)).build();
     }
 
     private FirmwareDTO convertToFirmwareDTO(Firmware firmware) {
@@ -816,6 +839,15 @@ public class ThingResource implements RESTResource {
         this.thingManager = null;
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setStateVersionTracker(StateVersionTracker stateVersionTracker) {
+        this.stateVersionTracker = stateVersionTracker;
+    }
+
+    protected void unsetStateVersionTracker(StateVersionTracker stateVersionTracker) {
+        this.stateVersionTracker = null;
+    }
+
     private Map<String, Object> normalizeConfiguration(Map<String, Object> properties, ThingTypeUID thingTypeUID,
             ThingUID thingUID) {
         if (properties == null || properties.isEmpty()) {
@@ -35,6 +35,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Dennis Nobel - Initial contribution
  * @author Jochen Hiller - Fix #473630 - handle optional dependency to TransformationHelper
+ * @author agent - Exposed the mapping steps for the DTO cache of the item resource
  */
 public class EnrichedItemDTOMapper {
 
@@ -59,12 +60,10 @@ public class EnrichedItemDTOMapper {
     private static EnrichedItemDTO map(Item item, ItemDTO itemDTO, URI uri, boolean drillDown,
             Predicate<Item> itemFilter, Locale locale) {
         String state = item.getState().toFullString();
-        String transformedState = considerTransformation(state, item, locale);
-        if (transformedState != null && transformedState.equals(state)) {
-            transformedState = null;
-        }
-        StateDescription stateDescription = considerTransformation(item.getStateDescription(locale));
-        String link = null != uri ? uri.toASCIIString() + ItemResource.PATH_ITEMS + "/" + itemDTO.name : null;
+        StateDescription itemStateDescription = item.getStateDescription(locale);
+        String transformedState = getTransformedState(state, item, itemStateDescription);
+        StateDescription stateDescription = considerTransformation(itemStateDescription);
+        String link = getLink(itemDTO.name, uri);
 
         EnrichedItemDTO enrichedItemDTO = null;
 
@@ -92,7 +91,24 @@ public class EnrichedItemDTOMapper {
         return enrichedItemDTO;
     }
 
-    private static StateDescription considerTransformation(StateDescription desc) {
+    /**
+     * Returns the link to the REST resource of an item.
+     *
+     * @param itemName the name of the item
+     * @param uri the base uri of the REST API, may be null
+     * @return the link or null if no uri is given
+     */
+    public static String getLink(String itemName, URI uri) {
+        return null != uri ? uri.toASCIIString() + ItemResource.PATH_ITEMS + "/" + itemName : null;
+    }
+
+    /**
+     * Returns the state description as it is exposed in the enriched item DTO, i.e. without a transformation pattern.
+     *
+     * @param desc the state description of the item, may be null
+     * @return the state description for the DTO
+     */
+    public static StateDescription considerTransformation(StateDescription desc) {
         if (desc == null || desc.getPattern() == null) {
             return desc;
         } else {
@@ -107,8 +123,23 @@ public class EnrichedItemDTOMapper {
         }
     }
 
-    private static String considerTransformation(String state, Item item, Locale locale) {
-        StateDescription stateDescription = item.getStateDescription(locale);
+    /**
+     * Returns the state of an item formatted by the pattern of its state description.
+     *
+     * @param state the full string of the state
+     * @param item the item
+     * @param stateDescription the state description of the item, may be null
+     * @return the transformed state or null if the transformation has not changed the state
+     */
+    public static String getTransformedState(String state, Item item, StateDescription stateDescription) {
+        String transformedState = considerTransformation(state, item, stateDescription);
+        if (transformedState != null && transformedState.equals(state)) {
+            return null;
+        }
+        return transformedState;
+    }
+
+    private static String considerTransformation(String state, Item item, StateDescription stateDescription) {
         if (stateDescription != null && stateDescription.getPattern() != null && state != null) {
             try {
                 return TransformationHelper.transform(RESTCoreActivator.getBundleContext(),
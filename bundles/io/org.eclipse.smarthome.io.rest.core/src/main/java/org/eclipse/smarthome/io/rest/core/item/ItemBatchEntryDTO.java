@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.core.item;
+
+/**
+ * This is a data transfer object that is used to send a command to or to update the state of an item as part of a
+ * batch. Exactly one of command and state has to be set.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemBatchEntryDTO {
+
+    public String name;
+    public String command;
+    public String state;
+
+    public ItemBatchEntryDTO() {
+    }
+
+    public ItemBatchEntryDTO(String name, String command, String state) {
+        this.name = name;
+        this.command = command;
+        this.state = state;
+    }
+
+}
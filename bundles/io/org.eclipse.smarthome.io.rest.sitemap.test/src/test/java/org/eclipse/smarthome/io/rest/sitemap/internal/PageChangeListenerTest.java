@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.ItemNotFoundException;
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.Command;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
+import org.eclipse.smarthome.model.sitemap.ColorArray;
+import org.eclipse.smarthome.model.sitemap.VisibilityRule;
+import org.eclipse.smarthome.model.sitemap.Widget;
+import org.eclipse.smarthome.ui.items.ItemUIRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+/**
+ * Tests for {@link PageChangeListener} and {@link PageRenderCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PageChangeListenerTest {
+
+    private static final String ITEM_NAME = "itemName";
+    private static final String RULE_ITEM_NAME = "visibilityRuleItem";
+    private static final String OTHER_ITEM_NAME = "otherItem";
+    private static final String WIDGET_ID = "00";
+
+    @Mock
+    private ItemUIRegistry itemUIRegistry;
+
+    @Mock
+    private SitemapSubscriptionCallback callback;
+
+    private final GenericItem item = new TestItem(ITEM_NAME);
+    private final GenericItem ruleItem = new TestItem(RULE_ITEM_NAME);
+    private Widget widget;
+    private PageChangeListener listener;
+
+    @Before
+    public void setup() throws ItemNotFoundException {
+        initMocks(this);
+        item.setState(new DecimalType(1));
+        ruleItem.setState(new DecimalType(1));
+
+        widget = mock(Widget.class);
+        EClass textEClass = mock(EClass.class);
+        when(textEClass.getInstanceTypeName()).thenReturn("org.eclipse.smarthome.model.sitemap.Text");
+        when(widget.eClass()).thenReturn(textEClass);
+        when(widget.getItem()).thenReturn(ITEM_NAME);
+        VisibilityRule visibilityRule = mock(VisibilityRule.class);
+        when(visibilityRule.getItem()).thenReturn(RULE_ITEM_NAME);
+        EList<VisibilityRule> visibilityRules = new BasicEList<>();
+        visibilityRules.add(visibilityRule);
+        when(widget.getVisibility()).thenReturn(visibilityRules);
+        when(widget.getLabelColor()).thenReturn(new BasicEList<ColorArray>());
+        when(widget.getValueColor()).thenReturn(new BasicEList<ColorArray>());
+
+        when(itemUIRegistry.getItem(ITEM_NAME)).thenReturn(item);
+        when(itemUIRegistry.getItem(RULE_ITEM_NAME)).thenReturn(ruleItem);
+        when(itemUIRegistry.getWidgetId(widget)).thenReturn(WIDGET_ID);
+        when(itemUIRegistry.getLabel(widget)).thenReturn("label");
+        when(itemUIRegistry.getVisiblity(widget)).thenReturn(true);
+        when(itemUIRegistry.convertState(eq(widget), any(), any())).thenAnswer(i -> i.getArgument(2));
+
+        EList<Widget> widgets = new BasicEList<>();
+        widgets.add(widget);
+        listener = new PageChangeListener("sitemap", "page", itemUIRegistry, widgets);
+        listener.addCallback(callback);
+    }
+
+    @After
+    public void tearDown() {
+        listener.dispose();
+    }
+
+    private List<SitemapEvent> getEvents(int count) {
+        ArgumentCaptor<SitemapEvent> captor = ArgumentCaptor.forClass(SitemapEvent.class);
+        verify(callback, times(count)).onEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void testDependencies() {
+        PageRenderCache cache = new PageRenderCache(itemUIRegistry, Collections.singletonList(widget));
+
+        assertThat(cache.getItemNames(), hasItems(ITEM_NAME, RULE_ITEM_NAME));
+        assertThat(cache.getDependentWidgets(RULE_ITEM_NAME), is(Collections.singletonList(widget)));
+        assertThat(cache.getDependentWidgets(OTHER_ITEM_NAME).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEventIsOnlySentIfRenderingChanged() {
+        listener.stateChanged(ruleItem, new DecimalType(1), new DecimalType(2));
+        listener.stateChanged(ruleItem, new DecimalType(2), new DecimalType(3));
+        assertThat("the visibility is unchanged", getEvents(1).size(), is(1));
+
+        when(itemUIRegistry.getVisiblity(widget)).thenReturn(false);
+        listener.stateChanged(ruleItem, new DecimalType(3), new DecimalType(4));
+
+        SitemapWidgetEvent event = (SitemapWidgetEvent) getEvents(2).get(1);
+        assertThat(event.widgetId, is(WIDGET_ID));
+        assertThat(event.visibility, is(false));
+        // the widget is rendered with its own item
+        assertThat(event.item.name, is(ITEM_NAME));
+        assertThat(event.state, is(nullValue()));
+    }
+
+    @Test
+    public void testStateChangeOfOwnItem() {
+        listener.stateChanged(item, new DecimalType(1), new DecimalType(2));
+        listener.stateChanged(item, new DecimalType(1), new DecimalType(2));
+
+        SitemapWidgetEvent event = (SitemapWidgetEvent) getEvents(1).get(0);
+        assertThat(event.state, is("2"));
+    }
+
+    @Test
+    public void testPredictionsAreAlwaysSent() {
+        listener.stateChanged(item, new DecimalType(1), new DecimalType(2));
+        listener.changeStateTo(item, new DecimalType(2));
+        listener.changeStateTo(item, new DecimalType(2));
+
+        assertThat(getEvents(3).size(), is(3));
+    }
+
+    @Test
+    public void testOtherItemsAreIgnored() {
+        listener.stateChanged(new TestItem(OTHER_ITEM_NAME), new DecimalType(1), new DecimalType(2));
+
+        verify(callback, never()).onEvent(any());
+    }
+
+    private class TestItem extends GenericItem {
+
+        public TestItem(String name) {
+            super("Number", name);
+        }
+
+        @Override
+        public List<Class<? extends State>> getAcceptedDataTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Class<? extends Command>> getAcceptedCommandTypes() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -256,15 +256,12 @@ public class SitemapSubscriptionService implements ModelRepositoryChangeListener
     }
 
     private void addCallbackToListener(String sitemapName, String pageId, SitemapSubscriptionCallback callback) {
-        PageChangeListener listener = pageChangeListeners.get(getValue(sitemapName, pageId));
-        if (listener == null) {
-            // there is no listener for this page yet, so let's try to create one
-            listener = new PageChangeListener(sitemapName, pageId, itemUIRegistry, collectWidgets(sitemapName, pageId));
-            pageChangeListeners.put(getValue(sitemapName, pageId), listener);
-        }
-        if (listener != null) {
-            listener.addCallback(callback);
-        }
+        // all subscriptions of a page share one listener and thus its render cache, so make sure that concurrent
+        // subscriptions do not create several listeners
+        PageChangeListener listener = pageChangeListeners.computeIfAbsent(getValue(sitemapName, pageId),
+                key -> new PageChangeListener(sitemapName, pageId, itemUIRegistry,
+                        collectWidgets(sitemapName, pageId)));
+        listener.addCallback(callback);
     }
 
     private EList<Widget> collectWidgets(String sitemapName, String pageId) {
@@ -32,17 +32,15 @@ import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
 import org.eclipse.smarthome.io.rest.sitemap.SitemapSubscriptionService.SitemapSubscriptionCallback;
-import org.eclipse.smarthome.model.sitemap.Chart;
-import org.eclipse.smarthome.model.sitemap.ColorArray;
-import org.eclipse.smarthome.model.sitemap.Frame;
-import org.eclipse.smarthome.model.sitemap.VisibilityRule;
 import org.eclipse.smarthome.model.sitemap.Widget;
 import org.eclipse.smarthome.ui.items.ItemUIRegistry;
 
 /**
  * This is a class that listens on item state change events and creates sitemap events for a dedicated sitemap page.
+ * Events caused by state changes are only created for widgets whose rendering changed, see {@link PageRenderCache}.
  *
  * @author Kai Kreuzer - Initial contribution and API
+ * @author agent - Send only changed widgets
  *
  */
 public class PageChangeListener implements StateChangeListener {
@@ -55,6 +53,7 @@ public class PageChangeListener implements StateChangeListener {
     private final ItemUIRegistry itemUIRegistry;
     private EList<Widget> widgets;
     private Set<Item> items;
+    private volatile PageRenderCache renderCache;
     private final List<SitemapSubscriptionCallback> callbacks = Collections
             .synchronizedList(new ArrayList<SitemapSubscriptionCallback>());
     private Set<SitemapSubscriptionCallback> distinctCallbacks = Collections.emptySet();
@@ -78,7 +77,6 @@ public class PageChangeListener implements StateChangeListener {
     private void updateItemsAndWidgets(EList<Widget> widgets) {
         if (this.widgets != null) {
             // cleanup statechange listeners in case widgets were removed
-            items = getAllItems(this.widgets);
             for (Item item : items) {
                 if (item instanceof GenericItem) {
                     ((GenericItem) item).removeStateChangeListener(this);
@@ -87,7 +85,8 @@ public class PageChangeListener implements StateChangeListener {
         }
 
         this.widgets = widgets;
-        items = getAllItems(widgets);
+        renderCache = new PageRenderCache(itemUIRegistry, widgets);
+        items = getAllItems(renderCache);
         for (Item item : items) {
             if (item instanceof GenericItem) {
                 ((GenericItem) item).addStateChangeListener(this);
@@ -128,32 +127,17 @@ public class PageChangeListener implements StateChangeListener {
     }
 
     /**
-     * Collects all items that are represented by a given list of widgets
+     * Collects all items that the widgets of the page depend on
      *
-     * @param widgets
-     *            the widget list to get the items for added to all bundles containing REST resources
-     * @return all items that are represented by the list of widgets
+     * @param renderCache
+     *            the render cache of the page
+     * @return all items that are represented by the widgets or referenced by their visibility and color rules
      */
-    private Set<Item> getAllItems(EList<Widget> widgets) {
+    private Set<Item> getAllItems(PageRenderCache renderCache) {
         Set<Item> items = new HashSet<Item>();
         if (itemUIRegistry != null) {
-            for (Widget widget : widgets) {
-                addItemWithName(items, widget.getItem());
-                if (widget instanceof Frame) {
-                    items.addAll(getAllItems(((Frame) widget).getChildren()));
-                }
-                // now scan visibility rules
-                for (VisibilityRule rule : widget.getVisibility()) {
-                    addItemWithName(items, rule.getItem());
-                }
-                // now scan label color rules
-                for (ColorArray rule : widget.getLabelColor()) {
-                    addItemWithName(items, rule.getItem());
-                }
-                // now scan value color rules
-                for (ColorArray rule : widget.getValueColor()) {
-                    addItemWithName(items, rule.getItem());
-                }
+            for (String itemName : renderCache.getItemNames()) {
+                addItemWithName(items, itemName);
             }
         }
         return items;
@@ -170,8 +154,8 @@ public class PageChangeListener implements StateChangeListener {
         }
     }
 
-    private void constructAndSendEvents(Item item, State newState) {
-        Set<SitemapEvent> events = constructSitemapEvents(item, newState, widgets);
+    private void constructAndSendEvents(Item item, State newState, boolean onlyChangedWidgets) {
+        Set<SitemapEvent> events = constructSitemapEvents(item, newState, onlyChangedWidgets);
         for (SitemapEvent event : events) {
             for (SitemapSubscriptionCallback callback : distinctCallbacks) {
                 callback.onEvent(event);
@@ -185,7 +169,7 @@ public class PageChangeListener implements StateChangeListener {
         if (item instanceof GroupItem) {
             return;
         }
-        constructAndSendEvents(item, newState);
+        constructAndSendEvents(item, newState, true);
     }
 
     @Override
@@ -196,80 +180,72 @@ public class PageChangeListener implements StateChangeListener {
         if (!(item instanceof GroupItem)) {
             return;
         }
-        constructAndSendEvents(item, state);
+        constructAndSendEvents(item, state, true);
     }
 
     public void keepCurrentState(Item item) {
         scheduler.schedule(() -> {
-            constructAndSendEvents(item, item.getState());
+            constructAndSendEvents(item, item.getState(), false);
         }, REVERT_INTERVAL, TimeUnit.MILLISECONDS);
     }
 
     public void changeStateTo(Item item, State state) {
-        constructAndSendEvents(item, state);
+        constructAndSendEvents(item, state, false);
     }
 
-    private Set<SitemapEvent> constructSitemapEvents(Item item, State state, List<Widget> widgets) {
+    /**
+     * Creates the events for all widgets which depend on the given item.
+     *
+     * @param item the item whose state changed
+     * @param state the new state of the item
+     * @param onlyChangedWidgets if true, events are only created for widgets whose rendering differs from the last
+     *            one, predictions and their revert bypass this check and the cache
+     */
+    private Set<SitemapEvent> constructSitemapEvents(Item item, State state, boolean onlyChangedWidgets) {
         Set<SitemapEvent> events = new HashSet<>();
-        for (Widget w : widgets) {
-            if (w instanceof Frame) {
-                events.addAll(constructSitemapEvents(item, state, itemUIRegistry.getChildren((Frame) w)));
+        PageRenderCache cache = renderCache;
+        for (Widget w : cache.getDependentWidgets(item.getName())) {
+            // the widget is rendered with the state of its own item, the changed item might be a rule item
+            Item widgetItem = item;
+            State widgetState = state;
+            if (w.getItem() != null && !w.getItem().equals(item.getName())) {
+                try {
+                    widgetItem = itemUIRegistry.getItem(w.getItem());
+                    widgetState = widgetItem.getState();
+                } catch (ItemNotFoundException e) {
+                    // render it with the changed item as before
+                }
             }
 
-            boolean skipWidget = (w.getItem() == null) || !w.getItem().equals(item.getName());
-            // We skip the chart widgets having a refresh argument
-            if (!skipWidget && w instanceof Chart) {
-                Chart chartWidget = (Chart) w;
-                skipWidget = chartWidget.getRefresh() > 0;
-            }
-            if (!skipWidget || definesVisibilityOrColor(w, item.getName())) {
-                SitemapWidgetEvent event = new SitemapWidgetEvent();
-                event.sitemapName = sitemapName;
-                event.pageId = pageId;
-                event.label = itemUIRegistry.getLabel(w);
-                event.labelcolor = itemUIRegistry.getLabelColor(w);
-                event.valuecolor = itemUIRegistry.getValueColor(w);
-                event.widgetId = itemUIRegistry.getWidgetId(w);
-                event.visibility = itemUIRegistry.getVisiblity(w);
-                // event.item contains data from the item including its state (in event.item.state)
-                String widgetTypeName = w.eClass().getInstanceTypeName()
-                        .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
-                boolean drillDown = "mapview".equalsIgnoreCase(widgetTypeName);
-                Predicate<Item> itemFilter = (i -> i.getType().equals(CoreItemFactory.LOCATION));
-                event.item = EnrichedItemDTOMapper.map(item, drillDown, itemFilter, null, null);
+            SitemapWidgetEvent event = new SitemapWidgetEvent();
+            event.sitemapName = sitemapName;
+            event.pageId = pageId;
+            event.label = itemUIRegistry.getLabel(w);
+            event.labelcolor = itemUIRegistry.getLabelColor(w);
+            event.valuecolor = itemUIRegistry.getValueColor(w);
+            event.widgetId = itemUIRegistry.getWidgetId(w);
+            event.visibility = itemUIRegistry.getVisiblity(w);
+            // event.item contains data from the item including its state (in event.item.state)
+            String widgetTypeName = w.eClass().getInstanceTypeName()
+                    .substring(w.eClass().getInstanceTypeName().lastIndexOf(".") + 1);
+            boolean drillDown = "mapview".equalsIgnoreCase(widgetTypeName);
+            Predicate<Item> itemFilter = (i -> i.getType().equals(CoreItemFactory.LOCATION));
+            event.item = EnrichedItemDTOMapper.map(widgetItem, drillDown, itemFilter, null, null);
 
-                // event.state is an adjustment of the item state to the widget type.
-                event.state = itemUIRegistry.convertState(w, item, state).toFullString();
-                // In case this state is identical to the item state, its value is set to null.
-                if (event.state != null && event.state.equals(event.item.state)) {
-                    event.state = null;
-                }
+            // event.state is an adjustment of the item state to the widget type.
+            event.state = itemUIRegistry.convertState(w, widgetItem, widgetState).toFullString();
+            // In case this state is identical to the item state, its value is set to null.
+            if (event.state != null && event.state.equals(event.item.state)) {
+                event.state = null;
+            }
 
+            if (!onlyChangedWidgets || cache.update(event)) {
                 events.add(event);
             }
         }
         return events;
     }
 
-    private boolean definesVisibilityOrColor(Widget w, String name) {
-        for (VisibilityRule rule : w.getVisibility()) {
-            if (name.equals(rule.getItem())) {
-                return true;
-            }
-        }
-        for (ColorArray rule : w.getLabelColor()) {
-            if (name.equals(rule.getItem())) {
-                return true;
-            }
-        }
-        for (ColorArray rule : w.getValueColor()) {
-            if (name.equals(rule.getItem())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     public void sitemapContentChanged(EList<Widget> widgets) {
         updateItemsAndWidgets(widgets);
 
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.smarthome.io.rest.core.item.EnrichedGroupItemDTO;
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO;
+import org.eclipse.smarthome.model.sitemap.Chart;
+import org.eclipse.smarthome.model.sitemap.ColorArray;
+import org.eclipse.smarthome.model.sitemap.Frame;
+import org.eclipse.smarthome.model.sitemap.VisibilityRule;
+import org.eclipse.smarthome.model.sitemap.Widget;
+import org.eclipse.smarthome.ui.items.ItemUIRegistry;
+
+/**
+ * Caches the rendering of the widgets of a sitemap page.
+ * <p>
+ * The widgets are indexed by the items they depend on, i.e. their own item and the items of their visibility and
+ * color rules, so that a state change only leads to the evaluation of the affected widgets. The last rendering sent
+ * for a widget is kept, so that events are only sent if the rendering of a widget actually changed.
+ *
+ * @author agent - Initial contribution
+ */
+public class PageRenderCache {
+
+    /* item name -> widgets depending on the item */
+    private final Map<String, List<Widget>> dependentWidgets = new HashMap<>();
+
+    /* widget id -> last rendering sent to the clients */
+    private final Map<String, SitemapWidgetEvent> renderings = new HashMap<>();
+
+    /**
+     * Creates the cache for a page.
+     *
+     * @param itemUIRegistry the registry to resolve the children of frames
+     * @param widgets the widgets of the page
+     */
+    public PageRenderCache(ItemUIRegistry itemUIRegistry, List<Widget> widgets) {
+        index(itemUIRegistry, widgets);
+    }
+
+    private void index(ItemUIRegistry itemUIRegistry, List<Widget> widgets) {
+        for (Widget widget : widgets) {
+            if (widget instanceof Frame) {
+                List<Widget> children = itemUIRegistry.getChildren((Frame) widget);
+                if (children != null) {
+                    index(itemUIRegistry, children);
+                }
+            }
+            // chart widgets having a refresh argument are refreshed by the client
+            if (!(widget instanceof Chart && ((Chart) widget).getRefresh() > 0)) {
+                addDependency(widget.getItem(), widget);
+            }
+            for (VisibilityRule rule : widget.getVisibility()) {
+                addDependency(rule.getItem(), widget);
+            }
+            for (ColorArray rule : widget.getLabelColor()) {
+                addDependency(rule.getItem(), widget);
+            }
+            for (ColorArray rule : widget.getValueColor()) {
+                addDependency(rule.getItem(), widget);
+            }
+        }
+    }
+
+    private void addDependency(String itemName, Widget widget) {
+        if (itemName != null) {
+            List<Widget> widgets = dependentWidgets.computeIfAbsent(itemName, name -> new ArrayList<>());
+            if (!widgets.contains(widget)) {
+                widgets.add(widget);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of all items the widgets of the page depend on.
+     */
+    public Set<String> getItemNames() {
+        return Collections.unmodifiableSet(dependentWidgets.keySet());
+    }
+
+    /**
+     * Returns the widgets whose rendering depends on the given item.
+     */
+    public List<Widget> getDependentWidgets(String itemName) {
+        List<Widget> widgets = dependentWidgets.get(itemName);
+        return widgets == null ? Collections.emptyList() : widgets;
+    }
+
+    /**
+     * Stores the rendering of a widget.
+     *
+     * @param event the event describing the new rendering of a widget
+     * @return true if the rendering differs from the one stored before
+     */
+    public synchronized boolean update(SitemapWidgetEvent event) {
+        SitemapWidgetEvent previous = renderings.put(event.widgetId, event);
+        return previous == null || !isSameRendering(previous, event);
+    }
+
+    private boolean isSameRendering(SitemapWidgetEvent event1, SitemapWidgetEvent event2) {
+        return Objects.equals(event1.label, event2.label) && Objects.equals(event1.icon, event2.icon)
+                && Objects.equals(event1.labelcolor, event2.labelcolor)
+                && Objects.equals(event1.valuecolor, event2.valuecolor) && event1.visibility == event2.visibility
+                && Objects.equals(event1.state, event2.state) && isSameItem(event1.item, event2.item);
+    }
+
+    private boolean isSameItem(EnrichedItemDTO item1, EnrichedItemDTO item2) {
+        if (item1 == null || item2 == null) {
+            return item1 == item2;
+        }
+        if (item1 instanceof EnrichedGroupItemDTO && ((EnrichedGroupItemDTO) item1).members != null) {
+            // the states of the members are not compared
+            return false;
+        }
+        return Objects.equals(item1.name, item2.name) && Objects.equals(item1.label, item2.label)
+                && Objects.equals(item1.state, item2.state)
+                && Objects.equals(item1.transformedState, item2.transformedState);
+    }
+
+}
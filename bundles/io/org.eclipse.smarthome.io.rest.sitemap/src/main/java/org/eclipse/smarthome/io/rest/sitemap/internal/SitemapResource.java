@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
 import javax.annotation.security.RolesAllowed;
@@ -39,6 +40,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -56,6 +58,7 @@ import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.StateChangeListener;
 import org.eclipse.smarthome.core.library.CoreItemFactory;
 import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.io.rest.EntityTagUtil;
 import org.eclipse.smarthome.io.rest.JSONResponse;
 import org.eclipse.smarthome.io.rest.LocaleService;
 import org.eclipse.smarthome.io.rest.RESTResource;
@@ -112,6 +115,7 @@ import io.swagger.annotations.ApiResponses;
  * @author Kai Kreuzer - Initial contribution and API
  * @author Chris Jackson
  * @author Yordan Zhelev - Added Swagger annotations
+ * @author agent - Added conditional GET support for the sitemap list
  */
 @Component(service = RESTResource.class)
 @Path(SitemapResource.PATH_SITEMAPS)
@@ -138,6 +142,9 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
     @Context
     private HttpServletResponse response;
 
+    @Context
+    private HttpHeaders httpHeaders;
+
     private ItemUIRegistry itemUIRegistry;
 
     private SitemapSubscriptionService subscriptions;
@@ -146,6 +153,9 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
 
     private final java.util.List<SitemapProvider> sitemapProviders = new ArrayList<>();
 
+    private final AtomicLong providerVersion = new AtomicLong(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
     private final Map<String, EventOutput> eventOutputs = new MapMaker().weakValues().makeMap();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
@@ -204,10 +214,12 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
     @Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
     public void addSitemapProvider(SitemapProvider provider) {
         sitemapProviders.add(provider);
+        providerVersion.incrementAndGet();
     }
 
     public void removeSitemapProvider(SitemapProvider provider) {
         sitemapProviders.remove(provider);
+        providerVersion.incrementAndGet();
     }
 
     @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
@@ -225,8 +237,23 @@ public class SitemapResource implements RESTResource, SitemapSubscriptionCallbac
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     public Response getSitemaps() {
         logger.debug("Received HTTP GET request from IP {} at '{}'", request.getRemoteAddr(), uriInfo.getPath());
+        EntityTag entityTag = createEntityTag();
+        if (EntityTagUtil.isNotModified(httpHeaders, entityTag)) {
+            return Response.notModified(entityTag).build();
+        }
         Object responseObject = getSitemapBeans(uriInfo.getAbsolutePathBuilder().build());
-        return Response.ok(responseObject).build();
+        return Response.ok(responseObject).tag(entityTag).build();
+    }
+
+    private EntityTag createEntityTag() {
+        long version = providerVersion.get();
+        java.util.List<SitemapProvider> providers = new ArrayList<>(sitemapProviders);
+        long[] versions = new long[providers.size() + 1];
+        versions[0] = version;
+        for (int i = 0; i < providers.size(); i++) {
+            versions[i + 1] = providers.get(i).getVersion();
+        }
+        return EntityTagUtil.createEntityTag(httpHeaders, null, versions);
     }
 
     @GET
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.io.rest.sse.internal.ItemStateStream;
+import org.eclipse.smarthome.io.rest.sse.internal.SseClient;
+import org.eclipse.smarthome.io.rest.sse.internal.TopicFilter;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests for {@link ItemStateStream}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemStateStreamTest {
+
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private ItemStateStream stream;
+
+    @Before
+    public void setup() {
+        SwitchItem item1 = new SwitchItem("item1");
+        item1.setState(OnOffType.ON);
+        SwitchItem item2 = new SwitchItem("item2");
+        item2.setState(OnOffType.OFF);
+        when(itemRegistry.getAll()).thenReturn(Arrays.asList(item1, item2));
+        when(itemRegistry.get("item1")).thenReturn(item1);
+        when(itemRegistry.get("item2")).thenReturn(item2);
+
+        stream = new ItemStateStream(itemRegistry, scheduler, 0, 10);
+    }
+
+    private EventOutput subscribe(String lastEventId, String... itemNames) {
+        EventOutput output = mock(EventOutput.class);
+        Set<String> names = new HashSet<>(Arrays.asList(itemNames));
+        stream.subscribe(new SseClient(output, ItemStateStream.createFilter(names), "127.0.0.1", 100, Runnable::run,
+                stream::unsubscribe), names, lastEventId);
+        return output;
+    }
+
+    private List<OutboundEvent> getEvents(EventOutput output, int count) throws IOException {
+        ArgumentCaptor<OutboundEvent> captor = ArgumentCaptor.forClass(OutboundEvent.class);
+        verify(output, times(count)).write(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    public void testSnapshotFollowedByDeltas() throws IOException {
+        EventOutput output = subscribe(null);
+        stream.stateChanged("item1", "OFF");
+        stream.stateChanged("item2", "ON");
+
+        List<OutboundEvent> events = getEvents(output, 3);
+        assertThat(events.get(0).getName(), is(ItemStateStream.EVENT_SNAPSHOT));
+        assertThat(events.get(0).getData(), is("{\"item1\":\"ON\",\"item2\":\"OFF\"}"));
+        assertThat(events.get(1).getName(), is(ItemStateStream.EVENT_DELTA));
+        assertThat(events.get(1).getData(), is("{\"item1\":\"OFF\"}"));
+        assertThat(events.get(2).getData(), is("{\"item2\":\"ON\"}"));
+        assertThat(events.get(1).getId(), is(not(events.get(0).getId())));
+        assertThat(events.get(2).getId(), is(not(events.get(1).getId())));
+    }
+
+    @Test
+    public void testSubscriptionToSomeItems() throws IOException {
+        EventOutput output = subscribe(null, "item2", "unknown");
+        stream.stateChanged("item1", "OFF");
+        stream.stateChanged("item2", "ON");
+
+        List<OutboundEvent> events = getEvents(output, 2);
+        assertThat(events.get(0).getData(), is("{\"item2\":\"OFF\"}"));
+        assertThat(events.get(1).getData(), is("{\"item2\":\"ON\"}"));
+    }
+
+    @Test
+    public void testResumeFromReplayLog() throws IOException {
+        EventOutput first = subscribe(null);
+        String lastEventId = getEvents(first, 1).get(0).getId();
+
+        stream.stateChanged("item1", "OFF");
+        stream.stateChanged("item2", "ON");
+        stream.stateChanged("item1", "ON");
+
+        List<OutboundEvent> events = getEvents(subscribe(lastEventId), 1);
+        assertThat(events.get(0).getName(), is(ItemStateStream.EVENT_DELTA));
+        assertThat(events.get(0).getData(), is("{\"item1\":\"ON\",\"item2\":\"ON\"}"));
+        assertThat(events.get(0).getId(), is(getEvents(first, 4).get(3).getId()));
+    }
+
+    @Test
+    public void testSnapshotIfReplayLogIsExceeded() throws IOException {
+        stream.setReplayLogSize(1);
+        String lastEventId = getEvents(subscribe(null), 1).get(0).getId();
+
+        stream.stateChanged("item1", "OFF");
+        stream.stateChanged("item2", "ON");
+
+        assertThat(getEvents(subscribe(lastEventId), 1).get(0).getName(), is(ItemStateStream.EVENT_SNAPSHOT));
+        assertThat(getEvents(subscribe("unknown-1"), 1).get(0).getName(), is(ItemStateStream.EVENT_SNAPSHOT));
+    }
+
+    @Test
+    public void testChangesAreCoalesced() throws IOException {
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        stream.setCoalescingWindow(100);
+        EventOutput output = subscribe(null);
+
+        stream.stateChanged("item1", "OFF");
+        stream.stateChanged("item2", "ON");
+        stream.stateChanged("item1", "ON");
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), eq(100L), eq(TimeUnit.MILLISECONDS));
+        flush.getValue().run();
+
+        List<OutboundEvent> events = getEvents(output, 2);
+        assertThat(events.get(1).getName(), is(ItemStateStream.EVENT_DELTA));
+        assertThat(events.get(1).getData(), is("{\"item1\":\"ON\",\"item2\":\"ON\"}"));
+    }
+
+    @Test
+    public void testSnapshotIsSharedUntilStatesChange() throws IOException {
+        OutboundEvent first = getEvents(subscribe(null), 1).get(0);
+        assertThat(getEvents(subscribe(null), 1).get(0), is(sameInstance(first)));
+
+        stream.itemsChanged();
+        assertThat(getEvents(subscribe(null), 1).get(0), is(not(sameInstance(first))));
+        verify(itemRegistry, times(2)).getAll();
+        assertThat(stream.getClients().size(), is(3));
+
+        stream.close();
+        assertThat(stream.getClients().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testFilterMatchesTheStateChangesOfTheItems() {
+        TopicFilter filter = ItemStateStream.createFilter(new LinkedHashSet<>(Arrays.asList("item2", "item1")));
+
+        assertThat(filter.matches("smarthome/items/item1/statechanged"), is(true));
+        assertThat(filter.matches("smarthome/items/item2/statechanged"), is(true));
+        assertThat(filter.matches("smarthome/items/item3/statechanged"), is(false));
+        assertThat(filter.matches("smarthome/items/item1/command"), is(false));
+        assertThat(filter.getKey(),
+                is(ItemStateStream.createFilter(new LinkedHashSet<>(Arrays.asList("item1", "item2"))).getKey()));
+        assertThat(ItemStateStream.createFilter(new HashSet<>()).matches("smarthome/items/item3/statechanged"),
+                is(true));
+    }
+
+    @Test
+    public void testClosedClientIsUnsubscribed() {
+        String filterKey = ItemStateStream.createFilter(new HashSet<>(Arrays.asList("item1"))).getKey();
+        subscribe(null, "item1");
+        subscribe(null, "item1");
+        List<SseClient> clients = stream.getClients();
+        assertThat(clients.size(), is(2));
+
+        clients.get(0).close();
+        assertThat(stream.getClients(), is(Arrays.asList(clients.get(1))));
+        assertThat(clients.get(1).getStatistics().topicFilter, is(filterKey));
+    }
+
+}
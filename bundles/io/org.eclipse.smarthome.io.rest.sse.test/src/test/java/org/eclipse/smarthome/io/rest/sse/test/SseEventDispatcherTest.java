@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.rest.sse.internal.SseClient;
+import org.eclipse.smarthome.io.rest.sse.internal.SseEventDispatcher;
+import org.eclipse.smarthome.io.rest.sse.internal.TopicFilter;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SseEventDispatcher} and {@link SseClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseEventDispatcherTest {
+
+    private final SseEventDispatcher dispatcher = new SseEventDispatcher();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Executor queuingExecutor = tasks::add;
+    private final OutboundEvent event = new OutboundEvent.Builder().name("message").data(String.class, "{}").build();
+
+    private SseClient createClient(EventOutput output, String topicFilter, int capacity, Executor executor) {
+        SseClient client = new SseClient(output, new TopicFilter(topicFilter), "127.0.0.1", capacity, executor,
+                dispatcher::remove);
+        dispatcher.add(client);
+        return client;
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void testTopicFilter() {
+        TopicFilter filter = new TopicFilter("smarthome/items/*/state, smarthome/things");
+
+        assertThat(filter.matches("smarthome/items/a/state"), is(true));
+        assertThat(filter.matches("smarthome/things/b/status"), is(true));
+        assertThat(filter.matches("smarthome/items/a/command"), is(false));
+        assertThat(new TopicFilter("smarthome/things").getKey(), is(new TopicFilter(" smarthome/things").getKey()));
+    }
+
+    @Test
+    public void testEventsAreDispatchedToMatchingClientsOnly() throws IOException {
+        EventOutput stateOutput = mock(EventOutput.class);
+        EventOutput otherStateOutput = mock(EventOutput.class);
+        EventOutput thingOutput = mock(EventOutput.class);
+        createClient(stateOutput, "smarthome/items/*/state", 10, Runnable::run);
+        createClient(otherStateOutput, "smarthome/items/*/state", 10, Runnable::run);
+        createClient(thingOutput, "smarthome/things/*", 10, Runnable::run);
+
+        assertThat(dispatcher.getFilterCount(), is(2));
+
+        dispatcher.dispatch("smarthome/items/a/state", event);
+
+        verify(stateOutput).write(event);
+        verify(otherStateOutput).write(event);
+        verify(thingOutput, never()).write(any());
+    }
+
+    @Test
+    public void testSlowClientIsDisconnected() throws IOException {
+        EventOutput slowOutput = mock(EventOutput.class);
+        EventOutput fastOutput = mock(EventOutput.class);
+        SseClient slowClient = createClient(slowOutput, "", 2, queuingExecutor);
+        SseClient fastClient = createClient(fastOutput, "", 2, Runnable::run);
+
+        dispatcher.dispatch("smarthome/a", event);
+        dispatcher.dispatch("smarthome/b", event);
+        assertThat(slowClient.getStatistics().pendingEvents, is(2));
+
+        dispatcher.dispatch("smarthome/c", event);
+
+        assertThat(slowClient.isClosed(), is(true));
+        verify(slowOutput).close();
+        assertThat(fastClient.isClosed(), is(false));
+        verify(fastOutput, times(3)).write(event);
+        assertThat(dispatcher.getClients().size(), is(1));
+    }
+
+    @Test
+    public void testClientStatistics() throws IOException {
+        SseClient client = createClient(mock(EventOutput.class), "smarthome", 10, queuingExecutor);
+
+        dispatcher.dispatch("smarthome/a", event);
+        dispatcher.dispatch("smarthome/b", event);
+        assertThat("only one write task is scheduled per client", tasks.size(), is(1));
+
+        runTasks();
+
+        assertThat(client.getStatistics().sentEvents, is(2L));
+        assertThat(client.getStatistics().pendingEvents, is(0));
+        assertThat(client.getStatistics().maxPendingEvents, is(2));
+    }
+
+    @Test
+    public void testFailingClientIsRemoved() throws IOException {
+        EventOutput output = mock(EventOutput.class);
+        doThrow(new IOException("broken pipe")).when(output).write(any());
+        SseClient client = createClient(output, "", 10, Runnable::run);
+
+        dispatcher.dispatch("smarthome/a", event);
+
+        assertThat(client.isClosed(), is(true));
+        assertThat(dispatcher.getFilterCount(), is(0));
+    }
+
+    @Test
+    public void testStalledClientIsDisconnected() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        EventOutput output = mock(EventOutput.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            unblock.await();
+            throw new IOException("connection closed");
+        }).when(output).write(any());
+        SseClient client = createClient(output, "", 10, task -> new Thread(task).start());
+
+        try {
+            assertThat("no write is in progress", client.closeIfStalled(0), is(false));
+
+            dispatcher.dispatch("smarthome/a", event);
+            assertThat(writing.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(client.closeIfStalled(60000), is(false));
+            assertThat(client.closeIfStalled(0), is(true));
+
+            assertThat(client.isClosed(), is(true));
+            verify(output).close();
+            assertThat(dispatcher.getClients().size(), is(0));
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+}
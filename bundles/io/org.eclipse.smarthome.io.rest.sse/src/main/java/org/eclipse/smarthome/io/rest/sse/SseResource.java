@@ -13,31 +13,56 @@
 package org.eclipse.smarthome.io.rest.sse;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.security.RolesAllowed;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.smarthome.core.auth.Role;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.Event;
-import org.eclipse.smarthome.io.rest.sse.internal.SseEventOutput;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.ItemUtil;
+import org.eclipse.smarthome.core.items.events.AbstractItemRegistryEvent;
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent;
+import org.eclipse.smarthome.io.rest.sse.beans.SseClientBean;
+import org.eclipse.smarthome.io.rest.sse.internal.ItemStateStream;
+import org.eclipse.smarthome.io.rest.sse.internal.SseClient;
+import org.eclipse.smarthome.io.rest.sse.internal.SseEventDispatcher;
+import org.eclipse.smarthome.io.rest.sse.internal.TopicFilter;
 import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
 import org.glassfish.jersey.media.sse.SseFeature;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -50,9 +75,10 @@ import io.swagger.annotations.ApiResponses;
  *
  * @author Ivan Iliev - Initial Contribution and API
  * @author Yordan Zhelev - Added Swagger annotations
+ * @author agent - Serialize events once and buffer them per client, item state stream
  *
  */
-@Component(immediate = true, service = SseResource.class)
+@Component(immediate = true, service = SseResource.class, configurationPid = "org.eclipse.smarthome.sse")
 @Path(SseResource.PATH_EVENTS)
 @RolesAllowed({ Role.USER })
 @Singleton
@@ -61,11 +87,51 @@ public class SseResource {
 
     public static final String PATH_EVENTS = "events";
 
+    public static final String PATH_CLIENTS = "clients";
+
+    public static final String PATH_STATES = "states";
+
     private static final String X_ACCEL_BUFFERING_HEADER = "X-Accel-Buffering";
 
-    private final SseBroadcaster broadcaster;
+    private static final String THREAD_POOL_NAME = "sse";
+
+    private static final String WRITER_THREAD_NAME_PREFIX = "ESH-sse-writer-";
+
+    private static final int DEFAULT_CLIENT_BUFFER_SIZE = 1000;
+
+    private static final int DEFAULT_CLIENT_WRITER_THREADS = 20;
+
+    private static final int DEFAULT_CLIENT_WRITE_TIMEOUT = 10000;
+
+    private static final long STALLED_CLIENTS_CHECK_INTERVAL = 1000;
+
+    private static final int DEFAULT_STATE_COALESCING_WINDOW = 100;
+
+    private static final int DEFAULT_STATE_REPLAY_LOG_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(SseResource.class);
 
-    private final ExecutorService executorService;
+    private final SseEventDispatcher dispatcher = new SseEventDispatcher();
+
+    private final ScheduledExecutorService executorService = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME);
+
+    /*
+     * Writes the events to the clients. A write blocks while a client does not accept more data, so the writers have
+     * their own pool, which does not hold up the tasks of the shared pool and can be sized for slow clients.
+     */
+    private final ThreadPoolExecutor writerPool = createWriterPool();
+
+    private ScheduledFuture<?> stalledClientsJob;
+
+    private ItemRegistry itemRegistry;
+
+    private ItemStateStream itemStateStream;
+
+    /* Max number of events buffered for a client before it is disconnected */
+    private int clientBufferSize = DEFAULT_CLIENT_BUFFER_SIZE;
+
+    /* Max time in milliseconds a single write to a client may take before it is disconnected */
+    private volatile int clientWriteTimeout = DEFAULT_CLIENT_WRITE_TIMEOUT;
 
     @Context
     private UriInfo uriInfo;
@@ -76,9 +142,71 @@ public class SseResource {
     @Context
     private HttpServletRequest request;
 
-    public SseResource() {
-        this.executorService = Executors.newSingleThreadExecutor();
-        this.broadcaster = new SseBroadcaster();
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        itemStateStream = new ItemStateStream(itemRegistry, executorService, DEFAULT_STATE_COALESCING_WINDOW,
+                DEFAULT_STATE_REPLAY_LOG_SIZE);
+        applyConfig(config);
+        stalledClientsJob = executorService.scheduleWithFixedDelay(this::closeStalledClients,
+                STALLED_CLIENTS_CHECK_INTERVAL, STALLED_CLIENTS_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        applyConfig(config);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        stalledClientsJob.cancel(false);
+        dispatcher.close();
+        itemStateStream.close();
+        writerPool.shutdownNow();
+    }
+
+    @Reference
+    protected void setItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = itemRegistry;
+    }
+
+    protected void unsetItemRegistry(ItemRegistry itemRegistry) {
+        this.itemRegistry = null;
+    }
+
+    private void applyConfig(Map<String, Object> config) {
+        if (config == null) {
+            return;
+        }
+        clientBufferSize = getIntSetting(config, "clientBufferSize", DEFAULT_CLIENT_BUFFER_SIZE, 1);
+        clientWriteTimeout = getIntSetting(config, "clientWriteTimeout", DEFAULT_CLIENT_WRITE_TIMEOUT, 1);
+        int writerThreads = getIntSetting(config, "clientWriterThreads", DEFAULT_CLIENT_WRITER_THREADS, 1);
+        if (writerThreads > writerPool.getMaximumPoolSize()) {
+            writerPool.setMaximumPoolSize(writerThreads);
+            writerPool.setCorePoolSize(writerThreads);
+        } else {
+            writerPool.setCorePoolSize(writerThreads);
+            writerPool.setMaximumPoolSize(writerThreads);
+        }
+        itemStateStream.setCoalescingWindow(
+                getIntSetting(config, "stateCoalescingWindow", DEFAULT_STATE_COALESCING_WINDOW, 0));
+        itemStateStream
+                .setReplayLogSize(getIntSetting(config, "stateReplayLogSize", DEFAULT_STATE_REPLAY_LOG_SIZE, 0));
+    }
+
+    private int getIntSetting(Map<String, Object> config, String name, int defaultValue, int minValue) {
+        final String value = Objects.toString(config.get(name), null);
+        if (value != null) {
+            try {
+                int intValue = Integer.parseInt(value);
+                if (intValue >= minValue) {
+                    return intValue;
+                }
+                logger.warn("Setting '{}' must be at least {}; value '{}' ignored.", name, minValue, value);
+            } catch (NumberFormatException e) {
+                logger.warn("Setting '{}' must be a number; value '{}' ignored.", name, value);
+            }
+        }
+        return defaultValue;
     }
 
     /**
@@ -102,11 +230,87 @@ public class SseResource {
             return Response.status(Status.BAD_REQUEST).build();
         }
 
-        // construct an EventOutput that will only write out events that match
-        // the given filter
-        final EventOutput eventOutput = new SseEventOutput(eventFilter);
-        broadcaster.add(eventOutput);
+        // the client only receives events that match the given filter, they are written by the thread pool
+        final EventOutput eventOutput = new EventOutput();
+        dispatcher.add(new SseClient(eventOutput, new TopicFilter(eventFilter), request.getRemoteAddr(),
+                clientBufferSize, writerPool, dispatcher::remove));
+
+        prepareResponse();
 
+        return eventOutput;
+    }
+
+    /**
+     * Subscribes the connecting client to the states of the given items. The client first receives a snapshot of the
+     * states and then the changed states. A client which reconnects with the id of the last event it received only
+     * receives the states which changed in the meantime, if they are still known.
+     *
+     * @param items comma separated list of item names, all items if empty
+     * @param lastEventId the id of the last received event, sent by reconnecting clients
+     * @return {@link EventOutput} object associated with the incoming
+     *         connection.
+     * @throws IOException
+     */
+    @GET
+    @Path("/" + PATH_STATES)
+    @Produces(SseFeature.SERVER_SENT_EVENTS)
+    @ApiOperation(value = "Get the item states followed by their changes.", response = EventOutput.class)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Item name is invalid") })
+    public Object getStates(@QueryParam("items") @ApiParam(value = "item names, all items if empty") String items,
+            @HeaderParam(SseFeature.LAST_EVENT_ID_HEADER) @ApiParam(value = "id of the last received event") String lastEventId)
+            throws IOException {
+        Set<String> itemNames = new LinkedHashSet<>();
+        if (items != null) {
+            for (String itemName : items.split(",")) {
+                itemName = itemName.trim();
+                if (itemName.isEmpty()) {
+                    continue;
+                }
+                if (!ItemUtil.isValidItemName(itemName)) {
+                    return Response.status(Status.BAD_REQUEST).build();
+                }
+                itemNames.add(itemName);
+            }
+        }
+
+        final EventOutput eventOutput = new EventOutput();
+        itemStateStream.subscribe(new SseClient(eventOutput, ItemStateStream.createFilter(itemNames),
+                request.getRemoteAddr(), clientBufferSize, writerPool, itemStateStream::unsubscribe), itemNames,
+                lastEventId);
+
+        prepareResponse();
+
+        return eventOutput;
+    }
+
+    private static ThreadPoolExecutor createWriterPool() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(DEFAULT_CLIENT_WRITER_THREADS, DEFAULT_CLIENT_WRITER_THREADS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, WRITER_THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Disconnects the clients whose write is blocked for longer than the write timeout, so that a stalled client
+     * does not receive further events.
+     */
+    private void closeStalledClients() {
+        final int timeout = clientWriteTimeout;
+        for (SseClient client : dispatcher.getClients()) {
+            client.closeIfStalled(timeout);
+        }
+        for (SseClient client : itemStateStream.getClients()) {
+            client.closeIfStalled(timeout);
+        }
+    }
+
+    private void prepareResponse() throws IOException {
         // Disables proxy buffering when using an nginx http server proxy for this response.
         // This allows you to not disable proxy buffering in nginx and still have working sse
         response.addHeader(X_ACCEL_BUFFERING_HEADER, "no");
@@ -126,23 +330,43 @@ public class SseResource {
             // enable blocking for this thread
             SseUtil.enableBlockingSse();
         }
+    }
 
-        return eventOutput;
+    /**
+     * Returns the statistics of the currently connected clients.
+     *
+     * @return a list of client statistics
+     */
+    @GET
+    @Path("/" + PATH_CLIENTS)
+    @RolesAllowed({ Role.ADMIN })
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get statistics of the connected clients.", response = SseClientBean.class, responseContainer = "List")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
+    public List<SseClientBean> getClients() {
+        List<SseClientBean> statistics = dispatcher.getStatistics();
+        for (SseClient client : itemStateStream.getClients()) {
+            statistics.add(client.getStatistics());
+        }
+        return statistics;
     }
 
     /**
      * Broadcasts an event described by the given parameter to all currently
-     * listening clients.
+     * listening clients. The event is serialized once and handed to the buffers of the matching clients without
+     * blocking.
      *
-     * @param sseEventType the SSE event type
      * @param event the event
      */
     public void broadcastEvent(final Event event) {
-        executorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                broadcaster.broadcast(SseUtil.buildEvent(event));
-            }
-        });
+        dispatcher.dispatch(event.getTopic(), SseUtil.buildEvent(event));
+
+        if (event instanceof ItemStateChangedEvent) {
+            ItemStateChangedEvent stateChangedEvent = (ItemStateChangedEvent) event;
+            itemStateStream.stateChanged(stateChangedEvent.getItemName(),
+                    stateChangedEvent.getItemState().toFullString());
+        } else if (event instanceof AbstractItemRegistryEvent) {
+            itemStateStream.itemsChanged();
+        }
     }
 }
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.beans;
+
+/**
+ * Statistics of a connected SSE client.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseClientBean {
+
+    public long id;
+
+    public String remoteAddress;
+
+    public String topicFilter;
+
+    /** time of connection in milliseconds since the epoch */
+    public long connectedSince;
+
+    public long sentEvents;
+
+    /** time between queuing and writing of the last written event */
+    public long lastLagMillis;
+
+    /** maximum time between queuing and writing of an event */
+    public long maxLagMillis;
+
+    /** age of the oldest event which is not written yet */
+    public long currentLagMillis;
+
+    public int pendingEvents;
+
+    public int maxPendingEvents;
+
+}
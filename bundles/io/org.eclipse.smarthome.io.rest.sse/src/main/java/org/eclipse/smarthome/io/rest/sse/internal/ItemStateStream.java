@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.MediaType;
+
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+import com.google.gson.Gson;
+
+/**
+ * Streams item states to SSE clients. On connection a client receives a snapshot of the states of the items it
+ * subscribed to, followed by deltas which contain the states of the changed items only.
+ * <p>
+ * Every state change is assigned a monotonically increasing sequence number. The id of an event consists of the epoch
+ * of this stream and the sequence number of the last change it contains. A reconnecting client which sends its last
+ * event id gets the changes it missed from a bounded replay log instead of a new snapshot, as long as the log still
+ * covers them. Several changes of an item within the coalescing window are sent as a single change.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemStateStream {
+
+    /** Name of the event containing the states of all subscribed items */
+    public static final String EVENT_SNAPSHOT = "snapshot";
+
+    /** Name of the event containing the states of changed items */
+    public static final String EVENT_DELTA = "delta";
+
+    private static final String STATE_CHANGED_TOPIC = "smarthome/items/%s/statechanged";
+
+    private static final Gson GSON = new Gson();
+
+    private final ItemRegistry itemRegistry;
+    private final ScheduledExecutorService scheduler;
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /* subscription key -> subscription */
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private int coalescingWindow;
+    private int replayLogSize;
+    private long sequence;
+    private final Deque<Change> log = new ArrayDeque<>();
+    private final Map<String, String> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    /* subscription key -> snapshot at the current sequence number */
+    private final Map<String, OutboundEvent> snapshots = new HashMap<>();
+
+    /**
+     * Creates a stream.
+     *
+     * @param itemRegistry the registry to take the snapshots from
+     * @param scheduler the scheduler which sends the coalesced changes
+     * @param coalescingWindow the time in milliseconds in which the changes of an item are coalesced, 0 to send every
+     *            change immediately
+     * @param replayLogSize the number of changes kept for reconnecting clients
+     */
+    public ItemStateStream(ItemRegistry itemRegistry, ScheduledExecutorService scheduler, int coalescingWindow,
+            int replayLogSize) {
+        this.itemRegistry = itemRegistry;
+        this.scheduler = scheduler;
+        this.coalescingWindow = coalescingWindow;
+        this.replayLogSize = replayLogSize;
+    }
+
+    public synchronized void setCoalescingWindow(int coalescingWindow) {
+        this.coalescingWindow = coalescingWindow;
+    }
+
+    public synchronized void setReplayLogSize(int replayLogSize) {
+        this.replayLogSize = replayLogSize;
+        trimLog();
+    }
+
+    /**
+     * Returns the topic filter of a client subscribed to the given items. It matches the state changed events of the
+     * items, so that clients of this stream are listed like the other clients. Clients with equal filters share the
+     * serialized events.
+     *
+     * @param itemNames the names of the subscribed items, all items if empty
+     */
+    public static TopicFilter createFilter(Set<String> itemNames) {
+        if (itemNames.isEmpty()) {
+            return new TopicFilter(String.format(STATE_CHANGED_TOPIC, "*"));
+        }
+        return new TopicFilter(itemNames.stream().sorted().map(itemName -> String.format(STATE_CHANGED_TOPIC, itemName))
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Subscribes the client to the states of the given items. The client either receives the changes since the given
+     * last event id or, if they are not available any more, a snapshot. The client must call
+     * {@link #unsubscribe(SseClient)} when it is closed.
+     *
+     * @param client the client, its filter must have been created by {@link #createFilter(Set)} for the given items
+     * @param itemNames the names of the subscribed items, all items if empty
+     * @param lastEventId the id of the last event the client received before it reconnected, may be null
+     */
+    public synchronized void subscribe(SseClient client, Set<String> itemNames, String lastEventId) {
+        Subscription subscription = subscriptions.computeIfAbsent(client.getFilter().getKey(),
+                key -> new Subscription(key, itemNames));
+        subscription.clients.add(client);
+
+        long lastSequence = parseSequence(lastEventId);
+        if (lastSequence >= 0 && canResume(lastSequence)) {
+            Map<String, String> states = new LinkedHashMap<>();
+            for (Change change : log) {
+                if (change.sequence > lastSequence && subscription.includes(change.itemName)) {
+                    states.put(change.itemName, change.state);
+                }
+            }
+            client.offer(buildEvent(EVENT_DELTA, states));
+        } else {
+            client.offer(getSnapshot(subscription));
+        }
+    }
+
+    public synchronized void unsubscribe(SseClient client) {
+        subscriptions.computeIfPresent(client.getFilter().getKey(), (key, subscription) -> {
+            subscription.clients.remove(client);
+            return subscription.clients.isEmpty() ? null : subscription;
+        });
+    }
+
+    /**
+     * Records the new state of an item. It is sent to the subscribed clients when the coalescing window has elapsed.
+     *
+     * @param itemName the name of the item
+     * @param state the new state in its full string representation
+     */
+    public synchronized void stateChanged(String itemName, String state) {
+        pending.put(itemName, state);
+        if (coalescingWindow <= 0) {
+            flush();
+        } else if (flushJob == null) {
+            flushJob = scheduler.schedule(this::flush, coalescingWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Invalidates the cached snapshots. Must be called when items are added, updated or removed.
+     */
+    public synchronized void itemsChanged() {
+        snapshots.clear();
+    }
+
+    public List<SseClient> getClients() {
+        List<SseClient> clients = new ArrayList<>();
+        for (Subscription subscription : subscriptions.values()) {
+            clients.addAll(subscription.clients);
+        }
+        return clients;
+    }
+
+    /**
+     * Closes all clients and discards pending changes.
+     */
+    public synchronized void close() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            flushJob = null;
+        }
+        pending.clear();
+        for (SseClient client : getClients()) {
+            client.close();
+        }
+    }
+
+    private synchronized void flush() {
+        flushJob = null;
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (Entry<String, String> entry : pending.entrySet()) {
+            log.add(new Change(++sequence, entry.getKey(), entry.getValue()));
+        }
+        trimLog();
+        snapshots.clear();
+
+        for (Subscription subscription : subscriptions.values()) {
+            Map<String, String> states = subscription.filter(pending);
+            if (!states.isEmpty()) {
+                OutboundEvent event = buildEvent(EVENT_DELTA, states);
+                for (SseClient client : subscription.clients) {
+                    client.offer(event);
+                }
+            }
+        }
+        pending.clear();
+    }
+
+    private void trimLog() {
+        while (log.size() > replayLogSize) {
+            log.poll();
+        }
+    }
+
+    private boolean canResume(long lastSequence) {
+        if (lastSequence == sequence) {
+            return true;
+        }
+        Change oldest = log.peek();
+        return lastSequence < sequence && oldest != null && oldest.sequence <= lastSequence + 1;
+    }
+
+    private long parseSequence(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private OutboundEvent getSnapshot(Subscription subscription) {
+        OutboundEvent snapshot = snapshots.get(subscription.key);
+        if (snapshot == null) {
+            Map<String, String> states = new LinkedHashMap<>();
+            if (subscription.itemNames.isEmpty()) {
+                for (Item item : itemRegistry.getAll()) {
+                    states.put(item.getName(), item.getState().toFullString());
+                }
+            } else {
+                for (String itemName : subscription.itemNames) {
+                    Item item = itemRegistry.get(itemName);
+                    if (item != null) {
+                        states.put(itemName, item.getState().toFullString());
+                    }
+                }
+            }
+            snapshot = buildEvent(EVENT_SNAPSHOT, states);
+            snapshots.put(subscription.key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private OutboundEvent buildEvent(String name, Map<String, String> states) {
+        return new OutboundEvent.Builder().name(name).id(epoch + "-" + sequence).mediaType(MediaType.TEXT_PLAIN_TYPE)
+                .data(String.class, GSON.toJson(states)).build();
+    }
+
+    private static class Change {
+        final long sequence;
+        final String itemName;
+        final String state;
+
+        Change(long sequence, String itemName, String state) {
+            this.sequence = sequence;
+            this.itemName = itemName;
+            this.state = state;
+        }
+    }
+
+    private static class Subscription {
+        final String key;
+        final Set<String> itemNames;
+        final Set<SseClient> clients = new CopyOnWriteArraySet<>();
+
+        Subscription(String key, Set<String> itemNames) {
+            this.key = key;
+            this.itemNames = Collections.unmodifiableSet(itemNames);
+        }
+
+        boolean includes(String itemName) {
+            return itemNames.isEmpty() || itemNames.contains(itemName);
+        }
+
+        Map<String, String> filter(Map<String, String> states) {
+            if (itemNames.isEmpty()) {
+                return states;
+            }
+            Map<String, String> result = new LinkedHashMap<>();
+            for (String itemName : itemNames) {
+                String state = states.get(itemName);
+                if (state != null) {
+                    result.put(itemName, state);
+                }
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.eclipse.smarthome.io.rest.sse.beans.SseClientBean;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A connected SSE client. Events are added to a bounded buffer without blocking and written to the client's
+ * {@link EventOutput} by a task of the given executor, so that a slow client does not delay the delivery to other
+ * clients. At most one write task per client is scheduled at a time. A client whose buffer overflows is
+ * disconnected.
+ * <p>
+ * Writing to the {@link EventOutput} blocks while the network does not accept more data, so a stalled client holds
+ * a thread of the executor. {@link #closeIfStalled(long)} disconnects a client whose write takes too long.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseClient implements Runnable {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    /** Events written per task run, before the task is rescheduled to give other clients a chance */
+    private static final int MAX_EVENTS_PER_RUN = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(SseClient.class);
+
+    private final long id = COUNTER.incrementAndGet();
+    private final EventOutput output;
+    private final TopicFilter filter;
+    private final String remoteAddress;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<SseClient> closeListener;
+    private final long connectedAt = System.currentTimeMillis();
+
+    // guarded by this
+    private final Deque<QueuedEvent> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean closed;
+    private int maxQueueSize;
+
+    private final AtomicLong sent = new AtomicLong();
+    /** {@link System#nanoTime()} when the write in progress started, 0 if no write is in progress */
+    private volatile long writeStartedAt;
+    private volatile long lastLagMillis;
+    private volatile long maxLagMillis;
+
+    /**
+     * Creates a client.
+     *
+     * @param output the output to write the events to
+     * @param filter the topic filter of the client
+     * @param remoteAddress the address of the client, for statistics only
+     * @param capacity the maximum number of buffered events
+     * @param executor the executor which runs the write tasks
+     * @param closeListener called once when the client is closed
+     */
+    public SseClient(EventOutput output, TopicFilter filter, String remoteAddress, int capacity, Executor executor,
+            Consumer<SseClient> closeListener) {
+        this.output = output;
+        this.filter = filter;
+        this.remoteAddress = remoteAddress;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.closeListener = closeListener;
+    }
+
+    public TopicFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Adds the event to the buffer of this client. Never blocks.
+     *
+     * @param event the serialized event
+     * @return false if the client is closed or has been closed because its buffer overflowed
+     */
+    public boolean offer(OutboundEvent event) {
+        boolean overflow = false;
+        boolean schedule = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (queue.size() >= capacity) {
+                overflow = true;
+            } else {
+                queue.add(new QueuedEvent(event));
+                maxQueueSize = Math.max(maxQueueSize, queue.size());
+                schedule = !scheduled;
+                scheduled = true;
+            }
+        }
+        if (overflow) {
+            logger.debug("SSE client {} ({}) is too slow, more than {} events are pending. Disconnecting it.", id,
+                    remoteAddress, capacity);
+            close();
+            return false;
+        }
+        if (schedule) {
+            return schedule();
+        }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+            QueuedEvent event;
+            synchronized (this) {
+                event = queue.poll();
+                if (event == null || closed) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            try {
+                writeStartedAt = System.nanoTime();
+                try {
+                    output.write(event.event);
+                } finally {
+                    writeStartedAt = 0;
+                }
+                sent.incrementAndGet();
+                long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - event.queuedAt);
+                lastLagMillis = lag;
+                if (lag > maxLagMillis) {
+                    maxLagMillis = lag;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Writing to SSE client {} ({}) failed, disconnecting it: {}", id, remoteAddress,
+                        e.getMessage());
+                close();
+                return;
+            }
+        }
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                scheduled = false;
+                return;
+            }
+        }
+        schedule();
+    }
+
+    private boolean schedule() {
+        try {
+            executor.execute(this);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.debug("Cannot schedule writing to SSE client {} ({}), disconnecting it: {}", id, remoteAddress,
+                    e.getMessage());
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Disconnects this client, if the write in progress has been blocked for longer than the given timeout. The
+     * client then no longer receives events, and its thread is released as soon as the blocked write fails.
+     *
+     * @param timeoutMillis the maximum time a single write may take in milliseconds
+     * @return true if the client has been closed
+     */
+    public boolean closeIfStalled(long timeoutMillis) {
+        final long startedAt = writeStartedAt;
+        if (startedAt == 0 || System.nanoTime() - startedAt < TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+            return false;
+        }
+        logger.debug("Writing to SSE client {} ({}) takes longer than {} ms. Disconnecting it.", id, remoteAddress,
+                timeoutMillis);
+        close();
+        return true;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the connection to the client and discards all pending events.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+        }
+        try {
+            output.close();
+        } catch (IOException e) {
+            logger.debug("Closing SSE client {} ({}) failed: {}", id, remoteAddress, e.getMessage());
+        }
+        closeListener.accept(this);
+    }
+
+    /**
+     * Returns the statistics of this client. The lag is the time between the event being queued and being written.
+     */
+    public SseClientBean getStatistics() {
+        SseClientBean bean = new SseClientBean();
+        bean.id = id;
+        bean.remoteAddress = remoteAddress;
+        bean.topicFilter = filter.getKey();
+        bean.connectedSince = connectedAt;
+        bean.sentEvents = sent.get();
+        bean.lastLagMillis = lastLagMillis;
+        bean.maxLagMillis = maxLagMillis;
+        synchronized (this) {
+            bean.pendingEvents = queue.size();
+            bean.maxPendingEvents = maxQueueSize;
+            QueuedEvent oldest = queue.peek();
+            bean.currentLagMillis = oldest == null ? 0
+                    : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.queuedAt);
+        }
+        return bean;
+    }
+
+    private static class QueuedEvent {
+        final OutboundEvent event;
+        final long queuedAt = System.nanoTime();
+
+        QueuedEvent(OutboundEvent event) {
+            this.event = event;
+        }
+    }
+
+}
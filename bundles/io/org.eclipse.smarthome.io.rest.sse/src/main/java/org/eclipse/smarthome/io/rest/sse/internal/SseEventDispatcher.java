@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.eclipse.smarthome.io.rest.sse.beans.SseClientBean;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+/**
+ * Distributes events to the connected {@link SseClient}s. Clients are indexed by their {@link TopicFilter}, so that
+ * each distinct filter is evaluated once per event and clients whose filter does not match are not touched at all.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseEventDispatcher {
+
+    private final Map<String, ClientGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a client. The client must call {@link #remove(SseClient)} when it is closed.
+     */
+    public void add(SseClient client) {
+        TopicFilter filter = client.getFilter();
+        groups.compute(filter.getKey(), (key, group) -> {
+            ClientGroup result = group == null ? new ClientGroup(filter) : group;
+            result.clients.add(client);
+            return result;
+        });
+    }
+
+    public void remove(SseClient client) {
+        groups.computeIfPresent(client.getFilter().getKey(), (key, group) -> {
+            group.clients.remove(client);
+            return group.clients.isEmpty() ? null : group;
+        });
+    }
+
+    /**
+     * Hands the event to all clients whose filter matches the topic. Never blocks.
+     *
+     * @param topic the topic of the event
+     * @param event the already serialized event, shared by all clients
+     */
+    public void dispatch(String topic, OutboundEvent event) {
+        for (ClientGroup group : groups.values()) {
+            if (group.filter.matches(topic)) {
+                for (SseClient client : group.clients) {
+                    client.offer(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct topic filters of the connected clients.
+     */
+    public int getFilterCount() {
+        return groups.size();
+    }
+
+    public List<SseClient> getClients() {
+        List<SseClient> clients = new ArrayList<>();
+        for (ClientGroup group : groups.values()) {
+            clients.addAll(group.clients);
+        }
+        return clients;
+    }
+
+    public List<SseClientBean> getStatistics() {
+        List<SseClientBean> statistics = new ArrayList<>();
+        for (SseClient client : getClients()) {
+            statistics.add(client.getStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Closes all clients.
+     */
+    public void close() {
+        for (SseClient client : getClients()) {
+            client.close();
+        }
+    }
+
+    private static class ClientGroup {
+        final TopicFilter filter;
+        final Set<SseClient> clients = new CopyOnWriteArraySet<>();
+
+        ClientGroup(TopicFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
+
+/**
+ * A compiled topic filter of an SSE client. Clients with the same filter share one instance, so that a filter is
+ * evaluated only once per event, regardless of the number of clients using it.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicFilter {
+
+    private final String key;
+    private final List<Pattern> patterns;
+
+    /**
+     * Compiles the given topic filter.
+     *
+     * @param topicFilter a comma separated list of topics which may contain wildcards (*), see
+     *            {@link SseUtil#convertToRegex(String)}
+     */
+    public TopicFilter(String topicFilter) {
+        List<String> regexes = SseUtil.convertToRegex(topicFilter);
+        this.key = String.join(",", regexes);
+        this.patterns = regexes.stream().map(Pattern::compile).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a normalized representation of this filter. Filters with equal keys match the same topics.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns true if the given topic matches this filter.
+     */
+    public boolean matches(String topic) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(topic).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+}
@@ -24,6 +24,8 @@ import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.io.rest.sse.beans.EventBean;
 import org.glassfish.jersey.media.sse.OutboundEvent;
 
+import com.google.gson.Gson;
+
 /**
  * Utility class containing helper methods for the SSE implementation.
  * 
@@ -33,6 +35,8 @@ import org.glassfish.jersey.media.sse.OutboundEvent;
 public class SseUtil {
     static final String TOPIC_VALIDATE_PATTERN = "(\\w*\\*?\\/?,?\\s*)*";
 
+    private static final Gson GSON = new Gson();
+
     static {
         boolean servlet3 = false;
         try {
@@ -51,7 +55,8 @@ public class SseUtil {
 
     /**
      * Creates a new {@link OutboundEvent} object containing an {@link EventBean} created for the given Eclipse
-     * SmartHome {@link Event}.
+     * SmartHome {@link Event}. The bean is serialized to JSON right away, so that the returned event can be written to
+     * any number of clients without serializing it again.
      * 
      * @param event the event
      * 
@@ -64,8 +69,8 @@ public class SseUtil {
         eventBean.payload = event.getPayload();
 
         OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
-        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.APPLICATION_JSON_TYPE)
-                .data(eventBean).build();
+        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.TEXT_PLAIN_TYPE)
+                .data(String.class, GSON.toJson(eventBean)).build();
 
         return outboundEvent;
     }
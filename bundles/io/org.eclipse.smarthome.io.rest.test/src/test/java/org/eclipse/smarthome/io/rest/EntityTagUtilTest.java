@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EntityTagUtilTest {
+
+    private HttpHeaders headers;
+
+    @Before
+    public void setup() {
+        headers = mock(HttpHeaders.class);
+    }
+
+    @Test
+    public void shouldCreateStrongEntityTagFromVersions() {
+        EntityTag entityTag = EntityTagUtil.createEntityTag(headers, null, 10, 255);
+
+        assertThat(entityTag.getValue(), is("a.ff"));
+        assertThat(entityTag.isWeak(), is(false));
+    }
+
+    @Test
+    public void shouldIncludeLocaleAndEncoding() {
+        when(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip");
+
+        EntityTag entityTag = EntityTagUtil.createEntityTag(headers, Locale.GERMANY, 1);
+
+        assertThat(entityTag.getValue(), is("1-de-DE-gzip"));
+        assertThat(EntityTagUtil.createEntityTag(null, Locale.ENGLISH, 1).getValue(), is("1-en"));
+    }
+
+    @Test
+    public void shouldNotCreateEntityTagForUnknownVersion() {
+        assertThat(EntityTagUtil.createEntityTag(headers, null, 1, -1), is(nullValue()));
+    }
+
+    @Test
+    public void shouldMatchIfNoneMatchHeader() {
+        EntityTag entityTag = EntityTagUtil.createEntityTag(headers, null, 1, 2);
+
+        assertThat(EntityTagUtil.isNotModified(headers, entityTag), is(false));
+
+        when(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(Collections.singletonList(entityTag.toString()));
+        assertThat(EntityTagUtil.isNotModified(headers, entityTag), is(true));
+
+        when(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(Collections.singletonList("\"0.1\", W/\"1.2\""));
+        assertThat(EntityTagUtil.isNotModified(headers, entityTag), is(true));
+
+        when(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(Arrays.asList("\"0.1\"", "\"1.3\""));
+        assertThat(EntityTagUtil.isNotModified(headers, entityTag), is(false));
+
+        when(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(Collections.singletonList("*"));
+        assertThat(EntityTagUtil.isNotModified(headers, entityTag), is(true));
+    }
+
+    @Test
+    public void shouldNotMatchWithoutEntityTagOrHeaders() {
+        when(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn(Collections.singletonList("*"));
+
+        assertThat(EntityTagUtil.isNotModified(headers, null), is(false));
+        assertThat(EntityTagUtil.isNotModified(null, new EntityTag("1")), is(false));
+    }
+
+}
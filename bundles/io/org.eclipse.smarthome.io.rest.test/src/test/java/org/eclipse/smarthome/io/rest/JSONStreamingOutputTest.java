@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class JSONStreamingOutputTest {
+
+    private static final int LARGE_COLLECTION_SIZE = 10000;
+
+    private final Gson GSON = new GsonBuilder().create();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForNullSource() {
+        new JSONStreamingOutput(null);
+    }
+
+    @Test
+    public void shouldWriteEmptyStream() throws IOException {
+        List<Object> emptyList = Collections.emptyList();
+
+        assertThat(write(new JSONStreamingOutput(emptyList.stream())), is(GSON.toJson(emptyList)));
+    }
+
+    @Test
+    public void shouldWriteSingleObject() throws IOException {
+        DummyObject dummyObject = new DummyObject("demoKey", "demoValue");
+
+        assertThat(write(new JSONStreamingOutput(Stream.of(dummyObject))),
+                is(GSON.toJson(Arrays.asList(dummyObject))));
+    }
+
+    @Test
+    public void shouldWriteCollection() throws IOException {
+        List<Object> dummyCollection = Arrays.asList(new DummyObject("demoKey1", "demoValue1"),
+                new DummyObject("demoKey2", "demöValue2"), null);
+
+        assertThat(write(new JSONStreamingOutput(dummyCollection.stream())), is(GSON.toJson(dummyCollection)));
+    }
+
+    @Test
+    public void shouldCloseSource() throws IOException {
+        Runnable closeHandler = mock(Runnable.class);
+
+        write(new JSONStreamingOutput(Stream.of(new DummyObject("key", "value")).onClose(closeHandler)));
+
+        verify(closeHandler).run();
+    }
+
+    @Test
+    public void shouldWriteGzip() throws IOException {
+        List<DummyObject> dummyCollection = createDummyObjects(100);
+        JSONStreamingOutput output = new JSONStreamingOutput(dummyCollection.stream(), true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.write(out);
+
+        String json = IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())),
+                StandardCharsets.UTF_8);
+        assertThat(json, is(GSON.toJson(dummyCollection)));
+    }
+
+    @Test
+    public void shouldDetectAcceptedGzipEncoding() {
+        assertThat(JSONStreamingOutput.acceptsGzip(null), is(false));
+        assertThat(JSONStreamingOutput.acceptsGzip(""), is(false));
+        assertThat(JSONStreamingOutput.acceptsGzip("deflate"), is(false));
+        assertThat(JSONStreamingOutput.acceptsGzip("gzip"), is(true));
+        assertThat(JSONStreamingOutput.acceptsGzip("deflate, GZIP"), is(true));
+        assertThat(JSONStreamingOutput.acceptsGzip("gzip;q=0.5, deflate"), is(true));
+        assertThat(JSONStreamingOutput.acceptsGzip("gzip;q=0"), is(false));
+        assertThat(JSONStreamingOutput.acceptsGzip("gzip; q=invalid"), is(false));
+    }
+
+    @Test
+    public void shouldCreateGzipResponseIfAccepted() {
+        HttpHeaders headers = mock(HttpHeaders.class);
+        when(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip, deflate");
+
+        Response response = JSONStreamingOutput.createResponse(Stream.empty(), headers);
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(((JSONStreamingOutput) response.getEntity()).isGzip(), is(true));
+        assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+        assertThat(response.getHeaderString(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    public void shouldCreatePlainResponseWithoutHeaders() {
+        Response response = JSONStreamingOutput.createResponse(Stream.empty(), null);
+
+        assertThat(response.getStatus(), is(200));
+        assertThat(((JSONStreamingOutput) response.getEntity()).isGzip(), is(false));
+        assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void shouldWriteLikeStream2JSONInputStream() throws IOException {
+        List<DummyObject> dummyCollection = createDummyObjects(LARGE_COLLECTION_SIZE);
+
+        assertThat(write(new JSONStreamingOutput(dummyCollection.stream())),
+                is(IOUtils.toString(new Stream2JSONInputStream(dummyCollection.stream()), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void shouldWriteElementsBeforeSourceIsExhausted() throws IOException {
+        List<DummyObject> dummyCollection = createDummyObjects(LARGE_COLLECTION_SIZE);
+        DummyObject lastElement = dummyCollection.get(LARGE_COLLECTION_SIZE - 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AtomicInteger writtenBeforeLastElement = new AtomicInteger();
+
+        new JSONStreamingOutput(dummyCollection.stream().peek(element -> {
+            if (element == lastElement) {
+                writtenBeforeLastElement.set(out.size());
+            }
+        })).write(out);
+
+        assertThat(writtenBeforeLastElement.get(), is(not(0)));
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is(GSON.toJson(dummyCollection)));
+    }
+
+    @Test
+    public void shouldNotCloseOutput() throws IOException {
+        OutputStream out = mock(OutputStream.class);
+
+        new JSONStreamingOutput(createDummyObjects(10).stream()).write(out);
+
+        verify(out, atLeastOnce()).write(any(byte[].class), anyInt(), anyInt());
+        verify(out, never()).close();
+    }
+
+    private String write(JSONStreamingOutput output) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        output.write(out);
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+
+    private List<DummyObject> createDummyObjects(int count) {
+        List<DummyObject> dummyObjects = new ArrayList<>(count);
+        IntStream.range(0, count).forEach(i -> dummyObjects.add(new DummyObject("key" + i, "value" + i)));
+        return dummyObjects;
+    }
+
+    @SuppressWarnings("unused")
+    private static class DummyObject {
+        private final String key;
+        private final String value;
+
+        DummyObject(String key, String value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import java.util.List;
+import java.util.Locale;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+
+/**
+ * Utility methods for conditional GET requests. The entity tags are derived from modification versions (e.g.
+ * {@link org.eclipse.smarthome.core.common.registry.Registry#getVersion()}), so a resource can answer a request with
+ * "304 Not Modified" without building its response.
+ *
+ * <p>
+ * The versions have to be read before the response content, so that a tag never claims a newer state than the content
+ * it is sent with.
+ *
+ * @author agent - Initial contribution
+ */
+public final class EntityTagUtil {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTagUtil() {
+    }
+
+    /**
+     * Creates a strong entity tag for a response built from the given versions. As the language and the content
+     * encoding of the response depend on the request, they are part of the tag as well.
+     *
+     * @param headers the headers of the request, may be null
+     * @param locale the locale used for the response, may be null
+     * @param versions the modification versions the response depends on
+     * @return the entity tag or null if one of the versions is negative, i.e. unknown
+     */
+    public static EntityTag createEntityTag(HttpHeaders headers, Locale locale, long... versions) {
+        StringBuilder value = new StringBuilder();
+        for (long version : versions) {
+            if (version < 0) {
+                return null;
+            }
+            if (value.length() > 0) {
+                value.append('.');
+            }
+            value.append(Long.toHexString(version));
+        }
+        if (locale != null) {
+            value.append('-').append(locale.toLanguageTag());
+        }
+        if (headers != null && JSONStreamingOutput.acceptsGzip(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING))) {
+            value.append("-gzip");
+        }
+        return new EntityTag(value.toString());
+    }
+
+    /**
+     * Checks whether the If-None-Match header of the request matches the given entity tag.
+     *
+     * @param headers the headers of the request, may be null
+     * @param entityTag the current entity tag of the resource, may be null
+     * @return true if the client already has the current representation and a "304 Not Modified" should be sent
+     */
+    public static boolean isNotModified(HttpHeaders headers, EntityTag entityTag) {
+        if (headers == null || entityTag == null) {
+            return false;
+        }
+        List<String> ifNoneMatch = headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                tag = tag.trim();
+                if ("*".equals(tag)) {
+                    return true;
+                }
+                // If-None-Match uses the weak comparison
+                if (tag.startsWith(WEAK_PREFIX)) {
+                    tag = tag.substring(WEAK_PREFIX.length());
+                }
+                if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")
+                        && tag.substring(1, tag.length() - 1).equals(entityTag.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.rest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * This {@link StreamingOutput} writes the elements of a {@link Stream} as a JSON array directly to the response. One
+ * buffered {@link JsonWriter} is used for all elements, so neither the whole array nor single elements are held in
+ * memory as strings. The output can be compressed with gzip.
+ *
+ * @author agent - Initial contribution
+ */
+public class JSONStreamingOutput implements StreamingOutput {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final String GZIP = "gzip";
+
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private final Stream<?> source;
+
+    private final boolean gzip;
+
+    /**
+     * Creates a new {@link JSONStreamingOutput} backed by the given {@link Stream} source.
+     *
+     * @param source the {@link Stream} backing this output. Must not be null.
+     * @throws IllegalArgumentException in case the source is null.
+     */
+    public JSONStreamingOutput(Stream<?> source) {
+        this(source, false);
+    }
+
+    /**
+     * Creates a new {@link JSONStreamingOutput} backed by the given {@link Stream} source.
+     *
+     * @param source the {@link Stream} backing this output. Must not be null.
+     * @param gzip true if the output should be compressed with gzip
+     * @throws IllegalArgumentException in case the source is null.
+     */
+    public JSONStreamingOutput(Stream<?> source, boolean gzip) {
+        if (source == null) {
+            throw new IllegalArgumentException("The source must not be null!");
+        }
+        this.source = source;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Creates a successful response which streams the given elements as a JSON array. The response is compressed with
+     * gzip if the client accepts it.
+     *
+     * @param source the elements
+     * @param headers the headers of the request, may be null
+     * @return the response
+     */
+    public static Response createResponse(Stream<?> source, HttpHeaders headers) {
+        return createResponse(source, headers, null);
+    }
+
+    /**
+     * Creates a successful response which streams the given elements as a JSON array and carries the given entity tag.
+     * The response is compressed with gzip if the client accepts it.
+     *
+     * @param source the elements
+     * @param headers the headers of the request, may be null
+     * @param entityTag the entity tag of the response, may be null
+     * @return the response
+     * @see EntityTagUtil
+     */
+    public static Response createResponse(Stream<?> source, HttpHeaders headers, EntityTag entityTag) {
+        boolean gzip = headers != null && acceptsGzip(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        ResponseBuilder builder = Response.ok(new JSONStreamingOutput(source, gzip));
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        if (entityTag != null) {
+            builder.tag(entityTag);
+        }
+        return builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+
+    /**
+     * Returns true if gzip is contained in the given Accept-Encoding header value and not excluded by a quality of 0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.split(";");
+            if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        OutputStream out = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+        // the writer is not closed as the container closes the output stream
+        JsonWriter jsonWriter = new JsonWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        try {
+            jsonWriter.beginArray();
+            Iterator<?> iterator = source.iterator();
+            while (iterator.hasNext()) {
+                Object element = iterator.next();
+                if (element == null) {
+                    jsonWriter.nullValue();
+                } else {
+                    GSON.toJson(element, element.getClass(), jsonWriter);
+                }
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+            if (out instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) out).finish();
+            }
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        } finally {
+            source.close();
+        }
+    }
+
+}
@@ -31,7 +31,10 @@ import com.google.gson.GsonBuilder;
  *
  * @author Henning Treu - initial contribution
  *
+ * @deprecated use {@link JSONStreamingOutput}, which writes directly to the response instead of being read byte by
+ *             byte
  */
+@Deprecated
 public class Stream2JSONInputStream extends InputStream {
 
     private final Iterator<String> iterator;
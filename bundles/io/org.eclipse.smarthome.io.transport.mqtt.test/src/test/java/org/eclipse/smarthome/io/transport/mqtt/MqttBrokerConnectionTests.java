@@ -48,7 +48,7 @@ public class MqttBrokerConnectionTests {
                 "MqttBrokerConnectionTests");
 
         // Add a subscriber while still offline
-        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber = mockSubscriber();
         connection.subscribe("homie/device123/$name", subscriber);
 
         assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
@@ -67,13 +67,13 @@ public class MqttBrokerConnectionTests {
                 "MqttBrokerConnectionTests");
 
         // Add a subscriber while still offline
-        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber = mockSubscriber();
         connection.subscribe("homie/device123/+", subscriber);
 
-        MqttMessageSubscriber subscriber2 = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber2 = mockSubscriber();
         connection.subscribe("#", subscriber2);
 
-        MqttMessageSubscriber subscriber3 = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber3 = mockSubscriber();
         connection.subscribe("homie/#", subscriber3);
 
         assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
@@ -97,8 +97,8 @@ public class MqttBrokerConnectionTests {
         assertFalse(connection.hasSubscribers());
 
         // Add subscribers (while not connected)
-        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
-        MqttMessageSubscriber subscriber2 = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber = mockSubscriber();
+        MqttMessageSubscriber subscriber2 = mockSubscriber();
         connection.subscribe("utf8- topic äö:", subscriber);
         connection.subscribe("subscribe/to/multiple/$topics", subscriber);
         connection.subscribe("second/subscriber", subscriber);
@@ -279,6 +279,60 @@ public class MqttBrokerConnectionTests {
         assertTrue(Arrays.equals(connection.getLastWill().getPayload(), b));
     }
 
+    @Test
+    public void publishBatch() throws ConfigurationException, MqttException, InterruptedException, ExecutionException,
+            TimeoutException, org.eclipse.paho.client.mqttv3.MqttException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false, "publishBatch");
+        connection.setRetain(true);
+
+        // Not connected
+        assertFalse(connection.publish(new MqttPublishBatch().add("topic", new byte[0])).get(200,
+                TimeUnit.MILLISECONDS));
+
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        MqttPublishBatch batch = new MqttPublishBatch(true);
+        batch.add("a", "1".getBytes()).add("b", "2".getBytes(), 1, false).add("a", "3".getBytes());
+        assertThat(batch.size(), is(2));
+        assertTrue(connection.publish(batch).get(200, TimeUnit.MILLISECONDS));
+        verify(connection.client).publish(eq("b"), eq("2".getBytes()), eq(1), eq(false), any(), any());
+        verify(connection.client).publish(eq("a"), eq("3".getBytes()), eq(0), eq(true), any(), any());
+        verify(connection.client, times(2)).publish(any(), any(), anyInt(), anyBoolean(), any(), any());
+
+        // More messages than the in-flight window
+        batch = new MqttPublishBatch();
+        for (int i = 0; i < 3 * MqttBrokerConnection.DEFAULT_MAX_INFLIGHT; ++i) {
+            batch.add("a", String.valueOf(i).getBytes());
+        }
+        assertTrue(connection.publish(batch).get(200, TimeUnit.MILLISECONDS));
+        verify(connection.client, times(2 + batch.size())).publish(any(), any(), anyInt(), anyBoolean(), any(),
+                any());
+
+        assertTrue(connection.publish(new MqttPublishBatch()).get(200, TimeUnit.MILLISECONDS));
+
+        connection.publishSuccess = false;
+        CompletableFuture<Boolean> future = connection.publish(batch);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    public void publishBatchRetriesIfInflightWindowIsFull() throws ConfigurationException, MqttException,
+            InterruptedException, ExecutionException, TimeoutException, org.eclipse.paho.client.mqttv3.MqttException {
+        MqttBrokerConnectionEx connection = new MqttBrokerConnectionEx("123.123.123.123", null, false,
+                "publishBatchRetry");
+        assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
+
+        // The window is full with messages of other publishers, so no acknowledgement of the batch triggers a retry
+        doThrow(new org.eclipse.paho.client.mqttv3.MqttException(
+                org.eclipse.paho.client.mqttv3.MqttException.REASON_CODE_MAX_INFLIGHT)).doCallRealMethod()
+                        .when(connection.client).publish(any(), any(), anyInt(), anyBoolean(), any(), any());
+
+        assertTrue(connection.publish(new MqttPublishBatch().add("a", "1".getBytes())).get(1000,
+                TimeUnit.MILLISECONDS));
+        verify(connection.client, times(2)).publish(eq("a"), eq("1".getBytes()), anyInt(), anyBoolean(), any(),
+                any());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void lastWillAndTestamentConstructorTests() {
         new MqttWillAndTestament("", new byte[0], 0, false);
@@ -334,7 +388,7 @@ public class MqttBrokerConnectionTests {
         assertTrue(connection.start().get(200, TimeUnit.MILLISECONDS));
 
         // Add test subscribers
-        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+        MqttMessageSubscriber subscriber = mockSubscriber();
         connection.subscribe("abc", subscriber);
         connection.subscribe("def/subtopic", subscriber);
         assertThat(connection.hasSubscribers(), is(true));
@@ -359,4 +413,9 @@ public class MqttBrokerConnectionTests {
         assertThat(connection.hasSubscribers(), is(false));
     }
 
+    private MqttMessageSubscriber mockSubscriber() {
+        MqttMessageSubscriber subscriber = mock(MqttMessageSubscriber.class);
+        when(subscriber.getDeliveryPolicy()).thenReturn(MqttDeliveryPolicy.ORDERED);
+        return subscriber;
+    }
 }
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryPolicy;
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryStatistics;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MessageDispatcher} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class MessageDispatcherTests {
+    /** Executes tasks only when asked to, so that the queue state can be inspected */
+    private static class ManualExecutor implements Executor {
+        final Queue<Runnable> tasks = new LinkedList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    private static class RecordingSubscriber implements MqttMessageSubscriber {
+        final MqttDeliveryPolicy policy;
+        final List<String> received = new ArrayList<>();
+
+        RecordingSubscriber(MqttDeliveryPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public void processMessage(String topic, byte[] payload) {
+            received.add(topic + "=" + new String(payload));
+        }
+
+        @Override
+        public MqttDeliveryPolicy getDeliveryPolicy() {
+            return policy;
+        }
+    }
+
+    private MessageDispatcher dispatcher;
+    private ManualExecutor executor;
+
+    @Before
+    public void setUp() {
+        dispatcher = new MessageDispatcher();
+        executor = new ManualExecutor();
+    }
+
+    @Test
+    public void synchronousWithoutExecutor() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.subscriberAdded(subscriber);
+
+        dispatcher.deliver(subscriber, "a", "1".getBytes());
+        assertThat(subscriber.received, is(Arrays.asList("a=1")));
+
+        // Unknown subscribers are ignored
+        RecordingSubscriber unknown = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.deliver(unknown, "a", "1".getBytes());
+        assertTrue(unknown.received.isEmpty());
+    }
+
+    @Test
+    public void switchBackToSynchronous() {
+        dispatcher.setExecutor(executor, 10);
+        dispatcher.setExecutor(null, 0);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.subscriberAdded(subscriber);
+
+        dispatcher.deliver(subscriber, "a", "1".getBytes());
+        assertThat(subscriber.received, is(Arrays.asList("a=1")));
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void queueCapacityMustBePositiveWithExecutor() {
+        dispatcher.setExecutor(executor, 0);
+    }
+
+    @Test
+    public void orderedDelivery() {
+        dispatcher.setExecutor(executor, 10);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.subscriberAdded(subscriber);
+
+        dispatcher.deliver(subscriber, "a", "1".getBytes());
+        dispatcher.deliver(subscriber, "b", "2".getBytes());
+        dispatcher.deliver(subscriber, "a", "3".getBytes());
+        assertTrue(subscriber.received.isEmpty());
+        // A single task drains the queue
+        assertThat(executor.tasks.size(), is(1));
+        assertThat(dispatcher.getStatistics().get(0).getQueueDepth(), is(3));
+
+        executor.runAll();
+        assertThat(subscriber.received, is(Arrays.asList("a=1", "b=2", "a=3")));
+
+        MqttDeliveryStatistics statistics = dispatcher.getStatistics().get(0);
+        assertThat(statistics.getQueueDepth(), is(0));
+        assertThat(statistics.getMaxQueueDepth(), is(3));
+        assertThat(statistics.getDelivered(), is(3L));
+        assertThat(statistics.getDropped(), is(0L));
+    }
+
+    @Test
+    public void coalesceLatest() {
+        dispatcher.setExecutor(executor, 10);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.COALESCE_LATEST);
+        dispatcher.subscriberAdded(subscriber);
+
+        dispatcher.deliver(subscriber, "a", "1".getBytes());
+        dispatcher.deliver(subscriber, "b", "2".getBytes());
+        dispatcher.deliver(subscriber, "a", "3".getBytes());
+        executor.runAll();
+        assertThat(subscriber.received, is(Arrays.asList("a=3", "b=2")));
+
+        // Messages are only coalesced while they are queued
+        dispatcher.deliver(subscriber, "a", "4".getBytes());
+        executor.runAll();
+        assertThat(subscriber.received, is(Arrays.asList("a=3", "b=2", "a=4")));
+        assertThat(dispatcher.getStatistics().get(0).getCoalesced(), is(1L));
+    }
+
+    @Test
+    public void dropOldestIfFull() {
+        dispatcher.setExecutor(executor, 2);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.subscriberAdded(subscriber);
+
+        dispatcher.deliver(subscriber, "a", "1".getBytes());
+        dispatcher.deliver(subscriber, "a", "2".getBytes());
+        dispatcher.deliver(subscriber, "a", "3".getBytes());
+        executor.runAll();
+        assertThat(subscriber.received, is(Arrays.asList("a=2", "a=3")));
+        assertThat(dispatcher.getStatistics().get(0).getDropped(), is(1L));
+    }
+
+    @Test
+    public void longQueueIsRescheduled() {
+        dispatcher.setExecutor(executor, 1000);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        dispatcher.subscriberAdded(subscriber);
+
+        for (int i = 0; i < 120; ++i) {
+            dispatcher.deliver(subscriber, "a", String.valueOf(i).getBytes());
+        }
+        executor.tasks.poll().run();
+        // A task gives up the thread after some messages and reschedules itself
+        assertThat(executor.tasks.size(), is(1));
+        executor.runAll();
+        assertThat(subscriber.received.size(), is(120));
+        assertThat(subscriber.received.get(119), is("a=119"));
+    }
+
+    @Test
+    public void subscriberReferences() {
+        dispatcher.setExecutor(executor, 10);
+        RecordingSubscriber subscriber = new RecordingSubscriber(MqttDeliveryPolicy.ORDERED);
+        // Registered for two topic filters
+        dispatcher.subscriberAdded(subscriber);
+        dispatcher.subscriberAdded(subscriber);
+        assertThat(dispatcher.getStatistics().size(), is(1));
+
+        dispatcher.subscriberRemoved(subscriber);
+        assertThat(dispatcher.getStatistics().size(), is(1));
+        dispatcher.subscriberRemoved(subscriber);
+        assertTrue(dispatcher.getStatistics().isEmpty());
+    }
+}
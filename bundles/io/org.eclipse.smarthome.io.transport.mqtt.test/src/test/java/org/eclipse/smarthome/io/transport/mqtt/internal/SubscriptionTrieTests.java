@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link SubscriptionTrie} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class SubscriptionTrieTests {
+
+    private List<String> match(SubscriptionTrie<String> trie, String topic) {
+        List<String> matches = new ArrayList<>();
+        trie.forEachMatch(topic, matches::add);
+        return matches;
+    }
+
+    private void assertMatches(SubscriptionTrie<String> trie, String topic, String... expected) {
+        assertThat(match(trie, topic), is(Arrays.asList(expected)));
+    }
+
+    @Test
+    public void exactTopic() {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        assertTrue(trie.add("a/b/c", "s1"));
+        assertFalse(trie.add("a/b/c", "s2"));
+
+        assertMatches(trie, "a/b/c", "s1", "s2");
+        assertMatches(trie, "a/b");
+        assertMatches(trie, "a/b/c/d");
+        assertMatches(trie, "a/b/cd");
+    }
+
+    @Test
+    public void singleLevelWildcard() {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        trie.add("homie/+/$name", "s1");
+        trie.add("+", "s2");
+
+        assertMatches(trie, "homie/device123/$name", "s1");
+        assertMatches(trie, "homie//$name", "s1");
+        assertMatches(trie, "homie/device123/node/$name");
+        assertMatches(trie, "homie", "s2");
+        assertMatches(trie, "homie/device123");
+    }
+
+    @Test
+    public void multiLevelWildcard() {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        trie.add("homie/#", "s1");
+        trie.add("#", "s2");
+
+        assertMatches(trie, "homie/device123/$name", "s2", "s1");
+        // The multi level wildcard also matches the parent level
+        assertMatches(trie, "homie", "s2", "s1");
+        assertMatches(trie, "other/topic", "s2");
+    }
+
+    @Test
+    public void removeAndPrune() {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        trie.add("a/+/c", "s1");
+        trie.add("a/+/c", "s2");
+        trie.add("a/b", "s3");
+        assertThat(trie.getTopicFilters().size(), is(2));
+
+        assertFalse(trie.remove("a/+/c", "s1"));
+        assertFalse(trie.remove("a/+/c", "unknown"));
+        assertFalse(trie.remove("unknown", "s1"));
+        assertMatches(trie, "a/x/c", "s2");
+
+        assertTrue(trie.remove("a/+/c", "s2"));
+        assertMatches(trie, "a/x/c");
+        assertTrue(trie.getSubscribers("a/+/c").isEmpty());
+        assertMatches(trie, "a/b", "s3");
+
+        assertTrue(trie.remove("a/b", "s3"));
+        assertTrue(trie.isEmpty());
+
+        trie.add("a/b", "s1");
+        trie.clear();
+        assertTrue(trie.isEmpty());
+        assertMatches(trie, "a/b");
+    }
+
+    /**
+     * Registers 10000 topic filters, a mix of exact topics and wildcard filters, and checks that every lookup only
+     * returns the subscribers of the matching filters and that removing all filters prunes the trie.
+     */
+    @Test
+    public void tenThousandSubscriptions() {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        for (int i = 0; i < 10000; ++i) {
+            trie.add(filter(i), filter(i));
+        }
+        trie.add("homie/+/node/property", "any");
+        assertThat(trie.getTopicFilters().size(), is(10001));
+
+        for (int i = 0; i < 10000; ++i) {
+            final String topic = "homie/device" + i + "/node/property";
+            if (i % 4 == 0) {
+                assertMatches(trie, topic, "any");
+                assertMatches(trie, "homie/device" + i + "/node/$name", filter(i));
+            } else if (i % 4 == 1) {
+                assertMatches(trie, topic, filter(i), "any");
+                assertMatches(trie, "homie/device" + i + "/node/$name", filter(i));
+            } else {
+                assertMatches(trie, topic, topic, "any");
+                assertMatches(trie, "homie/device" + i + "/node/$name");
+            }
+        }
+
+        for (int i = 0; i < 10000; ++i) {
+            assertTrue(trie.remove(filter(i), filter(i)));
+        }
+        assertMatches(trie, "homie/device2/node/property", "any");
+        assertTrue(trie.remove("homie/+/node/property", "any"));
+        assertTrue(trie.isEmpty());
+        assertMatches(trie, "homie/device2/node/property");
+    }
+
+    private static String filter(int i) {
+        switch (i % 4) {
+            case 0:
+                return "homie/device" + i + "/+/$name";
+            case 1:
+                return "homie/device" + i + "/#";
+            default:
+                return "homie/device" + i + "/node/property";
+        }
+    }
+
+    /**
+     * Lookups do not lock, so they must see a consistent trie while other filters are added and pruned.
+     */
+    @Test
+    public void lookupWhileModifying() throws InterruptedException {
+        SubscriptionTrie<String> trie = new SubscriptionTrie<>();
+        trie.add("homie/device/node/property", "stable");
+
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (!stop.get()) {
+                final String filter = "homie/device/" + (i++ % 100) + "/property";
+                trie.add(filter, "s");
+                trie.add("homie/+/node/property", "s");
+                trie.add("homie/device/node/property", "s");
+                trie.remove("homie/device/node/property", "s");
+                trie.remove("homie/+/node/property", "s");
+                trie.remove(filter, "s");
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 100000; ++i) {
+                List<String> matches = match(trie, "homie/device/node/property");
+                assertThat(matches.stream().filter("stable"::equals).count(), is(1L));
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+        assertThat(trie.getTopicFilters(), is(Collections.singleton("homie/device/node/property")));
+    }
+}
@@ -16,10 +16,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
@@ -41,9 +41,11 @@ import org.eclipse.paho.client.mqttv3.MqttClientPersistence;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.persist.MqttDefaultFilePersistence;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.io.transport.mqtt.internal.ClientCallback;
+import org.eclipse.smarthome.io.transport.mqtt.internal.MessageDispatcher;
 import org.eclipse.smarthome.io.transport.mqtt.internal.MqttActionAdapterCallback;
-import org.eclipse.smarthome.io.transport.mqtt.internal.TopicSubscribers;
+import org.eclipse.smarthome.io.transport.mqtt.internal.SubscriptionTrie;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.AbstractReconnectStrategy;
 import org.eclipse.smarthome.io.transport.mqtt.reconnect.PeriodicReconnectStrategy;
 import org.eclipse.smarthome.io.transport.mqtt.sslcontext.AcceptAllCertificatesSSLContext;
@@ -66,6 +68,10 @@ public class MqttBrokerConnection {
     final Logger logger = LoggerFactory.getLogger(MqttBrokerConnection.class);
     public static final int DEFAULT_KEEPALIVE_INTERVAL = 60;
     public static final int DEFAULT_QOS = 0;
+    public static final int DEFAULT_MAX_INFLIGHT = MqttConnectOptions.MAX_INFLIGHT_DEFAULT;
+    public static final int DEFAULT_DELIVERY_QUEUE_SIZE = 0;
+    /** Name of the shared thread pool for delivering received messages, see {@link #setDeliveryExecutor} */
+    public static final String DELIVERY_THREADPOOL_NAME = "mqtt";
 
     /**
      * MQTT transport protocols
@@ -87,6 +93,7 @@ public class MqttBrokerConnection {
     /// Configuration variables
     private int qos = DEFAULT_QOS;
     private boolean retain = false;
+    private int maxInflight = DEFAULT_MAX_INFLIGHT;
     private @Nullable MqttWillAndTestament lastWill;
     private @Nullable Path persistencePath;
     protected @Nullable AbstractReconnectStrategy reconnectStrategy;
@@ -99,7 +106,8 @@ public class MqttBrokerConnection {
     protected boolean isConnecting = false;
     protected final List<MqttConnectionObserver> connectionObservers = new CopyOnWriteArrayList<>();
 
-    protected final Map<String, TopicSubscribers> subscribers = new HashMap<>();
+    protected final SubscriptionTrie<MqttMessageSubscriber> subscribers = new SubscriptionTrie<>();
+    protected final MessageDispatcher dispatcher = new MessageDispatcher();
 
     // Connection timeout handling
     protected final AtomicReference<@Nullable ScheduledFuture<?>> timeoutFuture = new AtomicReference<>(null);
@@ -131,7 +139,7 @@ public class MqttBrokerConnection {
                 connection.reconnectStrategy.connectionEstablished();
             }
             List<CompletableFuture<Boolean>> futures = new ArrayList<>();
-            connection.subscribers.forEach((topic, subscriberList) -> {
+            connection.subscribers.getTopicFilters().forEach(topic -> {
                 futures.add(connection.subscribeRaw(topic));
             });
 
@@ -169,7 +177,7 @@ public class MqttBrokerConnection {
     }
 
     /** Client callback object */
-    protected ClientCallback clientCallback = new ClientCallback(this, connectionObservers, subscribers);
+    protected ClientCallback clientCallback = new ClientCallback(this, connectionObservers, subscribers, dispatcher);
     /** Connection callback object */
     protected ConnectionCallback connectionCallback;
     /** Action callback object */
@@ -443,6 +451,27 @@ public class MqttBrokerConnection {
         return keepAliveInterval;
     }
 
+    /**
+     * Set the maximum number of messages that may be in flight, i.e. published but not yet acknowledged by the
+     * broker. Takes effect on the next connection attempt. {@link #publish(MqttPublishBatch)} pipelines messages
+     * up to this number.
+     *
+     * @param maxInflight The in-flight window. Defaults to {@link #DEFAULT_MAX_INFLIGHT}.
+     */
+    public void setMaxInflight(int maxInflight) {
+        if (maxInflight <= 0) {
+            throw new IllegalArgumentException("Max inflight cannot be <=0");
+        }
+        this.maxInflight = maxInflight;
+    }
+
+    /**
+     * Return the maximum number of messages that may be in flight.
+     */
+    public int getMaxInflight() {
+        return maxInflight;
+    }
+
     /**
      * Return the ssl context provider.
      */
@@ -460,6 +489,35 @@ public class MqttBrokerConnection {
         this.sslContextProvider = sslContextProvider;
     }
 
+    /**
+     * Deliver received messages on the given executor instead of the callback thread of the MQTT client.
+     *
+     * Each subscriber gets its own queue with the given capacity. Messages for a subscriber are processed in order,
+     * depending on the {@link MqttMessageSubscriber#getDeliveryPolicy()} messages for the same topic are coalesced.
+     * If a queue is full, the oldest message is dropped.
+     *
+     * @param executor An executor, shared by all subscribers. If null, subscribers are called synchronously on the
+     *            callback thread of the MQTT client, which is the default.
+     * @param queueSize The maximum number of queued messages per subscriber. Must be positive if an executor is given.
+     */
+    public void setDeliveryExecutor(@Nullable Executor executor, int queueSize) {
+        dispatcher.setExecutor(executor, queueSize);
+    }
+
+    /**
+     * Return the executor for delivering received messages or null if messages are delivered synchronously.
+     */
+    public @Nullable Executor getDeliveryExecutor() {
+        return dispatcher.getExecutor();
+    }
+
+    /**
+     * Return queue depth and latency statistics of the message delivery for every registered subscriber.
+     */
+    public List<MqttDeliveryStatistics> getDeliveryStatistics() {
+        return dispatcher.getStatistics();
+    }
+
     /**
      * Return true if there are subscribers registered via {@link #subscribe(String, MqttMessageSubscriber)}.
      * Call {@link #unsubscribe(String, MqttMessageSubscriber)} or {@link #unsubscribeAll()} if necessary.
@@ -483,9 +541,8 @@ public class MqttBrokerConnection {
     public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
         CompletableFuture<Boolean> future = new CompletableFuture<Boolean>();
         synchronized (subscribers) {
-            TopicSubscribers subscriberList = subscribers.getOrDefault(topic, new TopicSubscribers(topic));
-            subscribers.put(topic, subscriberList);
-            subscriberList.add(subscriber);
+            subscribers.add(topic, subscriber);
+            dispatcher.subscriberAdded(subscriber);
         }
         final MqttAsyncClient client = this.client;
         if (client == null) {
@@ -536,20 +593,14 @@ public class MqttBrokerConnection {
      * @param subscriber The callback listener to remove.
      * @return Completes with true if successful. Exceptionally otherwise.
      */
-    @SuppressWarnings({ "null", "unused" })
     public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
-
         synchronized (subscribers) {
-            final @Nullable List<MqttMessageSubscriber> list = subscribers.get(topic);
-            if (list == null) {
-                return CompletableFuture.completedFuture(true);
+            if (subscribers.getSubscribers(topic).contains(subscriber)) {
+                dispatcher.subscriberRemoved(subscriber);
             }
-            list.remove(subscriber);
-            if (!list.isEmpty()) {
+            if (!subscribers.remove(topic, subscriber)) {
                 return CompletableFuture.completedFuture(true);
             }
-            // Remove from subscriber list
-            subscribers.remove(topic);
             // No more subscribers to this topic. Unsubscribe topic on the broker
             MqttAsyncClient client = this.client;
             if (client != null) {
@@ -632,6 +683,7 @@ public class MqttBrokerConnection {
         }
 
         options.setKeepAliveInterval(keepAliveInterval);
+        options.setMaxInflight(maxInflight);
         return options;
     }
 
@@ -785,10 +837,11 @@ public class MqttBrokerConnection {
         MqttAsyncClient client = this.client;
         List<CompletableFuture<Boolean>> futures = new ArrayList<>();
         if (client != null) {
-            subscribers.forEach((topic, subList) -> {
+            subscribers.getTopicFilters().forEach(topic -> {
                 futures.add(unsubscribeRaw(client, topic));
             });
             subscribers.clear();
+            dispatcher.clear();
         }
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
     }
@@ -916,6 +969,132 @@ public class MqttBrokerConnection {
         return f;
     }
 
+    /**
+     * Publish a batch of messages to the broker. Messages are sent in order, without waiting for the acknowledgement
+     * of previous messages, but never more than {@link #getMaxInflight()} messages at once.
+     *
+     * @param batch The messages
+     * @return Returns a future that completes with a result of true if all messages were published, with a result of
+     *         false if no broker connection is established and completes exceptionally on the first error. Messages
+     *         after a failed one are not published anymore.
+     */
+    public CompletableFuture<Boolean> publish(MqttPublishBatch batch) {
+        MqttAsyncClient client = this.client;
+        if (client == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return new BatchPublisher(client, batch).start(maxInflight);
+    }
+
+    /**
+     * Publishes the messages of a {@link MqttPublishBatch}. A new message is sent whenever a previous one has been
+     * acknowledged, so that the number of messages in flight stays within the window of the client.
+     *
+     * The window is shared with all other publishers of the connection. If it is full and none of the messages of the
+     * batch is in flight, so that no acknowledgement will trigger the next message, the message is retried after an
+     * increasing delay.
+     */
+    private class BatchPublisher {
+        private static final int MAX_INFLIGHT_RETRIES = 8;
+        private static final long INITIAL_RETRY_DELAY_MS = 10;
+
+        private final MqttAsyncClient client;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        // Guarded by this
+        private final Deque<MqttPublishBatch.Message> pending;
+        private int inflight = 0;
+        private int remaining;
+        private int retries = 0;
+        private boolean retryScheduled = false;
+
+        BatchPublisher(MqttAsyncClient client, MqttPublishBatch batch) {
+            this.client = client;
+            this.pending = new ArrayDeque<>(batch.getMessages());
+            this.remaining = pending.size();
+        }
+
+        CompletableFuture<Boolean> start(int window) {
+            if (remaining == 0) {
+                future.complete(true);
+            }
+            for (int i = 0; i < window && !future.isDone(); ++i) {
+                publishNext();
+            }
+            return future;
+        }
+
+        private void publishNext() {
+            final MqttPublishBatch.Message message;
+            synchronized (this) {
+                if (retryScheduled) {
+                    return;
+                }
+                message = pending.poll();
+                if (message == null || future.isDone()) {
+                    return;
+                }
+                inflight++;
+            }
+            final int qos = message.qos == MqttPublishBatch.DEFAULT_QOS ? MqttBrokerConnection.this.qos : message.qos;
+            final boolean retain = message.defaultRetain ? MqttBrokerConnection.this.retain : message.retain;
+            CompletableFuture<Boolean> messageFuture = new CompletableFuture<>();
+            messageFuture.whenComplete((result, error) -> completed(error));
+            try {
+                client.publish(message.topic, message.payload, qos, retain, messageFuture, actionCallback);
+            } catch (org.eclipse.paho.client.mqttv3.MqttException e) {
+                if (e.getReasonCode() == org.eclipse.paho.client.mqttv3.MqttException.REASON_CODE_MAX_INFLIGHT
+                        && retryLater(message)) {
+                    return;
+                }
+                messageFuture.completeExceptionally(new MqttException(e));
+            }
+        }
+
+        /**
+         * Puts back a message that was rejected because the window of the client is full. It is published again as
+         * soon as one of the messages of the batch is acknowledged, or after a delay if none of them is in flight.
+         *
+         * @return false if the message should not be retried anymore
+         */
+        private synchronized boolean retryLater(MqttPublishBatch.Message message) {
+            if (inflight == 1 && retries >= MAX_INFLIGHT_RETRIES) {
+                return false;
+            }
+            inflight--;
+            pending.addFirst(message);
+            if (inflight == 0) {
+                long delay = INITIAL_RETRY_DELAY_MS << retries++;
+                logger.debug("The in-flight window is full, retrying the batch in {} ms", delay);
+                retryScheduled = true;
+                ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON).schedule(() -> {
+                    synchronized (this) {
+                        retryScheduled = false;
+                    }
+                    publishNext();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            return true;
+        }
+
+        private void completed(@Nullable Throwable error) {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
+            }
+            final boolean done;
+            synchronized (this) {
+                inflight--;
+                retries = 0;
+                done = --remaining == 0;
+            }
+            if (done) {
+                future.complete(true);
+            } else {
+                publishNext();
+            }
+        }
+    }
+
     /**
      * The connection process is limited by a timeout, realized with a {@link CompletableFuture}. Cancel that future
      * now, if it exists.
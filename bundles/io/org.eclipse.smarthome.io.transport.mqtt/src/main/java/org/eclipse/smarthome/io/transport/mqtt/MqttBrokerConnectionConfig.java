@@ -42,6 +42,8 @@ public class MqttBrokerConnectionConfig {
     public @Nullable String lwtMessage;
     public Integer lwtQos = MqttBrokerConnection.DEFAULT_QOS;
     public Boolean lwtRetain = false;
+    /** Queue size per subscriber for delivering received messages asynchronously. 0, the default, disables queuing. */
+    public Integer deliveryQueueSize = MqttBrokerConnection.DEFAULT_DELIVERY_QUEUE_SIZE;
 
     /**
      * Return the brokerID of this connection. This is either the name or host:port(:s), for instance "myhost:8080:s".
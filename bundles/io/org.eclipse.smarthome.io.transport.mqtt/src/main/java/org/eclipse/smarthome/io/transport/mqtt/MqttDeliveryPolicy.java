@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt;
+
+/**
+ * Determines how received messages are handed over to a {@link MqttMessageSubscriber}, if the
+ * {@link MqttBrokerConnection} delivers messages asynchronously (see
+ * {@link MqttBrokerConnection#setDeliveryExecutor(java.util.concurrent.Executor, int)}).
+ *
+ * Messages for one subscriber are always processed in the order they were received and never concurrently.
+ * If the bounded queue of a subscriber is full, the oldest queued message is dropped.
+ *
+ * @author agent - Initial contribution
+ */
+public enum MqttDeliveryPolicy {
+    /**
+     * Every received message is queued and delivered.
+     */
+    ORDERED,
+    /**
+     * If a message for a topic is still queued when a new message for the same topic arrives, the queued message
+     * is replaced by the new one. This is meant for state topics, where only the latest value is of interest.
+     */
+    COALESCE_LATEST
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A snapshot of the message delivery statistics of one {@link MqttMessageSubscriber}.
+ *
+ * The queue wait time is the time between receiving a message from the broker and the start of
+ * {@link MqttMessageSubscriber#processMessage(String, byte[])}. The processing time is the time spent in that method.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttDeliveryStatistics {
+    private final MqttMessageSubscriber subscriber;
+    private final MqttDeliveryPolicy policy;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final double averageQueueWaitMillis;
+    private final double maxQueueWaitMillis;
+    private final double averageProcessingMillis;
+    private final double maxProcessingMillis;
+
+    public MqttDeliveryStatistics(MqttMessageSubscriber subscriber, MqttDeliveryPolicy policy, int queueDepth,
+            int maxQueueDepth, long delivered, long dropped, long coalesced, double averageQueueWaitMillis,
+            double maxQueueWaitMillis, double averageProcessingMillis, double maxProcessingMillis) {
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.averageQueueWaitMillis = averageQueueWaitMillis;
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        this.averageProcessingMillis = averageProcessingMillis;
+        this.maxProcessingMillis = maxProcessingMillis;
+    }
+
+    public MqttMessageSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    public MqttDeliveryPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Return the number of messages that are currently queued.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Return the highest number of queued messages so far.
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Return the number of messages handed over to the subscriber.
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Return the number of messages that were dropped, because the queue was full.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Return the number of messages that were replaced by a newer message for the same topic.
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        return averageQueueWaitMillis;
+    }
+
+    public double getMaxQueueWaitMillis() {
+        return maxQueueWaitMillis;
+    }
+
+    public double getAverageProcessingMillis() {
+        return averageProcessingMillis;
+    }
+
+    public double getMaxProcessingMillis() {
+        return maxProcessingMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: queued=%d (max %d), delivered=%d, dropped=%d, coalesced=%d, "
+                + "wait=%.2fms (max %.2fms), processing=%.2fms (max %.2fms)", subscriber, queueDepth, maxQueueDepth,
+                delivered, dropped, coalesced, averageQueueWaitMillis, maxQueueWaitMillis, averageProcessingMillis,
+                maxProcessingMillis);
+    }
+}
@@ -29,4 +29,12 @@ public interface MqttMessageSubscriber {
      * @param payload content of the message.
      */
     public void processMessage(String topic, byte[] payload);
+
+    /**
+     * Return the policy for queuing messages for this subscriber, if the broker connection delivers messages
+     * asynchronously. Defaults to {@link MqttDeliveryPolicy#ORDERED}.
+     */
+    default MqttDeliveryPolicy getDeliveryPolicy() {
+        return MqttDeliveryPolicy.ORDERED;
+    }
 }
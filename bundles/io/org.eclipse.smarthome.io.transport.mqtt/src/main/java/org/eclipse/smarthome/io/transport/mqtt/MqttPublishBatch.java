@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A batch of messages to be published with {@link MqttBrokerConnection#publish(MqttPublishBatch)}.
+ *
+ * All messages of a batch are pipelined: They are sent without waiting for the acknowledgement of each single message,
+ * limited only by the in-flight window of the connection. The completion of all messages is reported by one future.
+ *
+ * If the batch is created with coalescing enabled, a message replaces a previously added message for the same topic.
+ * The replacing message is published in the position of the latest addition.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MqttPublishBatch {
+    /** Marks a message that is published with the QoS and retain flag of the connection */
+    static final int DEFAULT_QOS = -1;
+
+    static class Message {
+        final String topic;
+        final byte[] payload;
+        final int qos;
+        final boolean retain;
+        final boolean defaultRetain;
+
+        Message(String topic, byte[] payload, int qos, boolean retain, boolean defaultRetain) {
+            this.topic = topic;
+            this.payload = payload;
+            this.qos = qos;
+            this.retain = retain;
+            this.defaultRetain = defaultRetain;
+        }
+    }
+
+    private final boolean coalesce;
+    private final List<Message> messages = new ArrayList<>();
+    private final Map<String, Message> messagesByTopic = new LinkedHashMap<>();
+
+    /**
+     * Creates a batch that publishes every added message.
+     */
+    public MqttPublishBatch() {
+        this(false);
+    }
+
+    /**
+     * Creates a batch.
+     *
+     * @param coalesce If true, only the latest added message per topic is published.
+     */
+    public MqttPublishBatch(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
+    /**
+     * Adds a message with the QoS and retain flag of the connection.
+     *
+     * @param topic The topic
+     * @param payload The message payload
+     * @return Returns this batch
+     */
+    public MqttPublishBatch add(String topic, byte[] payload) {
+        return add(new Message(topic, payload, DEFAULT_QOS, false, true));
+    }
+
+    /**
+     * Adds a message with the given QoS and retained flag.
+     *
+     * @param topic The topic
+     * @param payload The message payload
+     * @param qos The quality of service for this message
+     * @param retain Set to true to retain the message on the broker
+     * @return Returns this batch
+     */
+    public MqttPublishBatch add(String topic, byte[] payload, int qos, boolean retain) {
+        if (qos < 0 || qos > 2) {
+            throw new IllegalArgumentException("The quality of service parameter must be >=0 and <=2.");
+        }
+        return add(new Message(topic, payload, qos, retain, false));
+    }
+
+    private MqttPublishBatch add(Message message) {
+        if (coalesce) {
+            messagesByTopic.remove(message.topic);
+            messagesByTopic.put(message.topic, message);
+        } else {
+            messages.add(message);
+        }
+        return this;
+    }
+
+    /**
+     * Return the number of messages that will be published.
+     */
+    public int size() {
+        return coalesce ? messagesByTopic.size() : messages.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    Collection<Message> getMessages() {
+        return coalesce ? messagesByTopic.values() : messages;
+    }
+}
@@ -12,9 +12,7 @@
  */
 package org.eclipse.smarthome.io.transport.mqtt.internal;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
@@ -38,13 +36,16 @@ public class ClientCallback implements MqttCallback {
     final Logger logger = LoggerFactory.getLogger(ClientCallback.class);
     private final MqttBrokerConnection connection;
     private final List<MqttConnectionObserver> connectionObservers;
-    private final Map<String, TopicSubscribers> subscribers;
+    private final SubscriptionTrie<MqttMessageSubscriber> subscribers;
+    private final MessageDispatcher dispatcher;
 
     public ClientCallback(MqttBrokerConnection mqttBrokerConnectionImpl,
-            List<MqttConnectionObserver> connectionObservers, Map<String, TopicSubscribers> subscribers) {
+            List<MqttConnectionObserver> connectionObservers, SubscriptionTrie<MqttMessageSubscriber> subscribers,
+            MessageDispatcher dispatcher) {
         this.connection = mqttBrokerConnectionImpl;
         this.connectionObservers = connectionObservers;
         this.subscribers = subscribers;
+        this.dispatcher = dispatcher;
     }
 
     @Override
@@ -73,23 +74,6 @@ public class ClientCallback implements MqttCallback {
     public void messageArrived(String topic, MqttMessage message) {
         byte[] payload = message.getPayload();
         logger.trace("Received message on topic '{}' : {}", topic, new String(payload));
-        List<MqttMessageSubscriber> matches = new ArrayList<>();
-        synchronized (subscribers) {
-            subscribers.values().forEach(subscriberList -> {
-                if (topic.matches(subscriberList.regexMatchTopic)) {
-                    logger.trace("Topic match for '{}' using regex {}", topic, subscriberList.regexMatchTopic);
-                    subscriberList.forEach(consumer -> matches.add(consumer));
-                } else {
-                    logger.trace("No topic match for '{}' using regex {}", topic, subscriberList.regexMatchTopic);
-
-                }
-            });
-
-        }
-        try {
-            matches.forEach(subscriber -> subscriber.processMessage(topic, payload));
-        } catch (Exception e) {
-            logger.error("MQTT message received. MqttMessageSubscriber#processMessage() implementation failure", e);
-        }
+        subscribers.forEachMatch(topic, subscriber -> dispatcher.deliver(subscriber, topic, payload));
     }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryStatistics;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+
+/**
+ * Hands received messages over to {@link MqttMessageSubscriber}s.
+ *
+ * Without an executor, subscribers are called on the calling thread, which is the single callback thread of the MQTT
+ * client. With an executor, every subscriber gets its own bounded {@link SubscriberQueue}, so that a slow subscriber
+ * does not block the reception of messages for others.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MessageDispatcher {
+    private final Map<MqttMessageSubscriber, SubscriberQueue> queues = new ConcurrentHashMap<>();
+    private volatile @Nullable Executor executor;
+    private volatile int queueCapacity;
+
+    /**
+     * Sets the executor for delivering messages.
+     *
+     * @param executor The executor. Subscribers are called synchronously if null.
+     * @param queueCapacity The maximum number of queued messages per subscriber. Ignored if the executor is null.
+     */
+    public void setExecutor(@Nullable Executor executor, int queueCapacity) {
+        if (executor != null && queueCapacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+        this.executor = executor;
+    }
+
+    public @Nullable Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Must be called whenever a subscriber is registered for a topic filter.
+     */
+    public void subscriberAdded(MqttMessageSubscriber subscriber) {
+        queues.compute(subscriber, (s, queue) -> {
+            if (queue == null) {
+                return new SubscriberQueue(s, s.getDeliveryPolicy());
+            }
+            queue.references++;
+            return queue;
+        });
+    }
+
+    /**
+     * Must be called whenever a subscriber is removed from a topic filter.
+     */
+    public void subscriberRemoved(MqttMessageSubscriber subscriber) {
+        queues.computeIfPresent(subscriber, (s, queue) -> {
+            if (--queue.references > 0) {
+                return queue;
+            }
+            queue.clear();
+            return null;
+        });
+    }
+
+    /**
+     * Removes all subscribers and drops all queued messages.
+     */
+    public void clear() {
+        queues.values().forEach(SubscriberQueue::clear);
+        queues.clear();
+    }
+
+    /**
+     * Delivers a message to the given subscriber, either immediately or by queuing it.
+     */
+    public void deliver(MqttMessageSubscriber subscriber, String topic, byte[] payload) {
+        SubscriberQueue queue = queues.get(subscriber);
+        if (queue == null) {
+            // Not registered (anymore)
+            return;
+        }
+        final Executor executor = this.executor;
+        if (executor == null) {
+            queue.process(topic, payload);
+        } else {
+            queue.offer(topic, payload, executor, queueCapacity);
+        }
+    }
+
+    public List<MqttDeliveryStatistics> getStatistics() {
+        return queues.values().stream().map(SubscriberQueue::getStatistics).collect(Collectors.toList());
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnectionConfig;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
@@ -107,6 +108,10 @@ public class MqttServiceImpl implements MqttService {
 
         connection.setQos(config.qos.intValue());
         connection.setRetain(config.retainMessages);
+        if (config.deliveryQueueSize > 0) {
+            connection.setDeliveryExecutor(ThreadPoolManager.getPool(MqttBrokerConnection.DELIVERY_THREADPOOL_NAME),
+                    config.deliveryQueueSize);
+        }
         if (config.lwtTopic != null) {
             String topic = config.lwtTopic;
             MqttWillAndTestament will = new MqttWillAndTestament(topic,
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryPolicy;
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryStatistics;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, ordered message queue for one {@link MqttMessageSubscriber}. The queue is drained by a task on a shared
+ * executor. At most one task per queue is scheduled at any time, so messages are processed in order and never
+ * concurrently. A task processes a limited number of messages and reschedules itself, to not starve the queues of other
+ * subscribers.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SubscriberQueue implements Runnable {
+    private static final int MAX_MESSAGES_PER_RUN = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(SubscriberQueue.class);
+
+    private static class Message {
+        final String topic;
+        byte[] payload;
+        final long receivedNanos;
+
+        Message(String topic, byte[] payload, long receivedNanos) {
+            this.topic = topic;
+            this.payload = payload;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+
+    private final MqttMessageSubscriber subscriber;
+    private final MqttDeliveryPolicy policy;
+    /** Number of topic filters this subscriber is registered for. Guarded by the {@link MessageDispatcher}. */
+    int references = 1;
+
+    // Guarded by this
+    private final Deque<Message> messages = new ArrayDeque<>();
+    private final Map<String, Message> queuedByTopic = new HashMap<>();
+    private @Nullable Executor executor;
+    private boolean scheduled;
+    private int maxQueueDepth;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder totalProcessingNanos = new LongAdder();
+    private final AtomicLong maxProcessingNanos = new AtomicLong();
+
+    public SubscriberQueue(MqttMessageSubscriber subscriber, MqttDeliveryPolicy policy) {
+        this.subscriber = subscriber;
+        this.policy = policy;
+    }
+
+    public MqttMessageSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * Queues a message and schedules the queue on the given executor, if it is not scheduled already.
+     *
+     * @param topic The topic the message was received on
+     * @param payload The message payload
+     * @param executor The executor that drains the queue
+     * @param capacity The maximum number of queued messages
+     */
+    public void offer(String topic, byte[] payload, Executor executor, int capacity) {
+        final long now = System.nanoTime();
+        synchronized (this) {
+            if (policy == MqttDeliveryPolicy.COALESCE_LATEST) {
+                Message queued = queuedByTopic.get(topic);
+                if (queued != null) {
+                    queued.payload = payload;
+                    coalesced.increment();
+                    return;
+                }
+            }
+            if (messages.size() >= capacity) {
+                Message oldest = messages.poll();
+                if (oldest != null) {
+                    queuedByTopic.remove(oldest.topic, oldest);
+                    dropped.increment();
+                    logger.debug("Delivery queue of {} is full. Dropped message for topic '{}'", subscriber,
+                            oldest.topic);
+                }
+            }
+            Message message = new Message(topic, payload, now);
+            messages.add(message);
+            if (policy == MqttDeliveryPolicy.COALESCE_LATEST) {
+                queuedByTopic.put(topic, message);
+            }
+            maxQueueDepth = Math.max(maxQueueDepth, messages.size());
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            this.executor = executor;
+        }
+        schedule(executor);
+    }
+
+    /**
+     * Processes a message on the calling thread, bypassing the queue.
+     */
+    public void process(String topic, byte[] payload) {
+        process(topic, payload, System.nanoTime());
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < MAX_MESSAGES_PER_RUN; ++i) {
+            final Message message;
+            synchronized (this) {
+                message = messages.poll();
+                if (message == null) {
+                    scheduled = false;
+                    return;
+                }
+                queuedByTopic.remove(message.topic, message);
+            }
+            process(message.topic, message.payload, message.receivedNanos);
+        }
+        final Executor executor;
+        synchronized (this) {
+            executor = this.executor;
+            if (messages.isEmpty() || executor == null) {
+                scheduled = false;
+                return;
+            }
+        }
+        schedule(executor);
+    }
+
+    /**
+     * Removes all queued messages.
+     */
+    public synchronized void clear() {
+        messages.clear();
+        queuedByTopic.clear();
+    }
+
+    public MqttDeliveryStatistics getStatistics() {
+        final int queueDepth;
+        final int maxQueueDepth;
+        synchronized (this) {
+            queueDepth = messages.size();
+            maxQueueDepth = this.maxQueueDepth;
+        }
+        final long delivered = this.delivered.sum();
+        return new MqttDeliveryStatistics(subscriber, policy, queueDepth, maxQueueDepth, delivered, dropped.sum(),
+                coalesced.sum(), average(totalWaitNanos.sum(), delivered), toMillis(maxWaitNanos.get()),
+                average(totalProcessingNanos.sum(), delivered), toMillis(maxProcessingNanos.get()));
+    }
+
+    private void schedule(Executor executor) {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Could not schedule the delivery of MQTT messages to {}", subscriber, e);
+            synchronized (this) {
+                scheduled = false;
+            }
+        }
+    }
+
+    private void process(String topic, byte[] payload, long receivedNanos) {
+        final long start = System.nanoTime();
+        try {
+            subscriber.processMessage(topic, payload);
+        } catch (Exception e) {
+            logger.error("MQTT message received. MqttMessageSubscriber#processMessage() implementation failure", e);
+        }
+        final long end = System.nanoTime();
+        delivered.increment();
+        totalWaitNanos.add(start - receivedNanos);
+        maxWaitNanos.accumulateAndGet(start - receivedNanos, Math::max);
+        totalProcessingNanos.add(end - start);
+        maxProcessingNanos.accumulateAndGet(end - start, Math::max);
+    }
+
+    private static double average(long totalNanos, long count) {
+        return count == 0 ? 0 : toMillis(totalNanos) / count;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.transport.mqtt.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A trie of MQTT topic filters. Every topic level of a filter is a node, the MQTT wildcards "+" (single level) and
+ * "#" (multi level) are stored as ordinary child nodes with their wildcard character as key.
+ *
+ * Looking up the subscribers of a received topic only walks the levels of that topic and is therefore independent of
+ * the number of registered filters. Lookups do not lock: nodes are kept in {@link ConcurrentHashMap}s and the
+ * subscribers of a node in a {@link CopyOnWriteArrayList}. Modifications are serialized on the trie instance and
+ * prune nodes that became empty.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> The subscriber type
+ */
+@NonNullByDefault
+public class SubscriptionTrie<T> {
+    static final String SINGLE_LEVEL_WILDCARD = "+";
+    static final String MULTI_LEVEL_WILDCARD = "#";
+
+    private static class Node<T> {
+        final @Nullable Node<T> parent;
+        final String level;
+        final Map<String, Node<T>> children = new ConcurrentHashMap<>();
+        final List<T> subscribers = new CopyOnWriteArrayList<>();
+
+        Node(@Nullable Node<T> parent, String level) {
+            this.parent = parent;
+            this.level = level;
+        }
+
+        boolean isUnused() {
+            return subscribers.isEmpty() && children.isEmpty();
+        }
+    }
+
+    private final Node<T> root = new Node<>(null, "");
+    /** Terminal node per registered topic filter, for fast add/remove and to enumerate filters */
+    private final Map<String, Node<T>> filters = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a subscriber for the given topic filter.
+     *
+     * @param topicFilter A MQTT topic filter, may contain the "+" and "#" wildcards.
+     * @param subscriber The subscriber
+     * @return Returns true if this is the first subscriber for the given topic filter.
+     */
+    public synchronized boolean add(String topicFilter, T subscriber) {
+        Node<T> node = filters.get(topicFilter);
+        final boolean first = node == null;
+        if (node == null) {
+            node = root;
+            for (String level : topicFilter.split("/", -1)) {
+                final Node<T> parent = node;
+                node = parent.children.computeIfAbsent(level, l -> new Node<>(parent, l));
+            }
+            filters.put(topicFilter, node);
+        }
+        node.subscribers.add(subscriber);
+        return first;
+    }
+
+    /**
+     * Removes a subscriber from the given topic filter.
+     *
+     * @param topicFilter A MQTT topic filter
+     * @param subscriber The subscriber
+     * @return Returns true if the given subscriber was the last one of the given topic filter.
+     */
+    public synchronized boolean remove(String topicFilter, T subscriber) {
+        Node<T> node = filters.get(topicFilter);
+        if (node == null || !node.subscribers.remove(subscriber) || !node.subscribers.isEmpty()) {
+            return false;
+        }
+        filters.remove(topicFilter);
+        // Prune all nodes up to the root, that are not used anymore
+        Node<T> parent = node.parent;
+        while (parent != null && node.isUnused()) {
+            parent.children.remove(node.level);
+            node = parent;
+            parent = node.parent;
+        }
+        return true;
+    }
+
+    /**
+     * Removes all topic filters and subscribers.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        filters.clear();
+    }
+
+    /**
+     * Return true if no subscriber is registered.
+     */
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    /**
+     * Returns all topic filters that have at least one subscriber.
+     */
+    public Set<String> getTopicFilters() {
+        return Collections.unmodifiableSet(filters.keySet());
+    }
+
+    /**
+     * Returns the subscribers of exactly the given topic filter. Wildcards are not resolved.
+     *
+     * @param topicFilter A MQTT topic filter
+     * @return An unmodifiable list of subscribers. Empty if the topic filter is unknown.
+     */
+    public List<T> getSubscribers(String topicFilter) {
+        Node<T> node = filters.get(topicFilter);
+        return node == null ? Collections.emptyList() : Collections.unmodifiableList(node.subscribers);
+    }
+
+    /**
+     * Calls the given consumer for every subscriber of a topic filter that matches the given topic.
+     * A subscriber that is registered for multiple matching topic filters is called multiple times.
+     *
+     * @param topic A topic name as received from the broker. Must not contain wildcards.
+     * @param consumer The subscriber consumer
+     */
+    public void forEachMatch(String topic, Consumer<T> consumer) {
+        match(root, topic, 0, consumer);
+    }
+
+    private void match(Node<T> node, String topic, int start, Consumer<T> consumer) {
+        // "a/#" matches "a" as well as all topics below "a"
+        final Node<T> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+        if (multiLevel != null) {
+            multiLevel.subscribers.forEach(consumer);
+        }
+        if (start > topic.length()) {
+            node.subscribers.forEach(consumer);
+            return;
+        }
+        int end = topic.indexOf('/', start);
+        if (end < 0) {
+            end = topic.length();
+        }
+        final String level = topic.substring(start, end);
+        if (!SINGLE_LEVEL_WILDCARD.equals(level) && !MULTI_LEVEL_WILDCARD.equals(level)) {
+            final Node<T> child = node.children.get(level);
+            if (child != null) {
+                match(child, topic, end + 1, consumer);
+            }
+        }
+        final Node<T> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+        if (singleLevel != null) {
+            match(singleLevel, topic, end + 1, consumer);
+        }
+    }
+}
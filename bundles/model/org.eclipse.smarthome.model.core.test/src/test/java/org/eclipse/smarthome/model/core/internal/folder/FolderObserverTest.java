@@ -14,19 +14,27 @@ package org.eclipse.smarthome.model.core.internal.folder;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchEvent.Kind;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -409,16 +417,63 @@ public class FolderObserverTest extends JavaOSGiTest {
         waitForAssert(() -> assertThat(modelRepo.isAddOrRefreshModelMethodCalled, is(false)));
     }
 
+    /**
+     * The following method passes a batch of events to the {@link FolderObserver}, as the watch queue reader does
+     * once the watched directory has become quiet. The changed models of all types are expected to be processed when
+     * the method returns, in the order of the events, while files with unwatched extensions are skipped.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testProcessingOfEventBatch() throws Exception {
+        File createdFile = new File(EXISTING_SUBDIR_PATH, "CreatedMockFile.java");
+        FileUtils.writeStringToFile(createdFile, INITIAL_FILE_CONTENT);
+        File modifiedFile = new File(EXISTING_SUBDIR_PATH, "ModifiedMockFile.java");
+        FileUtils.writeStringToFile(modifiedFile, INITIAL_FILE_CONTENT);
+        File textFile = new File(EXISTING_SUBDIR_PATH, "MockFile.txt");
+        FileUtils.writeStringToFile(textFile, INITIAL_FILE_CONTENT);
+        File unwatchedFile = new File(EXISTING_SUBDIR_PATH, "MockFile.jpg");
+        FileUtils.writeStringToFile(unwatchedFile, INITIAL_FILE_CONTENT);
+
+        // the files are created before the activation, so that the watch service does not report them on its own
+        configProps.put(EXISTING_SUBDIR_NAME, "txt,java");
+        folderObserver.activate(context);
+        modelRepo.clean();
+
+        Map<Path, WatchEvent<Path>> events = new LinkedHashMap<>();
+        events.put(createdFile.toPath(), watchEvent(StandardWatchEventKinds.ENTRY_CREATE));
+        events.put(textFile.toPath(), watchEvent(StandardWatchEventKinds.ENTRY_CREATE));
+        events.put(new File(EXISTING_SUBDIR_PATH, MOCK_MODEL_TO_BE_REMOVED).toPath(),
+                watchEvent(StandardWatchEventKinds.ENTRY_DELETE));
+        events.put(unwatchedFile.toPath(), watchEvent(StandardWatchEventKinds.ENTRY_CREATE));
+        events.put(modifiedFile.toPath(), watchEvent(StandardWatchEventKinds.ENTRY_MODIFY));
+        folderObserver.processWatchEvents(EXISTING_SUBDIR_PATH.toPath(), events);
+
+        // there is no parser for txt files, so only the java models reach the repository
+        assertThat(modelRepo.calls, is(Arrays.asList("add " + createdFile.getName(),
+                "remove " + MOCK_MODEL_TO_BE_REMOVED, "add " + modifiedFile.getName())));
+        assertThat(modelRepo.fileContent, is(INITIAL_FILE_CONTENT));
+    }
+
+    @SuppressWarnings("unchecked")
+    private WatchEvent<Path> watchEvent(Kind<Path> kind) {
+        WatchEvent<Path> event = mock(WatchEvent.class);
+        when(event.kind()).thenReturn(kind);
+        return event;
+    }
+
     private static class ModelRepoDummy implements ModelRepository {
 
         public boolean isAddOrRefreshModelMethodCalled = false;
         public boolean isRemoveModelMethodCalled = false;
         public String calledFileName;
+        public final List<String> calls = new CopyOnWriteArrayList<>();
 
         public String fileContent;
 
         @Override
         public boolean addOrRefreshModel(String name, InputStream inputStream) {
+            calls.add("add " + name);
             calledFileName = name;
             isAddOrRefreshModelMethodCalled = true;
             try {
@@ -432,6 +487,7 @@ public class FolderObserverTest extends JavaOSGiTest {
 
         @Override
         public boolean removeModel(String name) {
+            calls.add("remove " + name);
             calledFileName = name;
             isRemoveModelMethodCalled = true;
             return true;
@@ -452,6 +508,10 @@ public class FolderObserverTest extends JavaOSGiTest {
         public void reloadAllModelsOfType(String modelType) {
         }
 
+        @Override
+        public void reloadModelsOfTypeReferencing(String modelType, Set<String> names) {
+        }
+
         @Override
         public void addModelRepositoryChangeListener(ModelRepositoryChangeListener listener) {
         }
@@ -470,6 +530,7 @@ public class FolderObserverTest extends JavaOSGiTest {
             isRemoveModelMethodCalled = false;
             calledFileName = null;
             fileContent = null;
+            calls.clear();
         }
 
         @Override
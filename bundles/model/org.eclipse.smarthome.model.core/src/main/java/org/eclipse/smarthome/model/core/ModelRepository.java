@@ -37,7 +37,8 @@ public interface ModelRepository {
     public EObject getModel(String name);
 
     /**
-     * Adds a model to the repository or refreshes it if it already exists
+     * Adds a model to the repository or refreshes it if it already exists. A model whose content has not changed is
+     * not refreshed and its listeners are not notified.
      *
      * @param name the model name to add/refresh
      * @param inputStream an input stream with the model's content, optional if the file already exists
@@ -68,6 +69,16 @@ public interface ModelRepository {
      */
     public void reloadAllModelsOfType(final String modelType);
 
+    /**
+     * Reload and parse all models of the given type which refer to at least one of the given names. Models that do not
+     * contain any of the names are not touched.
+     *
+     * @param modelType the model type to reload
+     * @param names the names (e.g. item names or thing UIDs) of which a model has to contain at least one to be
+     *            reloaded
+     */
+    public void reloadModelsOfTypeReferencing(final String modelType, final Set<String> names);
+
     /**
      * Remove all models of the given type
      *
@@ -15,16 +15,24 @@ package org.eclipse.smarthome.model.core.internal;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.IOUtils;
@@ -35,9 +43,12 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.smarthome.core.service.StartupProfiler;
 import org.eclipse.smarthome.model.core.EventType;
 import org.eclipse.smarthome.model.core.ModelRepository;
 import org.eclipse.smarthome.model.core.ModelRepositoryChangeListener;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
@@ -48,26 +59,50 @@ import org.slf4j.LoggerFactory;
 /**
  * @author Oliver Libutzki - Added reloadAllModelsOfType method
  * @author Simon Kaufmann - added validation of models before loading them
+ * @author agent - Separate resource sets per model type and skipping of unchanged models
+ * @author agent - Recording of the model loading times
  *
  */
 @Component(immediate = true)
 public class ModelRepositoryImpl implements ModelRepository {
 
+    /**
+     * Pattern for the names a model might refer to: item names and identifiers, as well as thing and channel UIDs.
+     */
+    private static final Pattern REFERENCED_NAME_PATTERN = Pattern
+            .compile("[A-Za-z0-9_\\-]+(:[A-Za-z0-9_\\-]+)+|[A-Za-z0-9_]+");
+
+    private static final String STARTUP_CATEGORY = "model";
+
     private final Logger logger = LoggerFactory.getLogger(ModelRepositoryImpl.class);
-    private final ResourceSet resourceSet;
+
+    /**
+     * The resource sets mapped by the model type (file extension). The models of different types do not refer to each
+     * other, so each type gets its own resource set and the models of different types can be loaded in parallel.
+     */
+    private final Map<String, ResourceSet> resourceSets = new ConcurrentHashMap<>();
+
+    /**
+     * The hash of the content each model has been loaded from, mapped by the model name.
+     */
+    private final Map<String, byte[]> contentHashes = new ConcurrentHashMap<>();
+
+    /**
+     * The names referred to by a model, mapped by the model name. Calculated on demand and dropped whenever the model
+     * changes.
+     */
+    private final Map<String, Set<String>> referencedNames = new ConcurrentHashMap<>();
 
     private final List<ModelRepositoryChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     public ModelRepositoryImpl() {
-        XtextResourceSet xtextResourceSet = new SynchronizedXtextResourceSet();
-        xtextResourceSet.addLoadOption(XtextResource.OPTION_RESOLVE_ALL, Boolean.TRUE);
-        this.resourceSet = xtextResourceSet;
         // don't use XMI as a default
         Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().remove("*");
     }
 
     @Override
     public EObject getModel(String name) {
+        ResourceSet resourceSet = getResourceSet(name);
         synchronized (resourceSet) {
             Resource resource = getResource(name);
             if (resource != null) {
@@ -76,6 +111,7 @@ public class ModelRepositoryImpl implements ModelRepository {
                 } else {
                     logger.warn("Configuration model '{}' is either empty or cannot be parsed correctly!", name);
                     resourceSet.getResources().remove(resource);
+                    contentHashes.remove(name);
                     return null;
                 }
             } else {
@@ -87,11 +123,28 @@ public class ModelRepositoryImpl implements ModelRepository {
 
     @Override
     public boolean addOrRefreshModel(String name, final InputStream originalInputStream) {
+        long start = System.nanoTime();
+        try {
+            return loadModel(name, originalInputStream);
+        } finally {
+            StartupProfiler.record(STARTUP_CATEGORY, name, start);
+        }
+    }
+
+    private boolean loadModel(String name, final InputStream originalInputStream) {
+        ResourceSet resourceSet = getResourceSet(name);
         Resource resource = null;
         try {
             InputStream inputStream = null;
+            byte[] contentHash = null;
             if (originalInputStream != null) {
                 byte[] bytes = IOUtils.toByteArray(originalInputStream);
+                contentHash = getContentHash(bytes);
+                if (isUnchanged(name, contentHash)) {
+                    // e.g. a file has been saved without changes or a watch event has been sent more than once
+                    logger.debug("Configuration model '{}' has not changed, therefore not refreshing it", name);
+                    return true;
+                }
                 String validationResult = validateModel(name, new ByteArrayInputStream(bytes));
                 if (validationResult != null) {
                     logger.warn("Configuration model '{}' has errors, therefore ignoring it: {}", name,
@@ -122,6 +175,7 @@ public class ModelRepositoryImpl implements ModelRepository {
                                 return false;
                             }
                             resource.load(inputStream, options);
+                            contentHashes.put(name, contentHash);
                             notifyListeners(name, EventType.ADDED);
                             return true;
                         } else {
@@ -135,7 +189,9 @@ public class ModelRepositoryImpl implements ModelRepository {
                     logger.info("Refreshing model '{}'", name);
                     if (inputStream != null) {
                         resource.load(inputStream, Collections.EMPTY_MAP);
+                        contentHashes.put(name, contentHash);
                     } else {
+                        contentHashes.remove(name);
                         resource.load(Collections.EMPTY_MAP);
                     }
                     notifyListeners(name, EventType.MODIFIED);
@@ -144,6 +200,7 @@ public class ModelRepositoryImpl implements ModelRepository {
             }
         } catch (IOException e) {
             logger.warn("Configuration model '{}' cannot be parsed correctly!", name, e);
+            contentHashes.remove(name);
             if (resource != null) {
                 resourceSet.getResources().remove(resource);
             }
@@ -153,10 +210,12 @@ public class ModelRepositoryImpl implements ModelRepository {
 
     @Override
     public boolean removeModel(String name) {
+        ResourceSet resourceSet = getResourceSet(name);
         Resource resource = getResource(name);
         if (resource != null) {
             synchronized (resourceSet) {
                 // do not physically delete it, but remove it from the resource set
+                contentHashes.remove(name);
                 notifyListeners(name, EventType.REMOVED);
                 resourceSet.getResources().remove(resource);
                 return true;
@@ -168,6 +227,7 @@ public class ModelRepositoryImpl implements ModelRepository {
 
     @Override
     public Iterable<String> getAllModelNamesOfType(final String modelType) {
+        ResourceSet resourceSet = getResourceSetOfType(modelType);
         synchronized (resourceSet) {
             // Make a copy to avoid ConcurrentModificationException
             List<Resource> resourceListCopy = new ArrayList<Resource>(resourceSet.getResources());
@@ -183,12 +243,25 @@ public class ModelRepositoryImpl implements ModelRepository {
 
     @Override
     public void reloadAllModelsOfType(final String modelType) {
+        reloadModelsOfType(modelType, resource -> true);
+    }
+
+    @Override
+    public void reloadModelsOfTypeReferencing(final String modelType, final Set<String> names) {
+        reloadModelsOfType(modelType, resource -> {
+            Set<String> modelNames = getReferencedNames(resource);
+            return names.stream().anyMatch(modelNames::contains);
+        });
+    }
+
+    private void reloadModelsOfType(final String modelType, Predicate<Resource> filter) {
+        ResourceSet resourceSet = getResourceSetOfType(modelType);
         synchronized (resourceSet) {
             // Make a copy to avoid ConcurrentModificationException
             List<Resource> resourceListCopy = new ArrayList<Resource>(resourceSet.getResources());
             for (Resource resource : resourceListCopy) {
                 if (resource != null && resource.getURI().lastSegment().contains(".") && resource.isLoaded()) {
-                    if (modelType.equalsIgnoreCase(resource.getURI().fileExtension())) {
+                    if (modelType.equalsIgnoreCase(resource.getURI().fileExtension()) && filter.test(resource)) {
                         XtextResource xtextResource = (XtextResource) resource;
                         // It's not sufficient to discard the derived state.
                         // The quick & dirts solution is to reparse the whole resource.
@@ -202,9 +275,46 @@ public class ModelRepositoryImpl implements ModelRepository {
         }
     }
 
+    /**
+     * Returns all names the given resource might refer to. As the names are taken from the textual representation of
+     * the model, this might contain more names than actually referenced, but it never misses one.
+     *
+     * @param resource the resource to get the referenced names for
+     * @return the names found in the text of the resource
+     */
+    private Set<String> getReferencedNames(Resource resource) {
+        return referencedNames.computeIfAbsent(resource.getURI().lastSegment(), name -> {
+            Set<String> names = new HashSet<>();
+            if (resource instanceof XtextResource) {
+                IParseResult parseResult = ((XtextResource) resource).getParseResult();
+                ICompositeNode rootNode = parseResult == null ? null : parseResult.getRootNode();
+                if (rootNode != null) {
+                    Matcher matcher = REFERENCED_NAME_PATTERN.matcher(rootNode.getText());
+                    while (matcher.find()) {
+                        names.add(matcher.group());
+                    }
+                    // also add the parent UIDs (e.g. the thing UID of a channel UID) and the plain identifiers a
+                    // UID like token consists of
+                    for (String token : new ArrayList<>(names)) {
+                        int index = token.lastIndexOf(':');
+                        while (index > 0) {
+                            names.add(token.substring(0, index));
+                            index = token.lastIndexOf(':', index - 1);
+                        }
+                        if (token.contains(":") || token.contains("-")) {
+                            names.addAll(Arrays.asList(token.split("[:\\-]")));
+                        }
+                    }
+                }
+            }
+            return names;
+        });
+    }
+
     @Override
     public Set<String> removeAllModelsOfType(final String modelType) {
         Set<String> ret = new HashSet<>();
+        ResourceSet resourceSet = getResourceSetOfType(modelType);
         synchronized (resourceSet) {
             // Make a copy to avoid ConcurrentModificationException
             List<Resource> resourceListCopy = new ArrayList<Resource>(resourceSet.getResources());
@@ -214,6 +324,7 @@ public class ModelRepositoryImpl implements ModelRepository {
                         logger.debug("Removing resource '{}'", resource.getURI().lastSegment());
                         ret.add(resource.getURI().lastSegment());
                         resourceSet.getResources().remove(resource);
+                        contentHashes.remove(resource.getURI().lastSegment());
                         notifyListeners(resource.getURI().lastSegment(), EventType.REMOVED);
                     }
                 }
@@ -233,7 +344,34 @@ public class ModelRepositoryImpl implements ModelRepository {
     }
 
     private Resource getResource(String name) {
-        return resourceSet.getResource(URI.createURI(name), false);
+        return getResourceSet(name).getResource(URI.createURI(name), false);
+    }
+
+    private ResourceSet getResourceSet(String name) {
+        String modelType = URI.createURI(name).fileExtension();
+        return getResourceSetOfType(modelType == null ? "" : modelType);
+    }
+
+    private ResourceSet getResourceSetOfType(String modelType) {
+        return resourceSets.computeIfAbsent(modelType.toLowerCase(Locale.ENGLISH), type -> {
+            XtextResourceSet xtextResourceSet = new SynchronizedXtextResourceSet();
+            xtextResourceSet.addLoadOption(XtextResource.OPTION_RESOLVE_ALL, Boolean.TRUE);
+            return xtextResourceSet;
+        });
+    }
+
+    private boolean isUnchanged(String name, byte[] contentHash) {
+        Resource resource = getResource(name);
+        return resource != null && resource.isLoaded() && Arrays.equals(contentHash, contentHashes.get(name));
+    }
+
+    private static byte[] getContentHash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -259,6 +397,7 @@ public class ModelRepositoryImpl implements ModelRepository {
      */
     private String validateModel(String name, InputStream inputStream) throws IOException {
         // use another resource for validation in order to keep the original one for emergency-removal in case of errors
+        ResourceSet resourceSet = getResourceSet(name);
         Resource resource = resourceSet.createResource(URI.createURI("tmp_" + name));
         try {
             resource.load(inputStream, Collections.EMPTY_MAP);
@@ -299,6 +438,7 @@ public class ModelRepositoryImpl implements ModelRepository {
     }
 
     private void notifyListeners(String name, EventType type) {
+        referencedNames.remove(name);
         for (ModelRepositoryChangeListener listener : listeners) {
             listener.modelChanged(name, type);
         }
@@ -21,15 +21,22 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.WatchEvent;
 import java.nio.file.WatchEvent.Kind;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.MapUtils;
@@ -37,6 +44,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.service.AbstractWatchService;
 import org.eclipse.smarthome.model.core.ModelParser;
 import org.eclipse.smarthome.model.core.ModelRepository;
@@ -56,11 +64,18 @@ import org.osgi.service.component.annotations.ReferencePolicy;
  * @author Kai Kreuzer - Initial contribution and API
  * @author Fabio Marini - Refactoring to use WatchService
  * @author Ana Dimova - reduce to a single watch thread for all class instances
+ * @author agent - Parallel loading of the different model types
+ * @author agent - Batched processing of the changed files
  *
  */
 @Component(name = "org.eclipse.smarthome.folder", immediate = true, configurationPolicy = ConfigurationPolicy.REQUIRE)
 public class FolderObserver extends AbstractWatchService {
 
+    public static final String MODEL_LOADING_THREAD_POOL_NAME = "model-loading";
+
+    /* the locks the files of each file extension are processed with */
+    private static final Map<String, Object> extensionLocks = new ConcurrentHashMap<>();
+
     public FolderObserver() {
         super(ConfigConstants.getConfigFolder());
     }
@@ -72,11 +87,11 @@ public class FolderObserver extends AbstractWatchService {
     private final Map<String, String[]> folderFileExtMap = new ConcurrentHashMap<String, String[]>();
 
     /* set of file extensions for which we have parsers already registered */
-    private final Set<String> parsers = new HashSet<>();
+    private final Set<String> parsers = ConcurrentHashMap.newKeySet();
 
     /* set of files that have been ignored due to a missing parser */
-    private final Set<File> ignoredFiles = new HashSet<>();
-    private final Map<String, File> nameFileMap = new HashMap<>();
+    private final Set<File> ignoredFiles = ConcurrentHashMap.newKeySet();
+    private final Map<String, File> nameFileMap = new ConcurrentHashMap<>();
 
     @Reference
     public void setModelRepository(ModelRepository modelRepo) {
@@ -99,7 +114,8 @@ public class FolderObserver extends AbstractWatchService {
         parsers.remove(modelParser.getExtension());
 
         Set<String> removed = modelRepo.removeAllModelsOfType(modelParser.getExtension());
-        ignoredFiles.addAll(removed.stream().map(name -> nameFileMap.get(name)).collect(Collectors.toSet()));
+        ignoredFiles.addAll(removed.stream().map(name -> nameFileMap.get(name)).filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
     }
 
     @Activate
@@ -169,6 +185,7 @@ public class FolderObserver extends AbstractWatchService {
     }
 
     private void addModelsToRepo() {
+        Map<String, Map<File, Kind<?>>> extensionFilesMap = new HashMap<>();
         if (MapUtils.isNotEmpty(this.folderFileExtMap)) {
             Iterator<String> iterator = this.folderFileExtMap.keySet().iterator();
             while (iterator.hasNext()) {
@@ -183,13 +200,44 @@ public class FolderObserver extends AbstractWatchService {
                         for (File file : files) {
                             // we omit parsing of hidden files possibly created by editors or operating systems
                             if (!file.isHidden()) {
-                                checkFile(modelRepo, file, ENTRY_CREATE);
+                                extensionFilesMap.computeIfAbsent(getExtension(file.getName()),
+                                        extension -> new LinkedHashMap<>()).put(file, ENTRY_CREATE);
                             }
                         }
                     }
                 }
             }
         }
+        checkFiles(extensionFilesMap);
+    }
+
+    /**
+     * Checks the given files and waits until all of them have been processed.
+     *
+     * @param extensionFilesMap the files to check together with the kind of their change, grouped by their extension
+     */
+    private void checkFiles(Map<String, Map<File, Kind<?>>> extensionFilesMap) {
+        if (extensionFilesMap.size() == 1) {
+            extensionFilesMap.values().iterator().next().forEach((file, kind) -> checkFile(modelRepo, file, kind));
+            return;
+        }
+
+        // the models of different types do not depend on each other, so each type is loaded in its own task
+        ExecutorService pool = ThreadPoolManager.getPool(MODEL_LOADING_THREAD_POOL_NAME);
+        List<Future<?>> futures = new ArrayList<>(extensionFilesMap.size());
+        for (Map<File, Kind<?>> files : extensionFilesMap.values()) {
+            futures.add(pool.submit(() -> files.forEach((file, kind) -> checkFile(modelRepo, file, kind))));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Error loading the models: {}", e.getMessage(), e);
+            }
+        }
     }
 
     private void deleteModelsFromRepo() {
@@ -231,7 +279,7 @@ public class FolderObserver extends AbstractWatchService {
     private void checkFile(final ModelRepository modelRepo, final File file, final Kind kind) {
         if (modelRepo != null && file != null) {
             try {
-                synchronized (FolderObserver.class) {
+                synchronized (extensionLocks.computeIfAbsent(getExtension(file.getName()), extension -> new Object())) {
                     if ((kind == ENTRY_CREATE || kind == ENTRY_MODIFY)) {
                         if (parsers.contains(getExtension(file.getName()))) {
                             try (FileInputStream inputStream = FileUtils.openInputStream(file)) {
@@ -296,6 +344,19 @@ public class FolderObserver extends AbstractWatchService {
         return filename.substring(filename.lastIndexOf(".") + 1);
     }
 
+    @Override
+    protected void processWatchEvents(Path directory, Map<Path, WatchEvent<Path>> events) {
+        Map<String, Map<File, Kind<?>>> extensionFilesMap = new HashMap<>();
+        events.forEach((path, event) -> {
+            File toCheck = getFileByFileExtMap(folderFileExtMap, path.getFileName().toString());
+            if (toCheck != null && !toCheck.isHidden()) {
+                extensionFilesMap.computeIfAbsent(getExtension(toCheck.getName()), extension -> new LinkedHashMap<>())
+                        .put(toCheck, event.kind());
+            }
+        });
+        checkFiles(extensionFilesMap);
+    }
+
     @Override
     protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
         File toCheck = getFileByFileExtMap(folderFileExtMap, path.getFileName().toString());
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertThat;
 
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,7 +38,9 @@ import org.eclipse.smarthome.core.items.events.AbstractItemRegistryEvent;
 import org.eclipse.smarthome.core.items.events.ItemAddedEvent;
 import org.eclipse.smarthome.core.items.events.ItemRemovedEvent;
 import org.eclipse.smarthome.core.items.events.ItemUpdatedEvent;
+import org.eclipse.smarthome.model.core.EventType;
 import org.eclipse.smarthome.model.core.ModelRepository;
+import org.eclipse.smarthome.model.core.ModelRepositoryChangeListener;
 import org.eclipse.smarthome.test.java.JavaOSGiTest;
 import org.junit.After;
 import org.junit.Before;
@@ -51,6 +54,7 @@ import org.junit.Test;
  * @author Simon Kaufmann
  * @author Stefan Triller - Added test for ItemAddedEvents with multiple model files
  * @author Wouter Born - Migrate tests from Groovy to Java
+ * @author agent - Added test for unchanged models
  */
 public class GenericItemProviderTest extends JavaOSGiTest {
 
@@ -140,6 +144,39 @@ public class GenericItemProviderTest extends JavaOSGiTest {
                 is(equalTo("TAG1, TAG2, TAG3, TAG4-WITH-DASHES, TAG5 String Tag")));
     }
 
+    @Test
+    public void assertThatUnchangedModelsAreNotRefreshed() throws Exception {
+        List<EventType> modelEvents = new ArrayList<>();
+        ModelRepositoryChangeListener listener = (modelName, type) -> {
+            if (TESTMODEL_NAME.equals(modelName)) {
+                modelEvents.add(type);
+            }
+        };
+        modelRepository.addModelRepositoryChangeListener(listener);
+        try {
+            String model = "String test1 \"Test Item [%s]\" { channel=\"test:test:test:test\" }";
+            modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream(model.getBytes()));
+            Item item = itemRegistry.getItem("test1");
+
+            assertThat(modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream(model.getBytes())),
+                    is(true));
+            assertThat(modelEvents, is(Arrays.asList(EventType.ADDED)));
+            assertThat(itemRegistry.getItem("test1"), is(sameInstance(item)));
+
+            model = "String test1 \"Test Item Changed [%s]\" { channel=\"test:test:test:test\" }";
+            modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream(model.getBytes()));
+            assertThat(modelEvents, is(Arrays.asList(EventType.ADDED, EventType.MODIFIED)));
+            assertThat(itemRegistry.getItem("test1").getLabel(), startsWith("Test Item Changed"));
+
+            modelRepository.removeModel(TESTMODEL_NAME);
+            modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream(model.getBytes()));
+            assertThat(modelEvents,
+                    is(Arrays.asList(EventType.ADDED, EventType.MODIFIED, EventType.REMOVED, EventType.ADDED)));
+        } finally {
+            modelRepository.removeModelRepositoryChangeListener(listener);
+        }
+    }
+
     @Test
     public void assertThatAbrokenModelIsIgnored() {
         assertThat(itemRegistry.getAll().size(), is(0));
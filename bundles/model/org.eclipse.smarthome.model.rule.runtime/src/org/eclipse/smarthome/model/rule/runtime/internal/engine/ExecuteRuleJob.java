@@ -12,7 +12,11 @@
  */
 package org.eclipse.smarthome.model.rule.runtime.internal.engine;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.model.core.ModelRepository;
 import org.eclipse.smarthome.model.rule.rules.Rule;
 import org.eclipse.smarthome.model.rule.rules.RuleModel;
@@ -61,12 +65,23 @@ public class ExecuteRuleJob implements Job {
                 RuleModel ruleModel = (RuleModel) model;
                 Rule rule = getRule(ruleModel, ruleName);
                 if (rule != null) {
-                    Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
-                    logger.debug("Executing scheduled rule '{}'", rule.getName());
+                    RuleProfiler profiler = RuleProfiling.getActiveProfiler();
+                    long startTime = profiler != null ? System.nanoTime() : 0;
+                    // cleared once the script has completed, so that any exception counts as a failed execution
+                    boolean failed = true;
+
                     try {
+                        Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+                        logger.debug("Executing scheduled rule '{}'", rule.getName());
                         script.execute(RuleContextHelper.getContext(rule, injector));
+                        failed = false;
                     } catch (ScriptExecutionException e) {
                         logger.error("Error during the execution of rule '{}': {}", rule.getName(), e.getMessage());
+                    } finally {
+                        if (profiler != null) {
+                            profiler.ruleExecuted(RuleProfiling.getRuleUID(modelName, ruleName), getDelay(context),
+                                    System.nanoTime() - startTime, failed);
+                        }
                     }
                 } else {
                     logger.debug("Scheduled rule '{}' does not exist", ruleName);
@@ -77,6 +92,18 @@ public class ExecuteRuleJob implements Job {
         }
     }
 
+    /**
+     * @return the time in nanoseconds the job has been fired after its scheduled fire time
+     */
+    private long getDelay(JobExecutionContext context) {
+        Date scheduledFireTime = context.getScheduledFireTime();
+        if (scheduledFireTime == null) {
+            return 0;
+        }
+        long delay = context.getFireTime().getTime() - scheduledFireTime.getTime();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+    }
+
     private Rule getRule(RuleModel ruleModel, String ruleName) {
         for (Rule rule : ruleModel.getRules()) {
             if (rule.getName().equals(ruleName)) {
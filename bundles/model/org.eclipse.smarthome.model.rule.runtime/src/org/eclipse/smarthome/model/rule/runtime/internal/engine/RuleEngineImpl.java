@@ -21,6 +21,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.smarthome.automation.RuleProfiler;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFilter;
@@ -54,6 +55,8 @@ import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -172,6 +175,15 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
     protected void unsetRuleRuntimeActivator(RuleRuntimeActivator ruleRuntimeActivator) {
     }
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC)
+    protected void setRuleProfiler(RuleProfiler ruleProfiler) {
+        RuleProfiling.setProfiler(ruleProfiler);
+    }
+
+    protected void unsetRuleProfiler(RuleProfiler ruleProfiler) {
+        RuleProfiling.unsetProfiler(ruleProfiler);
+    }
+
     @Override
     public void allItemsChanged(Collection<String> oldItemNames) {
         // add the current items again
@@ -269,16 +281,19 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
 
                 // remove the rules from the trigger sets
                 if (type == org.eclipse.smarthome.model.core.EventType.REMOVED
-                        || type == org.eclipse.smarthome.model.core.EventType.MODIFIED) {
+                        || (type == org.eclipse.smarthome.model.core.EventType.MODIFIED && model == null)) {
                     triggerManager.removeRuleModel(model);
                 }
 
-                // add new and modified rules to the trigger sets
-                if (model != null && (type == org.eclipse.smarthome.model.core.EventType.ADDED
-                        || type == org.eclipse.smarthome.model.core.EventType.MODIFIED)) {
+                // add new rules to the trigger sets and replace the rules of modified models
+                if (model != null && type == org.eclipse.smarthome.model.core.EventType.ADDED) {
                     triggerManager.addRuleModel(model);
                     // now execute all rules that are meant to trigger at startup
                     scheduleStartupRules();
+                } else if (model != null && type == org.eclipse.smarthome.model.core.EventType.MODIFIED) {
+                    triggerManager.updateRuleModel(model);
+                    // now execute all rules that are meant to trigger at startup
+                    scheduleStartupRules();
                 }
             }
         }
@@ -330,15 +345,29 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
         }
     }
 
-    protected synchronized void executeRule(Rule rule, RuleEvaluationContext context) {
+    /**
+     * Schedules the rule for execution on the rule engine thread pool. Independent rules are hence executed in
+     * parallel, bounded by the size of the thread pool. No synchronization is needed as the trigger lookup and the
+     * thread pool are thread safe.
+     */
+    protected void executeRule(Rule rule, RuleEvaluationContext context) {
+        // the queue wait is only measured if the profiler is already active when the rule is submitted
+        final boolean profiled = RuleProfiling.getActiveProfiler() != null;
+        final long submitTime = profiled ? System.nanoTime() : 0;
 
         scheduler.execute(() -> {
-            Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+            RuleProfiler profiler = RuleProfiling.getActiveProfiler();
+            long startTime = profiler != null ? System.nanoTime() : 0;
+            // cleared once the script has completed, so that any exception counts as a failed execution
+            boolean failed = true;
 
-            logger.debug("Executing rule '{}'", rule.getName());
-            context.setGlobalContext(RuleContextHelper.getContext(rule, injector));
             try {
+                Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+
+                logger.debug("Executing rule '{}'", rule.getName());
+                context.setGlobalContext(RuleContextHelper.getContext(rule, injector));
                 script.execute(context);
+                failed = false;
             } catch (Exception e) {
                 String msg = e.getMessage();
                 if (msg == null) {
@@ -346,18 +375,24 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
                 } else {
                     logger.error("Rule '{}': {}", rule.getName(), msg);
                 }
+            } finally {
+                String ruleUID = profiler != null ? RuleProfiling.getRuleUID(rule) : null;
+                if (profiler != null && ruleUID != null) {
+                    profiler.ruleExecuted(ruleUID, profiled ? startTime - submitTime : 0,
+                            System.nanoTime() - startTime, failed);
+                }
             }
         });
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules) {
+    protected void executeRules(Iterable<Rule> rules) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             executeRule(rule, context);
         }
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules, ChannelTriggeredEvent event) {
+    protected void executeRules(Iterable<Rule> rules, ChannelTriggeredEvent event) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             context.newValue(QualifiedName.create(RulesJvmModelInferrer.VAR_RECEIVED_EVENT), event);
@@ -365,7 +400,7 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
         }
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules, Item item) {
+    protected void executeRules(Iterable<Rule> rules, Item item) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             context.newValue(QualifiedName.create(RulesJvmModelInferrer.VAR_TRIGGERING_ITEM), item);
@@ -373,7 +408,7 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
         }
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules, Item item, Command command) {
+    protected void executeRules(Iterable<Rule> rules, Item item, Command command) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             context.newValue(QualifiedName.create(RulesJvmModelInferrer.VAR_TRIGGERING_ITEM), item);
@@ -382,7 +417,7 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
         }
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules, Item item, State oldState) {
+    protected void executeRules(Iterable<Rule> rules, Item item, State oldState) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             context.newValue(QualifiedName.create(RulesJvmModelInferrer.VAR_TRIGGERING_ITEM), item);
@@ -391,7 +426,7 @@ public class RuleEngineImpl implements ItemRegistryChangeListener, StateChangeLi
         }
     }
 
-    protected synchronized void executeRules(Iterable<Rule> rules, ThingStatus oldThingStatus) {
+    protected void executeRules(Iterable<Rule> rules, ThingStatus oldThingStatus) {
         for (Rule rule : rules) {
             RuleEvaluationContext context = new RuleEvaluationContext();
             context.newValue(QualifiedName.create(RulesJvmModelInferrer.VAR_PREVIOUS_STATE), oldThingStatus.toString());
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.model.rule.runtime.internal.engine;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.smarthome.automation.RuleProfiler;
+import org.eclipse.smarthome.model.rule.rules.Rule;
+
+/**
+ * Makes the {@link RuleProfiler} available to the DSL rule executions, including the Quartz jobs of timer based rules
+ * which are not managed by DS.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+final class RuleProfiling {
+
+    private static volatile RuleProfiler profiler;
+
+    private RuleProfiling() {
+    }
+
+    static synchronized void setProfiler(RuleProfiler ruleProfiler) {
+        profiler = ruleProfiler;
+    }
+
+    /**
+     * Removes the given {@link RuleProfiler}, unless another one has been set meanwhile.
+     *
+     * @param ruleProfiler the {@link RuleProfiler} that is going away
+     */
+    static synchronized void unsetProfiler(RuleProfiler ruleProfiler) {
+        if (profiler == ruleProfiler) {
+            profiler = null;
+        }
+    }
+
+    /**
+     * Returns the {@link RuleProfiler} only if it is enabled, so that no timestamps are taken otherwise.
+     *
+     * @return the enabled {@link RuleProfiler} or null
+     */
+    static RuleProfiler getActiveProfiler() {
+        RuleProfiler ruleProfiler = profiler;
+        return ruleProfiler != null && ruleProfiler.isEnabled() ? ruleProfiler : null;
+    }
+
+    /**
+     * Returns the UID under which the executions of a DSL rule are profiled.
+     *
+     * @param modelName the name of the rule model (= rule file)
+     * @param ruleName the name of the rule within the model
+     * @return the UID of the rule
+     */
+    static String getRuleUID(String modelName, String ruleName) {
+        return modelName + ":" + ruleName;
+    }
+
+    /**
+     * Returns the UID under which the executions of a DSL rule are profiled.
+     *
+     * @param rule the rule
+     * @return the UID of the rule or null if the rule has been removed from its model, e.g. by a reload
+     */
+    static String getRuleUID(Rule rule) {
+        Resource resource = rule.eResource();
+        if (resource == null) {
+            return null;
+        }
+        return getRuleUID(resource.getURI().path(), rule.getName());
+    }
+
+}
@@ -16,15 +16,23 @@ import static org.eclipse.smarthome.model.rule.runtime.internal.engine.RuleTrigg
 import static org.quartz.JobBuilder.newJob;
 import static org.quartz.TriggerBuilder.newTrigger;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.eclipse.emf.ecore.util.EcoreUtil;
@@ -49,6 +57,9 @@ import org.eclipse.smarthome.model.rule.rules.ThingStateChangedEventTrigger;
 import org.eclipse.smarthome.model.rule.rules.ThingStateUpdateEventTrigger;
 import org.eclipse.smarthome.model.rule.rules.TimerTrigger;
 import org.eclipse.smarthome.model.rule.rules.UpdateEventTrigger;
+import org.eclipse.smarthome.model.rule.rules.ValidCommand;
+import org.eclipse.smarthome.model.rule.rules.ValidState;
+import org.eclipse.smarthome.model.rule.rules.ValidTrigger;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.Job;
 import org.quartz.JobDetail;
@@ -67,6 +78,7 @@ import com.google.inject.Injector;
  * This is a helper class which deals with everything about rule triggers.
  * It keeps lists of which rule must be executed for which trigger and takes
  * over the evaluation of states and trigger conditions for the rule engine.
+ * The lookup index is safe for concurrent lookups, only modifications are synchronized.
  *
  * @author Kai Kreuzer - Initial contribution and API
  *
@@ -90,18 +102,23 @@ public class RuleTriggerManager {
     // Group name prefix for maps
     private static final String GROUP_NAME_PREFIX = "*GROUP*";
 
-    // lookup maps for different triggering conditions
-    private final Map<String, Set<Rule>> updateEventTriggeredRules = new HashMap<>();
-    private final Map<String, Set<Rule>> changedEventTriggeredRules = new HashMap<>();
-    private final Map<String, Set<Rule>> commandEventTriggeredRules = new HashMap<>();
-    private final Map<String, Set<Rule>> thingUpdateEventTriggeredRules = new HashMap<>();
-    private final Map<String, Set<Rule>> thingChangedEventTriggeredRules = new HashMap<>();
-    // Maps from channelName -> Rules
-    private final Map<String, Set<Rule>> triggerEventTriggeredRules = new HashMap<>();
+    // Value key for triggers that fire for any state, command, event or status
+    private static final String ANY_VALUE = "*ANY*";
+
+    // lookup index for the event based triggers:
+    // item name (or group name prefixed with GROUP_NAME_PREFIX), channel UID or thing UID
+    // -> trigger type
+    // -> state, command, event or status of the trigger (or ANY_VALUE)
+    // -> triggers
+    private final Map<String, Map<TriggerTypes, Map<String, Set<RuleTrigger>>>> index = new ConcurrentHashMap<>();
     private final Set<Rule> systemStartupTriggeredRules = new CopyOnWriteArraySet<>();
     private final Set<Rule> systemShutdownTriggeredRules = new CopyOnWriteArraySet<>();
     private final Set<Rule> timerEventTriggeredRules = new CopyOnWriteArraySet<>();
 
+    // parsed trigger values, mapped by the accepted types of the item and the trigger value
+    private final Map<Entry<?, String>, Optional<State>> parsedStates = new ConcurrentHashMap<>();
+    private final Map<Entry<?, String>, Optional<Command>> parsedCommands = new ConcurrentHashMap<>();
+
     // the scheduler used for timer events
     private Scheduler scheduler;
 
@@ -136,28 +153,15 @@ public class RuleTriggerManager {
                 result = timerEventTriggeredRules;
                 break;
             case UPDATE:
-                result = updateEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-                break;
             case CHANGE:
-                result = changedEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-                break;
             case COMMAND:
-                result = commandEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-                break;
             case TRIGGER:
-                result = triggerEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-                break;
             case THINGUPDATE:
-                result = thingUpdateEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
-                break;
             case THINGCHANGE:
-                result = thingChangedEventTriggeredRules.values().stream().flatMap(Collection::stream)
-                        .collect(Collectors.toList());
+                result = index.values().stream().map(triggerTypes -> triggerTypes.get(type))
+                        .filter(Objects::nonNull).flatMap(values -> values.values().stream())
+                        .flatMap(Collection::stream).map(ruleTrigger -> ruleTrigger.rule)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
                 break;
             default:
                 result = new HashSet<>();
@@ -218,33 +222,17 @@ public class RuleTriggerManager {
      * @return all rules for which the trigger condition is true
      */
     public Iterable<Rule> getRules(TriggerTypes triggerType, String channel, String event) {
-        List<Rule> result = new ArrayList<>();
-
         switch (triggerType) {
             case TRIGGER:
-                Set<Rule> rules = triggerEventTriggeredRules.get(channel);
-                if (rules == null) {
-                    return Collections.emptyList();
-                }
-                for (Rule rule : rules) {
-                    for (EventTrigger t : rule.getEventtrigger()) {
-                        if (t instanceof EventEmittedTrigger) {
-                            EventEmittedTrigger et = (EventEmittedTrigger) t;
-
-                            if (et.getChannel().equals(channel)
-                                    && (et.getTrigger() == null || et.getTrigger().getValue().equals(event))) {
-                                // if the rule does not have a specific event , execute it on any event
-                                result.add(rule);
-                            }
-                        }
-                    }
-                }
-                break;
+                List<Rule> result = new ArrayList<>();
+                Map<String, Set<RuleTrigger>> values = lookup(channel, TRIGGER);
+                // if the rule does not have a specific event, execute it on any event
+                addRules(values.get(event), null, result);
+                addRules(values.get(ANY_VALUE), null, result);
+                return result;
             default:
                 return Collections.emptyList();
         }
-
-        return result;
     }
 
     public Iterable<Rule> getRules(TriggerTypes triggerType, String thingUid, ThingStatus state) {
@@ -256,148 +244,62 @@ public class RuleTriggerManager {
         return internalGetThingRules(triggerType, thingUid, oldState, newState);
     }
 
-    private Iterable<Rule> getAllRules(TriggerTypes type, String name) {
-        Iterable<Rule> rules = null;
-        switch (type) {
-            case STARTUP:
-                rules = systemStartupTriggeredRules;
-                break;
-            case SHUTDOWN:
-                rules = systemShutdownTriggeredRules;
-                break;
-            case UPDATE:
-                rules = updateEventTriggeredRules.get(name);
-                break;
-            case CHANGE:
-                rules = changedEventTriggeredRules.get(name);
-                break;
-            case COMMAND:
-                rules = commandEventTriggeredRules.get(name);
-                break;
-            case THINGUPDATE:
-                rules = thingUpdateEventTriggeredRules.get(name);
-                break;
-            case THINGCHANGE:
-                rules = thingChangedEventTriggeredRules.get(name);
-                break;
-            default:
-                break;
-        }
-        if (rules == null) {
-            rules = Collections.emptySet();
+    /**
+     * Returns the triggers of the given type for an item, group, channel or thing, mapped by their trigger value.
+     */
+    private Map<String, Set<RuleTrigger>> lookup(String name, TriggerTypes type) {
+        Map<TriggerTypes, Map<String, Set<RuleTrigger>>> triggerTypes = index.get(name);
+        if (triggerTypes == null) {
+            return Collections.emptyMap();
         }
-        return rules;
+        Map<String, Set<RuleTrigger>> values = triggerTypes.get(type);
+        return values == null ? Collections.emptyMap() : values;
     }
 
-    private void internalGetUpdateRules(String name, Boolean isGroup, List<Class<? extends State>> acceptedDataTypes,
-            State state, List<Rule> result) {
-        final String mapName = (isGroup) ? GROUP_NAME_PREFIX + name : name;
-        for (Rule rule : getAllRules(UPDATE, mapName)) {
-            for (EventTrigger t : rule.getEventtrigger()) {
-                String triggerStateString = null;
-                if ((!isGroup) && (t instanceof UpdateEventTrigger)) {
-                    final UpdateEventTrigger ut = (UpdateEventTrigger) t;
-                    if (ut.getItem().equals(name)) {
-                        triggerStateString = ut.getState() != null ? ut.getState().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else if ((isGroup) && (t instanceof GroupMemberUpdateEventTrigger)) {
-                    final GroupMemberUpdateEventTrigger gmut = (GroupMemberUpdateEventTrigger) t;
-                    if (gmut.getGroup().equals(name)) {
-                        triggerStateString = gmut.getState() != null ? gmut.getState().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else {
-                    continue;
-                }
-                if (triggerStateString != null) {
-                    final State triggerState = TypeParser.parseState(acceptedDataTypes, triggerStateString);
-                    if (!state.equals(triggerState)) {
-                        continue;
-                    }
+    /**
+     * Adds the rules of the given triggers to the result. If an old value is given, only rules of triggers that have
+     * no old value or match the old value are added.
+     */
+    private void addRules(Set<RuleTrigger> ruleTriggers, Predicate<String> oldValueMatcher, List<Rule> result) {
+        if (ruleTriggers != null) {
+            for (RuleTrigger ruleTrigger : ruleTriggers) {
+                if (ruleTrigger.oldValue == null || oldValueMatcher == null
+                        || oldValueMatcher.test(ruleTrigger.oldValue)) {
+                    result.add(ruleTrigger.rule);
                 }
-                result.add(rule);
             }
         }
     }
 
-    private void internalGetChangeRules(String name, Boolean isGroup, List<Class<? extends State>> acceptedDataTypes,
-            State newState, State oldState, List<Rule> result) {
-        final String mapName = (isGroup) ? GROUP_NAME_PREFIX + name : name;
-        for (Rule rule : getAllRules(CHANGE, mapName)) {
-            for (EventTrigger t : rule.getEventtrigger()) {
-                String triggerOldStateString = null;
-                String triggerNewStateString = null;
-                if ((!isGroup) && (t instanceof ChangedEventTrigger)) {
-                    final ChangedEventTrigger ct = (ChangedEventTrigger) t;
-                    if (ct.getItem().equals(name)) {
-                        triggerOldStateString = ct.getOldState() != null ? ct.getOldState().getValue() : null;
-                        triggerNewStateString = ct.getNewState() != null ? ct.getNewState().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else if ((isGroup) && (t instanceof GroupMemberChangedEventTrigger)) {
-                    final GroupMemberChangedEventTrigger gmct = (GroupMemberChangedEventTrigger) t;
-                    if (gmct.getGroup().equals(name)) {
-                        triggerOldStateString = gmct.getOldState() != null ? gmct.getOldState().getValue() : null;
-                        triggerNewStateString = gmct.getNewState() != null ? gmct.getNewState().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else {
-                    continue;
-                }
-                if (triggerOldStateString != null) {
-                    final State triggerOldState = TypeParser.parseState(acceptedDataTypes, triggerOldStateString);
-                    if (!oldState.equals(triggerOldState)) {
-                        continue;
-                    }
-                }
-                if (triggerNewStateString != null) {
-                    final State triggerNewState = TypeParser.parseState(acceptedDataTypes, triggerNewStateString);
-                    if (!newState.equals(triggerNewState)) {
-                        continue;
-                    }
-                }
-                result.add(rule);
+    /**
+     * Adds the rules of all triggers of the given type for an item or group whose trigger value matches the given
+     * state or command.
+     */
+    private void internalGetItemRules(String name, TriggerTypes type, Function<String, Type> parser, Type value,
+            Predicate<String> oldValueMatcher, List<Rule> result) {
+        for (Entry<String, Set<RuleTrigger>> entry : lookup(name, type).entrySet()) {
+            if (ANY_VALUE.equals(entry.getKey()) || value.equals(parser.apply(entry.getKey()))) {
+                addRules(entry.getValue(), oldValueMatcher, result);
             }
         }
     }
 
-    private void internalGetCommandRules(String name, Boolean isGroup,
-            List<Class<? extends Command>> acceptedCommandTypes, Command command, List<Rule> result) {
-        final String mapName = (isGroup) ? GROUP_NAME_PREFIX + name : name;
-        for (Rule rule : getAllRules(COMMAND, mapName)) {
-            for (final EventTrigger t : rule.getEventtrigger()) {
-                String triggerCommandString = null;
-                if ((!isGroup) && (t instanceof CommandEventTrigger)) {
-                    final CommandEventTrigger ct = (CommandEventTrigger) t;
-                    if (ct.getItem().equals(name)) {
-                        triggerCommandString = ct.getCommand()!=null?ct.getCommand().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else if ((isGroup) && (t instanceof GroupMemberCommandEventTrigger)) {
-                    final GroupMemberCommandEventTrigger gmct = (GroupMemberCommandEventTrigger) t;
-                    if (gmct.getGroup().equals(name)) {
-                        triggerCommandString = gmct.getCommand() != null ? gmct.getCommand().getValue() : null;
-                    } else {
-                        continue;
-                    }
-                } else {
-                    continue;
-                }
-                if (triggerCommandString != null) {
-                    final Command triggerCommand = TypeParser.parseCommand(acceptedCommandTypes, triggerCommandString);
-                    if (!command.equals(triggerCommand)) {
-                        continue;
-                    }
-                }
-                result.add(rule);
-            }
-        }
+    /**
+     * Parses the value of a trigger to a state of one of the accepted types of an item. As trigger values are static,
+     * the parsed states are cached.
+     */
+    private State parseState(List<Class<? extends State>> acceptedDataTypes, String value) {
+        return parsedStates.computeIfAbsent(new SimpleImmutableEntry<>(acceptedDataTypes, value),
+                key -> Optional.ofNullable(TypeParser.parseState(acceptedDataTypes, value))).orElse(null);
+    }
+
+    /**
+     * Parses the value of a trigger to a command of one of the accepted types of an item. As trigger values are
+     * static, the parsed commands are cached.
+     */
+    private Command parseCommand(List<Class<? extends Command>> acceptedCommandTypes, String value) {
+        return parsedCommands.computeIfAbsent(new SimpleImmutableEntry<>(acceptedCommandTypes, value),
+                key -> Optional.ofNullable(TypeParser.parseCommand(acceptedCommandTypes, value))).orElse(null);
     }
 
     private Iterable<Rule> internalGetRules(TriggerTypes triggerType, Item item, Type oldType, Type newType) {
@@ -412,31 +314,32 @@ public class RuleTriggerManager {
             case UPDATE:
                 if (newType instanceof State) {
                     List<Class<? extends State>> acceptedDataTypes = item.getAcceptedDataTypes();
-                    final State state = (State) newType;
-                    internalGetUpdateRules(item.getName(), false, acceptedDataTypes, state, result);
+                    Function<String, Type> parser = value -> parseState(acceptedDataTypes, value);
+                    internalGetItemRules(item.getName(), UPDATE, parser, newType, null, result);
                     for (String groupName : item.getGroupNames()) {
-                        internalGetUpdateRules(groupName, true, acceptedDataTypes, state, result);
+                        internalGetItemRules(GROUP_NAME_PREFIX + groupName, UPDATE, parser, newType, null, result);
                     }
                 }
                 break;
             case CHANGE:
                 if (newType instanceof State && oldType instanceof State) {
                     List<Class<? extends State>> acceptedDataTypes = item.getAcceptedDataTypes();
-                    final State newState = (State) newType;
-                    final State oldState = (State) oldType;
-                    internalGetChangeRules(item.getName(), false, acceptedDataTypes, newState, oldState, result);
+                    Function<String, Type> parser = value -> parseState(acceptedDataTypes, value);
+                    Predicate<String> oldStateMatcher = oldValue -> oldType.equals(parser.apply(oldValue));
+                    internalGetItemRules(item.getName(), CHANGE, parser, newType, oldStateMatcher, result);
                     for (String groupName : item.getGroupNames()) {
-                        internalGetChangeRules(groupName, true, acceptedDataTypes, newState, oldState, result);
+                        internalGetItemRules(GROUP_NAME_PREFIX + groupName, CHANGE, parser, newType, oldStateMatcher,
+                                result);
                     }
                 }
                 break;
             case COMMAND:
                 if (newType instanceof Command) {
                     List<Class<? extends Command>> acceptedCommandTypes = item.getAcceptedCommandTypes();
-                    final Command command = (Command) newType;
-                    internalGetCommandRules(item.getName(), false, acceptedCommandTypes, command, result);
+                    Function<String, Type> parser = value -> parseCommand(acceptedCommandTypes, value);
+                    internalGetItemRules(item.getName(), COMMAND, parser, newType, null, result);
                     for (String groupName : item.getGroupNames()) {
-                        internalGetCommandRules(groupName, true, acceptedCommandTypes, command, result);
+                        internalGetItemRules(GROUP_NAME_PREFIX + groupName, COMMAND, parser, newType, null, result);
                     }
                 }
                 break;
@@ -449,54 +352,17 @@ public class RuleTriggerManager {
     private Iterable<Rule> internalGetThingRules(TriggerTypes triggerType, String thingUid, ThingStatus oldStatus,
             ThingStatus newStatus) {
         List<Rule> result = new ArrayList<>();
-        Iterable<Rule> rules = getAllRules(triggerType, thingUid);
+        Map<String, Set<RuleTrigger>> values = lookup(thingUid, triggerType);
 
         switch (triggerType) {
             case THINGUPDATE:
-                for (Rule rule : rules) {
-                    for (EventTrigger t : rule.getEventtrigger()) {
-                        if (t instanceof ThingStateUpdateEventTrigger) {
-                            ThingStateUpdateEventTrigger tt = (ThingStateUpdateEventTrigger) t;
-                            if (tt.getThing().equals(thingUid)) {
-                                String stateString = tt.getState();
-                                if (stateString != null) {
-                                    ThingStatus triggerState = ThingStatus.valueOf(stateString);
-                                    if (!newStatus.equals(triggerState)) {
-                                        continue;
-                                    }
-                                }
-                                result.add(rule);
-                            }
-                        }
-                    }
-                }
+                addRules(values.get(newStatus.name()), null, result);
+                addRules(values.get(ANY_VALUE), null, result);
                 break;
             case THINGCHANGE:
-                for (Rule rule : rules) {
-                    for (EventTrigger t : rule.getEventtrigger()) {
-                        if (t instanceof ThingStateChangedEventTrigger) {
-                            ThingStateChangedEventTrigger ct = (ThingStateChangedEventTrigger) t;
-                            if (ct.getThing().equals(thingUid)) {
-                                String oldStatusString = ct.getOldState();
-                                if (oldStatusString != null) {
-                                    ThingStatus triggerOldState = ThingStatus.valueOf(oldStatusString);
-                                    if (!oldStatus.equals(triggerOldState)) {
-                                        continue;
-                                    }
-                                }
-
-                                String newStatusString = ct.getNewState();
-                                if (newStatusString != null) {
-                                    ThingStatus triggerNewState = ThingStatus.valueOf(newStatusString);
-                                    if (!newStatus.equals(triggerNewState)) {
-                                        continue;
-                                    }
-                                }
-                                result.add(rule);
-                            }
-                        }
-                    }
-                }
+                Predicate<String> oldStatusMatcher = oldValue -> oldStatus.name().equals(oldValue);
+                addRules(values.get(newStatus.name()), oldStatusMatcher, result);
+                addRules(values.get(ANY_VALUE), oldStatusMatcher, result);
                 break;
             default:
                 break;
@@ -509,7 +375,7 @@ public class RuleTriggerManager {
      *
      * @param type the trigger type
      */
-    public void clear(TriggerTypes type) {
+    public synchronized void clear(TriggerTypes type) {
         switch (type) {
             case STARTUP:
                 systemStartupTriggeredRules.clear();
@@ -517,29 +383,17 @@ public class RuleTriggerManager {
             case SHUTDOWN:
                 systemShutdownTriggeredRules.clear();
                 break;
-            case UPDATE:
-                updateEventTriggeredRules.clear();
-                break;
-            case CHANGE:
-                changedEventTriggeredRules.clear();
-                break;
-            case COMMAND:
-                commandEventTriggeredRules.clear();
-                break;
-            case TRIGGER:
-                triggerEventTriggeredRules.clear();
-                break;
             case TIMER:
                 for (Rule rule : timerEventTriggeredRules) {
                     removeTimerRule(rule);
                 }
                 timerEventTriggeredRules.clear();
                 break;
-            case THINGUPDATE:
-                thingUpdateEventTriggeredRules.clear();
-                break;
-            case THINGCHANGE:
-                thingChangedEventTriggeredRules.clear();
+            default:
+                for (Map<TriggerTypes, Map<String, Set<RuleTrigger>>> triggerTypes : index.values()) {
+                    triggerTypes.remove(type);
+                }
+                index.values().removeIf(Map::isEmpty);
                 break;
         }
     }
@@ -547,7 +401,7 @@ public class RuleTriggerManager {
     /**
      * Removes all rules from all mapping tables.
      */
-    public void clearAll() {
+    public synchronized void clearAll() {
         clear(STARTUP);
         clear(SHUTDOWN);
         clear(UPDATE);
@@ -557,6 +411,8 @@ public class RuleTriggerManager {
         clear(TRIGGER);
         clear(THINGUPDATE);
         clear(THINGCHANGE);
+        parsedStates.clear();
+        parsedCommands.clear();
     }
 
     /**
@@ -573,52 +429,27 @@ public class RuleTriggerManager {
                 systemShutdownTriggeredRules.add(rule);
             } else if (t instanceof CommandEventTrigger) {
                 CommandEventTrigger ceTrigger = (CommandEventTrigger) t;
-                Set<Rule> rules = commandEventTriggeredRules.get(ceTrigger.getItem());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    commandEventTriggeredRules.put(ceTrigger.getItem(), rules);
-                }
-                rules.add(rule);
+                addToIndex(ceTrigger.getItem(), COMMAND,
+                        new RuleTrigger(rule, t, valueOf(ceTrigger.getCommand()), null));
             } else if (t instanceof GroupMemberCommandEventTrigger) {
                 GroupMemberCommandEventTrigger gmceTrigger = (GroupMemberCommandEventTrigger) t;
-                Set<Rule> rules = commandEventTriggeredRules.get(GROUP_NAME_PREFIX + gmceTrigger.getGroup());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    commandEventTriggeredRules.put(GROUP_NAME_PREFIX + gmceTrigger.getGroup(), rules);
-                }
-                rules.add(rule);
+                addToIndex(GROUP_NAME_PREFIX + gmceTrigger.getGroup(), COMMAND,
+                        new RuleTrigger(rule, t, valueOf(gmceTrigger.getCommand()), null));
             } else if (t instanceof UpdateEventTrigger) {
                 UpdateEventTrigger ueTrigger = (UpdateEventTrigger) t;
-                Set<Rule> rules = updateEventTriggeredRules.get(ueTrigger.getItem());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    updateEventTriggeredRules.put(ueTrigger.getItem(), rules);
-                }
-                rules.add(rule);
+                addToIndex(ueTrigger.getItem(), UPDATE, new RuleTrigger(rule, t, valueOf(ueTrigger.getState()), null));
             } else if (t instanceof GroupMemberUpdateEventTrigger) {
                 GroupMemberUpdateEventTrigger gmueTrigger = (GroupMemberUpdateEventTrigger) t;
-                Set<Rule> rules = updateEventTriggeredRules.get(GROUP_NAME_PREFIX + gmueTrigger.getGroup());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    updateEventTriggeredRules.put(GROUP_NAME_PREFIX + gmueTrigger.getGroup(), rules);
-                }
-                rules.add(rule);
+                addToIndex(GROUP_NAME_PREFIX + gmueTrigger.getGroup(), UPDATE,
+                        new RuleTrigger(rule, t, valueOf(gmueTrigger.getState()), null));
             } else if (t instanceof ChangedEventTrigger) {
                 ChangedEventTrigger ceTrigger = (ChangedEventTrigger) t;
-                Set<Rule> rules = changedEventTriggeredRules.get(ceTrigger.getItem());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    changedEventTriggeredRules.put(ceTrigger.getItem(), rules);
-                }
-                rules.add(rule);
+                addToIndex(ceTrigger.getItem(), CHANGE, new RuleTrigger(rule, t, valueOf(ceTrigger.getNewState()),
+                        valueOf(ceTrigger.getOldState())));
             } else if (t instanceof GroupMemberChangedEventTrigger) {
                 GroupMemberChangedEventTrigger gmceTrigger = (GroupMemberChangedEventTrigger) t;
-                Set<Rule> rules = changedEventTriggeredRules.get(GROUP_NAME_PREFIX + gmceTrigger.getGroup());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    changedEventTriggeredRules.put(GROUP_NAME_PREFIX + gmceTrigger.getGroup(), rules);
-                }
-                rules.add(rule);
+                addToIndex(GROUP_NAME_PREFIX + gmceTrigger.getGroup(), CHANGE, new RuleTrigger(rule, t,
+                        valueOf(gmceTrigger.getNewState()), valueOf(gmceTrigger.getOldState())));
             } else if (t instanceof TimerTrigger) {
                 try {
                     createTimer(rule, (TimerTrigger) t);
@@ -628,30 +459,64 @@ public class RuleTriggerManager {
                 }
             } else if (t instanceof EventEmittedTrigger) {
                 EventEmittedTrigger eeTrigger = (EventEmittedTrigger) t;
-                Set<Rule> rules = triggerEventTriggeredRules.get(eeTrigger.getChannel());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    triggerEventTriggeredRules.put(eeTrigger.getChannel(), rules);
-                }
-                rules.add(rule);
+                addToIndex(eeTrigger.getChannel(), TRIGGER,
+                        new RuleTrigger(rule, t, valueOf(eeTrigger.getTrigger()), null));
             } else if (t instanceof ThingStateUpdateEventTrigger) {
                 ThingStateUpdateEventTrigger tsuTrigger = (ThingStateUpdateEventTrigger) t;
-                Set<Rule> rules = thingUpdateEventTriggeredRules.get(tsuTrigger.getThing());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    thingUpdateEventTriggeredRules.put(tsuTrigger.getThing(), rules);
-                }
-                rules.add(rule);
+                addToIndex(tsuTrigger.getThing(), THINGUPDATE, new RuleTrigger(rule, t, tsuTrigger.getState(), null));
             } else if (t instanceof ThingStateChangedEventTrigger) {
                 ThingStateChangedEventTrigger tscTrigger = (ThingStateChangedEventTrigger) t;
-                Set<Rule> rules = thingChangedEventTriggeredRules.get(tscTrigger.getThing());
-                if (rules == null) {
-                    rules = new HashSet<Rule>();
-                    thingChangedEventTriggeredRules.put(tscTrigger.getThing(), rules);
+                addToIndex(tscTrigger.getThing(), THINGCHANGE,
+                        new RuleTrigger(rule, t, tscTrigger.getNewState(), tscTrigger.getOldState()));
+            }
+        }
+    }
+
+    private static String valueOf(ValidState state) {
+        return state != null ? state.getValue() : null;
+    }
+
+    private static String valueOf(ValidCommand command) {
+        return command != null ? command.getValue() : null;
+    }
+
+    private static String valueOf(ValidTrigger trigger) {
+        return trigger != null ? trigger.getValue() : null;
+    }
+
+    private void addToIndex(String name, TriggerTypes type, RuleTrigger ruleTrigger) {
+        String value = ruleTrigger.value != null ? ruleTrigger.value : ANY_VALUE;
+        index.computeIfAbsent(name, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(value, v -> new CopyOnWriteArraySet<>()).add(ruleTrigger);
+    }
+
+    /**
+     * Removes all triggers of the given type matching the filter from the index and cleans up empty entries.
+     *
+     * @return the rules of the removed triggers
+     */
+    private Set<Rule> removeFromIndex(TriggerTypes type, Predicate<RuleTrigger> filter) {
+        Set<Rule> removedRules = new HashSet<>();
+        for (Map<TriggerTypes, Map<String, Set<RuleTrigger>>> triggerTypes : index.values()) {
+            Map<String, Set<RuleTrigger>> values = triggerTypes.get(type);
+            if (values != null) {
+                for (Set<RuleTrigger> ruleTriggers : values.values()) {
+                    for (RuleTrigger ruleTrigger : ruleTriggers) {
+                        if (filter.test(ruleTrigger)) {
+                            ruleTriggers.remove(ruleTrigger);
+                            removedRules.add(ruleTrigger.rule);
+                        }
+                    }
+                }
+                values.values().removeIf(Set::isEmpty);
+                if (values.isEmpty()) {
+                    triggerTypes.remove(type);
                 }
-                rules.add(rule);
             }
         }
+        index.values().removeIf(Map::isEmpty);
+        return removedRules;
     }
 
     /**
@@ -660,7 +525,7 @@ public class RuleTriggerManager {
      * @param type the trigger type for which the rule should be removed
      * @param rule the rule to add
      */
-    public void removeRule(TriggerTypes type, Rule rule) {
+    public synchronized void removeRule(TriggerTypes type, Rule rule) {
         switch (type) {
             case STARTUP:
                 systemStartupTriggeredRules.remove(rule);
@@ -668,39 +533,12 @@ public class RuleTriggerManager {
             case SHUTDOWN:
                 systemShutdownTriggeredRules.remove(rule);
                 break;
-            case UPDATE:
-                for (Set<Rule> rules : updateEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
-                break;
-            case CHANGE:
-                for (Set<Rule> rules : changedEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
-                break;
-            case COMMAND:
-                for (Set<Rule> rules : commandEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
-                break;
-            case TRIGGER:
-                for (Set<Rule> rules : triggerEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
-                break;
             case TIMER:
                 timerEventTriggeredRules.remove(rule);
                 removeTimerRule(rule);
                 break;
-            case THINGUPDATE:
-                for (Set<Rule> rules : thingUpdateEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
-                break;
-            case THINGCHANGE:
-                for (Set<Rule> rules : thingChangedEventTriggeredRules.values()) {
-                    rules.remove(rule);
-                }
+            default:
+                removeFromIndex(type, ruleTrigger -> ruleTrigger.rule.equals(rule));
                 break;
         }
     }
@@ -722,55 +560,85 @@ public class RuleTriggerManager {
      * @param ruleModel the rule model
      */
     public void removeRuleModel(RuleModel ruleModel) {
-        removeRules(UPDATE, updateEventTriggeredRules.values(), ruleModel);
-        removeRules(CHANGE, changedEventTriggeredRules.values(), ruleModel);
-        removeRules(COMMAND, commandEventTriggeredRules.values(), ruleModel);
-        removeRules(TRIGGER, triggerEventTriggeredRules.values(), ruleModel);
-        removeRules(STARTUP, Collections.singletonList(systemStartupTriggeredRules), ruleModel);
-        removeRules(SHUTDOWN, Collections.singletonList(systemShutdownTriggeredRules), ruleModel);
-        removeRules(TIMER, Collections.singletonList(timerEventTriggeredRules), ruleModel);
-        removeRules(THINGUPDATE, thingUpdateEventTriggeredRules.values(), ruleModel);
-        removeRules(THINGCHANGE, thingChangedEventTriggeredRules.values(), ruleModel);
-    }
-
-    private void removeRules(TriggerTypes type, Collection<? extends Collection<Rule>> ruleSets, RuleModel model) {
-        for (Collection<Rule> ruleSet : ruleSets) {
-            Set<Rule> clonedSet = new HashSet<Rule>(ruleSet);
-            // first remove all rules of the model, if not null (=non-existent)
-            if (model != null) {
-                for (Rule newRule : model.getRules()) {
-                    for (Rule oldRule : clonedSet) {
-                        if (newRule.getName().equals(oldRule.getName())) {
-                            ruleSet.remove(oldRule);
-                            if (type == TIMER) {
-                                removeTimerRule(oldRule);
-                            }
-                        }
-                    }
+        removeRuleModel(ruleModel, Collections.emptySet());
+    }
+
+    /**
+     * Updates the mapping tables for a modified model (file).
+     * Only the rules of this model are replaced in the mapping tables. Timers of rules with unchanged timer triggers
+     * are kept scheduled, only timers that are not part of the model anymore are removed and new ones are created.
+     *
+     * @param ruleModel the modified rule model
+     */
+    public synchronized void updateRuleModel(RuleModel ruleModel) {
+        Set<String> jobIdentities = new HashSet<>();
+        for (Rule rule : ruleModel.getRules()) {
+            for (EventTrigger t : rule.getEventtrigger()) {
+                if (t instanceof TimerTrigger) {
+                    jobIdentities.add(getJobIdentityString(rule, (TimerTrigger) t));
                 }
             }
+        }
+        removeRuleModel(ruleModel, jobIdentities);
+        removeObsoleteTimers(ruleModel, jobIdentities);
+        addRuleModel(ruleModel);
+    }
 
-            // now also remove all proxified rules from the set
-            clonedSet = new HashSet<Rule>(ruleSet);
-            for (Rule rule : clonedSet) {
-                if (rule.eResource() == null) {
-                    ruleSet.remove(rule);
-                    if (type == TIMER) {
-                        removeTimerRule(rule);
-                    }
-                }
+    private synchronized void removeRuleModel(RuleModel ruleModel, Set<String> keptJobIdentities) {
+        Set<String> ruleNames = new HashSet<>();
+        if (ruleModel != null) {
+            for (Rule rule : ruleModel.getRules()) {
+                ruleNames.add(rule.getName());
+            }
+        }
+        // remove all rules of the model and all proxified rules
+        Predicate<Rule> filter = rule -> ruleNames.contains(rule.getName()) || rule.eResource() == null;
+
+        for (TriggerTypes type : EnumSet.of(UPDATE, CHANGE, COMMAND, TRIGGER, THINGUPDATE, THINGCHANGE)) {
+            removeFromIndex(type, ruleTrigger -> filter.test(ruleTrigger.rule));
+        }
+        systemStartupTriggeredRules.removeIf(filter);
+        systemShutdownTriggeredRules.removeIf(filter);
+        for (Rule rule : timerEventTriggeredRules) {
+            if (filter.test(rule)) {
+                timerEventTriggeredRules.remove(rule);
+                removeTimerRule(rule, keptJobIdentities);
             }
         }
     }
 
     private void removeTimerRule(Rule rule) {
+        removeTimerRule(rule, Collections.emptySet());
+    }
+
+    private void removeTimerRule(Rule rule, Set<String> keptJobIdentities) {
         try {
-            removeTimer(rule);
+            removeTimer(rule, keptJobIdentities);
         } catch (SchedulerException e) {
             logger.error("Cannot remove timer for rule '{}'", rule.getName(), e);
         }
     }
 
+    /**
+     * Removes the timers of all rules of the model (file) that are not in the given set of job identities anymore,
+     * e.g. because the rule has been removed from the file or its timer trigger has been changed.
+     */
+    private void removeObsoleteTimers(RuleModel ruleModel, Set<String> keptJobIdentities) {
+        if (ruleModel.eResource() == null) {
+            return;
+        }
+        String prefix = ruleModel.eResource().getURI().toString() + "#";
+        try {
+            for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(Scheduler.DEFAULT_GROUP))) {
+                if (jobKey.getName().startsWith(prefix) && !keptJobIdentities.contains(jobKey.getName())) {
+                    deleteJob(jobKey);
+                }
+            }
+        } catch (SchedulerException e) {
+            logger.error("Cannot remove obsolete timers of model '{}'", ruleModel.eResource().getURI(), e);
+        }
+    }
+
     /**
      * Creates and schedules a new quartz-job and trigger with model and rule name as jobData.
      *
@@ -794,6 +662,12 @@ public class RuleTriggerManager {
 
         String jobIdentity = getJobIdentityString(rule, trigger);
 
+        if (scheduler.checkExists(JobKey.jobKey(jobIdentity))) {
+            // the timer of an unchanged rule is still scheduled, keep it instead of restarting it
+            logger.debug("Keeping scheduled rule '{}' with cron expression '{}'", rule.getName(), cronExpression);
+            return;
+        }
+
         try {
             JobDetail job = newJob(ExecuteRuleJob.class)
                     .usingJobData(ExecuteRuleJob.JOB_DATA_RULEMODEL, rule.eResource().getURI().path())
@@ -808,25 +682,30 @@ public class RuleTriggerManager {
     }
 
     /**
-     * Delete all {@link Job}s of the DEFAULT group whose name starts with <code>rule.getName()</code>.
+     * Delete all {@link Job}s of the DEFAULT group whose name starts with <code>rule.getName()</code>, except the ones
+     * whose name is in the given set of job identities.
      *
      * @throws SchedulerException if there is an internal Scheduler error.
      */
-    private void removeTimer(Rule rule) throws SchedulerException {
+    private void removeTimer(Rule rule, Set<String> keptJobIdentities) throws SchedulerException {
         Set<JobKey> jobKeys = scheduler.getJobKeys(GroupMatcher.jobGroupEquals(Scheduler.DEFAULT_GROUP));
         for (JobKey jobKey : jobKeys) {
             String jobIdentityString = getJobIdentityString(rule, null);
-            if (jobKey.getName().startsWith(jobIdentityString)) {
-                boolean success = scheduler.deleteJob(jobKey);
-                if (!success) {
-                    logger.warn("Failed to delete cron job '{}'", jobKey.getName());
-                } else {
-                    logger.debug("Removed scheduled cron job '{}'", jobKey.getName());
-                }
+            if (jobKey.getName().startsWith(jobIdentityString) && !keptJobIdentities.contains(jobKey.getName())) {
+                deleteJob(jobKey);
             }
         }
     }
 
+    private void deleteJob(JobKey jobKey) throws SchedulerException {
+        boolean success = scheduler.deleteJob(jobKey);
+        if (!success) {
+            logger.warn("Failed to delete cron job '{}'", jobKey.getName());
+        } else {
+            logger.debug("Removed scheduled cron job '{}'", jobKey.getName());
+        }
+    }
+
     private String getJobIdentityString(Rule rule, TimerTrigger trigger) {
         String jobIdentity = EcoreUtil.getURI(rule).trimFragment().appendFragment(rule.getName()).toString();
         if (trigger != null) {
@@ -846,4 +725,40 @@ public class RuleTriggerManager {
             logger.error("Error while starting the scheduler service: {}", e.getMessage());
         }
     }
+
+    /**
+     * A trigger of a rule, together with the values that need to be checked when the trigger is evaluated.
+     */
+    private static class RuleTrigger {
+        private final Rule rule;
+        private final EventTrigger trigger;
+        // state, new state, command, event or status of the trigger, null if the trigger fires for any value
+        private final String value;
+        // old state or status of a changed trigger, null if the trigger fires for any old value
+        private final String oldValue;
+
+        public RuleTrigger(Rule rule, EventTrigger trigger, String value, String oldValue) {
+            this.rule = rule;
+            this.trigger = trigger;
+            this.value = value;
+            this.oldValue = oldValue;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(rule) + System.identityHashCode(trigger);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof RuleTrigger)) {
+                return false;
+            }
+            RuleTrigger other = (RuleTrigger) obj;
+            return rule == other.rule && trigger == other.trigger;
+        }
+    }
 }
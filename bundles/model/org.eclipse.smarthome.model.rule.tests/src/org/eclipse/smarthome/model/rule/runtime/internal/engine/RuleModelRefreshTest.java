@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.model.rule.runtime.internal.engine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.smarthome.model.core.EventType;
+import org.eclipse.smarthome.model.core.ModelRepository;
+import org.eclipse.smarthome.model.core.ModelRepositoryChangeListener;
+import org.eclipse.smarthome.model.rule.jvmmodel.RulesRefresher;
+import org.eclipse.smarthome.test.java.JavaOSGiTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+
+/**
+ * Tests that only the rule models referring to changed items or things are reloaded and that reloading a rule model
+ * keeps the timers of its unchanged rules.
+ *
+ * @author agent - Initial contribution
+ */
+public class RuleModelRefreshTest extends JavaOSGiTest {
+
+    private static final String KITCHEN_MODEL = "refreshKitchen.rules";
+    private static final String BATHROOM_MODEL = "refreshBathroom.rules";
+    private static final String COMMENT_MODEL = "refreshComment.rules";
+    private static final String CHANNEL_MODEL = "refreshChannel.rules";
+    private static final String TIMER_MODEL = "refreshTimer.rules";
+
+    private ModelRepository modelRepository;
+    private final List<String> modifiedModels = new CopyOnWriteArrayList<>();
+    private final ModelRepositoryChangeListener listener = (modelName, type) -> {
+        if (type == EventType.MODIFIED) {
+            modifiedModels.add(modelName);
+        }
+    };
+
+    @Before
+    public void setup() {
+        modelRepository = getService(ModelRepository.class);
+        assertNotNull(modelRepository);
+        modelRepository.addModelRepositoryChangeListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        modelRepository.removeModelRepositoryChangeListener(listener);
+        for (String name : Arrays.asList(KITCHEN_MODEL, BATHROOM_MODEL, COMMENT_MODEL, CHANNEL_MODEL, TIMER_MODEL)) {
+            modelRepository.removeModel(name);
+        }
+    }
+
+    @Test
+    public void testOnlyModelsReferringToAChangedNameAreReloaded() {
+        loadModel(KITCHEN_MODEL, rule("kitchen", "Item Kitchen_Light received update", "logInfo(\"test\", \"on\")"));
+        loadModel(BATHROOM_MODEL, rule("bathroom", "Item Bathroom_Light received update", "logInfo(\"test\", \"on\")"));
+        modifiedModels.clear();
+
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("Kitchen_Light"));
+        assertEquals(Collections.singletonList(KITCHEN_MODEL), modifiedModels);
+
+        modifiedModels.clear();
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("Unknown_Light"));
+        assertEquals(Collections.emptyList(), modifiedModels);
+    }
+
+    @Test
+    public void testModelsMentioningANameInACommentOrStringAreReloadedToo() {
+        loadModel(KITCHEN_MODEL, rule("kitchen", "Item Kitchen_Light received update", "logInfo(\"test\", \"on\")"));
+        loadModel(COMMENT_MODEL, rule("comment", "Item Other_Light received update",
+                "// Kitchen_Light\n logInfo(\"test\", \"Bathroom_Light\")"));
+        modifiedModels.clear();
+
+        // the referenced names are taken from the text, so a model mentioning a name is reloaded although it does not
+        // refer to the item; this causes a needless reload, but never misses a model that refers to the item
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("Kitchen_Light"));
+        assertEquals(new HashSet<>(Arrays.asList(KITCHEN_MODEL, COMMENT_MODEL)), new HashSet<>(modifiedModels));
+
+        modifiedModels.clear();
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("Bathroom_Light"));
+        assertEquals(Collections.singletonList(COMMENT_MODEL), modifiedModels);
+
+        // the reloaded models are still intact
+        assertNotNull(modelRepository.getModel(KITCHEN_MODEL));
+        assertNotNull(modelRepository.getModel(COMMENT_MODEL));
+    }
+
+    @Test
+    public void testModelsReferringToAChannelOfAChangedThingAreReloaded() {
+        loadModel(CHANNEL_MODEL,
+                rule("channel", "Channel \"binding:type:thing:channel\" triggered", "logInfo(\"test\", \"on\")"));
+        loadModel(KITCHEN_MODEL, rule("kitchen", "Item Kitchen_Light received update", "logInfo(\"test\", \"on\")"));
+        modifiedModels.clear();
+
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("binding:type:thing"));
+        assertEquals(Collections.singletonList(CHANNEL_MODEL), modifiedModels);
+
+        modifiedModels.clear();
+        modelRepository.reloadModelsOfTypeReferencing("rules", Collections.singleton("binding:type:other"));
+        assertEquals(Collections.emptyList(), modifiedModels);
+    }
+
+    @Test
+    public void testRefresherReloadsOnlyTheModelsReferringToTheChangedNames() {
+        RecordingModelRepository repository = new RecordingModelRepository();
+        TestRulesRefresher refresher = new TestRulesRefresher();
+        refresher.setModelRepository(repository);
+
+        refresher.scheduleRuleRefresh("Kitchen_Light");
+        refresher.scheduleRuleRefresh("binding:type:thing");
+        waitForAssert(() -> assertEquals(
+                Collections.singletonList(new HashSet<>(Arrays.asList("Kitchen_Light", "binding:type:thing"))),
+                repository.referencedNames));
+        assertEquals(0, repository.reloadAllCount);
+
+        // a refresh of all models takes precedence over the changed names collected in the meantime
+        refresher.scheduleRuleRefresh("Bathroom_Light");
+        refresher.scheduleRuleRefresh();
+        refresher.scheduleRuleRefresh("Other_Light");
+        waitForAssert(() -> assertEquals(1, repository.reloadAllCount));
+        assertEquals(1, repository.referencedNames.size());
+    }
+
+    @Test
+    public void testTimersOfUnchangedRulesAreKeptWhenTheModelIsModified() throws SchedulerException {
+        loadModel(TIMER_MODEL, //
+                rule("kept", "Time cron \"0 0 1 * * ?\"", "logInfo(\"test\", \"kept\")") + //
+                        rule("removed", "Time cron \"0 0 2 * * ?\"", "logInfo(\"test\", \"removed\")") + //
+                        rule("changed", "Time cron \"0 0 3 * * ?\"", "logInfo(\"test\", \"changed\")"));
+        Map<String, TriggerKey> timers = getTimers();
+        assertEquals(new HashSet<>(Arrays.asList("kept#0 0 1 * * ?", "removed#0 0 2 * * ?", "changed#0 0 3 * * ?")),
+                timers.keySet());
+
+        loadModel(TIMER_MODEL, //
+                rule("kept", "Time cron \"0 0 1 * * ?\"", "logInfo(\"test\", \"kept\")") + //
+                        rule("changed", "Time cron \"0 0 4 * * ?\"", "logInfo(\"test\", \"changed\")"));
+        Map<String, TriggerKey> modifiedTimers = getTimers();
+        assertEquals(new HashSet<>(Arrays.asList("kept#0 0 1 * * ?", "changed#0 0 4 * * ?")),
+                modifiedTimers.keySet());
+        // the timer of the unchanged rule is still the same and has not been rescheduled
+        assertEquals(timers.get("kept#0 0 1 * * ?"), modifiedTimers.get("kept#0 0 1 * * ?"));
+
+        modelRepository.removeModel(TIMER_MODEL);
+        assertEquals(Collections.emptySet(), getTimers().keySet());
+    }
+
+    private void loadModel(String name, String model) {
+        // the rule engine updates the trigger manager synchronously when it is notified about the changed model
+        assertTrue(modelRepository.addOrRefreshModel(name, new ByteArrayInputStream(model.getBytes())));
+        assertNotNull(modelRepository.getModel(name));
+    }
+
+    /**
+     * Returns the triggers of the scheduled timers of the timer model, mapped by rule name and cron expression.
+     */
+    private Map<String, TriggerKey> getTimers() throws SchedulerException {
+        Scheduler scheduler = StdSchedulerFactory.getDefaultScheduler();
+        Map<String, TriggerKey> timers = new HashMap<>();
+        for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(Scheduler.DEFAULT_GROUP))) {
+            String jobName = jobKey.getName();
+            int index = jobName.indexOf(TIMER_MODEL + "#");
+            if (index >= 0) {
+                List<? extends Trigger> triggers = scheduler.getTriggersOfJob(jobKey);
+                assertEquals(1, triggers.size());
+                timers.put(jobName.substring(index + TIMER_MODEL.length() + 1), triggers.get(0).getKey());
+            }
+        }
+        return timers;
+    }
+
+    private static String rule(String name, String trigger, String script) {
+        return "rule \"" + name + "\" when " + trigger + " then " + script + " end\n";
+    }
+
+    private static class TestRulesRefresher extends RulesRefresher {
+
+        @Override
+        protected synchronized void scheduleRuleRefresh() {
+            super.scheduleRuleRefresh();
+        }
+
+        @Override
+        protected synchronized void scheduleRuleRefresh(String name) {
+            super.scheduleRuleRefresh(name);
+        }
+    }
+
+    private static class RecordingModelRepository implements ModelRepository {
+
+        private final List<Set<String>> referencedNames = new CopyOnWriteArrayList<>();
+        private volatile int reloadAllCount;
+
+        @Override
+        public EObject getModel(String name) {
+            return null;
+        }
+
+        @Override
+        public boolean addOrRefreshModel(String name, InputStream inputStream) {
+            return false;
+        }
+
+        @Override
+        public boolean removeModel(String name) {
+            return false;
+        }
+
+        @Override
+        public Iterable<String> getAllModelNamesOfType(String modelType) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void reloadAllModelsOfType(String modelType) {
+            reloadAllCount++;
+        }
+
+        @Override
+        public void reloadModelsOfTypeReferencing(String modelType, Set<String> names) {
+            referencedNames.add(new HashSet<>(names));
+        }
+
+        @Override
+        public Set<String> removeAllModelsOfType(String modelType) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void addModelRepositoryChangeListener(ModelRepositoryChangeListener listener) {
+        }
+
+        @Override
+        public void removeModelRepositoryChangeListener(ModelRepositoryChangeListener listener) {
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.model.rule.runtime.internal.engine;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.smarthome.core.library.items.StringItem;
+import org.eclipse.smarthome.core.library.items.SwitchItem;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.eclipse.smarthome.model.core.ModelRepository;
+import org.eclipse.smarthome.model.rule.rules.Rule;
+import org.eclipse.smarthome.model.rule.rules.RuleModel;
+import org.eclipse.smarthome.model.rule.runtime.RuleEngine;
+import org.eclipse.smarthome.model.rule.runtime.internal.engine.RuleTriggerManager.TriggerTypes;
+import org.eclipse.smarthome.test.java.JavaOSGiTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookup of the rules for the event based triggers in the {@link RuleTriggerManager}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RuleTriggerManagerTest extends JavaOSGiTest {
+
+    private static final String TESTMODEL_NAME = "triggerManagerTest.rules";
+    private static final String THING_UID = "binding:type:thing";
+    private static final String CHANNEL_UID = THING_UID + ":channel";
+
+    private ModelRepository modelRepository;
+    private RuleTriggerManager triggerManager;
+
+    @Before
+    public void setup() {
+        modelRepository = getService(ModelRepository.class);
+        assertNotNull(modelRepository);
+        triggerManager = ((RuleEngineImpl) getService(RuleEngine.class)).getTriggerManager();
+    }
+
+    @After
+    public void tearDown() {
+        modelRepository.removeModel(TESTMODEL_NAME);
+    }
+
+    @Test
+    public void testItemTriggers() {
+        loadModel(rule("update", "Item switch1 received update ON"), //
+                rule("any update", "Item switch1 received update"), //
+                rule("command", "Item switch1 received command OFF"), //
+                rule("changed", "Item switch1 changed from OFF to ON"), //
+                rule("changed to", "Item switch1 changed to ON"));
+        SwitchItem item = new SwitchItem("switch1");
+        SwitchItem otherItem = new SwitchItem("switch2");
+
+        assertEquals(names("update", "any update"),
+                names(triggerManager.getRules(TriggerTypes.UPDATE, item, OnOffType.ON)));
+        assertEquals(names("any update"), names(triggerManager.getRules(TriggerTypes.UPDATE, item, OnOffType.OFF)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.UPDATE, otherItem, OnOffType.ON)));
+
+        assertEquals(names("command"), names(triggerManager.getRules(TriggerTypes.COMMAND, item, OnOffType.OFF)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.COMMAND, item, OnOffType.ON)));
+
+        assertEquals(names("changed", "changed to"),
+                names(triggerManager.getRules(TriggerTypes.CHANGE, item, OnOffType.OFF, OnOffType.ON)));
+        assertEquals(names("changed to"),
+                names(triggerManager.getRules(TriggerTypes.CHANGE, item, UnDefType.NULL, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.CHANGE, item, OnOffType.ON, OnOffType.OFF)));
+    }
+
+    @Test
+    public void testGroupMemberTriggers() {
+        loadModel(rule("member update", "Member of lights received update"), //
+                rule("member command", "Member of lights received command ON"), //
+                rule("member changed", "Member of lights changed from ON to OFF"));
+        SwitchItem member = new SwitchItem("member");
+        member.addGroupName("lights");
+        SwitchItem nonMember = new SwitchItem("nonMember");
+        nonMember.addGroupName("others");
+
+        assertEquals(names("member update"),
+                names(triggerManager.getRules(TriggerTypes.UPDATE, member, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.UPDATE, nonMember, OnOffType.ON)));
+
+        assertEquals(names("member command"),
+                names(triggerManager.getRules(TriggerTypes.COMMAND, member, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.COMMAND, member, OnOffType.OFF)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.COMMAND, nonMember, OnOffType.ON)));
+
+        assertEquals(names("member changed"),
+                names(triggerManager.getRules(TriggerTypes.CHANGE, member, OnOffType.ON, OnOffType.OFF)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.CHANGE, member, OnOffType.OFF, OnOffType.ON)));
+    }
+
+    @Test
+    public void testThingAndChannelTriggers() {
+        loadModel(rule("thing update", "Thing \"" + THING_UID + "\" received update ONLINE"), //
+                rule("any thing update", "Thing \"" + THING_UID + "\" received update"), //
+                rule("thing changed", "Thing \"" + THING_UID + "\" changed from OFFLINE to ONLINE"), //
+                rule("channel triggered", "Channel \"" + CHANNEL_UID + "\" triggered PRESSED"), //
+                rule("any channel trigger", "Channel \"" + CHANNEL_UID + "\" triggered"));
+
+        assertEquals(names("thing update", "any thing update"),
+                names(triggerManager.getRules(TriggerTypes.THINGUPDATE, THING_UID, ThingStatus.ONLINE)));
+        assertEquals(names("any thing update"),
+                names(triggerManager.getRules(TriggerTypes.THINGUPDATE, THING_UID, ThingStatus.OFFLINE)));
+        assertEquals(names(),
+                names(triggerManager.getRules(TriggerTypes.THINGUPDATE, "binding:type:other", ThingStatus.ONLINE)));
+
+        assertEquals(names("thing changed"), names(triggerManager.getRules(TriggerTypes.THINGCHANGE, THING_UID,
+                ThingStatus.OFFLINE, ThingStatus.ONLINE)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.THINGCHANGE, THING_UID, ThingStatus.UNKNOWN,
+                ThingStatus.ONLINE)));
+
+        assertEquals(names("channel triggered", "any channel trigger"),
+                names(triggerManager.getRules(TriggerTypes.TRIGGER, CHANNEL_UID, "PRESSED")));
+        assertEquals(names("any channel trigger"),
+                names(triggerManager.getRules(TriggerTypes.TRIGGER, CHANNEL_UID, "RELEASED")));
+    }
+
+    @Test
+    public void testRemoveAndAddRuleModel() {
+        loadModel(rule("update", "Item switch1 received update"), //
+                rule("member command", "Member of lights received command"), //
+                rule("any channel trigger", "Channel \"" + CHANNEL_UID + "\" triggered"));
+        RuleModel model = (RuleModel) modelRepository.getModel(TESTMODEL_NAME);
+        SwitchItem item = new SwitchItem("switch1");
+        item.addGroupName("lights");
+
+        triggerManager.removeRuleModel(model);
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.UPDATE, item, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.COMMAND, item, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.TRIGGER, CHANNEL_UID, "PRESSED")));
+
+        triggerManager.addRuleModel(model);
+        assertEquals(names("update"), names(triggerManager.getRules(TriggerTypes.UPDATE, item, OnOffType.ON)));
+        assertEquals(names("member command"), names(triggerManager.getRules(TriggerTypes.COMMAND, item, OnOffType.ON)));
+        assertEquals(names("any channel trigger"),
+                names(triggerManager.getRules(TriggerTypes.TRIGGER, CHANNEL_UID, "PRESSED")));
+    }
+
+    @Test
+    public void testTriggerValuesAreParsedPerItemType() {
+        loadModel(rule("member update", "Member of mixed received update ON"), //
+                rule("member command", "Member of mixed received command ON"));
+        SwitchItem switchItem = new SwitchItem("switch");
+        switchItem.addGroupName("mixed");
+        StringItem stringItem = new StringItem("string");
+        stringItem.addGroupName("mixed");
+
+        // "ON" is an OnOffType for the switch but a StringType for the string item, so the parsed value
+        // must not be shared between the items
+        assertEquals(names("member update"),
+                names(triggerManager.getRules(TriggerTypes.UPDATE, switchItem, OnOffType.ON)));
+        assertEquals(names("member update"),
+                names(triggerManager.getRules(TriggerTypes.UPDATE, stringItem, new StringType("ON"))));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.UPDATE, stringItem, new StringType("OFF"))));
+        assertEquals(names("member update"),
+                names(triggerManager.getRules(TriggerTypes.UPDATE, switchItem, OnOffType.ON)));
+
+        assertEquals(names("member command"),
+                names(triggerManager.getRules(TriggerTypes.COMMAND, stringItem, new StringType("ON"))));
+        assertEquals(names("member command"),
+                names(triggerManager.getRules(TriggerTypes.COMMAND, switchItem, OnOffType.ON)));
+        assertEquals(names(), names(triggerManager.getRules(TriggerTypes.COMMAND, switchItem, OnOffType.OFF)));
+    }
+
+    private void loadModel(String... rules) {
+        String model = String.join(" ", rules);
+        // the rule engine updates the trigger manager synchronously when it is notified about the added model
+        assertTrue(modelRepository.addOrRefreshModel(TESTMODEL_NAME, new ByteArrayInputStream(model.getBytes())));
+        assertNotNull(modelRepository.getModel(TESTMODEL_NAME));
+    }
+
+    private static String rule(String name, String trigger) {
+        return "rule \"" + name + "\" when " + trigger + " then logInfo(\"test\", \"" + name + "\") end";
+    }
+
+    private static Set<String> names(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static Set<String> names(Iterable<Rule> rules) {
+        return StreamSupport.stream(rules.spliterator(), false).map(Rule::getName).collect(Collectors.toSet());
+    }
+
+}
@@ -50,12 +50,12 @@ public class RulesItemRefresher extends RulesRefresher implements ItemRegistryCh
 
     @Override
     public void added(Item element) {
-        scheduleRuleRefresh();
+        scheduleRuleRefresh(element.getName());
     }
 
     @Override
     public void removed(Item element) {
-        scheduleRuleRefresh();
+        scheduleRuleRefresh(element.getName());
     }
 
     @Override
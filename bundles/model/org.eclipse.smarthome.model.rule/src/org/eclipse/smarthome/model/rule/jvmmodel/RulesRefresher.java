@@ -12,6 +12,8 @@
  */
 package org.eclipse.smarthome.model.rule.jvmmodel;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -24,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The {@link RulesRefresher} is responsible for reloading rules resources every time.
+ * If only some items or things changed, only the rules resources referring to them are reloaded.
  *
  * @author Oliver Libutzki - Initial contribution
  * @author Kai Kreuzer - added delayed execution
@@ -41,6 +44,10 @@ public class RulesRefresher {
     private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
     private ScheduledFuture<?> job;
 
+    // names of the changed items or things since the last refresh, only used if not all resources need a refresh
+    private final Set<String> changedNames = new HashSet<>();
+    private boolean refreshAll;
+
     public void setModelRepository(ModelRepository modelRepository) {
         this.modelRepository = modelRepository;
     }
@@ -57,7 +64,28 @@ public class RulesRefresher {
         scheduleRuleRefresh();
     }
 
+    /**
+     * Schedules a refresh of all rules resources.
+     */
     protected synchronized void scheduleRuleRefresh() {
+        refreshAll = true;
+        changedNames.clear();
+        scheduleJob();
+    }
+
+    /**
+     * Schedules a refresh of the rules resources referring to the given name.
+     *
+     * @param name the name of the changed item or the UID of the changed thing
+     */
+    protected synchronized void scheduleRuleRefresh(String name) {
+        if (!refreshAll) {
+            changedNames.add(name);
+        }
+        scheduleJob();
+    }
+
+    private void scheduleJob() {
         if (job != null && !job.isDone()) {
             job.cancel(false);
         }
@@ -67,9 +95,21 @@ public class RulesRefresher {
     Runnable runnable = new Runnable() {
         @Override
         public void run() {
+            boolean all;
+            Set<String> names;
+            synchronized (RulesRefresher.this) {
+                all = refreshAll;
+                names = new HashSet<>(changedNames);
+                refreshAll = false;
+                changedNames.clear();
+            }
             try {
                 if (modelRepository != null) {
-                    modelRepository.reloadAllModelsOfType("rules");
+                    if (all) {
+                        modelRepository.reloadAllModelsOfType("rules");
+                    } else if (!names.isEmpty()) {
+                        modelRepository.reloadModelsOfTypeReferencing("rules", names);
+                    }
                 }
             } catch (Exception e) {
                 logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
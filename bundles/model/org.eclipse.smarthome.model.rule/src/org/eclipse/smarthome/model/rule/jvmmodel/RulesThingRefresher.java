@@ -46,12 +46,12 @@ public class RulesThingRefresher extends RulesRefresher implements ThingRegistry
 
     @Override
     public void added(Thing element) {
-        scheduleRuleRefresh();
+        scheduleRuleRefresh(element.getUID().toString());
     }
 
     @Override
     public void removed(Thing element) {
-        scheduleRuleRefresh();
+        scheduleRuleRefresh(element.getUID().toString());
     }
 
     @Override
@@ -51,4 +51,14 @@ public interface SitemapProvider {
      */
     void removeModelChangeListener(ModelRepositoryChangeListener listener);
 
+    /**
+     * Returns the modification version of the provided sitemaps. The version is increased whenever a sitemap is added,
+     * changed or removed.
+     *
+     * @return the modification version or a negative value if the provider does not keep track of modifications
+     */
+    default long getVersion() {
+        return -1;
+    }
+
 }
@@ -16,6 +16,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
@@ -38,6 +40,7 @@ import org.slf4j.LoggerFactory;
  * This class provides access to the sitemap model files.
  *
  * @author Kai Kreuzer - Initial contribution and API
+ * @author agent - added modification version
  *
  */
 @NonNullByDefault
@@ -55,6 +58,8 @@ public class SitemapProviderImpl implements SitemapProvider, ModelRepositoryChan
 
     private final Set<ModelRepositoryChangeListener> modelChangeListeners = new CopyOnWriteArraySet<>();
 
+    private final AtomicLong version = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
     @Reference
     public void setModelRepository(ModelRepository modelRepo) {
         this.modelRepo = modelRepo;
@@ -113,6 +118,7 @@ public class SitemapProviderImpl implements SitemapProvider, ModelRepositoryChan
                     sitemapModelCache.put(modelName, (Sitemap) sitemap);
                 }
             }
+            version.incrementAndGet();
         }
         for (ModelRepositoryChangeListener listener : modelChangeListeners) {
             listener.modelChanged(modelName, type);
@@ -125,6 +131,12 @@ public class SitemapProviderImpl implements SitemapProvider, ModelRepositoryChan
         for (String sitemapName : sitemapNames) {
             sitemapModelCache.put(sitemapName, (Sitemap) modelRepo.getModel(sitemapName));
         }
+        version.incrementAndGet();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     @Override
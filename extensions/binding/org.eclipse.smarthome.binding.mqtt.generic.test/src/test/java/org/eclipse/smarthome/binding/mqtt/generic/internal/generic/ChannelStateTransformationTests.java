@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 
 import javax.naming.ConfigurationException;
@@ -128,4 +129,53 @@ public class ChannelStateTransformationTests {
         verify(callback).stateUpdated(eq(textChannelUID), argThat(arg -> "23.2".equals(arg.toString())));
         assertThat(channelConfig.getCache().getChannelState().toString(), is("23.2"));
     }
+
+    @Test
+    public void sharedTransformationParsesPayloadOnce() throws Exception {
+        final String otherPattern = "$.device.status.humidity";
+        when(jsonPathService.transformEach(Arrays.asList(jsonPathPattern, otherPattern), jsonPathJSON))
+                .thenReturn(Arrays.asList("23.2", null));
+
+        ChannelStateTransformation temperature = new ChannelStateTransformation("JSONPATH:" + jsonPathPattern,
+                transformationServiceProvider);
+        ChannelStateTransformation humidity = new ChannelStateTransformation("JSONPATH:" + otherPattern,
+                transformationServiceProvider);
+        ChannelStateTransformation other = new ChannelStateTransformation("REGEX:(.*)", transformationServiceProvider);
+        SharedTransformation.share(Arrays.asList(temperature, humidity, other));
+
+        assertThat(temperature.processValue(jsonPathJSON), is("23.2"));
+        // A transformation without result keeps the value
+        assertThat(humidity.processValue(jsonPathJSON), is(jsonPathJSON));
+        verify(jsonPathService, times(1)).transformEach(any(), any());
+
+        // The only transformation of a service is not shared
+        when(jsonPathService.transform("(.*)", jsonPathJSON)).thenReturn("x");
+        assertThat(other.processValue(jsonPathJSON), is("x"));
+        verify(jsonPathService, times(1)).transformEach(any(), any());
+        verify(jsonPathService, never()).transform(eq(jsonPathPattern), any());
+    }
+
+    @Test
+    public void sharedTransformationIsAppliedAgainForTheNextMessage() throws Exception {
+        final String otherPattern = "$.device.status.humidity";
+        when(jsonPathService.transformEach(Arrays.asList(jsonPathPattern, otherPattern), jsonPathJSON))
+                .thenReturn(Arrays.asList("23.2", "50"));
+
+        ChannelStateTransformation temperature = new ChannelStateTransformation("JSONPATH:" + jsonPathPattern,
+                transformationServiceProvider);
+        ChannelStateTransformation humidity = new ChannelStateTransformation("JSONPATH:" + otherPattern,
+                transformationServiceProvider);
+        SharedTransformation.share(Arrays.asList(temperature, humidity));
+
+        assertThat(temperature.processValue(jsonPathJSON), is("23.2"));
+        assertThat(humidity.processValue(jsonPathJSON), is("50"));
+        verify(jsonPathService, times(1)).transformEach(any(), any());
+
+        // The same payload again, but the transformation has been modified in the meantime
+        when(jsonPathService.transformEach(Arrays.asList(jsonPathPattern, otherPattern), jsonPathJSON))
+                .thenReturn(Arrays.asList("74.0", "0.5"));
+        assertThat(temperature.processValue(jsonPathJSON), is("74.0"));
+        assertThat(humidity.processValue(jsonPathJSON), is("0.5"));
+        verify(jsonPathService, times(2)).transformEach(any(), any());
+    }
 }
@@ -30,6 +30,7 @@ import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttDeliveryPolicy;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -131,6 +132,15 @@ public class ChannelState implements MqttMessageSubscriber {
         return channelUID;
     }
 
+    /**
+     * A state channel is only interested in the latest value of its topic, while every message of a trigger channel
+     * is an event on its own.
+     */
+    @Override
+    public MqttDeliveryPolicy getDeliveryPolicy() {
+        return config.trigger ? MqttDeliveryPolicy.ORDERED : MqttDeliveryPolicy.COALESCE_LATEST;
+    }
+
     /**
      * Incoming message from the MqttBrokerConnection
      *
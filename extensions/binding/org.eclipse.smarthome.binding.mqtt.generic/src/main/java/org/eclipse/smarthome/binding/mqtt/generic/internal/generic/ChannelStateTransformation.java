@@ -33,6 +33,7 @@ public class ChannelStateTransformation {
     private WeakReference<@Nullable TransformationService> transformationService = new WeakReference<>(null);
     final String pattern;
     final String serviceName;
+    private @Nullable SharedTransformation sharedTransformation;
 
     /**
      * Creates a new MQTT topic subscriber.
@@ -60,6 +61,15 @@ public class ChannelStateTransformation {
         this.serviceName = type;
     }
 
+    /**
+     * Applies this transformation as part of the given shared transformation.
+     *
+     * @param sharedTransformation A shared transformation that contains the pattern of this transformation
+     */
+    void setSharedTransformation(SharedTransformation sharedTransformation) {
+        this.sharedTransformation = sharedTransformation;
+    }
+
     /**
      * Will be called by the {@link ChannelState} for each incoming MQTT value.
      *
@@ -77,8 +87,13 @@ public class ChannelStateTransformation {
             this.transformationService = new WeakReference<>(transformationService);
         }
         String temp = null;
+        final SharedTransformation sharedTransformation = this.sharedTransformation;
         try {
-            temp = transformationService.transform(pattern, value);
+            if (sharedTransformation != null) {
+                temp = sharedTransformation.transform(transformationService, pattern, value);
+            } else {
+                temp = transformationService.transform(pattern, value);
+            }
         } catch (TransformationException e) {
             logger.warn("Executing the {}-transformation failed: {}", serviceName, e.getMessage());
         }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.binding.mqtt.generic.internal.generic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
+
+/**
+ * Several channels often subscribe to the same state topic and extract different values of the same payload, for
+ * example by JSONPath expressions. A shared transformation groups the first incoming transformations of those
+ * channels. The first channel that receives a payload applies all patterns at once with
+ * {@link TransformationService#transformEach(List, String)}, so that the payload is only parsed once. The other
+ * channels receive the same payload and only look up their result.
+ * <p>
+ * The results are only shared within the delivery of one payload: As soon as a channel asks again for its pattern,
+ * the payload is transformed again, even if it did not change. A modified transformation, e.g. an edited MAP or
+ * JavaScript file, therefore takes effect with the next incoming message.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SharedTransformation {
+    private final List<String> patterns = new ArrayList<>();
+    /** The number of channels per pattern */
+    private final int[] consumers;
+    /** The number of channels per pattern, that already received their result of the last transformation */
+    private final int[] served;
+    private @Nullable String lastSource;
+    private List<@Nullable String> lastResults = Collections.emptyList();
+    private @Nullable TransformationException lastFailure;
+
+    /**
+     * Shares the transformations of the given list that use the same transformation service. Transformations are
+     * only shared if there are at least two of them for a service.
+     *
+     * @param transformations The first incoming transformations of all channels with the same state topic
+     */
+    public static void share(List<ChannelStateTransformation> transformations) {
+        Map<String, List<ChannelStateTransformation>> byService = transformations.stream()
+                .collect(Collectors.groupingBy(t -> t.serviceName));
+        byService.values().stream().filter(list -> list.size() > 1).forEach(SharedTransformation::new);
+    }
+
+    private SharedTransformation(List<ChannelStateTransformation> transformations) {
+        for (ChannelStateTransformation transformation : transformations) {
+            if (!patterns.contains(transformation.pattern)) {
+                patterns.add(transformation.pattern);
+            }
+        }
+        consumers = new int[patterns.size()];
+        served = new int[patterns.size()];
+        for (ChannelStateTransformation transformation : transformations) {
+            consumers[patterns.indexOf(transformation.pattern)]++;
+            transformation.setSharedTransformation(this);
+        }
+    }
+
+    /**
+     * Returns the result of the given pattern for the given source. The source is only transformed if it differs
+     * from the last one, or if the result of the last transformation has already been returned for the given pattern.
+     *
+     * @param service The transformation service
+     * @param pattern One of the patterns of this shared transformation
+     * @param source The incoming value
+     * @return The transformed value or null
+     * @throws TransformationException If the source could not be transformed
+     */
+    synchronized @Nullable String transform(TransformationService service, String pattern, String source)
+            throws TransformationException {
+        final int index = patterns.indexOf(pattern);
+        if (index < 0) {
+            return service.transform(pattern, source);
+        }
+        if (!source.equals(lastSource) || served[index] >= consumers[index]) {
+            lastSource = source;
+            Arrays.fill(served, 0);
+            try {
+                lastResults = service.transformEach(patterns, source);
+                lastFailure = null;
+            } catch (TransformationException e) {
+                lastResults = Collections.emptyList();
+                lastFailure = e;
+            }
+        }
+        served[index]++;
+
+        final TransformationException lastFailure = this.lastFailure;
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+        return index < lastResults.size() ? lastResults.get(index) : null;
+    }
+}
@@ -31,6 +31,7 @@ import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.ChannelState;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.ChannelStateTransformation;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.ChannelStateUpdateListener;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.MqttChannelStateDescriptionProvider;
+import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.SharedTransformation;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.generic.TransformationServiceProvider;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.values.Value;
 import org.eclipse.smarthome.binding.mqtt.generic.internal.values.ValueFactory;
@@ -56,6 +57,8 @@ public class GenericThingHandler extends AbstractMQTTThingHandler implements Cha
     final Map<ChannelUID, ChannelState> channelStateByChannelUID = new HashMap<>();
     protected final MqttChannelStateDescriptionProvider stateDescProvider;
     protected final TransformationServiceProvider transformationServiceProvider;
+    /** The first incoming transformation of each channel by state topic, collected during initialization */
+    private final Map<String, List<ChannelStateTransformation>> transformationsByStateTopic = new HashMap<>();
 
     /**
      * Creates a new Thing handler for generic MQTT channels.
@@ -129,9 +132,15 @@ public class GenericThingHandler extends AbstractMQTTThingHandler implements Cha
 
         // Incoming value transformations
         transformations = channelConfig.transformationPattern.split("∩");
-        Stream.of(transformations).filter(t -> StringUtils.isNotBlank(t))
+        List<ChannelStateTransformation> transformationsIn = Stream.of(transformations)
+                .filter(t -> StringUtils.isNotBlank(t))
                 .map(t -> new ChannelStateTransformation(t, transformationServiceProvider))
-                .forEach(t -> state.addTransformation(t));
+                .collect(Collectors.toList());
+        transformationsIn.forEach(t -> state.addTransformation(t));
+        if (!transformationsIn.isEmpty() && StringUtils.isNotBlank(channelConfig.stateTopic)) {
+            transformationsByStateTopic.computeIfAbsent(channelConfig.stateTopic, topic -> new ArrayList<>())
+                    .add(transformationsIn.get(0));
+        }
 
         // Outgoing value transformations
         transformations = channelConfig.transformationPatternOut.split("∩");
@@ -165,6 +174,10 @@ public class GenericThingHandler extends AbstractMQTTThingHandler implements Cha
             }
         }
 
+        // Channels with the same state topic extract their values from the same payload. Let them share the parsing
+        transformationsByStateTopic.values().forEach(SharedTransformation::share);
+        transformationsByStateTopic.clear();
+
         // If some channels could not start up, put the entire thing offline and display the channels
         // in question to the user.
         if (configErrors.isEmpty()) {
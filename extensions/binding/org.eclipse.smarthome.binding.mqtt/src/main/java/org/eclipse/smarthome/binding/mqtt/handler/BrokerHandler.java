@@ -27,6 +27,7 @@ import org.eclipse.smarthome.binding.mqtt.internal.ssl.PinType;
 import org.eclipse.smarthome.binding.mqtt.internal.ssl.PinnedCallback;
 import org.eclipse.smarthome.binding.mqtt.internal.ssl.PinningSSLContextProvider;
 import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.util.HexUtils;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
@@ -213,6 +214,10 @@ public class BrokerHandler extends AbstractBrokerHandler implements PinnedCallba
         }
 
         connection.setRetain(config.retainMessages);
+        if (config.deliveryQueueSize > 0) {
+            connection.setDeliveryExecutor(ThreadPoolManager.getPool(MqttBrokerConnection.DELIVERY_THREADPOOL_NAME),
+                    config.deliveryQueueSize);
+        }
 
         return connection;
     }
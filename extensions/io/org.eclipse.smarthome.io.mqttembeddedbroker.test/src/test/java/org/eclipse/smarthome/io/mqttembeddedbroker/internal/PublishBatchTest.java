@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionObserver;
+import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
+import org.eclipse.smarthome.io.transport.mqtt.MqttPublishBatch;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+/**
+ * Publishes {@link MqttPublishBatch}es with more messages than the in-flight window to the embedded broker.
+ *
+ * @author agent - Initial contribution
+ */
+public class PublishBatchTest {
+    private static final int MESSAGES = 2000;
+    private static final int TOPICS = 80;
+
+    private EmbeddedBrokerServiceImpl subject;
+    private MqttBrokerConnection connection;
+
+    private @Mock MqttService service;
+
+    @Before
+    public void setUp() throws IOException, InterruptedException {
+        MockitoAnnotations.initMocks(this);
+        subject = new EmbeddedBrokerServiceImpl();
+        subject.setMqttService(service);
+
+        ServiceConfiguration config = new ServiceConfiguration();
+        try (ServerSocket socket = new ServerSocket(0)) {
+            config.port = socket.getLocalPort();
+        }
+        config.secure = false;
+        config.persistenceFile = "";
+        subject.initialize(config);
+
+        connection = subject.getConnection();
+        Semaphore semaphore = new Semaphore(0);
+        MqttConnectionObserver observer = (state, error) -> {
+            if (state == MqttConnectionState.CONNECTED) {
+                semaphore.release();
+            }
+        };
+        connection.addConnectionObserver(observer);
+        if (connection.connectionState() != MqttConnectionState.CONNECTED) {
+            semaphore.tryAcquire(3000, TimeUnit.MILLISECONDS);
+        }
+        connection.removeConnectionObserver(observer);
+        assertThat(connection.connectionState(), is(MqttConnectionState.CONNECTED));
+    }
+
+    @After
+    public void cleanUp() {
+        subject.deactivate();
+    }
+
+    private Map<String, List<String>> subscribe(String topic, CountDownLatch received)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Map<String, List<String>> messages = new ConcurrentHashMap<>();
+        assertTrue(connection.subscribe(topic + "/#", (t, payload) -> {
+            messages.computeIfAbsent(t, k -> new CopyOnWriteArrayList<>()).add(new String(payload));
+            received.countDown();
+        }).get(1000, TimeUnit.MILLISECONDS));
+        return messages;
+    }
+
+    @Test
+    public void batchLargerThanInflightWindow() throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch received = new CountDownLatch(MESSAGES);
+        Map<String, List<String>> messages = subscribe("batch", received);
+
+        MqttPublishBatch batch = new MqttPublishBatch();
+        for (int i = 0; i < MESSAGES; ++i) {
+            batch.add("batch/" + (i % TOPICS), String.valueOf(i).getBytes(), 1, false);
+        }
+        assertThat(batch.size(), is(MESSAGES));
+        assertTrue(MESSAGES > connection.getMaxInflight());
+        assertTrue(connection.publish(batch).get(10, TimeUnit.SECONDS));
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        // Every message arrives exactly once and in order per topic
+        assertThat(messages.size(), is(TOPICS));
+        for (int topic = 0; topic < TOPICS; ++topic) {
+            List<String> payloads = messages.get("batch/" + topic);
+            assertThat(payloads.size(), is(MESSAGES / TOPICS));
+            for (int i = 0; i < payloads.size(); ++i) {
+                assertThat(payloads.get(i), is(String.valueOf(topic + i * TOPICS)));
+            }
+        }
+    }
+
+    @Test
+    public void coalescedBatch() throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch received = new CountDownLatch(TOPICS);
+        Map<String, List<String>> messages = subscribe("coalesced", received);
+
+        MqttPublishBatch batch = new MqttPublishBatch(true);
+        for (int i = 0; i < MESSAGES; ++i) {
+            batch.add("coalesced/" + (i % TOPICS), String.valueOf(i).getBytes(), 1, false);
+        }
+        assertThat(batch.size(), is(TOPICS));
+        assertTrue(connection.publish(batch).get(10, TimeUnit.SECONDS));
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        // Only the latest message per topic is published
+        for (int topic = 0; topic < TOPICS; ++topic) {
+            assertThat(messages.get("coalesced/" + topic).toString(),
+                    is("[" + (MESSAGES - TOPICS + topic) + "]"));
+        }
+    }
+}
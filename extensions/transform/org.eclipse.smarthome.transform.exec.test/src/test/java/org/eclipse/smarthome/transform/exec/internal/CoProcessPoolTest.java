@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.exec.internal;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CoProcessPool} class with programs of a unix shell.
+ *
+ * @author agent - Initial contribution
+ */
+public class CoProcessPoolTest {
+
+    /** Echoes each input line, and terminates on the input "exit" */
+    private static final String ECHO = "sh@@-c@@"
+            + "while read line; do [ \"$line\" = exit ] && exit 1; echo \"$line\"; done";
+
+    private CoProcessPool pool;
+
+    @Before
+    public void setUp() {
+        assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("windows"));
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void transformRoundTrip() throws TransformationException {
+        pool = new CoProcessPool(ECHO, 2, 5000);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value" + i, pool.transform("value" + i));
+        }
+    }
+
+    @Test
+    public void concurrentTransformations() throws Exception {
+        pool = new CoProcessPool(ECHO, 2, 5000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final String value = "value" + i;
+                results.add(executor.submit((Callable<String>) () -> pool.transform(value)));
+            }
+            for (int i = 0; i < 20; i++) {
+                assertEquals("value" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void transformTimesOut() throws TransformationException {
+        pool = new CoProcessPool("sleep 10", 1, 200);
+
+        try {
+            pool.transform("value");
+            fail("The transformation should have timed out");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("timed out"));
+        }
+    }
+
+    @Test
+    public void restartsTerminatedCoProcess() throws TransformationException {
+        pool = new CoProcessPool(ECHO, 1, 5000);
+        assertEquals("before", pool.transform("before"));
+
+        try {
+            pool.transform("exit");
+            fail("The transformation should have failed, as the co-process terminated");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("failed"));
+        }
+
+        assertEquals("after", pool.transform("after"));
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.exec.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CoProcess} class with programs of a unix shell.
+ *
+ * @author agent - Initial contribution
+ */
+public class CoProcessTest {
+
+    private CoProcess coProcess;
+
+    @Before
+    public void setUp() {
+        assumeFalse(System.getProperty("os.name").toLowerCase().startsWith("windows"));
+    }
+
+    @After
+    public void tearDown() {
+        if (coProcess != null) {
+            coProcess.destroy();
+        }
+    }
+
+    @Test
+    public void transformReturnsOneLinePerInput() throws Exception {
+        coProcess = new CoProcess(new String[] { "cat" }, "test");
+
+        assertEquals("first", coProcess.transform("first", 5000));
+        assertEquals("second", coProcess.transform("second", 5000));
+        // line breaks of the input would desynchronize inputs and outputs
+        assertEquals("a b c", coProcess.transform("a\nb\nc", 5000));
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void transformTimesOut() throws Exception {
+        coProcess = new CoProcess(new String[] { "sleep", "10" }, "test");
+
+        coProcess.transform("value", 100);
+    }
+
+    @Test(expected = IOException.class)
+    public void terminatedProcessFails() throws Exception {
+        coProcess = new CoProcess(new String[] { "sh", "-c", "read line; echo \"$line\"" }, "test");
+
+        assertEquals("value", coProcess.transform("value", 5000));
+        coProcess.transform("value", 5000);
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A running external program which transforms one line read from its standard input into one line written to its
+ * standard output. The output is read by a separate thread, so that a transformation can time out.
+ * A co-process is only used by one transformation at a time.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class CoProcess {
+
+    /** Marks the end of the output stream in the queue of output lines. Compared by identity. */
+    private static final String END_OF_STREAM = new String("EOF");
+
+    private final Logger logger = LoggerFactory.getLogger(CoProcess.class);
+
+    private final String name;
+    private final Process process;
+    private final Writer input;
+    private final BlockingQueue<String> output = new LinkedBlockingQueue<>();
+    private volatile boolean outputClosed;
+
+    /**
+     * Starts the external program.
+     *
+     * @param command the executable followed by its arguments
+     * @param name a name for the threads reading the output of the program
+     * @throws IOException if the program could not be started
+     */
+    CoProcess(String[] command, String name) throws IOException {
+        this.name = name;
+        this.process = new ProcessBuilder(command).start();
+        this.input = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        startThread(name + "-out", () -> readOutput(process.getInputStream()));
+        startThread(name + "-err", () -> logErrors(process.getErrorStream()));
+    }
+
+    private void startThread(String threadName, Runnable runnable) {
+        Thread thread = new Thread(runnable, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void readOutput(InputStream stream) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        } catch (IOException e) {
+            logger.debug("Reading the output of co-process {} failed: {}", name, e.getMessage());
+        } finally {
+            outputClosed = true;
+            output.add(END_OF_STREAM);
+        }
+    }
+
+    private void logErrors(InputStream stream) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.debug("{}: {}", name, line);
+            }
+        } catch (IOException e) {
+            logger.debug("Reading the error output of co-process {} failed: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the input as one line to the program and waits for the next line of output.
+     *
+     * @param value the input, line breaks are replaced by spaces
+     * @param timeout the time to wait for the output in milliseconds
+     * @return the output line
+     * @throws IOException if the program terminated or could not be written to
+     * @throws TimeoutException if the program did not answer in time
+     * @throws InterruptedException if the calling thread was interrupted while waiting
+     */
+    String transform(String value, long timeout) throws IOException, TimeoutException, InterruptedException {
+        String stale;
+        while ((stale = output.poll()) != null) {
+            if (stale == END_OF_STREAM) {
+                throw new IOException("terminated with exit value " + exitValue());
+            }
+            logger.debug("Ignoring unexpected output of co-process {}: {}", name, stale);
+        }
+
+        input.write(value.replace('\r', ' ').replace('\n', ' '));
+        input.write('\n');
+        input.flush();
+
+        String line = output.poll(timeout, TimeUnit.MILLISECONDS);
+        if (line == null) {
+            throw new TimeoutException("no answer within " + timeout + " ms");
+        }
+        if (line == END_OF_STREAM) {
+            throw new IOException("terminated with exit value " + exitValue());
+        }
+        return line;
+    }
+
+    private @Nullable Integer exitValue() {
+        try {
+            process.waitFor(100, TimeUnit.MILLISECONDS);
+            return process.exitValue();
+        } catch (IllegalThreadStateException | InterruptedException e) {
+            return null;
+        }
+    }
+
+    boolean isAlive() {
+        return !outputClosed && process.isAlive();
+    }
+
+    /**
+     * Closes the standard input of the program, which lets well-behaved programs terminate, and kills it.
+     */
+    void destroy() {
+        try {
+            input.close();
+        } catch (IOException e) {
+            // the program has already closed its input
+        }
+        process.destroy();
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.exec.internal;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of {@link CoProcess}es running the same command line. Co-processes are started on demand and kept
+ * running for later transformations. A co-process that terminated, failed or did not answer in time is discarded, so
+ * that the next transformation starts a new one.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class CoProcessPool {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final Logger logger = LoggerFactory.getLogger(CoProcessPool.class);
+
+    private final String commandLine;
+    private final String[] command;
+    private final long timeout;
+    private final Semaphore permits;
+    private final BlockingQueue<CoProcess> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger restarts = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool. No co-process is started yet.
+     *
+     * @param commandLine the command line of the program
+     * @param size the maximum number of co-processes running at the same time
+     * @param timeout the time to wait for a co-process and its answer in milliseconds
+     */
+    CoProcessPool(String commandLine, int size, long timeout) {
+        this.commandLine = commandLine;
+        this.command = ExecUtil.splitCommandLine(commandLine);
+        this.timeout = timeout;
+        this.permits = new Semaphore(size, true);
+    }
+
+    /**
+     * Transforms the value by one of the co-processes of this pool.
+     *
+     * @param value the value to transform
+     * @return the output of the co-process
+     * @throws TransformationException if no co-process was available or the co-process failed
+     */
+    String transform(String value) throws TransformationException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new TransformationException(
+                        "No co-process for '" + commandLine + "' became available within " + timeout + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for a co-process for '" + commandLine + "'");
+        }
+
+        CoProcess coProcess = null;
+        try {
+            coProcess = acquire();
+            long remaining = timeout - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String result = coProcess.transform(value, Math.max(1, remaining));
+            release(coProcess);
+            coProcess = null;
+            return result;
+        } catch (IOException e) {
+            throw new TransformationException("Co-process '" + commandLine + "' failed: " + e.getMessage(), e);
+        } catch (TimeoutException e) {
+            throw new TransformationException("Co-process '" + commandLine + "' timed out: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransformationException("Interrupted while waiting for co-process '" + commandLine + "'");
+        } finally {
+            if (coProcess != null) {
+                coProcess.destroy();
+            }
+            permits.release();
+        }
+    }
+
+    private CoProcess acquire() throws IOException {
+        CoProcess coProcess;
+        while ((coProcess = idle.poll()) != null) {
+            if (coProcess.isAlive()) {
+                return coProcess;
+            }
+            logger.warn("Co-process '{}' terminated unexpectedly, restarting it ({} restarts so far)", commandLine,
+                    restarts.incrementAndGet());
+            coProcess.destroy();
+        }
+        logger.debug("Starting co-process '{}'", commandLine);
+        return new CoProcess(command, "ESH-exec-coprocess-" + COUNTER.incrementAndGet());
+    }
+
+    private void release(CoProcess coProcess) {
+        idle.add(coProcess);
+        if (closed) {
+            destroyIdle();
+        }
+    }
+
+    /**
+     * Stops all idle co-processes. Co-processes in use are stopped as soon as their transformation completed.
+     */
+    void close() {
+        closed = true;
+        destroyIdle();
+    }
+
+    private void destroyIdle() {
+        CoProcess coProcess;
+        while ((coProcess = idle.poll()) != null) {
+            coProcess.destroy();
+        }
+    }
+
+}
@@ -12,32 +12,101 @@
  */
 package org.eclipse.smarthome.transform.exec.internal;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.io.net.exec.ExecUtil;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * The implementation of {@link TransformationService} which transforms the
  * input by command line.
+ * <p>
+ * A command line with the prefix {@code coprocess:} is not started for each transformation. Instead, the program is
+ * started once and kept running, and each input is written as a line to its standard input. The next line of its
+ * standard output is the result. The co-processes of a command line are held in a {@link CoProcessPool}.
  *
  * @author Pauli Anttila
  */
 @NonNullByDefault
-@Component(immediate = true, property = { "smarthome.transform=EXEC" })
+@Component(immediate = true, configurationPid = "org.eclipse.smarthome.transform.exec", property = {
+        "smarthome.transform=EXEC" })
 public class ExecTransformationService implements TransformationService {
 
+    /** Prefix of a command line which is run as a co-process */
+    public static final String COPROCESS_PREFIX = "coprocess:";
+
+    private static final String PROPERTY_COPROCESS_POOL_SIZE = "coprocessPoolSize";
+    private static final String PROPERTY_COPROCESS_TIMEOUT = "coprocessTimeout";
+    private static final int DEFAULT_COPROCESS_POOL_SIZE = 2;
+    private static final int DEFAULT_COPROCESS_TIMEOUT = 5000;
+
     private final Logger logger = LoggerFactory.getLogger(ExecTransformationService.class);
 
+    private final Map<String, CoProcessPool> coProcessPools = new ConcurrentHashMap<>();
+    private volatile int coProcessPoolSize = DEFAULT_COPROCESS_POOL_SIZE;
+    private volatile int coProcessTimeout = DEFAULT_COPROCESS_TIMEOUT;
+
+    @Activate
+    protected void activate(@Nullable Map<String, @Nullable Object> configuration) {
+        modified(configuration);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, @Nullable Object> configuration) {
+        if (configuration != null) {
+            coProcessPoolSize = getPositiveInt(configuration, PROPERTY_COPROCESS_POOL_SIZE,
+                    DEFAULT_COPROCESS_POOL_SIZE);
+            coProcessTimeout = getPositiveInt(configuration, PROPERTY_COPROCESS_TIMEOUT, DEFAULT_COPROCESS_TIMEOUT);
+        }
+        // pools are recreated lazily with the new settings
+        closeCoProcessPools();
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        closeCoProcessPools();
+    }
+
+    private int getPositiveInt(Map<String, @Nullable Object> configuration, String property, int defaultValue) {
+        Object value = configuration.get(property);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.toString()));
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for '{}', using {}.", value, property, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private void closeCoProcessPools() {
+        // Remove and close the pools one by one. Clearing the map after closing its pools would also drop a pool
+        // that a concurrent transformation has just created, and that pool would never be closed.
+        for (String commandLine : coProcessPools.keySet()) {
+            CoProcessPool pool = coProcessPools.remove(commandLine);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
     /**
      * Transforms the input <code>source</code> by the command line.
      *
      * @param commandLine the command to execute. Command line should contain %s string,
-     *                    which will be replaced by the input data.
+     *                    which will be replaced by the input data. If it starts with {@code coprocess:}, the
+     *                    command is run as a co-process which reads the input data from its standard input.
      * @param source the input to transform
      */
     @Override
@@ -50,6 +119,14 @@ public class ExecTransformationService implements TransformationService {
 
         long startTime = System.currentTimeMillis();
 
+        if (commandLine.startsWith(COPROCESS_PREFIX)) {
+            String coProcessCommandLine = commandLine.substring(COPROCESS_PREFIX.length()).trim();
+            String result = coProcessPools.computeIfAbsent(coProcessCommandLine,
+                    c -> new CoProcessPool(c, coProcessPoolSize, coProcessTimeout)).transform(source);
+            logger.trace("co-process transformation elapsed {} ms", System.currentTimeMillis() - startTime);
+            return result;
+        }
+
         String formattedCommandLine = String.format(commandLine, source);
         String result = ExecUtil.executeCommandLineAndWaitResponse(formattedCommandLine, 5000);
         logger.trace("command line execution elapsed {} ms", System.currentTimeMillis() - startTime);
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.javascript.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the pooled contexts, the batch transformations, the cache and the statistics of the
+ * {@link JavaScriptTransformationService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class JavaScriptTransformationServiceTest {
+
+    private static final String COUNTER_SCRIPT = "jstest_counter.js";
+    private static final String DOUBLE_SCRIPT = "jstest_double.js";
+    private static final String FIRST_SCRIPT = "jstest_first.js";
+    private static final String SECOND_SCRIPT = "jstest_second.js";
+
+    private JavaScriptEngineManager manager;
+    private JavaScriptTransformationService service;
+
+    @Before
+    public void setUp() throws IOException {
+        Files.createDirectories(Paths.get(TransformationScriptWatcher.TRANSFORM_FOLDER));
+        // counts the evaluations in a global variable, which is only kept if the global scope is reused
+        write(COUNTER_SCRIPT, "var count = (typeof count === 'undefined' ? 0 : count) + 1; String(count)");
+        write(DOUBLE_SCRIPT,
+                "if (isNaN(parseInt(input))) { throw 'not a number: ' + input; } String(parseInt(input) * 2)");
+        write(FIRST_SCRIPT, "'first 1'");
+        write(SECOND_SCRIPT, "'second 1'");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for (String filename : Arrays.asList(COUNTER_SCRIPT, DOUBLE_SCRIPT, FIRST_SCRIPT, SECOND_SCRIPT)) {
+            Files.deleteIfExists(path(filename));
+        }
+    }
+
+    @Test
+    public void shouldEvaluateEachInputInAFreshScopeByDefault() throws TransformationException {
+        createService(false);
+
+        assertEquals("1", service.transform(COUNTER_SCRIPT, "a"));
+        assertEquals("1", service.transform(COUNTER_SCRIPT, "b"));
+        assertEquals(Arrays.asList("1", "1", "1"), service.transformAll(COUNTER_SCRIPT, Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void shouldKeepTheGlobalsWithPooledContexts() throws TransformationException {
+        createService(true);
+
+        assertEquals("1", service.transform(COUNTER_SCRIPT, "a"));
+        assertEquals("2", service.transform(COUNTER_SCRIPT, "b"));
+        assertEquals(Arrays.asList("3", "4", "5"), service.transformAll(COUNTER_SCRIPT, Arrays.asList("a", "b", "c")));
+    }
+
+    @Test
+    public void shouldFailABatchOnlyIfAllInputsFail() throws TransformationException {
+        createService(false);
+
+        assertEquals(Arrays.asList("2", null, "6"), service.transformAll(DOUBLE_SCRIPT, Arrays.asList("1", "x", "3")));
+        try {
+            service.transformAll(DOUBLE_SCRIPT, Arrays.asList("x", "y"));
+            fail("TransformationException expected");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage().contains("not a number: x"));
+        }
+        try {
+            service.transform(DOUBLE_SCRIPT, "x");
+            fail("TransformationException expected");
+        } catch (TransformationException e) {
+            assertTrue(e.getMessage().contains("not a number: x"));
+        }
+    }
+
+    @Test
+    public void shouldOnlyReloadTheScriptOfTheModifiedFile() throws TransformationException, IOException {
+        createService(false);
+        assertEquals("first 1", service.transform(FIRST_SCRIPT, "a"));
+        assertEquals("second 1", service.transform(SECOND_SCRIPT, "a"));
+
+        write(FIRST_SCRIPT, "'first 2'");
+        write(SECOND_SCRIPT, "'second 2'");
+        manager.removeFromCache(path(FIRST_SCRIPT));
+
+        assertEquals("first 2", service.transform(FIRST_SCRIPT, "a"));
+        // the script of the other file is still taken from the cache
+        assertEquals("second 1", service.transform(SECOND_SCRIPT, "a"));
+    }
+
+    @Test
+    public void shouldRecordTheStatisticsOfEachScript() throws TransformationException {
+        createService(false);
+
+        service.transformAll(DOUBLE_SCRIPT, Arrays.asList("1", "x", "3"));
+        service.transform(FIRST_SCRIPT, "a");
+
+        Map<String, ScriptStatistics> statistics = manager.getStatistics();
+        assertEquals(Arrays.asList(DOUBLE_SCRIPT, FIRST_SCRIPT), Arrays.asList(statistics.keySet().toArray()));
+        ScriptStatistics doubleStatistics = statistics.get(DOUBLE_SCRIPT);
+        assertEquals(3, doubleStatistics.getExecutions());
+        assertEquals(1, doubleStatistics.getFailures());
+        assertTrue(doubleStatistics.getTotalMillis() > 0);
+        assertTrue(doubleStatistics.getMaxMillis() >= doubleStatistics.getAverageMillis());
+        assertEquals(doubleStatistics.getTotalMillis() / 3, doubleStatistics.getAverageMillis(), 0.000001);
+        assertEquals(1, statistics.get(FIRST_SCRIPT).getExecutions());
+        assertEquals(0, statistics.get(FIRST_SCRIPT).getFailures());
+
+        manager.resetStatistics();
+        assertTrue(manager.getStatistics().isEmpty());
+    }
+
+    private void createService(boolean pooledContexts) {
+        manager = new JavaScriptEngineManager();
+        manager.activate(Collections.<String, Object> singletonMap("pooledContexts", String.valueOf(pooledContexts)));
+        service = new JavaScriptTransformationService();
+        service.setJavaScriptEngineManager(manager);
+    }
+
+    private Path path(String filename) {
+        return Paths.get(TransformationScriptWatcher.TRANSFORM_FOLDER, filename);
+    }
+
+    private void write(String filename, String script) throws IOException {
+        Files.write(path(filename), script.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -17,9 +17,18 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
@@ -27,54 +36,174 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Simple cache for compiled JavaScript files.
+ * <p>
+ * If the configuration property {@code pooledContexts} is set, the engine bindings (i.e. the global scope) a script
+ * was evaluated with are kept in a small pool per script and reused by the next evaluation instead of creating a new
+ * global scope for every call. A pooled binding is only used by one thread at a time. Global variables of a script
+ * hence survive between evaluations in this mode.
  *
  * @author Thomas Kordelle - pre compiled scripts
  *
  */
 @NonNullByDefault
-@Component(service = JavaScriptEngineManager.class)
+@Component(service = JavaScriptEngineManager.class, configurationPid = "org.eclipse.smarthome.transform.javascript")
 public class JavaScriptEngineManager {
 
+    private static final String INPUT = "input";
+    private static final String PROPERTY_POOLED_CONTEXTS = "pooledContexts";
+    private static final String PROPERTY_POOL_SIZE = "poolSize";
+    private static final int DEFAULT_POOL_SIZE = 4;
+
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
     /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, PooledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, ScriptStatistics> statistics = new ConcurrentHashMap<>(4, 0.5f, 2);
+
+    private volatile boolean pooledContexts = false;
+    private volatile int poolSize = DEFAULT_POOL_SIZE;
+
+    @Activate
+    protected void activate(@Nullable Map<String, @Nullable Object> configuration) {
+        modified(configuration);
+    }
+
+    @Modified
+    protected void modified(@Nullable Map<String, @Nullable Object> configuration) {
+        if (configuration == null) {
+            return;
+        }
+        Object pooled = configuration.get(PROPERTY_POOLED_CONTEXTS);
+        if (pooled != null) {
+            pooledContexts = Boolean.parseBoolean(pooled.toString());
+        }
+        Object size = configuration.get(PROPERTY_POOL_SIZE);
+        if (size != null) {
+            try {
+                poolSize = Math.max(1, Integer.parseInt(size.toString()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid JavaScript context pool size '{}', using {}.", size, DEFAULT_POOL_SIZE);
+                poolSize = DEFAULT_POOL_SIZE;
+            }
+        }
+        // pools are recreated lazily with the new settings
+        compiledScriptMap.clear();
+    }
 
     /**
      * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
      * storage and put a pre compiled version into the cache.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
+     * @return a pre compiled script {@link CompiledScript} together with its pool of bindings
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
+    private PooledScript getScript(final String filename) throws TransformationException {
+        PooledScript pooledScript = compiledScriptMap.get(filename);
+        if (pooledScript != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return pooledScript;
+        }
+        // only lock when the script has to be compiled, so that cached scripts are never blocked by a compilation
         synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
+            pooledScript = compiledScriptMap.get(filename);
+            if (pooledScript != null) {
+                return pooledScript;
+            }
+            final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+            logger.debug("Loading script {} from storage ", path);
+            try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+                final ScriptEngine engine = manager.getEngineByName("javascript");
+                final CompiledScript cScript = ((Compilable) engine).compile(reader);
+                logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+                pooledScript = new PooledScript(cScript, pooledContexts ? poolSize : 0);
+                compiledScriptMap.put(filename, pooledScript);
+                return pooledScript;
+            } catch (IOException | ScriptException e) {
+                throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a script with the given value bound to the variable {@code input}.
+     *
+     * @param filename name of the JavaScript file
+     * @param input the value to pass to the script
+     * @return the result of the script
+     * @throws TransformationException if the script could not be loaded or its evaluation failed
+     */
+    protected @Nullable Object eval(final String filename, final String input) throws TransformationException {
+        return eval(filename, Collections.singletonList(input)).get(0);
+    }
+
+    /**
+     * Evaluates a script once for each of the given inputs. The script is only looked up once per batch. With pooled
+     * contexts all evaluations of the batch share one engine binding, otherwise every evaluation gets a fresh one.
+     *
+     * An evaluation which fails does not prevent the remaining inputs from being evaluated, its result is
+     * <code>null</code>.
+     *
+     * @param filename name of the JavaScript file
+     * @param inputs the values to pass to the script, one per evaluation
+     * @return the results of the script in the order of the inputs, <code>null</code> for each failed evaluation
+     * @throws TransformationException if the script could not be loaded or all evaluations failed
+     */
+    protected List<@Nullable Object> eval(final String filename, final List<String> inputs)
+            throws TransformationException {
+        final PooledScript pooledScript = getScript(filename);
+        final ScriptStatistics scriptStatistics = getScriptStatistics(filename);
+        final List<@Nullable Object> results = new ArrayList<>(inputs.size());
+        ScriptException failure = null;
+        int failed = 0;
+        Bindings bindings = pooledScript.borrowBindings();
+        try {
+            for (String input : inputs) {
+                if (!pooledScript.isPooled() && !results.isEmpty()) {
+                    // every evaluation gets a fresh global scope, so no globals leak from one input to the next
+                    bindings = pooledScript.borrowBindings();
+                }
+                final long startTime = System.nanoTime();
+                try {
+                    bindings.put(INPUT, input);
+                    results.add(pooledScript.script.eval(bindings));
+                    scriptStatistics.record(System.nanoTime() - startTime, false);
+                } catch (ScriptException e) {
+                    scriptStatistics.record(System.nanoTime() - startTime, true);
+                    logger.warn("JavaScript {} failed for input '{}': {}", filename, input, e.getMessage());
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    failed++;
+                    results.add(null);
                 }
             }
+        } finally {
+            pooledScript.returnBindings(bindings);
+        }
+        if (failure != null && failed == inputs.size()) {
+            throw new TransformationException("An error occurred while executing script. " + failure.getMessage(),
+                    failure);
+        }
+        return results;
+    }
+
+    private ScriptStatistics getScriptStatistics(final String filename) {
+        ScriptStatistics scriptStatistics = statistics.get(filename);
+        if (scriptStatistics == null) {
+            scriptStatistics = statistics.computeIfAbsent(filename, f -> new ScriptStatistics());
         }
+        return scriptStatistics;
     }
 
     /**
@@ -86,4 +215,66 @@ public class JavaScriptEngineManager {
         logger.debug("Removing JavaScript {} from cache.", fileName);
         compiledScriptMap.remove(fileName);
     }
+
+    /**
+     * Removes all pre compiled scripts from the cache that have been loaded from the given file.
+     *
+     * @param path path of the modified or deleted file
+     */
+    protected void removeFromCache(Path path) {
+        final Path normalizedPath = path.toAbsolutePath().normalize();
+        for (String fileName : compiledScriptMap.keySet()) {
+            if (Paths.get(TransformationScriptWatcher.TRANSFORM_FOLDER, fileName).toAbsolutePath().normalize()
+                    .equals(normalizedPath)) {
+                removeFromCache(fileName);
+            }
+        }
+    }
+
+    /**
+     * @return the execution statistics of all scripts evaluated since the last reset, sorted by filename
+     */
+    protected Map<String, ScriptStatistics> getStatistics() {
+        return new TreeMap<>(statistics);
+    }
+
+    /**
+     * Discards all execution statistics.
+     */
+    protected void resetStatistics() {
+        statistics.clear();
+    }
+
+    /**
+     * A compiled script together with a bounded pool of idle engine bindings for it.
+     */
+    private static class PooledScript {
+
+        private final CompiledScript script;
+        private final @Nullable BlockingQueue<Bindings> idleBindings;
+
+        PooledScript(CompiledScript script, int poolSize) {
+            this.script = script;
+            this.idleBindings = poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+        }
+
+        boolean isPooled() {
+            return idleBindings != null;
+        }
+
+        Bindings borrowBindings() {
+            final BlockingQueue<Bindings> idle = idleBindings;
+            final Bindings bindings = idle != null ? idle.poll() : null;
+            return bindings != null ? bindings : script.getEngine().createBindings();
+        }
+
+        void returnBindings(Bindings bindings) {
+            final BlockingQueue<Bindings> idle = idleBindings;
+            if (idle != null) {
+                bindings.remove(INPUT);
+                // the binding is dropped if the pool is already full
+                idle.offer(bindings);
+            }
+        }
+    }
 }
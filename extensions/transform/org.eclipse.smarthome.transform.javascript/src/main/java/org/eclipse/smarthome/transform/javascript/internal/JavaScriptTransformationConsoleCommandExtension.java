@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.javascript.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console command extension to show the execution statistics of the JavaScript transformations.
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+public class JavaScriptTransformationConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+    private static final String SUBCMD_RESET = "reset";
+
+    private JavaScriptEngineManager manager;
+
+    public JavaScriptTransformationConsoleCommandExtension() {
+        super("jstransform", "Show the execution statistics of the JavaScript transformations.");
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_STATS:
+                    printStatistics(console);
+                    return;
+                case SUBCMD_RESET:
+                    manager.resetStatistics();
+                    console.println("Statistics have been reset.");
+                    return;
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    return;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        console.println(String.format("%-40s %10s %8s %10s %10s %12s", "Script", "Count", "Failed", "Avg ms",
+                "Max ms", "Total ms"));
+        for (Entry<String, ScriptStatistics> entry : manager.getStatistics().entrySet()) {
+            ScriptStatistics statistics = entry.getValue();
+            console.println(String.format("%-40s %10d %8d %10.3f %10.3f %12.3f", entry.getKey(),
+                    statistics.getExecutions(), statistics.getFailures(), statistics.getAverageMillis(),
+                    statistics.getMaxMillis(), statistics.getTotalMillis()));
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(new String[] {
+                buildCommandUsage(SUBCMD_STATS, "lists the execution count and latency of each JavaScript file"),
+                buildCommandUsage(SUBCMD_RESET, "resets the execution statistics") });
+    }
+
+    @Reference
+    protected void setJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = manager;
+    }
+
+    protected void unsetJavaScriptEngineManager(JavaScriptEngineManager manager) {
+        this.manager = null;
+    }
+
+}
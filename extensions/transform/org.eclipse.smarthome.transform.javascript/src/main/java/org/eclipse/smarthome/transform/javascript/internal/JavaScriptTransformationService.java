@@ -12,9 +12,8 @@
  */
 package org.eclipse.smarthome.transform.javascript.internal;
 
-import javax.script.Bindings;
-import javax.script.CompiledScript;
-import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -71,16 +70,39 @@ public class JavaScriptTransformationService implements TransformationService {
         String result = "";
 
         try {
-            final CompiledScript cScript = manager.getScript(filename);
-            final Bindings bindings = cScript.getEngine().createBindings();
-            bindings.put("input", source);
-            result = String.valueOf(cScript.eval(bindings));
+            result = String.valueOf(manager.eval(filename, source));
             return result;
-        } catch (ScriptException e) {
-            throw new TransformationException("An error occurred while executing script. " + e.getMessage(), e);
         } finally {
             logger.trace("JavaScript execution elapsed {} ms. Result: {}", System.currentTimeMillis() - startTime,
                     result);
         }
     }
+
+    /**
+     * Transforms all inputs by the same Java Script. The script is looked up only once for the whole batch. An input
+     * whose evaluation fails, or whose script result is <code>null</code>, has a <code>null</code> result.
+     *
+     * @param filename the name of the file which contains the Java script transformation rule
+     * @param sources the inputs to transform
+     */
+    @Override
+    public List<@Nullable String> transformAll(String filename, List<String> sources) throws TransformationException {
+        if (filename == null || sources == null) {
+            throw new TransformationException("the given parameters 'filename' and 'sources' must not be null");
+        }
+
+        final long startTime = System.currentTimeMillis();
+        logger.debug("about to transform {} inputs by the JavaScript '{}'", sources.size(), filename);
+
+        final List<@Nullable String> results = new ArrayList<>(sources.size());
+        try {
+            for (Object result : manager.eval(filename, sources)) {
+                results.add(result == null ? null : String.valueOf(result));
+            }
+            return results;
+        } finally {
+            logger.trace("JavaScript execution of {} inputs elapsed {} ms. Results: {}", sources.size(),
+                    System.currentTimeMillis() - startTime, results);
+        }
+    }
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2014,2019 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.eclipse.smarthome.transform.javascript.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Lock free execution statistics of a single JavaScript transformation.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScriptStatistics {
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long durationNanos, boolean failed) {
+        executions.increment();
+        if (failed) {
+            failures.increment();
+        }
+        totalNanos.add(durationNanos);
+        maxNanos.accumulateAndGet(durationNanos, Math::max);
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public double getAverageMillis() {
+        long count = getExecutions();
+        return count == 0 ? 0 : totalNanos.sum() / 1_000_000d / count;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000d;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1_000_000d;
+    }
+
+}
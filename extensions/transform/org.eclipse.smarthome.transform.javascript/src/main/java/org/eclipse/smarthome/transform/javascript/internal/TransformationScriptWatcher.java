@@ -68,7 +68,6 @@ public class TransformationScriptWatcher extends AbstractWatchService {
         return new Kind<?>[] { ENTRY_DELETE, ENTRY_MODIFY };
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     protected void processWatchEvent(WatchEvent<?> event, Kind<?> kind, Path path) {
         logger.debug("New watch event {} for path {}.", kind, path);
@@ -77,11 +76,7 @@ public class TransformationScriptWatcher extends AbstractWatchService {
             return;
         }
 
-        final WatchEvent<Path> ev = (WatchEvent<Path>) event;
-        final Path filename = ev.context();
-
-        logger.debug("Reloading javascript file {}.", filename);
-
-        manager.removeFromCache(filename.toString());
+        // only scripts loaded from the changed file are evicted, other cached scripts keep their warm contexts
+        manager.removeFromCache(path);
     }
 }
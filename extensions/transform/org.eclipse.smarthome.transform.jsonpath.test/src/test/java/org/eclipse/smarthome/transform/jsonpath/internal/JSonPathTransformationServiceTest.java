@@ -12,13 +12,19 @@
  */
 package org.eclipse.smarthome.transform.jsonpath.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.jayway.jsonpath.JsonPath;
+
 /**
  * @author Gaël L'hopital
  */
@@ -98,4 +104,76 @@ public class JSonPathTransformationServiceTest {
         assertEquals("NULL", transformedResponse);
     }
 
+    @Test
+    public void testTransformReusesCompiledPath() throws TransformationException {
+        final String path = "$.*[?(@.name=='bob')].id";
+        assertEquals("1", processor.transform(path, jsonArray));
+        JsonPath compiled = processor.paths.get(path);
+        assertNotNull(compiled);
+
+        assertEquals("1", processor.transform(path, jsonArray));
+        assertSame(compiled, processor.paths.get(path));
+    }
+
+    @Test
+    public void testTransformEvictsLeastRecentlyUsedPath() throws TransformationException {
+        for (int i = 0; i <= JSonPathTransformationService.CACHE_SIZE; i++) {
+            processor.transform("$[0].name" + i, "[{ \"name" + i + "\": \"bob\" }]");
+        }
+
+        assertEquals(JSonPathTransformationService.CACHE_SIZE, processor.paths.size());
+        assertNull(processor.paths.get("$[0].name0"));
+        assertNotNull(processor.paths.get("$[0].name" + JSonPathTransformationService.CACHE_SIZE));
+    }
+
+    @Test
+    public void testTransformEach() throws TransformationException {
+        List<String> results = processor.transformEach(Arrays.asList("$[0].name", "$[1].id", "$[5].id", "$[0].empty"),
+                jsonArray);
+        assertEquals(Arrays.asList("bob", "2", null, null), results);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformEachAllPathsFail() throws TransformationException {
+        processor.transformEach(Arrays.asList("$[5].id", "$[6].id"), jsonArray);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformEachInvalidJson() throws TransformationException {
+        processor.transformEach(Arrays.asList("$", "$.id"), "{id:");
+    }
+
+    @Test
+    public void testTransformReusesParsedSource() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("8.95", processor.transform("$.price", "{ \"price\": 8.95 }"));
+        assertEquals("2", processor.transform("$[1].id", jsonArray));
+    }
+
+    @Test
+    public void testTransformEachParsesSourceOnce() throws TransformationException {
+        final int values = 20;
+        List<String> paths = new ArrayList<>(values);
+        StringBuilder json = new StringBuilder("{ \"sensors\": {");
+        for (int v = 0; v < values; v++) {
+            paths.add("$.sensors.value" + v);
+            json.append(v == 0 ? "" : ",").append(" \"value").append(v).append("\": ").append(v);
+        }
+        final String payload = json.append(" } }").toString();
+
+        List<String> results = processor.transformEach(paths, payload);
+        for (int v = 0; v < values; v++) {
+            assertEquals(String.valueOf(v), results.get(v));
+        }
+        Object document = processor.lastDocument.document;
+
+        // A single transformation of the same payload, e.g. by a profile, reuses the parsed document
+        assertEquals("7", processor.transform(paths.get(7), payload));
+        assertSame(document, processor.lastDocument.document);
+
+        assertEquals("1", processor.transform(paths.get(0), payload.replace(": 0", ": 1")));
+        assertNotSame(document, processor.lastDocument.document);
+    }
+
 }
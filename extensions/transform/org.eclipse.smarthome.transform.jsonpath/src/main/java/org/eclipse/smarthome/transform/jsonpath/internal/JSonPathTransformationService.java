@@ -12,10 +12,12 @@
  */
 package org.eclipse.smarthome.transform.jsonpath.internal;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.cache.LRUCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.UnDefType;
@@ -23,6 +25,7 @@ import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
 import com.jayway.jsonpath.JsonPath;
@@ -40,8 +43,19 @@ import com.jayway.jsonpath.PathNotFoundException;
 @Component(immediate = true, property = { "smarthome.transform=JSONPATH" })
 public class JSonPathTransformationService implements TransformationService {
 
+    static final int CACHE_SIZE = 200;
+
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    /** Compiled paths. A {@link JsonPath} is immutable and can be shared. */
+    final LRUCache<String, JsonPath> paths = new LRUCache<>(CACHE_SIZE);
+
+    /**
+     * The most recently parsed source. Extracting several values from the same JSON document, e.g. by several
+     * profiles linked to the same channel, parses the document only once.
+     */
+    volatile @Nullable ParsedDocument lastDocument;
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -59,15 +73,7 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
-            logger.debug("transformation resulted in '{}'", transformationResult);
-            if (transformationResult == null) {
-                return null;
-            } else if (transformationResult instanceof List) {
-                return flattenList((List<?>) transformationResult);
-            } else {
-                return transformationResult.toString();
-            }
+            return read(jsonPathExpression, parse(source));
         } catch (PathNotFoundException e) {
             throw new TransformationException("Invalid path '" + jsonPathExpression + "' in '" + source + "'");
         } catch (InvalidPathException | InvalidJsonException e) {
@@ -75,6 +81,65 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Parses the JSON <code>source</code> once and applies each of the given JsonPath expressions to it.
+     */
+    @Override
+    public List<@Nullable String> transformEach(List<String> jsonPathExpressions, String source)
+            throws TransformationException {
+        Object document;
+        try {
+            document = parse(source);
+        } catch (InvalidJsonException e) {
+            throw new TransformationException("An error occurred while transforming JSON expression.", e);
+        }
+
+        List<@Nullable String> results = new ArrayList<>(jsonPathExpressions.size());
+        TransformationException failure = null;
+        int failed = 0;
+        for (String jsonPathExpression : jsonPathExpressions) {
+            try {
+                results.add(read(jsonPathExpression, document));
+            } catch (InvalidPathException e) {
+                logger.warn("JsonPath expression '{}' could not be applied: {}", jsonPathExpression, e.getMessage());
+                if (failure == null) {
+                    failure = new TransformationException("Invalid path '" + jsonPathExpression + "'", e);
+                }
+                failed++;
+                results.add(null);
+            }
+        }
+        if (failure != null && failed == jsonPathExpressions.size()) {
+            throw failure;
+        }
+        return results;
+    }
+
+    private Object parse(String source) {
+        ParsedDocument parsed = lastDocument;
+        if (parsed == null || !parsed.source.equals(source)) {
+            parsed = new ParsedDocument(source, Configuration.defaultConfiguration().jsonProvider().parse(source));
+            lastDocument = parsed;
+        }
+        return parsed.document;
+    }
+
+    private @Nullable String read(String jsonPathExpression, Object document) {
+        Object transformationResult = compile(jsonPathExpression).read(document);
+        logger.debug("transformation resulted in '{}'", transformationResult);
+        if (transformationResult == null) {
+            return null;
+        } else if (transformationResult instanceof List) {
+            return flattenList((List<?>) transformationResult);
+        } else {
+            return transformationResult.toString();
+        }
+    }
+
+    private JsonPath compile(String jsonPathExpression) {
+        return paths.computeIfAbsent(jsonPathExpression, JsonPath::compile);
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -87,4 +152,17 @@ public class JSonPathTransformationService implements TransformationService {
         return UnDefType.NULL.toFullString();
     }
 
+    /**
+     * A parsed JSON document together with its source. The parsed document is only read and can be shared.
+     */
+    static class ParsedDocument {
+        final String source;
+        final Object document;
+
+        ParsedDocument(String source, Object document) {
+            this.source = source;
+            this.document = document;
+        }
+    }
+
 }
@@ -12,7 +12,9 @@
  */
 package org.eclipse.smarthome.transform.regex.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
@@ -78,4 +80,31 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_reusesCompiledPattern() throws TransformationException {
+        final String regex = ".*?<current_conditions>.*?<temp_c data=\"(.*?)\".*";
+        assertEquals("8", processor.transform(regex, source));
+        Pattern pattern = processor.extractPatterns.get(regex);
+        assertNotNull(pattern);
+
+        assertEquals("8", processor.transform(regex, source));
+        assertSame(pattern, processor.extractPatterns.get(regex));
+    }
+
+    @Test
+    public void testTransformByRegex_evictsLeastRecentlyUsedPattern() throws TransformationException {
+        for (int i = 0; i <= RegExTransformationService.CACHE_SIZE; i++) {
+            processor.transform("value(" + i + ")", "value" + i);
+        }
+
+        assertEquals(RegExTransformationService.CACHE_SIZE, processor.extractPatterns.size());
+        assertNull(processor.extractPatterns.get("value(0)"));
+        assertNotNull(processor.extractPatterns.get("value(" + RegExTransformationService.CACHE_SIZE + ")"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformByRegex_invalidRegex() throws TransformationException {
+        processor.transform("(.*", source);
+    }
 }
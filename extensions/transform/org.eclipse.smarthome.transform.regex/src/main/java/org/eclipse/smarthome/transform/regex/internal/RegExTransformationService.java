@@ -14,9 +14,11 @@ package org.eclipse.smarthome.transform.regex.internal;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.cache.LRUCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
@@ -40,6 +42,13 @@ public class RegExTransformationService implements TransformationService {
 
     private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    static final int CACHE_SIZE = 200;
+
+    /** Compiled patterns of the extraction form, keyed by the given regular expression */
+    final LRUCache<String, Pattern> extractPatterns = new LRUCache<>(CACHE_SIZE);
+    /** Compiled patterns of the substitution form, keyed by the regular expression part */
+    final LRUCache<String, Pattern> substitutionPatterns = new LRUCache<>(CACHE_SIZE);
+
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
         if (regExpression == null || source == null) {
@@ -56,17 +65,19 @@ public class RegExTransformationService implements TransformationService {
             String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Matcher matcher = compile(substitutionPatterns, regex, regex, 0).matcher(source.trim());
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = matcher.replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = matcher.replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = compile(extractPatterns, regExpression, "^" + regExpression + "$", Pattern.DOTALL)
+                .matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -95,4 +106,13 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    private Pattern compile(LRUCache<String, Pattern> cache, String key, String regex, int flags)
+            throws TransformationException {
+        try {
+            return cache.computeIfAbsent(key, k -> Pattern.compile(regex, flags));
+        } catch (PatternSyntaxException e) {
+            throw new TransformationException("the given regular expression '" + regex + "' is invalid", e);
+        }
+    }
+
 }
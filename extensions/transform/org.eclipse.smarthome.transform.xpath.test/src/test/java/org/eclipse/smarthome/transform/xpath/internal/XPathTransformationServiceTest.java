@@ -12,11 +12,18 @@
  */
 package org.eclipse.smarthome.transform.xpath.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.xpath.XPathExpression;
 
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
+import org.w3c.dom.Document;
 
 /**
  * @author Thomas.Eichstaedt-Engelen
@@ -40,4 +47,75 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformReusesCompiledExpression() throws TransformationException {
+        final String expression = "//current_conditions/temp_c/@data";
+        assertEquals("8", processor.transform(expression, source));
+        XPathExpression compiled = processor.expressions.get(expression);
+        assertNotNull(compiled);
+
+        assertEquals("8", processor.transform(expression, source));
+        assertSame(compiled, processor.expressions.get(expression));
+    }
+
+    @Test
+    public void testTransformEvictsLeastRecentlyUsedExpression() throws TransformationException {
+        for (int i = 0; i <= XPathTransformationService.CACHE_SIZE; i++) {
+            assertEquals(String.valueOf(i), processor.transform("string(" + i + ")", source));
+        }
+
+        assertEquals(XPathTransformationService.CACHE_SIZE, processor.expressions.size());
+        assertNull(processor.expressions.get("string(0)"));
+        assertNotNull(processor.expressions.get("string(" + XPathTransformationService.CACHE_SIZE + ")"));
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformInvalidExpression() throws TransformationException {
+        processor.transform("//[", source);
+    }
+
+    @Test
+    public void testTransformEach() throws TransformationException {
+        List<String> results = processor.transformEach(Arrays.asList("//current_conditions/temp_c/@data",
+                "//current_conditions/temp_f/@data", "//current_conditions/nothing/@data"), source);
+        assertEquals(Arrays.asList("8", "46", ""), results);
+    }
+
+    @Test
+    public void testTransformEachInvalidExpression() throws TransformationException {
+        List<String> results = processor.transformEach(Arrays.asList("//current_conditions/temp_c/@data", "//["),
+                source);
+        assertEquals(Arrays.asList("8", null), results);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformEachInvalidXml() throws TransformationException {
+        processor.transformEach(Arrays.asList("/a", "/b"), "<a>");
+    }
+
+    @Test
+    public void testTransformEachParsesSourceOnce() throws TransformationException {
+        final int values = 20;
+        List<String> expressions = new ArrayList<>(values);
+        StringBuilder xml = new StringBuilder("<sensors>");
+        for (int v = 0; v < values; v++) {
+            expressions.add("/sensors/value" + v);
+            xml.append("<value").append(v).append('>').append(v).append("</value").append(v).append('>');
+        }
+        final String payload = xml.append("</sensors>").toString();
+
+        List<String> results = processor.transformEach(expressions, payload);
+        for (int v = 0; v < values; v++) {
+            assertEquals(String.valueOf(v), results.get(v));
+        }
+        Document document = processor.lastDocument.document;
+
+        // A single transformation of the same payload, e.g. by a profile, reuses the parsed document
+        assertEquals("7", processor.transform(expressions.get(7), payload));
+        assertSame(document, processor.lastDocument.document);
+
+        assertEquals("1", processor.transform(expressions.get(0), payload.replace("<value0>0", "<value0>1")));
+        assertNotSame(document, processor.lastDocument.document);
+    }
+
 }
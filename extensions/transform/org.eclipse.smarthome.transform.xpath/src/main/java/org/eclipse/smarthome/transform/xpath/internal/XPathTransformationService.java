@@ -13,16 +13,21 @@
 package org.eclipse.smarthome.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.cache.LRUCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.osgi.service.component.annotations.Component;
@@ -41,8 +46,36 @@ import org.xml.sax.InputSource;
 @Component(immediate = true, property = { "smarthome.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    static final int CACHE_SIZE = 200;
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    /**
+     * Compiled expressions. An {@link XPathExpression} is not thread-safe, so evaluations synchronize on the
+     * expression.
+     */
+    final LRUCache<String, XPathExpression> expressions = new LRUCache<>(CACHE_SIZE);
+
+    // Neither the parser nor the XPath compiler are thread-safe, but both can be reused after a reset
+    private final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private final ThreadLocal<XPath> xpaths = ThreadLocal.withInitial(() -> XPathFactory.newInstance().newXPath());
+
+    /**
+     * The most recently parsed source. Extracting several values from the same XML document, e.g. by several
+     * profiles linked to the same channel, parses the document only once. A DOM is not thread-safe even for reads,
+     * so evaluations synchronize on the document.
+     */
+    volatile @Nullable ParsedDocument lastDocument;
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,34 +84,109 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
+        try {
+            return evaluate(xpathExpression, parse(source));
+        } catch (Exception e) {
+            throw new TransformationException("transformation throws exceptions", e);
+        }
+    }
 
+    /**
+     * Parses the XML <code>source</code> once and applies each of the given XPath expressions to it.
+     */
+    @Override
+    public List<@Nullable String> transformEach(List<String> xpathExpressions, String source)
+            throws TransformationException {
+        Document doc;
         try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
+            doc = parse(source);
+        } catch (Exception e) {
+            throw new TransformationException("transformation throws exceptions", e);
+        }
 
-            stringReader = new StringReader(source);
+        List<@Nullable String> results = new ArrayList<>(xpathExpressions.size());
+        TransformationException failure = null;
+        int failed = 0;
+        for (String xpathExpression : xpathExpressions) {
+            try {
+                results.add(evaluate(xpathExpression, doc));
+            } catch (XPathExpressionException e) {
+                logger.warn("XPath expression '{}' could not be applied: {}", xpathExpression, e.getMessage());
+                if (failure == null) {
+                    failure = new TransformationException("transformation throws exceptions", e);
+                }
+                failed++;
+                results.add(null);
+            }
+        }
+        if (failure != null && failed == xpathExpressions.size()) {
+            throw failure;
+        }
+        return results;
+    }
+
+    private Document parse(String source) throws Exception {
+        ParsedDocument parsed = lastDocument;
+        if (parsed != null && parsed.source.equals(source)) {
+            return parsed.document;
+        }
+
+        try (StringReader stringReader = new StringReader(source)) {
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
+            DocumentBuilder builder = documentBuilders.get();
+            builder.reset();
             Document doc = builder.parse(inputSource);
+            lastDocument = new ParsedDocument(source, doc);
+            return doc;
+        }
+    }
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+    private String evaluate(String xpathExpression, Document doc) throws XPathExpressionException {
+        XPathExpression expr = compile(xpathExpression);
+        String transformationResult;
+        synchronized (expr) {
+            synchronized (doc) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
+        }
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+        logger.debug("transformation resulted in '{}'", transformationResult);
 
-            logger.debug("transformation resulted in '{}'", transformationResult);
+        return transformationResult;
+    }
 
-            return transformationResult;
-        } catch (Exception e) {
-            throw new TransformationException("transformation throws exceptions", e);
-        } finally {
-            if (stringReader != null) {
-                stringReader.close();
+    private XPathExpression compile(String xpathExpression) throws XPathExpressionException {
+        try {
+            return expressions.computeIfAbsent(xpathExpression, expression -> {
+                XPath xpath = xpaths.get();
+                xpath.reset();
+                try {
+                    return xpath.compile(expression);
+                } catch (XPathExpressionException e) {
+                    // the mapping function must not throw checked exceptions, so it is unwrapped below
+                    throw new IllegalArgumentException(e);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            if (e.getCause() instanceof XPathExpressionException) {
+                throw (XPathExpressionException) e.getCause();
             }
+            throw e;
+        }
+    }
+
+    /**
+     * A parsed XML document together with its source.
+     */
+    static class ParsedDocument {
+        final String source;
+        final Document document;
+
+        ParsedDocument(String source, Document document) {
+            this.source = source;
+            this.document = document;
         }
     }
 
@@ -12,9 +12,15 @@
  */
 package org.eclipse.smarthome.transform.xslt.internal;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
+import java.io.File;
+
+import javax.xml.transform.Templates;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
+import org.eclipse.smarthome.core.transform.TransformationService;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -23,6 +29,8 @@ import org.junit.Test;
  */
 public class XsltTransformationServiceTest extends AbstractTransformationServiceTest {
 
+    private static final String FILENAME = "http/google_weather.xsl";
+
     private XsltTransformationService processor;
 
     @Before
@@ -34,10 +42,55 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     public void testTransformByXSLT() throws TransformationException {
 
         // method under test
-        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+        String transformedResponse = processor.transform(FILENAME, source);
 
         // Asserts
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXSLT_reusesCompiledStylesheet() throws TransformationException {
+        assertEquals("8", processor.transform(FILENAME, source));
+        Templates templates = processor.stylesheets.get(cacheKey(stylesheetFile()));
+        assertNotNull(templates);
+
+        assertEquals("8", processor.transform(FILENAME, source));
+        assertEquals(1, processor.stylesheets.size());
+        assertSame(templates, processor.stylesheets.get(cacheKey(stylesheetFile())));
+    }
+
+    @Test
+    public void testTransformByXSLT_recompilesModifiedStylesheet() throws TransformationException {
+        File file = stylesheetFile();
+        long lastModified = file.lastModified();
+        try {
+            assertEquals("8", processor.transform(FILENAME, source));
+            Templates templates = processor.stylesheets.get(cacheKey(file));
+            assertNotNull(templates);
+
+            assertTrue(file.setLastModified(lastModified + 2000));
+            assertEquals("8", processor.transform(FILENAME, source));
+
+            Templates recompiled = processor.stylesheets.get(cacheKey(file));
+            assertNotNull(recompiled);
+            assertNotSame(templates, recompiled);
+        } finally {
+            file.setLastModified(lastModified);
+        }
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTransformByXSLT_missingStylesheet() throws TransformationException {
+        processor.transform("http/missing.xsl", source);
+    }
+
+    private File stylesheetFile() {
+        return new File(ConfigConstants.getConfigFolder() + File.separator
+                + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + FILENAME);
+    }
+
+    private String cacheKey(File file) {
+        return file.lastModified() + ":" + file.getPath();
+    }
+
 }
@@ -16,14 +16,16 @@ import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.cache.LRUCache;
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
@@ -41,8 +43,18 @@ import org.slf4j.LoggerFactory;
 @Component(immediate = true, property = { "smarthome.transform=XSLT" })
 public class XsltTransformationService implements TransformationService {
 
+    static final int CACHE_SIZE = 50;
+
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /**
+     * Compiled stylesheets, keyed by the modification time and the path of the file. {@link Templates} are
+     * thread-safe and can be shared.
+     */
+    final LRUCache<String, Templates> stylesheets = new LRUCache<>(CACHE_SIZE);
+
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,28 +72,16 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        String path = ConfigConstants.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
+                + File.separator + filename;
 
-        try {
-            String path = ConfigConstants.getConfigFolder() + File.separator
-                    + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
-        } catch (Exception e) {
-            String message = "opening file '" + filename + "' throws exception";
-
-            logger.error("{}", message, e);
-            throw new TransformationException(message, e);
-        }
-
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, path);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
 
-        Transformer transformer;
-
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            Transformer transformer = getTemplates(path).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -93,4 +93,22 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    /**
+     * Returns the compiled stylesheet of the given file. The stylesheet is compiled again, if the file has been
+     * modified since, the entry of the previous version is evicted from the cache eventually.
+     */
+    private Templates getTemplates(String path) {
+        File file = new File(path);
+        return stylesheets.computeIfAbsent(file.lastModified() + ":" + path, key -> {
+            // The factory is not guaranteed to be thread-safe
+            synchronized (transformerFactory) {
+                try {
+                    return transformerFactory.newTemplates(new StreamSource(file));
+                } catch (TransformerConfigurationException e) {
+                    throw new IllegalArgumentException("stylesheet '" + path + "' could not be compiled", e);
+                }
+            }
+        });
+    }
+
 }